@@ -931,9 +931,9 @@ public class CoapProtocol extends AsyncCommProtocol
 	private Value byteBufToValue( ByteBuf in, Type type, String format, Charset charset, boolean jsonEncoding )
 		throws TypeCastingException
 	{
-		ByteBuf byteBuf = Unpooled.copiedBuffer( in );
+		ByteBuf byteBuf = in.duplicate();
 		Value value = Value.create();
-		String message = Unpooled.copiedBuffer( byteBuf ).toString( charset );
+		String message = in.toString( charset );
 
 		try {
 			if ( message.length() > 0 ) {
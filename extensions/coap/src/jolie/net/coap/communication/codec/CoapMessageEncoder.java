@@ -23,7 +23,6 @@
 package jolie.net.coap.communication.codec;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import java.util.List;
@@ -49,20 +48,20 @@ public class CoapMessageEncoder extends MessageToMessageEncoder<CoapMessage>
 	protected void encode( ChannelHandlerContext ctx, CoapMessage in,
 		List<Object> out ) throws Exception
 	{
+		ByteBuf msg = ctx.alloc().buffer();
 		try {
-			ByteBuf msg = this.internal_encode( in );
+			this.internal_encode( msg, in );
 			out.add( msg );
 		} catch( OptionCodecException ex ) {
+			msg.release();
 			ctx.fireExceptionCaught( ex );
 		}
 	}
 
-	private ByteBuf internal_encode( CoapMessage coapMessage )
+	private ByteBuf internal_encode( ByteBuf msg, CoapMessage coapMessage )
 		throws OptionCodecException
 	{
 
-		ByteBuf msg = Unpooled.buffer();
-
 		//write encoded header
 		byte[] token = coapMessage.token().getBytes();
 		int encodedHeader = ((coapMessage.getProtocolVersion() & 0x03) << 30)
@@ -94,7 +93,8 @@ public class CoapMessageEncoder extends MessageToMessageEncoder<CoapMessage>
 		//write encoded setContent
 		if ( coapMessage.getContent().readableBytes() > 0 ) {
 			msg.writeByte( 255 );
-			msg.writeBytes( Unpooled.wrappedBuffer( coapMessage.getContent() ) );
+			ByteBuf content = coapMessage.getContent();
+			msg.writeBytes( content, content.readerIndex(), content.readableBytes() );
 		}
 
 		return msg;
@@ -24,19 +24,23 @@ package jolie.net.coap.communication.timeout;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import jolie.Interpreter;
 import jolie.net.CommMessage;
+import jolie.net.ExecutionContextHandler;
 
 public class CoapMessageReadTimeoutHandler extends ReadTimeoutHandler
 {
 	private boolean closed;
 	private final CommMessage request;
 	private final int timeout;
+	private final Interpreter interpreter;
 
 	public CoapMessageReadTimeoutHandler( int timeout, CommMessage in )
 	{
 		super( timeout );
 		this.timeout = timeout;
 		this.request = in;
+		this.interpreter = Interpreter.getInstance();
 	}
 
 	public CommMessage getRequest()
@@ -53,6 +57,8 @@ public class CoapMessageReadTimeoutHandler extends ReadTimeoutHandler
 	protected void readTimedOut( ChannelHandlerContext ctx ) throws Exception
 	{
 		if ( !closed ) {
+			// the timeout is a scheduled task of the (shared) event loop
+			ExecutionContextHandler.bind( interpreter );
 			ctx.fireExceptionCaught( new CoapMessageReadTimeoutException( request.id(), timeout ) );
 			ctx.close();
 			closed = true;
@@ -28,20 +28,16 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.DatagramPacket;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import jolie.Interpreter;
 import jolie.net.ports.InputPort;
 import jolie.net.ports.OutputPort;
 import jolie.net.ports.Port;
@@ -53,7 +49,6 @@ public class DatagramCommChannel extends StreamingCommChannel
 	public final static String CHANNEL_HANDLER_NAME = "STREAMING-CHANNEL-HANDLER";
 
 	private Bootstrap bootstrap;
-	protected CompletableFuture<CommMessage> waitingForMsg = null;
 	protected StreamingCommChannelHandler commChannelHandler;
 	private ChannelPipeline pipeline;
 
@@ -67,22 +62,26 @@ public class DatagramCommChannel extends StreamingCommChannel
 	 *
 	 * @param location
 	 * @param protocol
-	 * @param workerGroup
+	 * @param resources the event loops and allocator of the channel
 	 * @param port
 	 * @return
 	 */
-	public static DatagramCommChannel createChannel( URI location, AsyncCommProtocol protocol, EventLoopGroup workerGroup, Port port )
+	public static DatagramCommChannel createChannel( URI location, AsyncCommProtocol protocol, CommResources resources, Port port )
 	{
+		final Interpreter interpreter = Interpreter.getInstance();
 		DatagramCommChannel channel = new DatagramCommChannel( location, protocol );
 		channel.bootstrap = new Bootstrap();
-		channel.bootstrap.group( workerGroup )
-			.channel( NioDatagramChannel.class )
+		channel.bootstrap.group( resources.workerGroup() )
+			.channel( resources.transport().datagramChannelClass() )
+			.option( ChannelOption.ALLOCATOR, resources.allocator() )
 			.handler( new ChannelInitializer()
 			{
 				@Override
 				protected void initChannel( Channel ch ) throws Exception
 				{
+					ExecutionContextHandler.bind( interpreter );
 					ChannelPipeline p = ch.pipeline();
+					p.addLast( ExecutionContextHandler.NAME, interpreter.commCore().executionContextHandler() );
 					channel.setChannelPipeline( p );
 					if ( port instanceof InputPort ) {
 						channel.setParentInputPort( (InputPort) port );
@@ -104,7 +103,7 @@ public class DatagramCommChannel extends StreamingCommChannel
 						@Override
 						protected void encode( ChannelHandlerContext ctx, ByteBuf msg, List<Object> out ) throws Exception
 						{
-							out.add( new DatagramPacket( Unpooled.copiedBuffer( (ByteBuf) msg ), new InetSocketAddress( location.getHost(), location.getPort() ) ) );
+							out.add( new DatagramPacket( msg.retain(), new InetSocketAddress( location.getHost(), location.getPort() ) ) );
 						}
 
 					} );
@@ -149,37 +148,14 @@ public class DatagramCommChannel extends StreamingCommChannel
 	protected CommMessage recvImpl() throws IOException
 	{
 		// This is blocking to integrate with existing CommCore and ExecutionThreads.
-		try {
-			if ( waitingForMsg != null ) {
-				throw new UnsupportedOperationException( "Waiting for multiple messages is currently not supported!" );
-			}
-			waitingForMsg = new CompletableFuture<>();
-			CommMessage msg = waitingForMsg.get();
-			waitingForMsg = null;
-			return msg;
-		} catch( InterruptedException | ExecutionException ex ) {
-			Logger.getLogger( NioSocketCommChannel.class.getName() ).log( Level.SEVERE, null, ex );
-		}
-		return null;
-	}
-
-	protected void completeRead( CommMessage message )
-	{
-		while( waitingForMsg == null ) {
-			// spinlock
-		}
-		if ( waitingForMsg == null ) {
-			throw new IllegalStateException( "No pending read to complete!" );
-		} else {
-			waitingForMsg.complete( message );
-		}
+		return takeReceivedMessage();
 	}
 
 	@Override
 	protected void sendImpl( CommMessage message ) throws IOException
 	{
 		try {
-			commChannelHandler.write( message ).sync();
+			awaitCompletion( commChannelHandler.write( message ) );
 		} catch( InterruptedException ex ) {
 			throw new IOException( ex );
 		}
@@ -188,11 +164,7 @@ public class DatagramCommChannel extends StreamingCommChannel
 	@Override
 	protected void closeImpl() throws IOException
 	{
-		try {
-			commChannelHandler.close().sync();
-		} catch( InterruptedException ex ) {
-			throw new IOException( ex );
-		}
+		awaitCompletion( commChannelHandler.close() );
 	}
 
 	/**
@@ -21,8 +21,6 @@
  *******************************************************************************/
 package jolie.net;
 
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -36,14 +34,11 @@ import jolie.net.protocols.CommProtocol;
 public class DatagramCommChannelFactory extends CommChannelFactory
 {
 
-	private final EventLoopGroup workerGroup;
 	private CommProtocol protocol;
 
 	public DatagramCommChannelFactory( CommCore commCore )
 	{
 		super( commCore );
-		this.workerGroup = new NioEventLoopGroup( 4,
-			commCore.getNewExecutionContextThreadFactory() );
 	}
 
 	@Override
@@ -58,7 +53,7 @@ public class DatagramCommChannelFactory extends CommChannelFactory
 		}
 
 		DatagramCommChannel channel = DatagramCommChannel.createChannel(
-			location, (AsyncCommProtocol) protocol, workerGroup, port );
+			location, (AsyncCommProtocol) protocol, commCore().resources(), port );
 
 		try {
 			channel.connect( location ).sync();
@@ -75,7 +70,7 @@ public class DatagramCommChannelFactory extends CommChannelFactory
 	{
 
 		DatagramCommChannel channel = DatagramCommChannel.createChannel(
-			location, (AsyncCommProtocol) protocol, workerGroup, port );
+			location, (AsyncCommProtocol) protocol, commCore().resources(), port );
 
 		try {
 			channel.connect( location ).sync();
@@ -27,8 +27,8 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.EventLoopGroup;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -44,7 +44,7 @@ public class DatagramListener extends CommListener
 
 	private final int inboundPort;
 	private final String inboundAddress;
-	private final EventLoopGroup workerGroup;
+	private final CommResources resources;
 	private final ReadWriteLock sendingResponse;
 
 	private Channel serverChannel;
@@ -53,14 +53,14 @@ public class DatagramListener extends CommListener
 		Interpreter interpreter,
 		CommProtocolFactory protocolFactory,
 		InputPort inputPort,
-		EventLoopGroup workerGroup
+		CommResources resources
 	)
 	{
 		super( interpreter, protocolFactory, inputPort );
 		this.sendingResponse = new StampedLock().asReadWriteLock();
 		this.inboundPort = inputPort.location().getPort();
 		this.inboundAddress = inputPort.location().getHost();
-		this.workerGroup = workerGroup;
+		this.resources = resources;
 	}
 
 	@Override
@@ -72,7 +72,7 @@ public class DatagramListener extends CommListener
 				serverChannel.close();
 			}
 		} finally {
-			workerGroup.shutdownGracefully();
+			// the event loops are shared, CommCore releases them
 			sendingResponse.writeLock().unlock();
 		}
 	}
@@ -82,25 +82,29 @@ public class DatagramListener extends CommListener
 	{
 		try {
 			ServerBootstrap bootstrap = new ServerBootstrap()
-				.group( workerGroup )
-				.channel( UdpServerChannel.class )
+				.group( resources.workerGroup() )
+				.channelFactory( () -> new UdpServerChannel( resources.workerGroup(), resources.transport(), resources.transport().acceptors( resources.bossThreads() ) ) )
+				.option( ChannelOption.ALLOCATOR, resources.allocator() )
+				.childOption( ChannelOption.ALLOCATOR, resources.allocator() )
 				.childHandler( new ChannelInitializer<Channel>()
 				{
 					@Override
 					protected void initChannel( Channel ch ) throws Exception
 					{
+						ExecutionContextHandler.bind( interpreter() );
 						CommProtocol protocol = createProtocol();
 						assert (protocol instanceof AsyncCommProtocol);
 						((AsyncCommProtocol) protocol).setInitExecutionThread( interpreter().initThread() );
 
 						InetSocketAddress isa = (InetSocketAddress) ch.remoteAddress();
 						URI location = new URI( "datagram", null, isa.getHostName(), isa.getPort(), null, null, null );
-						DatagramCommChannel channel = DatagramCommChannel.createChannel( location, ((AsyncCommProtocol) protocol), workerGroup, inputPort() );
+						DatagramCommChannel channel = DatagramCommChannel.createChannel( location, ((AsyncCommProtocol) protocol), resources, inputPort() );
 						protocol.setChannel( channel );
 						channel.setParentInputPort( inputPort() );
 						channel.bind( new InetSocketAddress( 0 ) ).sync();
 
 						ChannelPipeline p = ch.pipeline();
+						p.addLast( ExecutionContextHandler.NAME, interpreter().commCore().executionContextHandler() );
 						((AsyncCommProtocol) protocol).setupPipeline( p );
 
 						p.addLast( "COMM MESSAGE INBOUND", channel.commChannelHandler.setChannelLock( sendingResponse ) );
@@ -21,8 +21,6 @@
  *******************************************************************************/
 package jolie.net;
 
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import java.io.IOException;
 import jolie.Interpreter;
 import jolie.net.ext.CommListenerFactory;
@@ -32,14 +30,10 @@ import jolie.net.ports.InputPort;
 public class DatagramListenerFactory extends CommListenerFactory
 {
 
-	protected final EventLoopGroup workerGroup;
-
 	public DatagramListenerFactory( CommCore commCore )
 	{
 
 		super( commCore );
-		this.workerGroup = new NioEventLoopGroup( 4,
-			commCore.getNewExecutionContextThreadFactory() );
 	}
 
 	@Override
@@ -48,6 +42,6 @@ public class DatagramListenerFactory extends CommListenerFactory
 		throws IOException
 	{
 
-		return new DatagramListener( interpreter, protocolFactory, inputPort, workerGroup );
+		return new DatagramListener( interpreter, protocolFactory, inputPort, commCore().resources() );
 	}
 }
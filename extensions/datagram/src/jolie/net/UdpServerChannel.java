@@ -29,22 +29,16 @@ import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.DefaultChannelConfig;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.epoll.Epoll;
-import io.netty.channel.epoll.EpollDatagramChannel;
-import io.netty.channel.epoll.EpollEventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.DatagramPacket;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.channel.unix.UnixChannelOption;
 import io.netty.util.internal.RecyclableArrayList;
-import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.ArrayList;
@@ -56,31 +50,28 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author spz
  */
 //TODO: support switching autoread
-//TODO: add ability to use external event loop group and epoll enablement
 public class UdpServerChannel extends AbstractServerChannel
 {
 
-	protected final EventLoopGroup group;
 	protected final List<Bootstrap> ioBootstraps = new ArrayList<>();
 	protected final List<Channel> ioChannels = new ArrayList<>();
 	protected final ConcurrentHashMap<InetSocketAddress, UdpChannel> userChannels = new ConcurrentHashMap<>();
 
-	public UdpServerChannel() throws IOException
-	{
-		this( 1 );
-	}
-
-	public UdpServerChannel( int ioThreads )
+	/**
+	 * @param group the (shared) event loops of the datagram channels receiving the packets
+	 * @param transport the transport of the event loops
+	 * @param ioThreads the number of datagram channels bound to the local address,
+	 * more than one only with <code>SO_REUSEPORT</code> (epoll transport)
+	 */
+	public UdpServerChannel( EventLoopGroup group, SocketTransport transport, int ioThreads )
 	{
 		if ( ioThreads < 1 ) {
 			throw new IllegalArgumentException( "IO threads cound can't be less than 1" );
 		}
-		boolean epollAvailabe = Epoll.isAvailable();
-		if ( !epollAvailabe ) {
+		final boolean reusePort = transport == SocketTransport.EPOLL;
+		if ( !reusePort ) {
 			ioThreads = 1;
 		}
-		group = epollAvailabe ? new EpollEventLoopGroup( ioThreads ) : new NioEventLoopGroup( ioThreads );
-		Class<? extends DatagramChannel> channel = epollAvailabe ? EpollDatagramChannel.class : NioDatagramChannel.class;
 		ChannelInitializer<Channel> initializer = new ChannelInitializer<Channel>()
 		{
 			final ReadRouteChannelHandler ioReadRoute = new ReadRouteChannelHandler();
@@ -92,8 +83,8 @@ public class UdpServerChannel extends AbstractServerChannel
 			}
 		};
 		while( ioThreads-- > 0 ) {
-			Bootstrap ioBootstrap = new Bootstrap().group( group ).channel( channel ).handler( initializer );
-			if ( epollAvailabe ) {
+			Bootstrap ioBootstrap = new Bootstrap().group( group ).channel( transport.datagramChannelClass() ).handler( initializer );
+			if ( reusePort ) {
 				ioBootstrap.option( UnixChannelOption.SO_REUSEPORT, true );
 			}
 			ioBootstraps.add( ioBootstrap );
@@ -163,7 +154,6 @@ public class UdpServerChannel extends AbstractServerChannel
 		open = false;
 		new ArrayList<>( userChannels.values() ).forEach( Channel::close );
 		ioChannels.forEach( Channel::close );
-		group.shutdownGracefully().sync();
 	}
 
 	@Override
@@ -182,6 +172,7 @@ public class UdpServerChannel extends AbstractServerChannel
 	protected void doBind( SocketAddress local ) throws Exception
 	{
 		for( Bootstrap bootstrap : ioBootstraps ) {
+			bootstrap.option( ChannelOption.ALLOCATOR, config.getAllocator() );
 			ioChannels.add( bootstrap.bind( local ).sync().channel() );
 		}
 		ioBootstraps.clear();
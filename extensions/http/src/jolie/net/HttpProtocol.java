@@ -36,13 +36,13 @@ import io.netty.handler.codec.http.FullHttpMessage;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpClientCodec;
-import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpVersion;
@@ -85,6 +85,8 @@ import javax.xml.transform.stream.StreamResult;
 import jolie.Interpreter;
 import jolie.js.JsUtils;
 import jolie.lang.NativeType;
+import jolie.monitoring.StatisticsRegistry;
+import jolie.net.http.HttpContentCompressionHandler;
 import jolie.net.http.HttpUtils;
 import jolie.net.http.MultiPartFormDataParser;
 import jolie.net.ports.Interface;
@@ -121,6 +123,13 @@ public class HttpProtocol extends AsyncCommProtocol
 	// default content type per RFC 2616#7.2.1
 	private static final AsciiString DEFAULT_CONTENT_TYPE = HttpHeaderValues.APPLICATION_OCTET_STREAM;
 	private static final String DEFAULT_FORMAT = "xml";
+	private static final String DEFAULT_COMPRESSION_TYPES =
+		"text/html text/css text/plain text/xml text/x-js text/x-gwt-rpc application/json "
+		+ "application/javascript application/x-www-form-urlencoded application/xhtml+xml "
+		+ "application/xml";
+	// responses smaller than this (in bytes) do not gain anything from compression
+	private static final int DEFAULT_COMPRESSION_MIN_SIZE = 1024;
+	private static final int DEFAULT_COMPRESSION_LEVEL = 6;
 	private static final Map< Integer, String> statusCodeDescriptions = new HashMap<>();
 	private static final Set< Integer> locationRequiredStatusCodes = new HashSet<>();
 
@@ -202,7 +211,8 @@ public class HttpProtocol extends AsyncCommProtocol
 		boolean inInputPort,
 		TransformerFactory transformerFactory,
 		DocumentBuilderFactory docBuilderFactory,
-		DocumentBuilder docBuilder
+		DocumentBuilder docBuilder,
+		StatisticsRegistry statistics
 	)
 		throws TransformerConfigurationException
 	{
@@ -212,6 +222,7 @@ public class HttpProtocol extends AsyncCommProtocol
 		this.transformer = transformerFactory.newTransformer();
 		this.docBuilderFactory = docBuilderFactory;
 		this.docBuilder = docBuilder;
+		this.statistics = statistics;
 
 		transformer.setOutputProperty( OutputKeys.OMIT_XML_DECLARATION, "yes" );
 		transformer.setOutputProperty( OutputKeys.INDENT, "no" );
@@ -222,7 +233,7 @@ public class HttpProtocol extends AsyncCommProtocol
 	{
 		if ( inInputPort ) {
 			pipeline.addLast( new HttpServerCodec() );
-			pipeline.addLast( new HttpContentCompressor() );
+			pipeline.addLast( new HttpContentCompressionHandler( this::send_getCompressionLevel, statistics ) );
 		} else {
 			pipeline.addLast( new HttpClientCodec() );
 			pipeline.addLast( new HttpContentDecompressor() );
@@ -263,6 +274,8 @@ public class HttpProtocol extends AsyncCommProtocol
 		private static final String CACHE_CONTROL = "cacheControl";
 		private static final String CHARSET = "charset";
 		private static final String COMPRESSION = "compression";
+		private static final String COMPRESSION_LEVEL = "compressionLevel";
+		private static final String COMPRESSION_MIN_SIZE = "compressionMinSize";
 		private static final String COMPRESSION_TYPES = "compressionTypes";
 		private static final String CONCURRENT = "concurrent";
 		private static final String CONTENT_DISPOSITION = "contentDisposition";
@@ -316,6 +329,7 @@ public class HttpProtocol extends AsyncCommProtocol
 	private final DocumentBuilder docBuilder;
 	private final URI uri;
 	private final boolean inInputPort;
+	private final StatisticsRegistry statistics;
 	private MultiPartFormDataParser multiPartFormDataParser = null;
 
 	@Override
@@ -419,14 +433,13 @@ public class HttpProtocol extends AsyncCommProtocol
 		}
 	}
 
-	private String encoding = null;
 	private String responseFormat = null;
 	//private final boolean headRequest = false;
 
 	private static void send_appendQuerystring( Value value, StringBuilder headerBuilder )
 		throws IOException
 	{
-		if ( !value.children().isEmpty() ) {
+		if ( value.hasChildren() ) {
 			headerBuilder.append( '?' );
 			for( Entry< String, ValueVector> entry : value.children().entrySet() ) {
 				for( Value v : entry.getValue() ) {
@@ -886,8 +899,7 @@ public class HttpProtocol extends AsyncCommProtocol
 		if ( checkBooleanParameter( Parameters.COMPRESSION, false ) ) {
 			String requestCompression = getStringParameter( Parameters.REQUEST_COMPRESSION );
 			if ( requestCompression.equals( "gzip" ) || requestCompression.equals( "deflate" ) ) {
-				encoding = requestCompression;
-				headers.add( HttpHeaderNames.ACCEPT_ENCODING, encoding );
+				headers.add( HttpHeaderNames.ACCEPT_ENCODING, requestCompression );
 			} else {
 				headers.add( HttpHeaderNames.ACCEPT_ENCODING, "gzip, deflate" );
 			}
@@ -935,32 +947,62 @@ public class HttpProtocol extends AsyncCommProtocol
 				headers.add( HttpHeaderNames.CONTENT_DISPOSITION, encodedContent.contentDisposition );
 			}
 
-			boolean compression = encoding != null && checkBooleanParameter( Parameters.COMPRESSION, false );
-			String compressionTypes = getStringParameter(
-				Parameters.COMPRESSION_TYPES,
-				"text/html text/css text/plain text/xml text/x-js text/x-gwt-rpc application/json "
-				+ "application/javascript application/x-www-form-urlencoded application/xhtml+xml "
-				+ "application/xml"
-			).toLowerCase();
-			if ( compression && !compressionTypes.equals( "*" ) && !compressionTypes.contains( encodedContent.contentType ) ) {
-				compression = false;
-			}
-			if ( compression ) {
-				//encodedContent.content = HttpUtils.encode( encoding, encodedContent.content, headers );
-				// RFC 7231 section-5.3.4 introduced the "*" (any) option, we opt for gzip as a sane default
-				if ( encoding.contains( "gzip" ) || encoding.contains( "*" ) ) {
-					headers.add( HttpHeaderNames.CONTENT_ENCODING, "gzip" );
-				} else if ( encoding.contains( "deflate" ) ) {
-					headers.add( HttpHeaderNames.CONTENT_ENCODING, "deflate" );
-				}
-			}
-
+			// Content-Encoding is set by the HttpContentCompressionHandler, see send_getCompressionLevel
 			headers.add( HttpHeaderNames.CONTENT_LENGTH, encodedContent.content.size() );
 		} else {
 			headers.add( HttpHeaderNames.CONTENT_LENGTH, 0 );
 		}
 	}
 
+	private Value send_getCompressionParameter( String operationName, String id )
+	{
+		if ( hasOperationSpecificParameter( operationName, id ) ) {
+			return getOperationSpecificParameterFirstValue( operationName, id );
+		} else if ( hasParameter( id ) ) {
+			return getParameterFirstValue( id );
+		}
+		return null;
+	}
+
+	/**
+	 * Compression policy for the responses sent by input ports. Parameters
+	 * compression, compressionMinSize, compressionTypes and compressionLevel
+	 * can be given for the whole port or per operation (osc).
+	 * Only called by the HttpContentCompressionHandler, after the response
+	 * for operation inputId has been built.
+	 */
+	private int send_getCompressionLevel( HttpResponse response )
+	{
+		final String operationName = inputId;
+		Value param = send_getCompressionParameter( operationName, Parameters.COMPRESSION );
+		if ( param != null && !param.boolValue() ) {
+			return -1;
+		}
+
+		param = send_getCompressionParameter( operationName, Parameters.COMPRESSION_MIN_SIZE );
+		final int minSize = param == null ? DEFAULT_COMPRESSION_MIN_SIZE : param.intValue();
+		if ( response.headers().getInt( HttpHeaderNames.CONTENT_LENGTH, 0 ) < minSize ) {
+			return -1;
+		}
+
+		param = send_getCompressionParameter( operationName, Parameters.COMPRESSION_TYPES );
+		final String compressionTypes = param == null ? DEFAULT_COMPRESSION_TYPES : param.strValue().toLowerCase();
+		if ( !compressionTypes.equals( "*" ) ) {
+			String contentType = response.headers().get( HttpHeaderNames.CONTENT_TYPE );
+			if ( contentType == null ) {
+				return -1;
+			}
+			contentType = contentType.split( ";", 2 )[ 0 ].trim().toLowerCase();
+			if ( contentType.isEmpty() || !compressionTypes.contains( contentType ) ) {
+				return -1;
+			}
+		}
+
+		param = send_getCompressionParameter( operationName, Parameters.COMPRESSION_LEVEL );
+		final int level = param == null ? DEFAULT_COMPRESSION_LEVEL : param.intValue();
+		return level > 0 ? level : -1;
+	}
+
 	private void send_logDebugInfo( HttpHeaders headers, EncodedContent encodedContent, String charset )
 		throws IOException
 	{
@@ -1445,8 +1487,6 @@ public class HttpProtocol extends AsyncCommProtocol
 
 		recv_checkForStatusCode( message );
 
-		encoding = message.headers().get( HttpHeaderNames.ACCEPT_ENCODING );
-
 		String contentType = DEFAULT_CONTENT_TYPE.toString();
 		if ( message.headers().contains( HttpHeaderNames.CONTENT_TYPE ) ) {
 			contentType = message.headers().get( HttpHeaderNames.CONTENT_TYPE ).split( ";", 2 )[ 0 ].toLowerCase();
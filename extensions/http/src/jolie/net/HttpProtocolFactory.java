@@ -28,6 +28,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import jolie.net.ext.CommProtocolFactory;
+import jolie.net.http.HttpContentCompressionHandler;
 import jolie.net.protocols.CommProtocol;
 import jolie.runtime.AndJarDeps;
 import jolie.runtime.CanUseJars;
@@ -49,6 +50,7 @@ public class HttpProtocolFactory extends CommProtocolFactory
 		docBuilderFactory.setNamespaceAware( true );
 		docBuilder = docBuilderFactory.newDocumentBuilder();
 		transformerFactory = TransformerFactory.newInstance();
+		HttpContentCompressionHandler.registerGauges( commCore.interpreter().statistics() );
 	}
 
 	@Override
@@ -62,7 +64,8 @@ public class HttpProtocolFactory extends CommProtocolFactory
 				true,
 				transformerFactory,
 				docBuilderFactory,
-				docBuilder
+				docBuilder,
+				commCore().interpreter().statistics()
 			);
 		} catch( TransformerConfigurationException e ) {
 			throw new IOException( e );
@@ -80,7 +83,8 @@ public class HttpProtocolFactory extends CommProtocolFactory
 				false,
 				transformerFactory,
 				docBuilderFactory,
-				docBuilder
+				docBuilder,
+				commCore().interpreter().statistics()
 			);
 		} catch( TransformerConfigurationException e ) {
 			throw new IOException( e );
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.net.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
+import java.util.concurrent.atomic.LongAdder;
+import jolie.monitoring.StatisticsRegistry;
+
+/**
+ * An {@link HttpContentCompressor} that asks a {@link CompressionPolicy} whether,
+ * and with which level, each response should be compressed.
+ *
+ * The handler also accounts for the work it does in the statistics of the
+ * interpreter, under <code>http.compression</code>: the number of compressed
+ * and skipped responses, the bytes before and after compression and the time
+ * spent by the compressor.
+ */
+public class HttpContentCompressionHandler extends HttpContentCompressor
+{
+	/**
+	 * Decides the compression of outgoing responses.
+	 */
+	public interface CompressionPolicy
+	{
+		/**
+		 * Returns the compression level (1-9) to use for the given response,
+		 * or a negative number for sending its content as it is.
+		 * @param response the response that is going to be sent
+		 * @return the compression level to use for the response
+		 */
+		int compressionLevel( HttpResponse response );
+	}
+
+	private static final int WINDOW_BITS = 15;
+	private static final int MEM_LEVEL = 8;
+
+	private final CompressionPolicy policy;
+	private final LongAdder compressedResponses;
+	private final LongAdder skippedResponses;
+	private final LongAdder uncompressedBytes;
+	private final LongAdder compressedBytes;
+	private final LongAdder compressionTime;
+	private ChannelHandlerContext ctx;
+
+	public HttpContentCompressionHandler( CompressionPolicy policy, StatisticsRegistry statistics )
+	{
+		this.policy = policy;
+		this.compressedResponses = statistics.counter( "http.compression.compressedResponses" );
+		this.skippedResponses = statistics.counter( "http.compression.skippedResponses" );
+		this.uncompressedBytes = statistics.counter( "http.compression.uncompressedBytes" );
+		this.compressedBytes = statistics.counter( "http.compression.compressedBytes" );
+		this.compressionTime = statistics.counter( "http.compression.timeNanos" );
+	}
+
+	/**
+	 * Registers the gauges derived from the compression counters, i.e.,
+	 * the bytes saved by compressing responses.
+	 * @param statistics the registry to register the gauges in
+	 */
+	public static void registerGauges( StatisticsRegistry statistics )
+	{
+		final LongAdder uncompressed = statistics.counter( "http.compression.uncompressedBytes" );
+		final LongAdder compressed = statistics.counter( "http.compression.compressedBytes" );
+		statistics.registerGauge( "http.compression.savedBytes", () -> uncompressed.sum() - compressed.sum() );
+	}
+
+	@Override
+	public void handlerAdded( ChannelHandlerContext ctx )
+		throws Exception
+	{
+		this.ctx = ctx;
+		super.handlerAdded( ctx );
+	}
+
+	@Override
+	protected Result beginEncode( HttpResponse response, String acceptEncoding )
+		throws Exception
+	{
+		final int level = policy.compressionLevel( response );
+		final ZlibWrapper wrapper = level < 0 ? null : determineWrapper( acceptEncoding );
+		if ( wrapper == null ) {
+			skippedResponses.increment();
+			return null;
+		}
+
+		final String targetContentEncoding;
+		switch( wrapper ) {
+			case GZIP:
+				targetContentEncoding = HttpHeaderValues.GZIP.toString();
+				break;
+			case ZLIB:
+				targetContentEncoding = HttpHeaderValues.DEFLATE.toString();
+				break;
+			default:
+				skippedResponses.increment();
+				return null;
+		}
+
+		compressedResponses.increment();
+		final Channel channel = ctx.channel();
+		return new Result(
+			targetContentEncoding,
+			new EmbeddedChannel(
+				channel.id(),
+				channel.metadata().hasDisconnect(),
+				channel.config(),
+				new ByteCounter( compressedBytes ),
+				ZlibCodecFactory.newZlibEncoder( wrapper, Math.min( level, 9 ), WINDOW_BITS, MEM_LEVEL ),
+				new CompressionMeter()
+			)
+		);
+	}
+
+	// Counts the bytes written through it
+	private static class ByteCounter extends ChannelOutboundHandlerAdapter
+	{
+		private final LongAdder counter;
+
+		private ByteCounter( LongAdder counter )
+		{
+			this.counter = counter;
+		}
+
+		@Override
+		public void write( ChannelHandlerContext ctx, Object msg, ChannelPromise promise )
+			throws Exception
+		{
+			if ( msg instanceof ByteBuf ) {
+				counter.add( ((ByteBuf) msg).readableBytes() );
+			}
+			ctx.write( msg, promise );
+		}
+	}
+
+	// Counts the uncompressed bytes and the time the encoder takes to compress them
+	private class CompressionMeter extends ChannelOutboundHandlerAdapter
+	{
+		@Override
+		public void write( ChannelHandlerContext ctx, Object msg, ChannelPromise promise )
+			throws Exception
+		{
+			if ( msg instanceof ByteBuf ) {
+				uncompressedBytes.add( ((ByteBuf) msg).readableBytes() );
+			}
+			final long start = System.nanoTime();
+			try {
+				ctx.write( msg, promise );
+			} finally {
+				compressionTime.add( System.nanoTime() - start );
+			}
+		}
+	}
+}
@@ -25,10 +25,12 @@
  ********************************************************************************/
 package jolie.net;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToMessageCodec;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
@@ -45,21 +47,29 @@ import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.concurrent.ScheduledFuture;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import jolie.Interpreter;
 import jolie.js.JsUtils;
+import jolie.lang.Constants;
 import jolie.net.http.HttpUtils;
 import jolie.net.http.Method;
 import jolie.net.http.UnsupportedMethodException;
 import jolie.net.protocols.AsyncCommProtocol;
 import jolie.runtime.FaultException;
 import jolie.runtime.Value;
+import jolie.runtime.ValueVector;
 import jolie.runtime.VariablePath;
 import jolie.runtime.typing.Type;
 
@@ -78,6 +88,23 @@ public class JsonRpcProtocol extends AsyncCommProtocol {
 	private final Map< Long, String> jsonRpcIdMap;
 	private final Map< String, String> jsonRpcOpMap;
 
+	private final static int ERROR_CODE_INVALID_REQUEST = -32600;
+	private final static int ERROR_CODE_SERVER = -32000;
+
+	private final static int DEFAULT_BATCH_MAX_SIZE = 32;
+	private final static int DEFAULT_BATCH_WINDOW = 2; // milliseconds
+
+	private static class Parameters {
+
+		private static final String BATCH = "batch";
+		private static final String BATCH_MAX_SIZE = "batchMaxSize";
+		private static final String BATCH_WINDOW = "batchWindow";
+		private static final String COMPRESSION = "compression";
+		private static final String DEBUG = "debug";
+		private static final String KEEP_ALIVE = "keepAlive";
+		private static final String REQUEST_COMPRESSION = "requestCompession";
+	}
+
 	@Override
 	public String name() {
 		return "jsonrpc";
@@ -117,6 +144,27 @@ public class JsonRpcProtocol extends AsyncCommProtocol {
 	// EncodedJsonRpcContent <-> CommMessage
 	public class JsonRpcCommMessageCodec extends MessageToMessageCodec< EncodedJsonRpcContent, CommMessage> {
 
+		@Override
+		public void write( ChannelHandlerContext ctx, Object msg, ChannelPromise promise ) throws Exception {
+			if ( msg instanceof CommMessage ) {
+				CommMessage message = ( CommMessage ) msg;
+				if ( inInputPort ) {
+					BatchSlot slot = takeBatchSlot( message );
+					if ( slot != null ) {
+						writeBatchResponse( ctx, slot, message, promise );
+						return;
+					}
+				} else {
+					setSendExecutionThread( message.id() );
+					if ( isThreadSafe() ) {
+						queueBatchRequest( ctx, message, promise );
+						return;
+					}
+				}
+			}
+			super.write( ctx, msg, promise );
+		}
+
 		@Override
 		protected void encode( ChannelHandlerContext ctx, CommMessage message, List<Object> out ) throws Exception {
 			setSendExecutionThread( message.id() );
@@ -126,29 +174,68 @@ public class JsonRpcProtocol extends AsyncCommProtocol {
 
 		@Override
 		protected void decode( ChannelHandlerContext ctx, EncodedJsonRpcContent content, List<Object> out ) throws Exception {
-			out.add( recv_internal( content ) );
+			Value value = Value.create();
+			JsUtils.parseJsonIntoValue(
+				new InputStreamReader(
+					new ByteBufInputStream( content.getContent().duplicate() ),
+					content.getCharset() ), value, false
+			);
+			if ( isJsonArray( content.getContent() ) ) {
+				if ( inInputPort ) {
+					if ( checkBooleanParameter( Parameters.DEBUG, false ) ) {
+						interpreter.logInfo( "[JSON-RPC debug] Receiving batch:\n" + content.text() );
+					}
+					recv_batchRequest( ctx, value.getChildren( JsUtils.JSONARRAY_KEY ), out );
+				} else {
+					recv_batchResponse( value.getChildren( JsUtils.JSONARRAY_KEY ), out );
+				}
+			} else {
+				out.add( recv_internal( value, content ) );
+			}
 		}
 
 	}
 
+	private static boolean isJsonArray( ByteBuf content ) {
+		for( int i = content.readerIndex(); i < content.writerIndex(); i++ ) {
+			byte b = content.getByte( i );
+			if ( !Character.isWhitespace( b ) ) {
+				return b == '[';
+			}
+		}
+		return false;
+	}
+
 	private EncodedJsonRpcContent buildJsonRpcMessage( CommMessage message )
 		throws IOException {
 
-		channel().setToBeClosed( !checkBooleanParameter( "keepAlive", true ) );
+		channel().setToBeClosed( !checkBooleanParameter( Parameters.KEEP_ALIVE, true ) );
 
-		if ( !message.isFault() && message.hasGenericId() && inInputPort ) {
+		Value value = buildJsonRpcValue( message );
+		if ( value == null ) {
 			return NOTIFICATION;
 		}
+		return encodeJsonRpcValue( value );
+	}
+
+	/**
+	 * Builds the JSON-RPC object of a message, or returns {@code null} if the message
+	 * is the acknowledgement of a notification, which has no response object.
+	 */
+	private Value buildJsonRpcValue( CommMessage message ) {
+		if ( !message.isFault() && message.hasGenericId() && inInputPort ) {
+			return null;
+		}
 
 		Value value = Value.create();
 		value.getFirstChild( "jsonrpc" ).setValue( "2.0" );
 		if ( message.isFault() ) {
 			Value error = value.getFirstChild( "error" );
-			error.getFirstChild( "code" ).setValue( -32000 );
+			error.getFirstChild( "code" ).setValue( ERROR_CODE_SERVER );
 			error.getFirstChild( "message" ).setValue( message.fault().faultName() );
 			error.getChildren( "data" ).set( 0, message.fault().value() );
 			String jsonRpcId = jsonRpcIdMap.get( message.id() );
-			error.getFirstChild( "id" ).setValue( jsonRpcId );
+			value.getFirstChild( "id" ).setValue( jsonRpcId );
 		} else {
 			if ( inInputPort ) {
 				value.getChildren( "result" ).set( 0, message.value() );
@@ -165,30 +252,37 @@ public class JsonRpcProtocol extends AsyncCommProtocol {
 				value.getFirstChild( "id" ).setValue( message.id() );
 			}
 		}
+		return value;
+	}
+
+	private static Value buildInvalidRequestValue() {
+		Value value = Value.create();
+		value.getFirstChild( "jsonrpc" ).setValue( "2.0" );
+		Value error = value.getFirstChild( "error" );
+		error.getFirstChild( "code" ).setValue( ERROR_CODE_INVALID_REQUEST );
+		error.getFirstChild( "message" ).setValue( "Invalid Request" );
+		// an undefined id is encoded as null
+		value.getFirstChild( "id" );
+		return value;
+	}
+
+	private static EncodedJsonRpcContent encodeJsonRpcValue( Value value )
+		throws IOException {
 		StringBuilder json = new StringBuilder();
 		JsUtils.valueToJsonString( value, true, Type.UNDEFINED, json );
 		return new EncodedJsonRpcContent(
-			Unpooled.wrappedBuffer( json.toString().getBytes( "utf-8" ) ),
-			Charset.forName( "utf-8" )
+			Unpooled.wrappedBuffer( json.toString().getBytes( StandardCharsets.UTF_8 ) ),
+			StandardCharsets.UTF_8
 		);
 	}
 
-	private CommMessage recv_internal( EncodedJsonRpcContent content )
-		throws IOException {
-		
-		Value value = Value.create();
-
-		JsUtils.parseJsonIntoValue(
-			new InputStreamReader(
-				new ByteBufInputStream( content.getContent() ),
-				content.getCharset() ), value, false
-		);
+	private CommMessage recv_internal( Value value, EncodedJsonRpcContent content ) {
 
 		boolean isRequest = value.hasChildren( "method" );
 
 		if ( !value.hasChildren( "id" ) ) {
 
-			if ( checkBooleanParameter( "debug", false ) ) {
+			if ( content != null && checkBooleanParameter( Parameters.DEBUG, false ) ) {
 				interpreter.logInfo( "[JSON-RPC debug] Receiving:\n" + content.text() );
 			}
 			
@@ -231,6 +325,196 @@ public class JsonRpcProtocol extends AsyncCommProtocol {
 		}
 	}
 
+	/*
+	 * Batches received by an input port.
+	 * Each element of a batch is dispatched as its own CommMessage; the responses
+	 * produced for them are collected in the slots of the batch and written back
+	 * as a single array once all the elements have been answered.
+	 * These structures are only accessed from the event loop of the channel.
+	 */
+
+	private static class Batch {
+
+		private final Value[] responses;
+		private int pending;
+		private final boolean toBeClosed;
+
+		private Batch( int size, boolean toBeClosed ) {
+			this.responses = new Value[ size ];
+			this.pending = size;
+			this.toBeClosed = toBeClosed;
+		}
+	}
+
+	private static class BatchSlot {
+
+		private final Batch batch;
+		private final int index;
+
+		private BatchSlot( Batch batch, int index ) {
+			this.batch = batch;
+			this.index = index;
+		}
+	}
+
+	private final Map< Long, Deque< BatchSlot>> batchSlots = new HashMap<>();
+
+	private void recv_batchRequest( ChannelHandlerContext ctx, ValueVector elements, List<Object> out )
+		throws IOException {
+		interpreter.statistics().counter( "jsonrpc.batch.received" ).increment();
+		if ( elements.isEmpty() ) {
+			ctx.writeAndFlush( encodeJsonRpcValue( buildInvalidRequestValue() ) );
+			return;
+		}
+
+		// the channel is kept open until the whole batch has been answered
+		Batch batch = new Batch( elements.size(), channel().toBeClosed() );
+		channel().setToBeClosed( false );
+		for( int i = 0; i < elements.size(); i++ ) {
+			Value element = elements.get( i );
+			if ( !element.hasChildren( "method" ) ) {
+				batch.responses[ i ] = buildInvalidRequestValue();
+				batch.pending--;
+			} else {
+				CommMessage message = recv_internal( element, null );
+				batchSlots.computeIfAbsent( message.id(), k -> new ArrayDeque<>() )
+					.add( new BatchSlot( batch, i ) );
+				out.add( message );
+			}
+		}
+		interpreter.statistics().counter( "jsonrpc.batch.receivedRequests" ).add( out.size() );
+		if ( batch.pending == 0 ) {
+			writeBatch( ctx, batch, ctx.newPromise() );
+		}
+	}
+
+	private BatchSlot takeBatchSlot( CommMessage message ) {
+		Deque< BatchSlot> slots = batchSlots.get( message.id() );
+		if ( slots == null ) {
+			return null;
+		}
+		BatchSlot slot = slots.poll();
+		if ( slots.isEmpty() ) {
+			batchSlots.remove( message.id() );
+		}
+		return slot;
+	}
+
+	private void writeBatchResponse( ChannelHandlerContext ctx, BatchSlot slot, CommMessage message, ChannelPromise promise ) {
+		setSendExecutionThread( message.id() );
+		// notifications are not answered, not even in case of errors
+		if ( !message.hasGenericId() ) {
+			slot.batch.responses[ slot.index ] = buildJsonRpcValue( message );
+		}
+		if ( --slot.batch.pending > 0 ) {
+			channel().setToBeClosed( false );
+			promise.setSuccess();
+		} else {
+			writeBatch( ctx, slot.batch, promise );
+		}
+	}
+
+	private void writeBatch( ChannelHandlerContext ctx, Batch batch, ChannelPromise promise ) {
+		channel().setToBeClosed( batch.toBeClosed || !checkBooleanParameter( Parameters.KEEP_ALIVE, true ) );
+		Value value = Value.create();
+		ValueVector responses = value.getChildren( JsUtils.JSONARRAY_KEY );
+		for( Value response : batch.responses ) {
+			if ( response != null ) {
+				responses.add( response );
+			}
+		}
+		try {
+			ctx.writeAndFlush( responses.isEmpty() ? NOTIFICATION : encodeJsonRpcValue( value ), promise );
+		} catch( IOException e ) {
+			promise.setFailure( e );
+		}
+	}
+
+	private void recv_batchResponse( ValueVector elements, List<Object> out ) {
+		for( Value element : elements ) {
+			if ( element.hasChildren( "id" ) && element.getFirstChild( "id" ).isDefined() ) {
+				out.add( recv_internal( element, null ) );
+			} else {
+				interpreter.logWarning( "Discarded a JSON-RPC batch response without id: "
+					+ element.getFirstChild( "error" ).getFirstChild( "message" ).strValue() );
+			}
+		}
+	}
+
+	/*
+	 * Batches sent by an output port.
+	 * Requests written within the batching window are coalesced in a single JSON-RPC batch.
+	 * The write of each request completes immediately, so that the (thread-safe)
+	 * channel is given back to the pool and can be picked by concurrent invocations;
+	 * responses are then matched by id.
+	 */
+
+	private final List< CommMessage> queuedRequests = new ArrayList<>();
+	private final List< Value> queuedValues = new ArrayList<>();
+	private ScheduledFuture<?> batchFlush = null;
+
+	private void queueBatchRequest( ChannelHandlerContext ctx, CommMessage message, ChannelPromise promise ) {
+		channel().setToBeClosed( false );
+		queuedRequests.add( message );
+		queuedValues.add( buildJsonRpcValue( message ) );
+		promise.setSuccess();
+		if ( queuedRequests.size() >= getIntParameter( Parameters.BATCH_MAX_SIZE, DEFAULT_BATCH_MAX_SIZE ) ) {
+			flushBatch( ctx );
+		} else if ( batchFlush == null ) {
+			batchFlush = ctx.executor().schedule(
+				() -> {
+					ExecutionContextHandler.bind( interpreter );
+					flushBatch( ctx );
+				},
+				getIntParameter( Parameters.BATCH_WINDOW, DEFAULT_BATCH_WINDOW ),
+				TimeUnit.MILLISECONDS
+			);
+		}
+	}
+
+	private void flushBatch( ChannelHandlerContext ctx ) {
+		if ( batchFlush != null ) {
+			batchFlush.cancel( false );
+			batchFlush = null;
+		}
+		if ( queuedRequests.isEmpty() ) {
+			return;
+		}
+		List< CommMessage> requests = new ArrayList<>( queuedRequests );
+		Value value = Value.create();
+		ValueVector elements = value.getChildren( JsUtils.JSONARRAY_KEY );
+		queuedValues.forEach( elements::add );
+		queuedRequests.clear();
+		queuedValues.clear();
+
+		// the HTTP encoder reads the configuration from the execution context
+		setSendExecutionThread( requests.get( requests.size() - 1 ).id() );
+		interpreter.statistics().counter( "jsonrpc.batch.sent" ).increment();
+		interpreter.statistics().counter( "jsonrpc.batch.sentRequests" ).add( requests.size() );
+		try {
+			ctx.writeAndFlush( encodeJsonRpcValue( elements.size() == 1 ? elements.first() : value ) )
+				.addListener( f -> {
+					if ( !f.isSuccess() ) {
+						failBatch( requests, f.cause() );
+					}
+				} );
+		} catch( IOException e ) {
+			failBatch( requests, e );
+		}
+	}
+
+	private void failBatch( List< CommMessage> requests, Throwable cause ) {
+		for( CommMessage request : requests ) {
+			interpreter.commCore().removeRequestExecutionThread( request.id() );
+			interpreter.commCore().receiveResponse( CommMessage.createFaultResponse(
+				request, new FaultException( Constants.IO_EXCEPTION_FAULT_NAME, cause ) ) );
+		}
+	}
+
+	private int getIntParameter( String id, int defaultValue ) {
+		return hasParameter( id ) ? getParameterFirstValue( id ).intValue() : defaultValue;
+	}
+
 	// HTTP <-> EncodedJsonRpcContent
 	public class JsonRpcHttpCommMessageCodec extends MessageToMessageCodec< FullHttpMessage, EncodedJsonRpcContent> {
 
@@ -283,8 +567,8 @@ public class JsonRpcProtocol extends AsyncCommProtocol {
 			httpMessage.headers().add( HttpHeaderNames.USER_AGENT, "Jolie" );
 			httpMessage.headers().add( HttpHeaderNames.HOST, uri.getHost() );
 
-			if ( checkBooleanParameter( "compression", true ) ) {
-				String requestCompression = getStringParameter( "requestCompession" );
+			if ( checkBooleanParameter( Parameters.COMPRESSION, true ) ) {
+				String requestCompression = getStringParameter( Parameters.REQUEST_COMPRESSION );
 				if ( requestCompression.equals( "gzip" ) || requestCompression.equals( "deflate" ) ) {
 					encoding = requestCompression;
 					httpMessage.headers().add( HttpHeaderNames.ACCEPT_ENCODING, encoding );
@@ -308,7 +592,7 @@ public class JsonRpcProtocol extends AsyncCommProtocol {
 			httpMessage.content().readableBytes()
 		);
 
-		if ( checkBooleanParameter( "debug", false ) ) {
+		if ( checkBooleanParameter( Parameters.DEBUG, false ) ) {
 			interpreter.logInfo( "[JSON-RPC debug] Sending:\n" + httpMessage.toString() );
 		}
 
@@ -343,7 +627,10 @@ public class JsonRpcProtocol extends AsyncCommProtocol {
 
 	@Override
 	public boolean isThreadSafe() {
-		return false && checkBooleanParameter( "keepAlive", true ); // used in future implementation where JSONRPC has a threadSafe modality
+		// only batching output ports share their channels between concurrent invocations
+		return !inInputPort
+			&& checkBooleanParameter( Parameters.BATCH, false )
+			&& checkBooleanParameter( Parameters.KEEP_ALIVE, true );
 	}
 
 	@Override
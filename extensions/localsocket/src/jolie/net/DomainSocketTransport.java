@@ -0,0 +1,161 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.net;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.netty.channel.kqueue.KQueue;
+import io.netty.channel.kqueue.KQueueDomainSocketChannel;
+import io.netty.channel.kqueue.KQueueEventLoopGroup;
+import io.netty.channel.kqueue.KQueueServerDomainSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The native Netty transport of the <code>localsocket</code> medium:
+ * epoll on Linux, kqueue on macOS and BSD.
+ *
+ * Domain socket channels can only be registered with the event loops of their
+ * native transport. When the socket medium runs on epoll as well, they share its
+ * worker event loops; otherwise, the interpreters of a JVM share another event
+ * loop group, created with the first local socket.
+ */
+public enum DomainSocketTransport
+{
+	EPOLL {
+		@Override
+		public EventLoopGroup newEventLoopGroup( int threads, ThreadFactory threadFactory )
+		{
+			return new EpollEventLoopGroup( threads, threadFactory );
+		}
+
+		@Override
+		public Class< ? extends ServerChannel > serverChannelClass()
+		{
+			return EpollServerDomainSocketChannel.class;
+		}
+
+		@Override
+		public Class< ? extends Channel > channelClass()
+		{
+			return EpollDomainSocketChannel.class;
+		}
+
+		@Override
+		public boolean isAvailable()
+		{
+			return Epoll.isAvailable();
+		}
+
+		@Override
+		public EventLoopGroup eventLoopGroup( CommResources resources )
+		{
+			return resources.transport() == SocketTransport.EPOLL
+				? resources.workerGroup()
+				: super.eventLoopGroup( resources );
+		}
+	},
+	KQUEUE {
+		@Override
+		public EventLoopGroup newEventLoopGroup( int threads, ThreadFactory threadFactory )
+		{
+			return new KQueueEventLoopGroup( threads, threadFactory );
+		}
+
+		@Override
+		public Class< ? extends ServerChannel > serverChannelClass()
+		{
+			return KQueueServerDomainSocketChannel.class;
+		}
+
+		@Override
+		public Class< ? extends Channel > channelClass()
+		{
+			return KQueueDomainSocketChannel.class;
+		}
+
+		@Override
+		public boolean isAvailable()
+		{
+			return KQueue.isAvailable();
+		}
+	};
+
+	// the location host denoting a socket in the Linux abstract namespace
+	private static final String ABSTRACT_HOST = "abs";
+
+	public abstract EventLoopGroup newEventLoopGroup( int threads, ThreadFactory threadFactory );
+
+	public abstract Class< ? extends ServerChannel > serverChannelClass();
+
+	public abstract Class< ? extends Channel > channelClass();
+
+	public abstract boolean isAvailable();
+
+	/**
+	 * Returns the event loops serving the domain socket channels of a CommCore.
+	 * @param resources the resources of the CommCore
+	 * @return the event loops of this transport
+	 */
+	public EventLoopGroup eventLoopGroup( CommResources resources )
+	{
+		return resources.eventLoopGroup( "localsocket-" + name().toLowerCase(), this::newEventLoopGroup );
+	}
+
+	/**
+	 * Returns the first native transport available on this platform.
+	 * @return the transport of the <code>localsocket</code> medium
+	 * @throws IOException if no native transport is available
+	 */
+	public static DomainSocketTransport get()
+		throws IOException
+	{
+		for( DomainSocketTransport transport : values() ) {
+			if ( transport.isAvailable() ) {
+				return transport;
+			}
+		}
+		throw new IOException( "Local sockets require the native epoll or kqueue transport", Epoll.unavailabilityCause() );
+	}
+
+	/**
+	 * Returns the address of a local socket location, e.g., <code>localsocket:/tmp/service.sock</code>,
+	 * or <code>localsocket://abs/service</code> for a socket in the abstract namespace.
+	 * @param location the location of the local socket
+	 * @return the address of the local socket
+	 * @throws FileNotFoundException if the location has no path
+	 */
+	public static DomainSocketAddress address( URI location )
+		throws FileNotFoundException
+	{
+		String path = location.getPath();
+		if ( path == null || path.isEmpty() ) {
+			throw new FileNotFoundException( "Local socket path not specified!" );
+		}
+		return new DomainSocketAddress( ABSTRACT_HOST.equals( location.getHost() ) ? '\0' + path : path );
+	}
+}
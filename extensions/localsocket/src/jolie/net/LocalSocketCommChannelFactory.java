@@ -20,19 +20,19 @@
  ***************************************************************************/
 package jolie.net;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
 import jolie.net.ports.OutputPort;
-import cx.ath.matthew.unix.UnixSocket;
-import cx.ath.matthew.unix.UnixSocketAddress;
 import java.io.IOException;
-import java.io.FileNotFoundException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import jolie.net.ext.CommChannelFactory;
 import jolie.net.ports.InputPort;
+import jolie.net.ports.Port;
+import jolie.net.protocols.AsyncCommProtocol;
 import jolie.net.protocols.CommProtocol;
-import jolie.runtime.AndJarDeps;
 
-@AndJarDeps( { "unix.jar" } )
 public class LocalSocketCommChannelFactory extends CommChannelFactory {
 
 	public LocalSocketCommChannelFactory( CommCore commCore ) {
@@ -41,22 +41,40 @@ public class LocalSocketCommChannelFactory extends CommChannelFactory {
 
 	public CommChannel createChannel( URI location, OutputPort port )
 		throws IOException {
-		String path = location.getPath();
-		if ( path == null || path.isEmpty() ) {
-			throw new FileNotFoundException( "Local socket path not specified!" );
-		}
-		UnixSocket socket = new UnixSocket( new UnixSocketAddress( path, location.getHost() != null ? location.getHost().equals( "abs" ) : false ) );
-		CommChannel ret = null;
+		CommProtocol protocol;
 		try {
-			ret = new LocalSocketCommChannel( socket, location, port.getProtocol() );
+			protocol = port.getProtocol();
 		} catch ( URISyntaxException e ) {
 			throw new IOException( e );
 		}
-		return ret;
+		return connect( location, protocol, port );
 	}
 
 	@Override
 	public CommChannel createInputChannel( URI location, InputPort port, CommProtocol protocol ) throws IOException {
-		throw new UnsupportedOperationException( "Not supported yet." );
+		return connect( location, protocol, port );
+	}
+
+	private CommChannel connect( URI location, CommProtocol protocol, Port port )
+		throws IOException {
+		if ( !(protocol instanceof AsyncCommProtocol) ) {
+			throw new UnsupportedCommProtocolException( "Use an async protocol" );
+		}
+		DomainSocketTransport transport = DomainSocketTransport.get();
+		Bootstrap bootstrap = new Bootstrap()
+			.group( transport.eventLoopGroup( commCore().resources() ) )
+			.channel( transport.channelClass() )
+			.option( ChannelOption.ALLOCATOR, commCore().allocator() );
+		NioSocketCommChannel channel = NioSocketCommChannel.createChannel( location, (AsyncCommProtocol) protocol, bootstrap, port );
+		channel.setToBeClosed( false ); // LocalSocket connections are kept open by default
+		try {
+			ChannelFuture f = channel.connect( DomainSocketTransport.address( location ) ).sync();
+			if ( !f.isSuccess() ) {
+				throw (IOException) f.cause();
+			}
+		} catch ( InterruptedException e ) {
+			throw new IOException( e );
+		}
+		return channel;
 	}
 }
@@ -21,22 +21,31 @@
 
 package jolie.net;
 
-import cx.ath.matthew.unix.UnixServerSocket;
-import cx.ath.matthew.unix.UnixSocket;
-import cx.ath.matthew.unix.UnixSocketAddress;
-import java.io.File;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.unix.DomainSocketAddress;
 import java.io.IOException;
-import java.io.FileNotFoundException;
-import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 import jolie.Interpreter;
 import jolie.net.ext.CommProtocolFactory;
 import jolie.net.ports.InputPort;
+import jolie.net.protocols.AsyncCommProtocol;
+import jolie.net.protocols.CommProtocol;
 
 public class LocalSocketListener extends CommListener
 {
-	final private UnixServerSocket serverSocket;
-	final private UnixSocketAddress socketAddress;
+	final private DomainSocketTransport transport;
+	final private DomainSocketAddress socketAddress;
+	final private ReadWriteLock sendingResponse = new StampedLock().asReadWriteLock();
+	private volatile Channel serverChannel = null;
+
 	public LocalSocketListener(
 				Interpreter interpreter,
 				CommProtocolFactory protocolFactory,
@@ -46,19 +55,21 @@ public class LocalSocketListener extends CommListener
 	{
 		super( interpreter, protocolFactory, inputPort );
 
-		String path = inputPort.location().getPath();
-		if ( path == null || path.isEmpty() ) {
-			throw new FileNotFoundException( "Local socket path not specified!" );
-		}
-		socketAddress = new UnixSocketAddress( path, inputPort.location().getHost() != null ? inputPort.location().getHost().equals( "abs" ) : false );
-		serverSocket = new UnixServerSocket( socketAddress );
+		transport = DomainSocketTransport.get();
+		socketAddress = DomainSocketTransport.address( inputPort.location() );
 	}
 	
 	@Override
 	public void shutdown()
 	{
-		if ( !socketAddress.isAbstract() ) {
-			new File( socketAddress.getPath() ).delete();
+		sendingResponse.writeLock().lock();
+		try {
+			// closing the server channel also deletes its socket file
+			if ( serverChannel != null ) {
+				serverChannel.close();
+			}
+		} finally {
+			sendingResponse.writeLock().unlock();
 		}
 	}
 
@@ -66,27 +77,50 @@ public class LocalSocketListener extends CommListener
 	public void run()
 	{
 		try {
-			UnixSocket socket;
-			CommChannel channel;
-			while ( (socket = serverSocket.accept()) != null ) {
-				channel = new LocalSocketCommChannel(
-								socket,
-								inputPort().location(),
-								createProtocol()
-							);
-				channel.setParentInputPort( inputPort() );
-				interpreter().commCore().scheduleReceive( channel, inputPort() );
-				channel = null; // Dispose for garbage collection
-			}
-			serverSocket.close();
-		} catch( ClosedByInterruptException ce ) {
-			try {
-				serverSocket.close();
-			} catch( IOException e ) {
-				e.printStackTrace();
-			}
-		} catch( IOException e ) {
-			e.printStackTrace();
+			serverChannel = new ServerBootstrap()
+				.group( transport.eventLoopGroup( interpreter().commCore().resources() ) )
+				.channel( transport.serverChannelClass() )
+				.option( ChannelOption.ALLOCATOR, interpreter().commCore().allocator() )
+				.childOption( ChannelOption.ALLOCATOR, interpreter().commCore().allocator() )
+				.childHandler( new ChannelInitializer< Channel >()
+				{
+					@Override
+					protected void initChannel( Channel ch ) throws Exception
+					{
+						ExecutionContextHandler.bind( interpreter() );
+						CommProtocol protocol = createProtocol();
+						if ( !(protocol instanceof AsyncCommProtocol) ) {
+							throw new UnsupportedCommProtocolException( "Use an async protocol" );
+						}
+						((AsyncCommProtocol) protocol).setInitExecutionThread( interpreter().initThread() );
+
+						NioSocketCommChannel channel = new NioSocketCommChannel( inputPort().location(), (AsyncCommProtocol) protocol );
+						channel.setToBeClosed( false ); // LocalSocket connections are kept open by default
+						protocol.setChannel( channel );
+						channel.setParentInputPort( inputPort() );
+
+						ChannelPipeline p = ch.pipeline();
+						p.addLast( ExecutionContextHandler.NAME, interpreter().commCore().executionContextHandler() );
+						((AsyncCommProtocol) protocol).setupPipeline( p );
+						p.addLast( channel.getChannelHandler().setChannelLock( sendingResponse ) );
+						p.addLast( new ChannelInboundHandlerAdapter()
+						{
+							@Override
+							public void exceptionCaught( ChannelHandlerContext ctx, Throwable cause ) throws Exception
+							{
+								interpreter().logWarning( cause );
+								ctx.close();
+							}
+						} );
+					}
+				} )
+				.bind( socketAddress ).sync().channel();
+			serverChannel.closeFuture().sync();
+		} catch( InterruptedException e ) {
+		} catch( Exception e ) {
+			interpreter().logSevere( e );
+		} finally {
+			shutdown();
 		}
 	}
 }
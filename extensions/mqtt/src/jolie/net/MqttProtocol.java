@@ -24,6 +24,7 @@
 package jolie.net;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
@@ -105,17 +106,20 @@ public class MqttProtocol extends PubSubCommProtocol
 	private final Set<String> aliasKeys;
 	private final Charset charset;
 	private final AtomicInteger nextMessageId;
+	private final ByteBufAllocator allocator;
 	private String operationResponse;
 	private String topicResponse;
 
 	/**
 	 *
 	 * @param configurationPath
+	 * @param allocator the allocator of the payloads, shared with the Netty channels
 	 */
-	public MqttProtocol( VariablePath configurationPath )
+	public MqttProtocol( VariablePath configurationPath, ByteBufAllocator allocator )
 	{
 
 		super( configurationPath );
+		this.allocator = allocator;
 		this.nextMessageId = new AtomicInteger( 1 );
 		this.charset = CharsetUtil.UTF_8;
 		this.aliasKeys = new TreeSet<>();
@@ -507,7 +511,7 @@ public class MqttProtocol extends PubSubCommProtocol
 		throws Exception
 	{
 
-		ByteBuf bb = Unpooled.copiedBuffer( valueToByteBuf( in ) );
+		ByteBuf bb = valueToByteBuf( in );
 		MqttQoS q = getOperationQoS( in.operationName() );
 
 		return publishMsg( t, bb, q, (int) in.id() );
@@ -657,7 +661,7 @@ public class MqttProtocol extends PubSubCommProtocol
 	 */
 	public String extractTopicResponse( MqttPublishMessage m )
 	{
-		String msg = Unpooled.wrappedBuffer( m.payload() ).toString( charset );
+		String msg = m.payload().toString( charset );
 
 		if ( msg.indexOf( Parameters.BOUNDARY )
 			== 0 && msg.indexOf( Parameters.BOUNDARY, 1 ) > 0 ) {
@@ -701,7 +705,6 @@ public class MqttProtocol extends PubSubCommProtocol
 	private ByteBuf valueToByteBuf( CommMessage in ) throws Exception
 	{
 
-		ByteBuf bb = Unpooled.buffer();
 		String format = format( in.operationName() );
 		String message;
 		String topicResponsePrefix = "";
@@ -745,8 +748,8 @@ public class MqttProtocol extends PubSubCommProtocol
 			Interpreter.getInstance().logInfo( "Sending " + format.toUpperCase()
 				+ " message: " + message );
 		}
-		bb.writeBytes( message.getBytes( charset ) );
-		return bb;
+		byte[] bytes = message.getBytes( charset );
+		return allocator.buffer( bytes.length ).writeBytes( bytes );
 	}
 
 	private String format( String operationName )
@@ -787,7 +790,7 @@ public class MqttProtocol extends PubSubCommProtocol
 		throws Exception
 	{
 
-		String msg = Unpooled.wrappedBuffer( payload ).toString( charset );
+		String msg = payload.toString( charset );
 		if ( checkBooleanParameter( Parameters.DEBUG ) ) {
 			Interpreter.getInstance().logInfo( "Received message: " + msg );
 		}
@@ -41,12 +41,12 @@ public class MqttProtocolFactory extends PubSubCommProtocolFactory {
 	@Override
 	public CommProtocol createInputProtocol( VariablePath configurationPath,
 		URI location ) throws IOException {
-		return new MqttProtocol( configurationPath );
+		return new MqttProtocol( configurationPath, commCore().allocator() );
 	}
 
 	@Override
 	public CommProtocol createOutputProtocol( VariablePath configurationPath,
 		URI location ) throws IOException {
-		return new MqttProtocol( configurationPath );
+		return new MqttProtocol( configurationPath, commCore().allocator() );
 	}
 }
@@ -170,8 +170,8 @@ public class InputPortHandler extends MessageToMessageCodec<MqttMessage, CommMes
 				.setRequestCommMessage( cm );
 
 			NioSocketCommChannel sideChannel = NioSocketCommChannel
-				.createChannel( location, newMP, ctx.channel().eventLoop().parent(),
-					null );
+				.createChannel( location, newMP, Interpreter.getInstance().commCore().socketTransport(),
+					ctx.channel().eventLoop().parent(), ctx.alloc(), null );
 
 			newMP.setChannel( sideChannel );
 
@@ -31,11 +31,11 @@ import com.sun.xml.xsom.XSElementDecl;
 import com.sun.xml.xsom.XSModelGroup;
 import com.sun.xml.xsom.XSModelGroupDecl;
 import com.sun.xml.xsom.XSParticle;
-import com.sun.xml.xsom.XSSchema;
 import com.sun.xml.xsom.XSSchemaSet;
 import com.sun.xml.xsom.XSTerm;
 import com.sun.xml.xsom.XSType;
 import com.sun.xml.xsom.parser.XSOMParser;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.MessageToMessageCodec;
@@ -61,7 +61,9 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -98,6 +100,12 @@ import javax.xml.soap.SOAPFault;
 import javax.xml.soap.SOAPHeader;
 import javax.xml.soap.SOAPHeaderElement;
 import javax.xml.soap.SOAPMessage;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
@@ -116,6 +124,8 @@ import jolie.net.http.Method;
 import jolie.net.http.UnsupportedMethodException;
 import jolie.net.ports.Interface;
 import jolie.net.protocols.AsyncCommProtocol;
+import jolie.net.soap.SchemaCache;
+import jolie.net.soap.SchemaModel;
 import jolie.net.soap.WSDLCache;
 import jolie.runtime.ByteArray;
 import jolie.runtime.FaultException;
@@ -149,13 +159,15 @@ public class SoapProtocol extends AsyncCommProtocol {
 	private String inputId = null;
 	private final Interpreter interpreter;
 	private final MessageFactory messageFactory;
-	private XSSchemaSet schemaSet = null;
+	private final XMLInputFactory xmlInputFactory;
+	private final XMLOutputFactory xmlOutputFactory;
+	private SchemaModel schemaModel = null;
 	private final URI uri;
 	private final boolean inInputPort;
 	private Definition wsdlDefinition = null;
 	private Port wsdlPort = null;
 	private final TransformerFactory transformerFactory;
-	private final Map< String, String> namespacePrefixMap = new HashMap< String, String>();
+	private Map< String, String> namespacePrefixMap = Collections.emptyMap();
 	private boolean received = false;
 	private String encoding;
 
@@ -170,6 +182,8 @@ public class SoapProtocol extends AsyncCommProtocol {
 		private static final String KEEP_ALIVE = "keepAlive";
 	}
 
+	private static final String ENVELOPE_PREFIX = "SOAP-ENV";
+
 	/*
         * it forced the insertion of namespaces within the soap message
         *
@@ -203,11 +217,15 @@ public class SoapProtocol extends AsyncCommProtocol {
 		VariablePath configurationPath,
 		URI uri,
 		boolean inInputPort,
+		XMLInputFactory xmlInputFactory,
+		XMLOutputFactory xmlOutputFactory,
 		Interpreter interpreter )
 		throws SOAPException {
 		super( configurationPath );
 		this.uri = uri;
 		this.inInputPort = inInputPort;
+		this.xmlInputFactory = xmlInputFactory;
+		this.xmlOutputFactory = xmlOutputFactory;
 		this.transformerFactory = TransformerFactory.newInstance();
 		this.interpreter = interpreter;
 		this.messageFactory = MessageFactory.newInstance( SOAPConstants.SOAP_1_1_PROTOCOL );
@@ -266,7 +284,11 @@ public class SoapProtocol extends AsyncCommProtocol {
 	private void parseWSDLTypes( XSOMParser schemaParser )
 		throws IOException {
 		Definition definition = getWSDLDefinition();
-		if ( definition != null ) {
+		if ( definition == null ) {
+			return;
+		}
+		// the definition is shared through WSDLCache, and the schema elements are modified below
+		synchronized( definition ) {
 			Types types = definition.getTypes();
 			if ( types != null ) {
 				List<ExtensibilityElement> list = types.getExtensibilityElements();
@@ -289,28 +311,62 @@ public class SoapProtocol extends AsyncCommProtocol {
 		}
 	}
 
-	private XSSchemaSet getSchemaSet()
-		throws IOException, SAXException {
-		if ( schemaSet == null ) {
-			XSOMParser schemaParser = new XSOMParser();
-			ValueVector vec = getParameterVector( "schema" );
-			if ( vec.size() > 0 ) {
-				for ( Value v : vec ) {
-					schemaParser.parse( new File( v.strValue() ) );
-				}
+	private SchemaModel getSchemaModel()
+		throws IOException {
+		if ( schemaModel == null ) {
+			List<String> schemaFiles = new ArrayList<>();
+			for ( Value v : getParameterVector( "schema" ) ) {
+				schemaFiles.add( v.strValue() );
 			}
-			parseWSDLTypes( schemaParser );
-			schemaSet = schemaParser.getResult();
-			String nsPrefix = "jolie";
-			int i = 1;
-			for ( XSSchema schema : schemaSet.getSchemas() ) {
-				if ( !schema.getTargetNamespace().equals( XMLConstants.W3C_XML_SCHEMA_NS_URI ) ) {
-					namespacePrefixMap.put( schema.getTargetNamespace(), nsPrefix + i++ );
-				}
+			String wsdlUrl = hasParameter( "wsdl" ) ? getStringParameter( "wsdl" ) : null;
+			schemaModel = SchemaCache.getInstance().getModel( wsdlUrl, schemaFiles, () -> parseSchemaModel( schemaFiles ) );
+			namespacePrefixMap = schemaModel.namespacePrefixMap();
+		}
+		return schemaModel;
+	}
+
+	private SchemaModel parseSchemaModel( List<String> schemaFiles )
+		throws IOException {
+		XSOMParser schemaParser = new XSOMParser();
+		try {
+			for ( String schemaFile : schemaFiles ) {
+				schemaParser.parse( new File( schemaFile ) );
 			}
+			parseWSDLTypes( schemaParser );
+			return new SchemaModel( schemaParser.getResult() );
+		} catch ( SAXException e ) {
+			throw new IOException( e );
 		}
+	}
 
-		return schemaSet;
+	/*
+	 * Returns the encoding plan for sending operationName from this port,
+	 * computing it only the first time it is requested by any channel sharing the schema model.
+	 */
+	private SchemaModel.OperationEncoding getOperationEncoding( String operationName )
+		throws IOException {
+		SchemaModel model = getSchemaModel();
+		Port port = getWSDLPort();
+		String namespace = hasParameter( "namespace" ) ? getStringParameter( "namespace" ) : "";
+		String key = ( received ? "response\n" : "request\n" )
+			+ ( port == null ? "" : port.getName() ) + '\n' + namespace + '\n' + operationName;
+		SchemaModel.OperationEncoding encoding = model.getOperationEncoding( key );
+		if ( encoding == null ) {
+			String messageNamespace = getOutputMessageNamespace( operationName );
+			String rootElementName = getOutputMessageRootElementName( operationName );
+			XSSchemaSet sSet = model.schemaSet();
+			XSElementDecl elementDecl = ( sSet == null ) ? null : sSet.getElementDecl( messageNamespace, rootElementName );
+			encoding = model.putOperationEncoding( key, new SchemaModel.OperationEncoding(
+				messageNamespace,
+				rootElementName,
+				elementDecl,
+				( elementDecl == null ) ? null : namespacePrefixMap.get( elementDecl.getOwnerSchema().getTargetNamespace() ),
+				getParameterOrder( operationName ),
+				getOutputEncodingStyle( operationName ),
+				received ? null : getSoapActionForOperation( operationName )
+			) );
+		}
+		return encoding;
 	}
 
 	private boolean convertAttributes() {
@@ -363,13 +419,15 @@ public class SoapProtocol extends AsyncCommProtocol {
 			}
 		}
 
-		for ( Entry<String, ValueVector> entry : value.children().entrySet() ) {
-			if ( !entry.getKey().startsWith( "@" ) ) {
-				for ( Value val : entry.getValue() ) {
-					valueToSOAPElement(
-						val,
-						element.addChildElement( entry.getKey() ),
-						soapEnvelope );
+		if ( value.hasChildren() ) {
+			for ( Entry<String, ValueVector> entry : value.children().entrySet() ) {
+				if ( !entry.getKey().startsWith( "@" ) ) {
+					for ( Value val : entry.getValue() ) {
+						valueToSOAPElement(
+							val,
+							element.addChildElement( entry.getKey() ),
+							soapEnvelope );
+					}
 				}
 			}
 		}
@@ -377,7 +435,7 @@ public class SoapProtocol extends AsyncCommProtocol {
 
 	private static Map<String, ValueVector> getAttributesOrNull( Value value ) {
 		Map<String, ValueVector> ret = null;
-		ValueVector vec = value.children().get( Constants.Predefined.ATTRIBUTES.token().content() );
+		ValueVector vec = value.getChildrenOrNull( Constants.Predefined.ATTRIBUTES.token().content() );
 		if ( vec != null && vec.size() > 0 ) {
 			ret = vec.first().children();
 		}
@@ -443,7 +501,7 @@ public class SoapProtocol extends AsyncCommProtocol {
 			String name = currElementDecl.getName();
 			String prefix = ( first ) ? getPrefix( currElementDecl ) : getPrefixOrNull( currElementDecl );
 			SOAPElement childElement;
-			if ( ( vec = value.children().get( name ) ) != null ) {
+			if ( ( vec = value.getChildrenOrNull( name ) ) != null ) {
 				int k = 0;
 				while ( vec.size() > 0 && ( getMaxOccur > k || getMaxOccur == XSParticle.UNBOUNDED ) ) {
 					if ( prefix == null ) {
@@ -682,176 +740,284 @@ public class SoapProtocol extends AsyncCommProtocol {
 		return ( parameters == null ) ? null : parameters.toArray( new String[ 0 ] );
 	}
 
-	private void setOutputEncodingStyle( SOAPEnvelope soapEnvelope, String operationName )
-		throws IOException, SOAPException {
+	private String getOutputEncodingStyle( String operationName )
+		throws IOException {
 		Port port = getWSDLPort();
 		if ( port != null ) {
 			BindingOperation bindingOperation = port.getBinding().getBindingOperation( operationName, null, null );
 			if ( bindingOperation == null ) {
-				return;
+				return null;
 			}
 			BindingOutput output = bindingOperation.getBindingOutput();
 			if ( output == null ) {
-				return;
+				return null;
 			}
 			for ( ExtensibilityElement element : ( List<ExtensibilityElement> ) output.getExtensibilityElements() ) {
 				if ( element instanceof javax.wsdl.extensions.soap.SOAPBody ) {
 					List<String> list = ( ( javax.wsdl.extensions.soap.SOAPBody ) element ).getEncodingStyles();
 					if ( list != null && list.isEmpty() == false ) {
-						soapEnvelope.setEncodingStyle( list.get( 0 ) );
-						soapEnvelope.addNamespaceDeclaration( "enc", list.get( 0 ) );
+						return list.get( 0 );
 					}
 				}
 			}
 		}
+		return null;
 	}
 
-	public FullHttpMessage buildSoapMessage( CommMessage message )
+	private void writeSoapElementContent( XMLStreamWriter writer, Value value )
+		throws XMLStreamException {
+		String text = null;
+		if ( value.isDefined() ) {
+			String type = "any";
+			if ( value.isInt() ) {
+				type = "int";
+			} else if ( value.isLong() ) {
+				type = "long";
+			} else if ( value.isString() ) {
+				type = "string";
+			} else if ( value.isDouble() ) {
+				type = "double";
+			} else if ( value.isBool() ) {
+				type = "boolean";
+			}
+			writer.writeAttribute( "xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "type", "xsd:" + type );
+			text = value.strValue();
+		} else if ( !value.hasChildren() ) {
+			writer.writeAttribute( "xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "nil", "true" );
+		}
+
+		if ( convertAttributes() ) {
+			for ( Entry<String, ValueVector> attrEntry : getAttributesOrNull( value ).entrySet() ) {
+				writer.writeAttribute( attrEntry.getKey(), attrEntry.getValue().first().strValue() );
+			}
+		}
+
+		if ( text != null ) {
+			writer.writeCharacters( text );
+		}
+
+		if ( value.hasChildren() ) {
+			for ( Entry<String, ValueVector> entry : value.children().entrySet() ) {
+				if ( !entry.getKey().startsWith( "@" ) ) {
+					for ( Value val : entry.getValue() ) {
+						writer.writeStartElement( entry.getKey() );
+						writeSoapElementContent( writer, val );
+						writer.writeEndElement();
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * Writes the envelope of a message that is not described by the schema set in a single pass,
+	 * producing the same document of buildSoapEnvelope without building its object model.
+	 */
+	private ByteArray writeSoapEnvelope( CommMessage message, SchemaModel.OperationEncoding operationEncoding )
 		throws IOException {
+		String messageNamespace = operationEncoding.messageNamespace();
+		ByteArrayOutputStream tmpStream = new ByteArrayOutputStream();
 		try {
-			inputId = message.operationName();
-			String messageNamespace = getOutputMessageNamespace( message.operationName() );
+			XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter( tmpStream, "utf-8" );
+			writer.writeStartDocument( "utf-8", "1.0" );
+			writer.writeStartElement( ENVELOPE_PREFIX, "Envelope", SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE );
+			writer.writeNamespace( ENVELOPE_PREFIX, SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE );
+			if ( operationEncoding.encodingStyle() != null ) {
+				writer.writeNamespace( "enc", operationEncoding.encodingStyle() );
+				writer.writeAttribute( ENVELOPE_PREFIX, SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE, "encodingStyle", operationEncoding.encodingStyle() );
+			}
+			writer.writeNamespace( "xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI );
+			writer.writeNamespace( "xsd", XMLConstants.W3C_XML_SCHEMA_NS_URI );
+			if ( !messageNamespace.isEmpty() ) {
+				writer.writeNamespace( "jolieMessage", messageNamespace );
+			}
+			writer.writeStartElement( ENVELOPE_PREFIX, "Body", SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE );
+			if ( messageNamespace.isEmpty() ) {
+				writer.writeStartElement( operationEncoding.rootElementName() );
+			} else {
+				writer.writeStartElement( "jolieMessage", operationEncoding.rootElementName(), messageNamespace );
+			}
+			String[] parameters = operationEncoding.parameterOrder();
+			if ( parameters == null ) {
+				writeSoapElementContent( writer, message.value() );
+			} else {
+				for ( String parameterName : parameters ) {
+					writer.writeStartElement( parameterName );
+					writeSoapElementContent( writer, message.value().getFirstChild( parameterName ) );
+					writer.writeEndElement();
+				}
+			}
+			writer.writeEndElement();
+			writer.writeEndElement();
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.close();
+		} catch ( XMLStreamException e ) {
+			throw new IOException( e );
+		}
+		return new ByteArray( tmpStream.toByteArray() );
+	}
 
+	private ByteArray buildSoapEnvelope( CommMessage message, SchemaModel.OperationEncoding operationEncoding )
+		throws IOException, SOAPException {
+		String messageNamespace = operationEncoding.messageNamespace();
+		SOAPMessage soapMessage = messageFactory.createMessage();
+		soapMessage.setProperty( SOAPMessage.WRITE_XML_DECLARATION, "true" );
+		soapMessage.setProperty( SOAPMessage.CHARACTER_SET_ENCODING, "utf-8" );
+		SOAPEnvelope soapEnvelope = soapMessage.getSOAPPart().getEnvelope();
+		if ( operationEncoding.encodingStyle() != null ) {
+			soapEnvelope.setEncodingStyle( operationEncoding.encodingStyle() );
+			soapEnvelope.addNamespaceDeclaration( "enc", operationEncoding.encodingStyle() );
+		}
+		SOAPBody soapBody = soapEnvelope.getBody();
+
+		if ( checkBooleanParameter( "wsAddressing" ) ) {
+			SOAPHeader soapHeader = soapEnvelope.getHeader();
+			// WS-Addressing namespace
+			soapHeader.addNamespaceDeclaration( "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
+			// Message ID
+			Name messageIdName = soapEnvelope.createName( "MessageID", "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
+			SOAPHeaderElement messageIdElement = soapHeader.addHeaderElement( messageIdName );
 			if ( received ) {
-				// We're responding to a request
-				inputId += "Response";
+				// TODO: remove this after we implement a mechanism for being sure message.id() is the one received before.
+				messageIdElement.setValue( "uuid:1" );
+			} else {
+				messageIdElement.setValue( "uuid:" + message.id() );
 			}
-
-			SOAPMessage soapMessage = messageFactory.createMessage();
-			soapMessage.setProperty( SOAPMessage.WRITE_XML_DECLARATION, "true" );
-			soapMessage.setProperty( SOAPMessage.CHARACTER_SET_ENCODING, "utf-8" );
-			SOAPEnvelope soapEnvelope = soapMessage.getSOAPPart().getEnvelope();
-			setOutputEncodingStyle( soapEnvelope, message.operationName() );
-			SOAPBody soapBody = soapEnvelope.getBody();
-
-			if ( checkBooleanParameter( "wsAddressing" ) ) {
-				SOAPHeader soapHeader = soapEnvelope.getHeader();
-				// WS-Addressing namespace
-				soapHeader.addNamespaceDeclaration( "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
-				// Message ID
-				Name messageIdName = soapEnvelope.createName( "MessageID", "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
-				SOAPHeaderElement messageIdElement = soapHeader.addHeaderElement( messageIdName );
-				if ( received ) {
-					// TODO: remove this after we implement a mechanism for being sure message.id() is the one received before.
-					messageIdElement.setValue( "uuid:1" );
-				} else {
-					messageIdElement.setValue( "uuid:" + message.id() );
-				}
-				// Action element
-				Name actionName = soapEnvelope.createName( "Action", "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
-				SOAPHeaderElement actionElement = soapHeader.addHeaderElement( actionName );
-				/*
+			// Action element
+			Name actionName = soapEnvelope.createName( "Action", "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
+			SOAPHeaderElement actionElement = soapHeader.addHeaderElement( actionName );
+			/*
                                 * TODO: the action element could be specified within the
                                 * parameter. Perhaps wsAddressing.action ? We could also allow
                                 * for giving a prefix or a suffix to the operation name, like
                                 * wsAddressing.action.prefix, wsAddressing.action.suffix
-				 */
-				actionElement.setValue( message.operationName() );
-				// From element
-				Name fromName = soapEnvelope.createName( "From", "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
-				SOAPHeaderElement fromElement = soapHeader.addHeaderElement( fromName );
-				Name addressName = soapEnvelope.createName( "Address", "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
-				SOAPElement addressElement = fromElement.addChildElement( addressName );
-				addressElement.setValue( "http://schemas.xmlsoap.org/ws/2004/03/addressing/role/anonymous" );
-				// To element
-				/*
+			 */
+			actionElement.setValue( message.operationName() );
+			// From element
+			Name fromName = soapEnvelope.createName( "From", "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
+			SOAPHeaderElement fromElement = soapHeader.addHeaderElement( fromName );
+			Name addressName = soapEnvelope.createName( "Address", "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing" );
+			SOAPElement addressElement = fromElement.addChildElement( addressName );
+			addressElement.setValue( "http://schemas.xmlsoap.org/ws/2004/03/addressing/role/anonymous" );
+			// To element
+			/*
                                 * if ( operation == null ) { // we are sending a Notification
                                 * or a Solicit Name toName = soapEnvelope.createName("To",
                                 * "wsa", "http://schemas.xmlsoap.org/ws/2004/03/addressing");
                                 * SOAPHeaderElement
                                 * toElement=soapHeader.addHeaderElement(toName);
                                 * toElement.setValue(getURI().getHost()); }
-				 */
-			}
+			 */
+		}
 
-			if ( message.isFault() ) {
-				FaultException f = message.fault();
-				SOAPFault soapFault = soapBody.addFault();
-				soapFault.setFaultCode( soapEnvelope.createQName( "Server", soapEnvelope.getPrefix() ) );
-				soapFault.setFaultString( f.getMessage() );
-				Detail detail = soapFault.addDetail();
-				DetailEntry de = detail.addDetailEntry( soapEnvelope.createName( f.faultName(), null, messageNamespace ) );
-				valueToSOAPElement( f.value(), de, soapEnvelope );
-			} else {
-				XSSchemaSet sSet = getSchemaSet();
-				XSElementDecl elementDecl;
-				String messageRootElementName = getOutputMessageRootElementName( message.operationName() );
-				if ( sSet == null
-					|| ( elementDecl = sSet.getElementDecl( messageNamespace, messageRootElementName ) ) == null ) {
-					Name operationName;
-					soapEnvelope.addNamespaceDeclaration( "xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI );
-					soapEnvelope.addNamespaceDeclaration( "xsd", XMLConstants.W3C_XML_SCHEMA_NS_URI );
-					if ( messageNamespace.isEmpty() ) {
-						operationName = soapEnvelope.createName( messageRootElementName );
-					} else {
-						soapEnvelope.addNamespaceDeclaration( "jolieMessage", messageNamespace );
-						operationName = soapEnvelope.createName( messageRootElementName, "jolieMessage", messageNamespace );
-					}
+		if ( message.isFault() ) {
+			FaultException f = message.fault();
+			SOAPFault soapFault = soapBody.addFault();
+			soapFault.setFaultCode( soapEnvelope.createQName( "Server", soapEnvelope.getPrefix() ) );
+			soapFault.setFaultString( f.getMessage() );
+			Detail detail = soapFault.addDetail();
+			DetailEntry de = detail.addDetailEntry( soapEnvelope.createName( f.faultName(), null, messageNamespace ) );
+			valueToSOAPElement( f.value(), de, soapEnvelope );
+		} else {
+			XSSchemaSet sSet = getSchemaModel().schemaSet();
+			XSElementDecl elementDecl = operationEncoding.elementDecl();
+			String messageRootElementName = operationEncoding.rootElementName();
+			if ( elementDecl == null ) {
+				Name operationName;
+				soapEnvelope.addNamespaceDeclaration( "xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI );
+				soapEnvelope.addNamespaceDeclaration( "xsd", XMLConstants.W3C_XML_SCHEMA_NS_URI );
+				if ( messageNamespace.isEmpty() ) {
+					operationName = soapEnvelope.createName( messageRootElementName );
+				} else {
+					soapEnvelope.addNamespaceDeclaration( "jolieMessage", messageNamespace );
+					operationName = soapEnvelope.createName( messageRootElementName, "jolieMessage", messageNamespace );
+				}
 
-					SOAPBodyElement opBody = soapBody.addBodyElement( operationName );
-					String[] parameters = getParameterOrder( message.operationName() );
-					if ( parameters == null ) {
-						valueToSOAPElement( message.value(), opBody, soapEnvelope );
-					} else {
-						for ( String parameterName : parameters ) {
-							valueToSOAPElement( message.value().getFirstChild( parameterName ), opBody.addChildElement( parameterName ), soapEnvelope );
+				SOAPBodyElement opBody = soapBody.addBodyElement( operationName );
+				String[] parameters = operationEncoding.parameterOrder();
+				if ( parameters == null ) {
+					valueToSOAPElement( message.value(), opBody, soapEnvelope );
+				} else {
+					for ( String parameterName : parameters ) {
+						valueToSOAPElement( message.value().getFirstChild( parameterName ), opBody.addChildElement( parameterName ), soapEnvelope );
+					}
+				}
+			} else {
+				initNamespacePrefixes( soapEnvelope );
+
+				if ( hasParameter( Parameters.ADD_ATTRIBUTE ) ) {
+					Value add_parameter = getParameterFirstValue( Parameters.ADD_ATTRIBUTE );
+					if ( add_parameter.hasChildren( Parameters.ENVELOPE ) ) {
+						// attributes must be added to the envelope
+						ValueVector attributes = add_parameter.getFirstChild( Parameters.ENVELOPE ).getChildren( "attribute" );
+						for ( Value att : attributes ) {
+							soapEnvelope.addNamespaceDeclaration( att.getFirstChild( "name" ).strValue(), att.getFirstChild( "value" ).strValue() );
 						}
 					}
-				} else {
-					initNamespacePrefixes( soapEnvelope );
-
+				}
+				boolean wrapped = true;
+				Value vStyle = getParameterVector( Parameters.STYLE ).first();
+				if ( "document".equals( vStyle.strValue() ) ) {
+					wrapped = vStyle.getFirstChild( Parameters.WRAPPED ).boolValue();
+				}
+				SOAPElement opBody = soapBody;
+				if ( wrapped ) {
+					opBody = soapBody.addBodyElement(
+						soapEnvelope.createName( messageRootElementName, operationEncoding.rootElementPrefix(), null ) );
+					// adding forced attributes to operation
 					if ( hasParameter( Parameters.ADD_ATTRIBUTE ) ) {
 						Value add_parameter = getParameterFirstValue( Parameters.ADD_ATTRIBUTE );
-						if ( add_parameter.hasChildren( Parameters.ENVELOPE ) ) {
-							// attributes must be added to the envelope
-							ValueVector attributes = add_parameter.getFirstChild( Parameters.ENVELOPE ).getChildren( "attribute" );
-							for ( Value att : attributes ) {
-								soapEnvelope.addNamespaceDeclaration( att.getFirstChild( "name" ).strValue(), att.getFirstChild( "value" ).strValue() );
-							}
-						}
-					}
-					boolean wrapped = true;
-					Value vStyle = getParameterVector( Parameters.STYLE ).first();
-					if ( "document".equals( vStyle.strValue() ) ) {
-						wrapped = vStyle.getFirstChild( Parameters.WRAPPED ).boolValue();
-					}
-					SOAPElement opBody = soapBody;
-					if ( wrapped ) {
-						opBody = soapBody.addBodyElement(
-							soapEnvelope.createName( messageRootElementName, namespacePrefixMap.get( elementDecl.getOwnerSchema().getTargetNamespace() ), null ) );
-						// adding forced attributes to operation
-						if ( hasParameter( Parameters.ADD_ATTRIBUTE ) ) {
-							Value add_parameter = getParameterFirstValue( Parameters.ADD_ATTRIBUTE );
-							if ( add_parameter.hasChildren( Parameters.OPERATION ) ) {
-								ValueVector operations = add_parameter.getChildren( Parameters.OPERATION );
-								for ( Value op : operations ) {
-									if ( op.getFirstChild( "operation_name" ).strValue().equals( message.operationName() ) ) {
-										// attributes must be added to the envelope
-										Value attribute = op.getFirstChild( "attribute" );
-										QName attrName;
-										if ( attribute.hasChildren( "prefix" ) ) {
-											attrName = opBody.createQName( attribute.getFirstChild( "name" ).strValue(), attribute.getFirstChild( "prefix" ).strValue() );
-										} else {
-											attrName = opBody.createQName( attribute.getFirstChild( "name" ).strValue(), null );
-										}
-										opBody.addAttribute( attrName, attribute.getFirstChild( "value" ).strValue() );
+						if ( add_parameter.hasChildren( Parameters.OPERATION ) ) {
+							ValueVector operations = add_parameter.getChildren( Parameters.OPERATION );
+							for ( Value op : operations ) {
+								if ( op.getFirstChild( "operation_name" ).strValue().equals( message.operationName() ) ) {
+									// attributes must be added to the envelope
+									Value attribute = op.getFirstChild( "attribute" );
+									QName attrName;
+									if ( attribute.hasChildren( "prefix" ) ) {
+										attrName = opBody.createQName( attribute.getFirstChild( "name" ).strValue(), attribute.getFirstChild( "prefix" ).strValue() );
+									} else {
+										attrName = opBody.createQName( attribute.getFirstChild( "name" ).strValue(), null );
 									}
+									opBody.addAttribute( attrName, attribute.getFirstChild( "value" ).strValue() );
 								}
 							}
 						}
 					}
-					valueToTypedSOAP( message.value(), elementDecl, opBody, soapEnvelope, !wrapped, sSet, messageNamespace );
 				}
+				valueToTypedSOAP( message.value(), elementDecl, opBody, soapEnvelope, !wrapped, sSet, messageNamespace );
 			}
+		}
+
+		if ( soapEnvelope.getHeader().hasChildNodes() == false ) {
+			// Some service implementations do not like empty headers
+			soapEnvelope.getHeader().detachNode();
+		}
 
-			if ( soapEnvelope.getHeader().hasChildNodes() == false ) {
-				// Some service implementations do not like empty headers
-				soapEnvelope.getHeader().detachNode();
+		ByteArrayOutputStream tmpStream = new ByteArrayOutputStream();
+		soapMessage.writeTo( tmpStream );
+		return new ByteArray( tmpStream.toByteArray() );
+	}
+
+	public FullHttpMessage buildSoapMessage( CommMessage message )
+		throws IOException {
+		try {
+			inputId = message.operationName();
+			SchemaModel.OperationEncoding operationEncoding = getOperationEncoding( message.operationName() );
+
+			if ( received ) {
+				// We're responding to a request
+				inputId += "Response";
 			}
 
-			ByteArrayOutputStream tmpStream = new ByteArrayOutputStream();
-			soapMessage.writeTo( tmpStream );
-			ByteArray content = new ByteArray( tmpStream.toByteArray() );
+			ByteArray content;
+			if ( !message.isFault() && operationEncoding.elementDecl() == null && !checkBooleanParameter( "wsAddressing" ) ) {
+				// plain messages do not need the SAAJ object model
+				content = writeSoapEnvelope( message, operationEncoding );
+			} else {
+				content = buildSoapEnvelope( message, operationEncoding );
+			}
 
 			FullHttpMessage httpMessage;
 			String soapAction = null;
@@ -878,7 +1044,7 @@ public class SoapProtocol extends AsyncCommProtocol {
 				* soapAction = "SOAPAction: \"" + messageNamespace + "/" +
 				* message.operationName() + '\"' + HttpUtils.CRLF;
 				 */
-				soapAction = "SOAPAction: \"" + getSoapActionForOperation( message.operationName() ) + "\"";
+				soapAction = "SOAPAction: \"" + operationEncoding.soapAction() + "\"";
 
 				if ( checkBooleanParameter( "compression", true ) ) {
 					String requestCompression = getStringParameter( "requestCompression" );
@@ -914,7 +1080,7 @@ public class SoapProtocol extends AsyncCommProtocol {
 
 			httpMessage.content().writeBytes( content.getBytes() );
 			return httpMessage;
-		} catch ( SOAPException | SAXException se ) {
+		} catch ( SOAPException se ) {
 			throw new IOException( se );
 		}
 	}
@@ -975,6 +1141,10 @@ public class SoapProtocol extends AsyncCommProtocol {
 			}
 		}
 
+		setXsiType( value, type );
+	}
+
+	private static void setXsiType( Value value, String type ) {
 		if ( "xsd:int".equals( type ) ) {
 			value.setValue( value.intValue() );
 		} else if ( "xsd:long".equals( type ) ) {
@@ -986,6 +1156,144 @@ public class SoapProtocol extends AsyncCommProtocol {
 		}
 	}
 
+	private static Schema newValidationSchema( List<String> schemaPaths )
+		throws IOException {
+		List<Source> sources = new LinkedList<Source>();
+		for ( String schemaPath : schemaPaths ) {
+			sources.add( new StreamSource( new File( schemaPath ) ) );
+		}
+		try {
+			return SchemaFactory.newInstance( XMLConstants.W3C_XML_SCHEMA_NS_URI ).newSchema( sources.toArray( new Source[ 0 ] ) );
+		} catch ( SAXException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/*
+	 * Moves the reader to the next child element of the current element and returns true,
+	 * or to the end of the current element and returns false. Text and comments are skipped.
+	 */
+	private static boolean nextChildElement( XMLStreamReader reader )
+		throws XMLStreamException {
+		while ( reader.hasNext() ) {
+			switch ( reader.next() ) {
+				case XMLStreamConstants.START_ELEMENT:
+					return true;
+				case XMLStreamConstants.END_ELEMENT:
+					return false;
+			}
+		}
+		throw new XMLStreamException( "Unexpected end of document" );
+	}
+
+	private static void skipElement( XMLStreamReader reader )
+		throws XMLStreamException {
+		while ( nextChildElement( reader ) ) {
+			skipElement( reader );
+		}
+	}
+
+	private static String getQualifiedName( String prefix, String localName ) {
+		return ( prefix == null || prefix.isEmpty() ) ? localName : prefix + ":" + localName;
+	}
+
+	/*
+	 * The streaming counterpart of xmlNodeToValue: reads the current element, leaving the reader on its end tag.
+	 */
+	private void xmlStreamToValue( Value value, XMLStreamReader reader, boolean isRecRoot )
+		throws XMLStreamException {
+		String type = "xsd:string";
+		boolean nil = false;
+
+		// Set attributes
+		for ( int i = 0; i < reader.getAttributeCount(); i++ ) {
+			if ( XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI.equals( reader.getAttributeNamespace( i ) ) ) {
+				switch ( reader.getAttributeLocalName( i ) ) {
+					case "type":
+						type = reader.getAttributeValue( i );
+						break;
+					case "nil":
+						nil = "true".equals( reader.getAttributeValue( i ) );
+						break;
+					default:
+						if ( convertAttributes() ) {
+							getAttribute( value, getQualifiedName( reader.getAttributePrefix( i ), reader.getAttributeLocalName( i ) ) )
+								.setValue( reader.getAttributeValue( i ) );
+						}
+						break;
+				}
+			} else if ( convertAttributes() ) {
+				getAttribute( value, getQualifiedName( reader.getAttributePrefix( i ), reader.getAttributeLocalName( i ) ) )
+					.setValue( reader.getAttributeValue( i ) );
+			}
+		}
+		if ( convertAttributes() ) {
+			// namespace declarations are attributes in the DOM
+			for ( int i = 0; i < reader.getNamespaceCount(); i++ ) {
+				getAttribute( value, getQualifiedName( "xmlns", reader.getNamespacePrefix( i ) ) )
+					.setValue( reader.getNamespaceURI( i ) );
+			}
+		}
+
+		// Set children
+		StringBuilder tmpNodeValue = new StringBuilder();
+		boolean foundSubElements = false;
+		int event;
+		while ( ( event = reader.next() ) != XMLStreamConstants.END_ELEMENT ) {
+			switch ( event ) {
+				case XMLStreamConstants.START_ELEMENT:
+					xmlStreamToValue( value.getNewChild( reader.getLocalName() ), reader, false );
+					foundSubElements = true;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					tmpNodeValue.append( reader.getText() );
+					break;
+				case XMLStreamConstants.END_DOCUMENT:
+					throw new XMLStreamException( "Unexpected end of document" );
+			}
+		}
+
+		// the content of the root of a mixed element is not extracted
+		if ( !foundSubElements && !nil ) {
+			if ( !isRecRoot ) {
+				value.setValue( tmpNodeValue.toString() );
+			}
+		}
+
+		setXsiType( value, type );
+	}
+
+	private FaultException readSoapFault( XMLStreamReader reader )
+		throws XMLStreamException {
+		String faultName = "UnknownFault";
+		String faultString = "";
+		Value faultValue = Value.create();
+		while ( nextChildElement( reader ) ) {
+			switch ( reader.getLocalName() ) {
+				case "faultstring":
+					faultString = reader.getElementText();
+					break;
+				case "detail":
+					if ( nextChildElement( reader ) ) {
+						faultName = reader.getLocalName();
+						xmlStreamToValue( faultValue, reader, true );
+						while ( nextChildElement( reader ) ) {
+							skipElement( reader );
+						}
+					} else {
+						faultValue.setValue( faultString );
+					}
+					break;
+				default:
+					skipElement( reader );
+					break;
+			}
+		}
+		return new FaultException( faultName, faultValue );
+	}
+
 	private static Element getFirstElement( Node node ) {
 		NodeList nodes = node.getChildNodes();
 		for ( int i = 0; i < nodes.getLength(); i++ ) {
@@ -1019,79 +1327,91 @@ public class SoapProtocol extends AsyncCommProtocol {
 					interpreter.logInfo( "[SOAP debug] Receiving:\n" + message.content().toString( Charset.forName( charset ) ) );
 				}
 
-				SOAPMessage soapMessage = messageFactory.createMessage();
-				DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-				/*
-				* Schema messageSchema = getRecvMessageValidationSchema(); if (
-				* messageSchema != null ) {
-				* factory.setIgnoringElementContentWhitespace( true );
-				* factory.setSchema( messageSchema ); }
-				 */
-				factory.setNamespaceAware( true );
-				DocumentBuilder builder = factory.newDocumentBuilder();
-				byte[] content = new byte[ message.content().readableBytes() ];
-				message.content().readBytes( content, 0, content.length );
-				InputSource src = new InputSource( new ByteArrayInputStream( content ) );
-				src.setEncoding( charset );
-				Document doc = builder.parse( src );
-				DOMSource dom = new DOMSource( doc );
-				soapMessage.getSOAPPart().setContent( dom );
-
-				/*
-				* if ( checkBooleanParameter( "debugAfter" ) ) {
-				* ByteArrayOutputStream tmpStream = new
-				* ByteArrayOutputStream(); soapMessage.writeTo( tmpStream );
-				* interpreter.logInfo( "[SOAP debug] Receiving:\n" +
-				* tmpStream.toString() ); }
-				 */
-				SOAPFault soapFault = soapMessage.getSOAPBody().getFault();
-				if ( soapFault == null ) {
-					Element soapValueElement = getFirstElement( soapMessage.getSOAPBody() );
-					messageId = soapValueElement.getLocalName();
-
-					if ( !channel().parentPort().getInterface().containsOperation( messageId ) ) {
-						String soapActionHeader = ( message.headers().contains( "soapaction" ) ? message.headers().get( "soapaction" ) : "" );
-						String[] soapAction = soapActionHeader.replaceAll( "\"", "" ).split( "/" );
-						messageId = soapAction[ soapAction.length - 1 ];
-						if ( checkBooleanParameter( "debug" ) ) {
-							interpreter.logInfo( "Operation from SoapAction:" + messageId );
-						}
+				List<String> validatedPaths = new ArrayList<>();
+				for ( Value schemaPath : getParameterVector( "schema" ) ) {
+					if ( schemaPath.getChildren( "validate" ).first().intValue() > 0 ) {
+						validatedPaths.add( schemaPath.strValue() );
 					}
+				}
 
-					// explanation: https://github.com/jolie/jolie/issues/5
-					xmlNodeToValue( value, soapValueElement, checkBooleanParameter( "dropRootValue", false ) );
-
-					ValueVector schemaPaths = getParameterVector( "schema" );
-					if ( schemaPaths.size() > 0 ) {
-						List<Source> sources = new LinkedList<Source>();
-						Value schemaPath;
-						for ( int i = 0; i < schemaPaths.size(); i++ ) {
-							schemaPath = schemaPaths.get( i );
-							if ( schemaPath.getChildren( "validate" ).first().intValue() > 0 ) {
-								sources.add( new StreamSource( new File( schemaPaths.get( i ).strValue() ) ) );
+				if ( validatedPaths.isEmpty() ) {
+					// no validation: the envelope is converted in a single pass, without building its DOM
+					XMLStreamReader reader = xmlInputFactory.createXMLStreamReader( new ByteBufInputStream( message.content() ), charset );
+					try {
+						reader.nextTag();
+						while ( nextChildElement( reader ) ) {
+							if ( reader.getLocalName().equals( "Body" ) ) {
+								if ( nextChildElement( reader ) ) {
+									if ( reader.getLocalName().equals( "Fault" )
+										&& SOAPConstants.URI_NS_SOAP_1_1_ENVELOPE.equals( reader.getNamespaceURI() ) ) {
+										fault = readSoapFault( reader );
+									} else {
+										messageId = recv_getOperationName( reader.getLocalName(), message );
+										// explanation: https://github.com/jolie/jolie/issues/5
+										xmlStreamToValue( value, reader, checkBooleanParameter( "dropRootValue", false ) );
+									}
+									while ( nextChildElement( reader ) ) {
+										skipElement( reader );
+									}
+								}
+							} else {
+								skipElement( reader );
 							}
 						}
-
-						if ( !sources.isEmpty() ) {
-							Schema schema
-								= SchemaFactory.newInstance( XMLConstants.W3C_XML_SCHEMA_NS_URI ).newSchema( sources.toArray( new Source[ 0 ] ) );
-							schema.newValidator().validate( new DOMSource( soapMessage.getSOAPBody().getFirstChild() ) );
-						}
+					} finally {
+						reader.close();
 					}
 				} else {
-					String faultName = "UnknownFault";
-					Value faultValue = Value.create();
-					Detail d = soapFault.getDetail();
-					if ( d != null ) {
-						Node n = d.getFirstChild();
-						if ( n != null ) {
-							faultName = n.getLocalName();
-							xmlNodeToValue( faultValue, n, true );
-						} else {
-							faultValue.setValue( soapFault.getFaultString() );
+					SOAPMessage soapMessage = messageFactory.createMessage();
+					DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+					/*
+					* Schema messageSchema = getRecvMessageValidationSchema(); if (
+					* messageSchema != null ) {
+					* factory.setIgnoringElementContentWhitespace( true );
+					* factory.setSchema( messageSchema ); }
+					 */
+					factory.setNamespaceAware( true );
+					DocumentBuilder builder = factory.newDocumentBuilder();
+					byte[] content = new byte[ message.content().readableBytes() ];
+					message.content().readBytes( content, 0, content.length );
+					InputSource src = new InputSource( new ByteArrayInputStream( content ) );
+					src.setEncoding( charset );
+					Document doc = builder.parse( src );
+					DOMSource dom = new DOMSource( doc );
+					soapMessage.getSOAPPart().setContent( dom );
+
+					/*
+					* if ( checkBooleanParameter( "debugAfter" ) ) {
+					* ByteArrayOutputStream tmpStream = new
+					* ByteArrayOutputStream(); soapMessage.writeTo( tmpStream );
+					* interpreter.logInfo( "[SOAP debug] Receiving:\n" +
+					* tmpStream.toString() ); }
+					 */
+					SOAPFault soapFault = soapMessage.getSOAPBody().getFault();
+					if ( soapFault == null ) {
+						Element soapValueElement = getFirstElement( soapMessage.getSOAPBody() );
+						messageId = recv_getOperationName( soapValueElement.getLocalName(), message );
+
+						// explanation: https://github.com/jolie/jolie/issues/5
+						xmlNodeToValue( value, soapValueElement, checkBooleanParameter( "dropRootValue", false ) );
+
+						Schema schema = SchemaCache.getInstance().getValidationSchema( validatedPaths, () -> newValidationSchema( validatedPaths ) );
+						schema.newValidator().validate( new DOMSource( soapMessage.getSOAPBody().getFirstChild() ) );
+					} else {
+						String faultName = "UnknownFault";
+						Value faultValue = Value.create();
+						Detail d = soapFault.getDetail();
+						if ( d != null ) {
+							Node n = d.getFirstChild();
+							if ( n != null ) {
+								faultName = n.getLocalName();
+								xmlNodeToValue( faultValue, n, true );
+							} else {
+								faultValue.setValue( soapFault.getFaultString() );
+							}
 						}
+						fault = new FaultException( faultName, faultValue );
 					}
-					fault = new FaultException( faultName, faultValue );
 				}
 			}
 
@@ -1112,7 +1432,7 @@ public class SoapProtocol extends AsyncCommProtocol {
 			}
 		} catch ( SOAPException | ParserConfigurationException e ) {
 			throw new IOException( e );
-		} catch ( SAXException e ) {
+		} catch ( SAXException | XMLStreamException e ) {
 			//TODO support resourcePath
 //			retVal = new CommMessage( CommMessage.GENERIC_ID, messageId, "/", value, new FaultException( "TypeMismatch", e ) );
 			retVal = new CommMessage( CommMessage.getNewMessageId(), messageId, "/", value, new FaultException( "TypeMismatch", e ) );
@@ -1160,6 +1480,23 @@ public class SoapProtocol extends AsyncCommProtocol {
 		return retVal;
 	}
 
+	/*
+	 * Returns the operation invoked by a received message, given the local name of its root element.
+	 * If the interface does not contain such an operation, the name is taken from the SOAPAction header.
+	 */
+	private String recv_getOperationName( String rootElementName, FullHttpMessage message ) {
+		String messageId = rootElementName;
+		if ( !channel().parentPort().getInterface().containsOperation( messageId ) ) {
+			String soapActionHeader = ( message.headers().contains( "soapaction" ) ? message.headers().get( "soapaction" ) : "" );
+			String[] soapAction = soapActionHeader.replaceAll( "\"", "" ).split( "/" );
+			messageId = soapAction[ soapAction.length - 1 ];
+			if ( checkBooleanParameter( "debug" ) ) {
+				interpreter.logInfo( "Operation from SoapAction:" + messageId );
+			}
+		}
+		return messageId;
+	}
+
 	private String recv_getResourcePath( FullHttpMessage message ) {
 		if ( checkBooleanParameter( "interpretResource" )
 			&& message instanceof FullHttpRequest ) {
@@ -24,6 +24,8 @@ package jolie.net;
 import java.io.IOException;
 import java.net.URI;
 import javax.xml.soap.SOAPException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
 import jolie.net.ext.CommProtocolFactory;
 import jolie.net.protocols.CommProtocol;
 import jolie.runtime.AndJarDeps;
@@ -52,16 +54,23 @@ import jolie.runtime.VariablePath;
 })
 public class SoapProtocolFactory extends CommProtocolFactory
 {
+	private final XMLInputFactory xmlInputFactory;
+	private final XMLOutputFactory xmlOutputFactory;
+
 	public SoapProtocolFactory( CommCore commCore )
 	{
 		super( commCore );
+		xmlInputFactory = XMLInputFactory.newInstance();
+		xmlInputFactory.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+		xmlInputFactory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+		xmlOutputFactory = XMLOutputFactory.newInstance();
 	}
 
 	public CommProtocol createInputProtocol( VariablePath configurationPath, URI location )
 		throws IOException
 	{
 		try {
-			return new SoapProtocol( configurationPath, location, true, commCore().interpreter() );
+			return new SoapProtocol( configurationPath, location, true, xmlInputFactory, xmlOutputFactory, commCore().interpreter() );
 		} catch( SOAPException e ) {
 			throw new IOException( e );
 		}
@@ -71,7 +80,7 @@ public class SoapProtocolFactory extends CommProtocolFactory
 		throws IOException
 	{
 		try {
-			return new SoapProtocol( configurationPath, location, false, commCore().interpreter() );
+			return new SoapProtocol( configurationPath, location, false, xmlInputFactory, xmlOutputFactory, commCore().interpreter() );
 		} catch( SOAPException e ) {
 			throw new IOException( e );
 		}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+
+package jolie.net.soap;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import javax.xml.validation.Schema;
+
+/**
+ * Implements a cache of parsed schema models for the SOAP protocol.
+ *
+ * Models are keyed on the WSDL document URL and the schema files given in the
+ * protocol configuration, so that they are shared by all the channels of the
+ * interpreters running in this JVM. Concurrent requests for the same key wait for a single
+ * parsing to complete; failed parsings are not cached.
+ */
+public class SchemaCache
+{
+	public interface Loader< T >
+	{
+		T load()
+			throws IOException;
+	}
+
+	private static final SchemaCache instance = new SchemaCache();
+
+	private final Map< String, Future< SchemaModel > > models = new ConcurrentHashMap<>();
+	private final Map< String, Future< Schema > > validationSchemas = new ConcurrentHashMap<>();
+
+	private SchemaCache()
+	{}
+
+	public static SchemaCache getInstance()
+	{
+		return instance;
+	}
+
+	/**
+	 * Returns the schema model for the given WSDL document and schema files,
+	 * using the loader to build it if it is not cached yet.
+	 * @param wsdlUrl the URL of the WSDL document, or <code>null</code> if none is used
+	 * @param schemaFiles the paths of the schema files
+	 * @param loader the loader used to parse the model
+	 * @return the schema model
+	 * @throws IOException if the model could not be loaded
+	 */
+	public SchemaModel getModel( String wsdlUrl, List< String > schemaFiles, Loader< SchemaModel > loader )
+		throws IOException
+	{
+		return get( models, ( wsdlUrl == null ? "" : wsdlUrl ) + '\n' + String.join( "\n", schemaFiles ), loader );
+	}
+
+	/**
+	 * Returns the validation schema compiled from the given schema files,
+	 * using the loader to compile it if it is not cached yet.
+	 * @param schemaFiles the paths of the schema files
+	 * @param loader the loader used to compile the schema
+	 * @return the validation schema
+	 * @throws IOException if the schema could not be compiled
+	 */
+	public Schema getValidationSchema( List< String > schemaFiles, Loader< Schema > loader )
+		throws IOException
+	{
+		return get( validationSchemas, String.join( "\n", schemaFiles ), loader );
+	}
+
+	private static < T > T get( Map< String, Future< T > > cache, String key, Loader< T > loader )
+		throws IOException
+	{
+		Future< T > future = cache.get( key );
+		if ( future == null ) {
+			FutureTask< T > task = new FutureTask<>( loader::load );
+			future = cache.putIfAbsent( key, task );
+			if ( future == null ) {
+				future = task;
+				task.run();
+			}
+		}
+		try {
+			return future.get();
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IOException( e );
+		} catch( ExecutionException e ) {
+			cache.remove( key, future );
+			if ( e.getCause() instanceof IOException ) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException( e.getCause() );
+		}
+	}
+}
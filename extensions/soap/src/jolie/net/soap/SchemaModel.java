@@ -0,0 +1,171 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+
+package jolie.net.soap;
+
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSSchema;
+import com.sun.xml.xsom.XSSchemaSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.XMLConstants;
+
+/**
+ * The parsed schemas of a SOAP port, together with the namespace prefixes
+ * used when encoding messages and the encoding plans of the operations.
+ *
+ * Instances are shared among channels (see {@link SchemaCache}) and are never
+ * modified after construction, apart from the addition of encoding plans.
+ */
+public class SchemaModel
+{
+	/**
+	 * What is needed to encode the messages of an operation in one direction
+	 * (request or response), as computed from the WSDL document and the schema set.
+	 */
+	public static class OperationEncoding
+	{
+		private final String messageNamespace;
+		private final String rootElementName;
+		private final XSElementDecl elementDecl;
+		private final String rootElementPrefix;
+		private final String[] parameterOrder;
+		private final String encodingStyle;
+		private final String soapAction;
+
+		public OperationEncoding(
+			String messageNamespace,
+			String rootElementName,
+			XSElementDecl elementDecl,
+			String rootElementPrefix,
+			String[] parameterOrder,
+			String encodingStyle,
+			String soapAction
+		) {
+			this.messageNamespace = messageNamespace;
+			this.rootElementName = rootElementName;
+			this.elementDecl = elementDecl;
+			this.rootElementPrefix = rootElementPrefix;
+			this.parameterOrder = parameterOrder;
+			this.encodingStyle = encodingStyle;
+			this.soapAction = soapAction;
+		}
+
+		public String messageNamespace()
+		{
+			return messageNamespace;
+		}
+
+		public String rootElementName()
+		{
+			return rootElementName;
+		}
+
+		/**
+		 * @return the declaration of the root element, or <code>null</code> if
+		 * the message is not described by the schema set
+		 */
+		public XSElementDecl elementDecl()
+		{
+			return elementDecl;
+		}
+
+		public String rootElementPrefix()
+		{
+			return rootElementPrefix;
+		}
+
+		/**
+		 * @return the parameter ordering of the operation, or <code>null</code> if it is not specified
+		 */
+		public String[] parameterOrder()
+		{
+			return parameterOrder;
+		}
+
+		/**
+		 * @return the encoding style of the output message, or <code>null</code> if it is not specified
+		 */
+		public String encodingStyle()
+		{
+			return encodingStyle;
+		}
+
+		/**
+		 * @return the SOAPAction of the operation, or <code>null</code> for responses
+		 */
+		public String soapAction()
+		{
+			return soapAction;
+		}
+	}
+
+	private final XSSchemaSet schemaSet;
+	private final Map< String, String > namespacePrefixMap;
+	private final Map< String, OperationEncoding > operationEncodings = new ConcurrentHashMap<>();
+
+	public SchemaModel( XSSchemaSet schemaSet )
+	{
+		this.schemaSet = schemaSet;
+		Map< String, String > prefixes = new HashMap<>();
+		if ( schemaSet != null ) {
+			String nsPrefix = "jolie";
+			int i = 1;
+			for( XSSchema schema : schemaSet.getSchemas() ) {
+				if ( !schema.getTargetNamespace().equals( XMLConstants.W3C_XML_SCHEMA_NS_URI ) ) {
+					prefixes.put( schema.getTargetNamespace(), nsPrefix + i++ );
+				}
+			}
+		}
+		this.namespacePrefixMap = Collections.unmodifiableMap( prefixes );
+	}
+
+	/**
+	 * @return the parsed schema set, or <code>null</code> if parsing produced no result
+	 */
+	public XSSchemaSet schemaSet()
+	{
+		return schemaSet;
+	}
+
+	public Map< String, String > namespacePrefixMap()
+	{
+		return namespacePrefixMap;
+	}
+
+	public OperationEncoding getOperationEncoding( String key )
+	{
+		return operationEncodings.get( key );
+	}
+
+	/**
+	 * Stores the encoding plan for the given key, unless another one has been stored
+	 * in the meantime.
+	 * @param key the key of the plan
+	 * @param encoding the plan to store
+	 * @return the plan stored for the key
+	 */
+	public OperationEncoding putOperationEncoding( String key, OperationEncoding encoding )
+	{
+		OperationEncoding previous = operationEncodings.putIfAbsent( key, encoding );
+		return ( previous == null ) ? encoding : previous;
+	}
+}
@@ -21,8 +21,8 @@
 
 package jolie.net.soap;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.wsdl.Definition;
 import javax.wsdl.WSDLException;
 import javax.wsdl.factory.WSDLFactory;
@@ -31,6 +31,9 @@ import javax.wsdl.xml.WSDLReader;
 /**
  * Implements a WSDL document cache for the SOAP protocol.
  *
+ * Lookups do not lock: if the same document is requested concurrently before
+ * being cached, it may be read more than once, but only one definition is kept.
+ *
  * @author Fabrizio Montesi
  * TODO: WSDL document removal after some time
  */
@@ -44,7 +47,7 @@ public class WSDLCache
 	private WSDLCache()
 		throws WSDLException
 	{
-		cache = new HashMap< String, Definition >();
+		cache = new ConcurrentHashMap<>();
 		factory = WSDLFactory.newInstance();
 	}
 
@@ -57,7 +60,7 @@ public class WSDLCache
 		return instance;
 	}
 
-	public synchronized Definition get( String url )
+	public Definition get( String url )
 		throws WSDLException
 	{
 		Definition definition = cache.get( url );
@@ -65,7 +68,10 @@ public class WSDLCache
 			WSDLReader reader = factory.newWSDLReader();
 			reader.setFeature( "javax.wsdl.verbose", false );
 			definition = reader.readWSDL( url );
-			cache.put( url, definition );
+			Definition previous = cache.putIfAbsent( url, definition );
+			if ( previous != null ) {
+				definition = previous;
+			}
 		}
 		return definition;
 	}
@@ -26,7 +26,7 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.ByteToMessageCodec;
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -165,38 +165,40 @@ public class SodepProtocol extends AsyncCommProtocol {
 	}
 
 	private void writeValue( ByteBuf out, Value value ) {
-		Object valueObject = value.valueObject();
-		if ( valueObject == null ) {
-			out.writeByte( DataTypeHeaderId.NULL );
-		} else if ( valueObject instanceof String ) {
-			out.writeByte( DataTypeHeaderId.STRING );
-			writeString( out, ( String ) valueObject );
-		} else if ( valueObject instanceof Integer ) {
+		// primitives are read without boxing them
+		if ( value.isInt() ) {
 			out.writeByte( DataTypeHeaderId.INT );
-			out.writeInt( ( Integer ) valueObject );
-		} else if ( valueObject instanceof Double ) {
+			out.writeInt( value.intValue() );
+		} else if ( value.isLong() ) {
+			out.writeByte( DataTypeHeaderId.LONG );
+			out.writeLong( value.longValue() );
+		} else if ( value.isDouble() ) {
 			out.writeByte( DataTypeHeaderId.DOUBLE );
-			out.writeDouble( ( Double ) valueObject );
-		} else if ( valueObject instanceof ByteArray ) {
-			out.writeByte( DataTypeHeaderId.BYTE_ARRAY );
-			writeByteArray( out, ( ByteArray ) valueObject );
-		} else if ( valueObject instanceof Boolean ) {
+			out.writeDouble( value.doubleValue() );
+		} else if ( value.isBool() ) {
 			out.writeByte( DataTypeHeaderId.BOOL );
-			out.writeBoolean( ( Boolean ) valueObject );
-		} else if ( valueObject instanceof Long ) {
-			out.writeByte( DataTypeHeaderId.LONG );
-			out.writeLong( ( Long ) valueObject );
+			out.writeBoolean( value.boolValue() );
 		} else {
-			out.writeByte( DataTypeHeaderId.NULL );
+			Object valueObject = value.valueObject();
+			if ( valueObject instanceof String ) {
+				out.writeByte( DataTypeHeaderId.STRING );
+				writeString( out, ( String ) valueObject );
+			} else if ( valueObject instanceof ByteArray ) {
+				out.writeByte( DataTypeHeaderId.BYTE_ARRAY );
+				writeByteArray( out, ( ByteArray ) valueObject );
+			} else {
+				out.writeByte( DataTypeHeaderId.NULL );
+			}
 		}
 
-		Map< String, ValueVector> children = value.children();
-		List< Entry< String, ValueVector>> entries
-			= new LinkedList< Entry< String, ValueVector>>();
-		for ( Entry< String, ValueVector> entry : children.entrySet() ) {
-			entries.add( entry );
+		if ( !value.hasChildren() ) {
+			out.writeInt( 0 );
+			return;
 		}
 
+		List< Entry< String, ValueVector>> entries
+			= new ArrayList< Entry< String, ValueVector>>( value.children().entrySet() );
+
 		out.writeInt( entries.size() );
 		for ( Entry< String, ValueVector> entry : entries ) {
 			writeString( out, entry.getKey() );
@@ -223,39 +225,41 @@ public class SodepProtocol extends AsyncCommProtocol {
 
 	private Value readValue( ByteBuf in )
 		throws IndexOutOfBoundsException {
-		Value value = Value.create();
-		Object valueObject = null;
+		Value value;
 		byte b = in.readByte();
 		switch ( b ) {
 			case DataTypeHeaderId.STRING:
-				valueObject = readString( in );
+				value = Value.create( readString( in ) );
 				break;
 			case DataTypeHeaderId.INT:
-				valueObject = in.readInt();
+				value = Value.create( in.readInt() );
 				break;
 			case DataTypeHeaderId.LONG:
-				valueObject = in.readLong();
+				value = Value.create( in.readLong() );
 				break;
 			case DataTypeHeaderId.DOUBLE:
-				valueObject = in.readDouble();
+				value = Value.create( in.readDouble() );
 				break;
 			case DataTypeHeaderId.BYTE_ARRAY:
-				valueObject = readByteArray( in );
+				value = Value.create( readByteArray( in ) );
 				break;
 			case DataTypeHeaderId.BOOL:
-				valueObject = in.readBoolean();
+				value = Value.create( in.readBoolean() );
 				break;
 			case DataTypeHeaderId.NULL:
 			default:
+				value = Value.create();
 				break;
 		}
 
-		value.setValue( valueObject );
-
-		Map< String, ValueVector> children = value.children();
 		String s;
 		int n, i, size, k;
 		n = in.readInt(); // How many children?
+		if ( n == 0 ) {
+			return value;
+		}
+
+		Map< String, ValueVector> children = value.children();
 		ValueVector vec;
 
 		for ( i = 0; i < n; i++ ) {
@@ -40,24 +40,21 @@ import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpVersion;
-import java.io.ByteArrayInputStream;
+import io.netty.buffer.ByteBufInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map.Entry;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import jolie.Interpreter;
 import jolie.net.http.HttpUtils;
 import jolie.net.http.Method;
@@ -68,12 +65,6 @@ import jolie.runtime.FaultException;
 import jolie.runtime.Value;
 import jolie.runtime.ValueVector;
 import jolie.runtime.VariablePath;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 /** Implements the XML-RPC over HTTP protocol.
  * 
@@ -104,10 +95,9 @@ import org.xml.sax.SAXException;
 public class XmlRpcProtocol extends AsyncCommProtocol {
 
 	private String inputId = null;
-	final private Transformer transformer;
 	final private Interpreter interpreter;
-	final private DocumentBuilderFactory docBuilderFactory;
-	final private DocumentBuilder docBuilder;
+	final private XMLInputFactory xmlInputFactory;
+	final private XMLOutputFactory xmlOutputFactory;
 	final private URI uri;
 	private final boolean inInputPort;
 	private boolean received = false;
@@ -139,21 +129,15 @@ public class XmlRpcProtocol extends AsyncCommProtocol {
 		VariablePath configurationPath,
 		URI uri,
 		boolean inInputPort,
-		Transformer transformer,
-		DocumentBuilderFactory docBuilderFactory,
-		DocumentBuilder docBuilder,
+		XMLInputFactory xmlInputFactory,
+		XMLOutputFactory xmlOutputFactory,
 		Interpreter interpreter ) {
 		super( configurationPath );
 		this.uri = uri;
-		this.transformer = transformer;
 		this.inInputPort = inInputPort;
 		this.interpreter = interpreter;
-		this.docBuilderFactory = docBuilderFactory;
-		this.docBuilder = docBuilder;
-
-		transformer.setOutputProperty( OutputKeys.ENCODING, "utf-8" );
-		transformer.setOutputProperty( OutputKeys.OMIT_XML_DECLARATION, "no" );
-		transformer.setOutputProperty( OutputKeys.INDENT, "no" );
+		this.xmlInputFactory = xmlInputFactory;
+		this.xmlOutputFactory = xmlOutputFactory;
 	}
 
 	public class XmlCommMessageCodec extends MessageToMessageCodec<FullHttpMessage, CommMessage > {
@@ -193,245 +177,330 @@ public class XmlRpcProtocol extends AsyncCommProtocol {
 		return false && checkBooleanParameter( "keepAlive", true ); // for future compatibility when XMLRPC will have a threadSafe modality
 	}
 
-	private static Element getFirstElement( Element element, String name )
-		throws IOException {
-		NodeList children = element.getElementsByTagName( name );
-		if ( children.getLength() < 1 ) {
-			throw new IOException( "Could not find element " + name );
+	/*
+	 * Moves the reader to the next child element of the current element and returns true,
+	 * or to the end of the current element and returns false. Text and comments are skipped.
+	 */
+	private static boolean nextChildElement( XMLStreamReader reader )
+		throws XMLStreamException {
+		while ( reader.hasNext() ) {
+			switch ( reader.next() ) {
+				case XMLStreamConstants.START_ELEMENT:
+					return true;
+				case XMLStreamConstants.END_ELEMENT:
+					return false;
+			}
 		}
+		throw new XMLStreamException( "Unexpected end of document" );
+	}
 
-		return ( Element ) children.item( 0 );
+	private static void skipElement( XMLStreamReader reader )
+		throws XMLStreamException {
+		while ( nextChildElement( reader ) ) {
+			skipElement( reader );
+		}
 	}
 
-	private void navigateValue( Value value, Element element )
-		throws IOException {
-		NodeList contents = element.getChildNodes();
-		if ( contents.getLength() < 1 ) {
-			throw new IOException( "empty value node" );
+	/*
+	 * Reads a <value> element, leaving the reader on its end tag.
+	 * A value without a type element is a string, as stated by the specification.
+	 */
+	private static void readValue( Value value, XMLStreamReader reader )
+		throws XMLStreamException, IOException {
+		StringBuilder text = new StringBuilder();
+		boolean typed = false;
+		int event;
+		while ( ( event = reader.next() ) != XMLStreamConstants.END_ELEMENT ) {
+			switch ( event ) {
+				case XMLStreamConstants.START_ELEMENT:
+					if ( typed ) {
+						throw new IOException( "a value node may contain only one sub-element" );
+					}
+					typed = true;
+					readTypedValue( value, reader );
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					text.append( reader.getText() );
+					break;
+				case XMLStreamConstants.END_DOCUMENT:
+					throw new IOException( "Unexpected end of document" );
+			}
 		}
-		Node contentNode = contents.item( 0 );
-		if ( contentNode.getNodeType() != Node.ELEMENT_NODE ) {
-			throw new IOException( "a value node may contain only one sub-element" );
+		if ( !typed ) {
+			value.setValue( text.toString() );
 		}
+	}
 
-		Element content = ( Element ) contentNode;
-		String name = content.getNodeName();
-		if ( name.equals( "array" ) ) {
-			Value currentValue;
-			ValueVector vec = value.getChildren( ARRAY_KEY );
-			Element data = getFirstElement( content, "data" );
-			NodeList dataChildren = data.getElementsByTagName( "value" );
-			for ( int i = 0; i < dataChildren.getLength(); i++ ) {
-				Element member = ( Element ) dataChildren.item( i );
-				if ( !member.getParentNode().equals( data ) ) {
-					continue; // not a direct child
-				}
-				currentValue = Value.create();
-				navigateValue( currentValue, member );
-				vec.add( currentValue );
+	private static void readTypedValue( Value value, XMLStreamReader reader )
+		throws XMLStreamException, IOException {
+		String name = reader.getLocalName();
+		try {
+			switch ( name ) {
+				case "array":
+					ValueVector vec = value.getChildren( ARRAY_KEY );
+					while ( nextChildElement( reader ) ) {
+						if ( reader.getLocalName().equals( "data" ) ) {
+							while ( nextChildElement( reader ) ) {
+								if ( reader.getLocalName().equals( "value" ) ) {
+									Value currentValue = Value.create();
+									readValue( currentValue, reader );
+									vec.add( currentValue );
+								} else {
+									skipElement( reader );
+								}
+							}
+						} else {
+							skipElement( reader );
+						}
+					}
+					break;
+				case "struct":
+					while ( nextChildElement( reader ) ) {
+						if ( reader.getLocalName().equals( "member" ) ) {
+							readMember( value, reader );
+						} else {
+							skipElement( reader );
+						}
+					}
+					break;
+				case "int":
+				case "i4":
+					value.setValue( Integer.parseInt( reader.getElementText().trim() ) );
+					break;
+				case "double":
+					value.setValue( Double.parseDouble( reader.getElementText().trim() ) );
+					break;
+				case "boolean":
+					value.setValue( Integer.parseInt( reader.getElementText().trim() ) != 0 );
+					break;
+				case "base64":
+					value.setValue( new ByteArray( Base64.getMimeDecoder().decode( reader.getElementText() ) ) );
+					break;
+				default:
+					// parse everything else as string (including <dateTime.iso8601>)
+					value.setValue( reader.getElementText() );
+					break;
 			}
-		} else if ( name.equals( "struct" ) ) {
-			NodeList members = content.getElementsByTagName( "member" );
-			for ( int i = 0; i < members.getLength(); i++ ) {
-				Element member = ( Element ) members.item( i );
-				if ( !member.getParentNode().equals( content ) ) {
-					continue; // not a direct child
+		} catch ( NumberFormatException e ) {
+			throw new IOException( e );
+		}
+	}
+
+	/*
+	 * Reads a struct <member> into the homonymous child of value and returns its name.
+	 * The name usually precedes the value, in which case the value is read directly into the child.
+	 */
+	private static String readMember( Value value, XMLStreamReader reader )
+		throws XMLStreamException, IOException {
+		String name = null;
+		Value pendingValue = null;
+		boolean found = false;
+		while ( nextChildElement( reader ) ) {
+			if ( reader.getLocalName().equals( "name" ) ) {
+				name = reader.getElementText();
+			} else if ( reader.getLocalName().equals( "value" ) ) {
+				if ( name == null ) {
+					pendingValue = Value.create();
+					readValue( pendingValue, reader );
+				} else {
+					readValue( value.getNewChild( name ), reader );
 				}
-				Element valueNode = getFirstElement( member, "value" );
-				navigateValue( value.getNewChild( getFirstElement( member, "name" ).getTextContent() ), valueNode );
-			}
-		} else if ( name.equals( "string" ) ) {
-			value.setValue( content.getTextContent() );
-		} else if ( name.equals( "int" ) || name.equals( "i4" ) ) {
-			try {
-				value.setValue( Integer.parseInt( content.getTextContent() ) );
-			} catch ( NumberFormatException e ) {
-				throw new IOException( e );
-			}
-		} else if ( name.equals( "double" ) ) {
-			try {
-				value.setValue( Double.parseDouble( content.getTextContent() ) );
-			} catch ( NumberFormatException e ) {
-				throw new IOException( e );
+				found = true;
+			} else {
+				skipElement( reader );
 			}
-		} else if ( name.equals( "boolean" ) ) {
-			try {
-				value.setValue( Integer.parseInt( content.getTextContent() ) != 0 );
-			} catch ( NumberFormatException e ) {
-				throw new IOException( e );
+		}
+		if ( name == null || !found ) {
+			throw new IOException( "Malformed struct member" );
+		}
+		if ( pendingValue != null ) {
+			value.getChildren( name ).add( pendingValue );
+		}
+		return name;
+	}
+
+	private static void readParams( Value value, XMLStreamReader reader )
+		throws XMLStreamException, IOException {
+		ValueVector paramsValueVector = value.getChildren( PARAMS_KEY );
+		while ( nextChildElement( reader ) ) {
+			if ( reader.getLocalName().equals( "param" ) ) {
+				boolean found = false;
+				while ( nextChildElement( reader ) ) {
+					if ( !found && reader.getLocalName().equals( "value" ) ) {
+						Value paramValue = Value.create();
+						readValue( paramValue, reader );
+						paramsValueVector.add( paramValue );
+						found = true;
+					} else {
+						skipElement( reader );
+					}
+				}
+				if ( !found ) {
+					throw new IOException( "Could not find element value" );
+				}
+			} else {
+				skipElement( reader );
 			}
-		} else if ( name.equals( "base64" ) ) {
-			value.setValue( new ByteArray( Base64.getDecoder().decode( content.getTextContent() ) ) );
-		} else {
-			// parse everything else as string (including <dateTime.iso8601>)
-			value.setValue( content.getTextContent() );
 		}
 	}
 
-	private void documentToValue( Value value, Document document )
-		throws IOException {
-		NodeList children = document.getDocumentElement().getElementsByTagName( "params" );
-		if ( children.getLength() < 1 ) {
-			return;
+	/*
+	 * Reads a <fault> element. Jolie faults are named after the last member of the fault struct,
+	 * whose value is the fault string (see buildXmlRpcMessage).
+	 */
+	private static FaultException readFault( XMLStreamReader reader )
+		throws XMLStreamException, IOException {
+		Value faultStruct = Value.create();
+		List< String> memberNames = new ArrayList<>();
+		while ( nextChildElement( reader ) ) {
+			if ( reader.getLocalName().equals( "value" ) ) {
+				while ( nextChildElement( reader ) ) {
+					if ( reader.getLocalName().equals( "struct" ) ) {
+						while ( nextChildElement( reader ) ) {
+							if ( reader.getLocalName().equals( "member" ) ) {
+								memberNames.add( readMember( faultStruct, reader ) );
+							} else {
+								skipElement( reader );
+							}
+						}
+					} else {
+						skipElement( reader );
+					}
+				}
+			} else {
+				skipElement( reader );
+			}
 		}
-		NodeList params = ( ( Element ) children.item( 0 ) ).getElementsByTagName( "param" );
-		ValueVector paramsValueVector = value.getChildren( PARAMS_KEY );
-		for ( int i = 0; i < params.getLength(); i++ ) {
-			Element param = ( Element ) params.item( i );
-			Value paramValue = Value.create();
-			navigateValue( paramValue, getFirstElement( param, "value" ) );
-			paramsValueVector.add( paramValue );
+		if ( memberNames.size() != 2 ) {
+			throw new IOException( "Malformed fault data" );
 		}
+		String faultName = memberNames.get( 1 );
+		return new FaultException( faultName, Value.create( faultStruct.getFirstChild( faultName ).strValue() ) );
 	}
 
-	private void valueToDocument(
-		Value value,
-		Node node,
-		Document doc ) {
-		Element v = doc.createElement( "value" );
+	private static void writeTextElement( XMLStreamWriter writer, String name, String text )
+		throws XMLStreamException {
+		writer.writeStartElement( name );
+		writer.writeCharacters( text );
+		writer.writeEndElement();
+	}
 
+	private static void writeValue( XMLStreamWriter writer, Value value )
+		throws XMLStreamException {
 		// node value creation in case the contents is a value
 		if ( value.isInt() ) {
-
-			Element i = doc.createElement( "int" );
-			i.appendChild( doc.createTextNode( value.strValue() ) );
-			v.appendChild( i );
-			node.appendChild( v );
+			writer.writeStartElement( "value" );
+			writeTextElement( writer, "int", value.strValue() );
+			writer.writeEndElement();
 		} else if ( value.isString() ) {
-
-			Element s = doc.createElement( "string" );
-			s.appendChild( doc.createTextNode( value.strValue() ) );
-			v.appendChild( s );
-			node.appendChild( v );
+			writer.writeStartElement( "value" );
+			writeTextElement( writer, "string", value.strValue() );
+			writer.writeEndElement();
 		} else if ( value.isDouble() ) {
-
-			Element d = doc.createElement( "double" );
-			d.appendChild( doc.createTextNode( value.strValue() ) );
-			v.appendChild( d );
-			node.appendChild( v );
+			writer.writeStartElement( "value" );
+			writeTextElement( writer, "double", value.strValue() );
+			writer.writeEndElement();
 		} else if ( value.isBool() ) {
-
-			Element b = doc.createElement( "boolean" );
-			b.appendChild( doc.createTextNode( value.boolValue() ? "1" : "0" ) );
-			v.appendChild( b );
-			node.appendChild( v );
+			writer.writeStartElement( "value" );
+			writeTextElement( writer, "boolean", value.boolValue() ? "1" : "0" );
+			writer.writeEndElement();
 		} else if ( value.isByteArray() ) {
-
-			Element b = doc.createElement( "base64" );
-			b.appendChild( doc.createTextNode( Base64.getEncoder().encodeToString( value.byteArrayValue().getBytes() ) ) );
-			v.appendChild( b );
-			node.appendChild( v );
+			writer.writeStartElement( "value" );
+			writeTextElement( writer, "base64", Base64.getEncoder().encodeToString( value.byteArrayValue().getBytes() ) );
+			writer.writeEndElement();
 		} else if ( value.hasChildren( ARRAY_KEY ) ) {
 			// array creation
-
-			Element a = doc.createElement( "array" );
-			Element d = doc.createElement( "data" );
-			for ( int i = 0; i < value.getChildren( ARRAY_KEY ).size(); i++ ) {
-				valueToDocument( value.getChildren( ARRAY_KEY ).get( i ), d, doc );
+			writer.writeStartElement( "value" );
+			writer.writeStartElement( "array" );
+			writer.writeStartElement( "data" );
+			for ( Value element : value.getChildren( ARRAY_KEY ) ) {
+				writeValue( writer, element );
 			}
-			a.appendChild( d );
-			v.appendChild( a );
-			node.appendChild( v );
+			writer.writeEndElement();
+			writer.writeEndElement();
+			writer.writeEndElement();
 		} else if ( value.hasChildren() ) {
-			Element st = doc.createElement( "struct" );
+			writer.writeStartElement( "value" );
+			writer.writeStartElement( "struct" );
 			for ( Entry<String, ValueVector> entry : value.children().entrySet() ) {
 				if ( !entry.getKey().startsWith( "@" ) ) {
-					Element m = doc.createElement( "member" );
-					Element n = doc.createElement( "name" );
-					n.appendChild( doc.createTextNode( entry.getKey() ) );
-					m.appendChild( n );
+					writer.writeStartElement( "member" );
+					writeTextElement( writer, "name", entry.getKey() );
 					for ( Value val : entry.getValue() ) {
-						valueToDocument( val, m, doc );
+						writeValue( writer, val );
 					}
-					st.appendChild( m );
+					writer.writeEndElement();
 				}
 			}
-			v.appendChild( st );
-			node.appendChild( v );
+			writer.writeEndElement();
+			writer.writeEndElement();
 		}
 	}
 
 	public FullHttpMessage buildXmlRpcMessage( CommMessage message )
 		throws IOException {
 
-		Document doc = docBuilder.newDocument();
-		// root element <methodCall>
-		String rootName = "methodCall";
-		if ( received ) {
-			// We're responding to a request
-			rootName = "methodResponse";
-		}
-
-		Element root = doc.createElement( rootName );
-		doc.appendChild( root );
-
-		if ( !received ) {
-			// element <methodName>
-			Element methodName;
-			methodName = doc.createElement( "methodName" );
-			Value aliases = getParameterFirstValue( "aliases" );
-			String alias;
-			if ( aliases.hasChildren( message.operationName() ) ) {
-				alias = aliases.getFirstChild( message.operationName() ).strValue();
-			} else {
-				alias = message.operationName();
+		ByteArrayOutputStream tmpStream = new ByteArrayOutputStream();
+		try {
+			XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter( tmpStream, "utf-8" );
+			writer.writeStartDocument( "utf-8", "1.0" );
+			// root element <methodCall>
+			writer.writeStartElement( received ? "methodResponse" : "methodCall" );
+
+			if ( !received ) {
+				// element <methodName>
+				Value aliases = getParameterFirstValue( "aliases" );
+				String alias;
+				if ( aliases.hasChildren( message.operationName() ) ) {
+					alias = aliases.getFirstChild( message.operationName() ).strValue();
+				} else {
+					alias = message.operationName();
+				}
+				writeTextElement( writer, "methodName", alias );
 			}
-			methodName.appendChild( doc.createTextNode( alias ) );
-			inputId = message.operationName();
-			root.appendChild( methodName );
-		}
 
-		if ( message.isFault() ) {
-			FaultException f = message.fault();
-			Element fault = doc.createElement( "fault" );
-			Element v = doc.createElement( "value" );
-			Element s = doc.createElement( "struct" );
-			Element m1 = doc.createElement( "member" );
-			Element n1 = doc.createElement( "name" );
-			Element v1 = doc.createElement( "value" );
-			Element i1 = doc.createElement( "int" );
-			Element m2 = doc.createElement( "member" );
-			Element n2 = doc.createElement( "name" );
-			Element v2 = doc.createElement( "value" );
-			Element i2 = doc.createElement( "string" );
-			n1.setTextContent( "faultCode" );
-			i1.setTextContent( "0" ); // Jolie generates always zero code faults
-			n2.setTextContent( "faultString" );
-			// the XML-RPC specification allows us only to set this value
-			i2.setTextContent( f.value().strValue() );
-			v1.appendChild( i1 );
-			v2.appendChild( i2 );
-			m1.appendChild( n1 );
-			m1.appendChild( v1 );
-			m2.appendChild( n2 );
-			m2.appendChild( v2 );
-			s.appendChild( m1 );
-			s.appendChild( m2 );
-			v.appendChild( s );
-			fault.appendChild( v );
-			root.appendChild( fault );
-
-		} else if ( message.value().hasChildren( PARAMS_KEY ) ) {
-			// params exist
-			Element params = doc.createElement( "params" );
-			for ( int i = 0; i < message.value().getChildren( PARAMS_KEY ).size(); i++ ) {
-				Element p = doc.createElement( "param" );
-				valueToDocument( message.value().getChildren( PARAMS_KEY ).get( i ), p, doc );
-				params.appendChild( p );
+			if ( message.isFault() ) {
+				FaultException f = message.fault();
+				writer.writeStartElement( "fault" );
+				writer.writeStartElement( "value" );
+				writer.writeStartElement( "struct" );
+				writer.writeStartElement( "member" );
+				writeTextElement( writer, "name", "faultCode" );
+				writer.writeStartElement( "value" );
+				writeTextElement( writer, "int", "0" ); // Jolie generates always zero code faults
+				writer.writeEndElement();
+				writer.writeEndElement();
+				writer.writeStartElement( "member" );
+				writeTextElement( writer, "name", "faultString" );
+				writer.writeStartElement( "value" );
+				// the XML-RPC specification allows us only to set this value
+				writeTextElement( writer, "string", f.value().strValue() );
+				writer.writeEndElement();
+				writer.writeEndElement();
+				writer.writeEndElement();
+				writer.writeEndElement();
+				writer.writeEndElement();
+			} else if ( message.value().hasChildren( PARAMS_KEY ) ) {
+				// params exist
+				writer.writeStartElement( "params" );
+				for ( Value param : message.value().getChildren( PARAMS_KEY ) ) {
+					writer.writeStartElement( "param" );
+					writeValue( writer, param );
+					writer.writeEndElement();
+				}
+				writer.writeEndElement();
 			}
-			root.appendChild( params );
-		}
-
-		inputId = message.operationName();
 
-		Source src = new DOMSource( doc );
-		ByteArrayOutputStream tmpStream = new ByteArrayOutputStream();
-		Result dest = new StreamResult( tmpStream );
-		try {
-			transformer.transform( src, dest );
-		} catch ( TransformerException e ) {
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.close();
+		} catch ( XMLStreamException e ) {
 			throw new IOException( e );
 		}
+
+		inputId = message.operationName();
 		ByteArray content = new ByteArray( tmpStream.toByteArray() );
 
 		FullHttpMessage httpMessage;
@@ -486,7 +555,7 @@ public class XmlRpcProtocol extends AsyncCommProtocol {
 		CommMessage retVal = null;
 		FaultException fault = null;
 		Value value = Value.create();
-		Document doc = null;
+		String opname = null;
 
 		// TODO It appears that a message of type ERROR cannot be returned from the old parser.
 		/*if ( message.isError() ) {
@@ -505,35 +574,39 @@ public class XmlRpcProtocol extends AsyncCommProtocol {
 				);
 			}
 
+			XMLStreamReader reader = null;
 			try {
-				DocumentBuilder builder = docBuilderFactory.newDocumentBuilder();
-				byte[] content = new byte[ message.content().readableBytes() ];
-				message.content().readBytes( content, 0, content.length );
-				InputSource src = new InputSource( new ByteArrayInputStream( content ) );
-				src.setEncoding( charset );
-				doc = builder.parse( src );
-				if ( message instanceof FullHttpResponse ) {
-					// test if the message contains a fault
+				reader = xmlInputFactory.createXMLStreamReader( new ByteBufInputStream( message.content() ), charset );
+				reader.nextTag();
+				while ( nextChildElement( reader ) ) {
+					switch ( reader.getLocalName() ) {
+						case "methodName":
+							opname = reader.getElementText().trim();
+							break;
+						case "params":
+							readParams( value, reader );
+							break;
+						case "fault":
+							if ( message instanceof FullHttpResponse ) {
+								fault = readFault( reader );
+							} else {
+								skipElement( reader );
+							}
+							break;
+						default:
+							skipElement( reader );
+							break;
+					}
+				}
+			} catch ( XMLStreamException e ) {
+				throw new IOException( e );
+			} finally {
+				if ( reader != null ) {
 					try {
-						Element faultElement = getFirstElement( doc.getDocumentElement(), "fault" );
-						Element struct = getFirstElement( getFirstElement( faultElement, "value" ), "struct" );
-						NodeList members = struct.getChildNodes();
-						if ( members.getLength() != 2 || members.item( 1 ).getNodeType() != Node.ELEMENT_NODE ) {
-							throw new IOException( "Malformed fault data" );
-						}
-						Element faultMember = ( Element ) members.item( 1 );
-						//Element valueElement = getFirstElement( getFirstElement( struct, "value" ), "string" );
-						String faultName = getFirstElement( faultMember, "name" ).getTextContent();
-						String faultString = getFirstElement( getFirstElement( faultMember, "value" ), "string" ).getTextContent();
-						fault = new FaultException( faultName, Value.create( faultString ) );
-					} catch ( IOException e ) {
-						documentToValue( value, doc );
+						reader.close();
+					} catch ( XMLStreamException e ) {
 					}
-				} else {
-					documentToValue( value, doc );
 				}
-			} catch ( ParserConfigurationException | SAXException pce ) {
-				throw new IOException( pce );
 			}
 
 			if ( message instanceof FullHttpResponse ) {
@@ -546,7 +619,9 @@ public class XmlRpcProtocol extends AsyncCommProtocol {
 			} else /* if ( !message.isError() ) */ { // TODO: it appears that a message of type ERROR cannot be returned from the old parser
 				//TODO support resourcePath
 				// HERE WE ASSIGN A FAKE ID to the message
-				String opname = doc.getDocumentElement().getFirstChild().getTextContent();
+				if ( opname == null ) {
+					throw new IOException( "Could not find element methodName" );
+				}
 //				retVal = new CommMessage( CommMessage.GENERIC_ID, opname, "/", value, fault );
 				retVal = new CommMessage( CommMessage.getNewMessageId(), opname, "/", value, fault );
 			}
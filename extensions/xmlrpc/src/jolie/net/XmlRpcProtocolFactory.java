@@ -25,34 +25,26 @@ package jolie.net;
 
 import java.io.IOException;
 import java.net.URI;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
 import jolie.net.ext.CommProtocolFactory;
 import jolie.net.protocols.CommProtocol;
-import jolie.runtime.VariablePath;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Transformer;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.OutputKeys;
 import jolie.runtime.AndJarDeps;
+import jolie.runtime.VariablePath;
 
 @AndJarDeps( {"jolie-xml.jar"} )
 public class XmlRpcProtocolFactory extends CommProtocolFactory
 {
-	final private Transformer transformer;
-	final private DocumentBuilderFactory docBuilderFactory;
-	final private DocumentBuilder docBuilder;
+	final private XMLInputFactory xmlInputFactory;
+	final private XMLOutputFactory xmlOutputFactory;
 
 	public XmlRpcProtocolFactory( CommCore commCore )
-		throws ParserConfigurationException, TransformerConfigurationException
 	{
 		super( commCore );
-		docBuilderFactory = DocumentBuilderFactory.newInstance();
-		docBuilderFactory.setNamespaceAware( true );
-		docBuilder = docBuilderFactory.newDocumentBuilder();
-		transformer = TransformerFactory.newInstance().newTransformer();
-		transformer.setOutputProperty( OutputKeys.OMIT_XML_DECLARATION, "yes" );
+		xmlInputFactory = XMLInputFactory.newInstance();
+		xmlInputFactory.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+		xmlInputFactory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+		xmlOutputFactory = XMLOutputFactory.newInstance();
 	}
 
 	public CommProtocol createInputProtocol( VariablePath configurationPath, URI location )
@@ -62,9 +54,8 @@ public class XmlRpcProtocolFactory extends CommProtocolFactory
 			configurationPath,
 			location,
 			true,
-			transformer,
-			docBuilderFactory,
-			docBuilder,
+			xmlInputFactory,
+			xmlOutputFactory,
 			commCore().interpreter()
 		);
 	}
@@ -76,9 +67,8 @@ public class XmlRpcProtocolFactory extends CommProtocolFactory
 			configurationPath,
 			location,
 			false,
-			transformer,
-			docBuilderFactory,
-			docBuilder,
+			xmlInputFactory,
+			xmlOutputFactory,
 			commCore().interpreter()
 		);
 	}
@@ -324,6 +324,9 @@ public class RuntimeService extends JavaService
 		final Value stats = Value.create();
 		stats_files( stats.getFirstChild( "files" ) );
 		stats_os( stats.getFirstChild( "os" ) );
+		if ( !interpreter.statistics().isEmpty() ) {
+			interpreter.statistics().writeTo( stats.getFirstChild( "counters" ) );
+		}
 		return stats;
 	}
 	
@@ -20,6 +20,7 @@
  ***************************************************************************/
 package jolie;
 
+import io.netty.util.ResourceLeakDetector;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
@@ -52,6 +53,8 @@ import java.util.regex.Pattern;
 import jolie.jap.JapURLConnection;
 import jolie.lang.Constants;
 import jolie.lang.parse.Scanner;
+import jolie.net.BufferAllocators;
+import jolie.net.SocketTransport;
 import jolie.runtime.correlation.CorrelationEngine;
 import jolie.util.Helpers;
 
@@ -67,6 +70,19 @@ public class CommandLineParser implements Closeable
 
 	private final int connectionsLimit;
 	private final int connectionsCache;
+	private final int dispatchThreads;
+	private final SocketTransport socketTransport;
+	private final int bossThreads;
+	private final int workerThreads;
+	private final boolean pooledBuffers;
+	private final boolean directBuffers;
+	private final int bufferArenas;
+	private final ResourceLeakDetector.Level leakDetectionLevel;
+	private final int expressionCompileThreshold;
+	private final int spawnParallelism;
+	private final int maxSessions;
+	private final int sessionQueueCapacity;
+	private final SessionAdmission.RejectPolicy sessionRejectPolicy;
 	private final CorrelationEngine.Type correlationAlgorithmType;
 	private final String[] includePaths;
 	private final String[] optionArgs;
@@ -211,6 +227,138 @@ public class CommandLineParser implements Closeable
 		return connectionsCache;
 	}
 
+	/**
+	 * Returns the number of threads that handle the messages received by Netty channels,
+	 * passed by command line with the --dispatchThreads option.
+	 * @return the number of dispatch threads, or 0 to use the internal thread pool of the communication core
+	 */
+	public int dispatchThreads()
+	{
+		return dispatchThreads;
+	}
+
+	/**
+	 * Returns the Netty transport of the socket medium,
+	 * passed by command line with the --transport option.
+	 * @return the Netty transport of the socket medium
+	 */
+	public SocketTransport socketTransport()
+	{
+		return socketTransport;
+	}
+
+	/**
+	 * Returns the number of threads accepting connections on socket input ports,
+	 * passed by command line with the --bossThreads option.
+	 * @return the number of threads accepting connections
+	 */
+	public int bossThreads()
+	{
+		return bossThreads;
+	}
+
+	/**
+	 * Returns the number of threads serving the connections of the socket medium,
+	 * passed by command line with the --workerThreads option.
+	 * @return the number of threads serving socket connections
+	 */
+	public int workerThreads()
+	{
+		return workerThreads;
+	}
+
+	/**
+	 * Returns whether the buffers of the Netty channels are pooled,
+	 * passed by command line with the --bufferAllocator option.
+	 * @return true if the buffers of the Netty channels are pooled
+	 */
+	public boolean pooledBuffers()
+	{
+		return pooledBuffers;
+	}
+
+	/**
+	 * Returns whether the buffers of the Netty channels are allocated off-heap,
+	 * passed by command line with the --directBuffers option.
+	 * @return true if the buffers of the Netty channels are allocated off-heap
+	 */
+	public boolean directBuffers()
+	{
+		return directBuffers;
+	}
+
+	/**
+	 * Returns the number of arenas of each kind of the buffer pool,
+	 * passed by command line with the --bufferArenas option.
+	 * @return the number of arenas of the buffer pool, or 0 for the Netty default
+	 */
+	public int bufferArenas()
+	{
+		return bufferArenas;
+	}
+
+	/**
+	 * Returns the Netty buffer leak detection level,
+	 * passed by command line with the --leakDetection option.
+	 * @return the buffer leak detection level, or null if it was not specified
+	 */
+	public ResourceLeakDetector.Level leakDetectionLevel()
+	{
+		return leakDetectionLevel;
+	}
+
+	/**
+	 * Returns the number of evaluations after which an expression is compiled,
+	 * passed by command line with the --exprCompileThreshold option.
+	 * @return the expression compilation threshold, or 0 if compilation is disabled
+	 */
+	public int expressionCompileThreshold()
+	{
+		return expressionCompileThreshold;
+	}
+
+	/**
+	 * Returns the maximum number of spawn bodies run in parallel,
+	 * passed by command line with the --spawnParallelism option.
+	 * When bounded, the bodies of a spawn beyond this number wait for a running one
+	 * to terminate, so bodies that wait for each other may deadlock.
+	 * @return the maximum number of spawn bodies run in parallel, 0 if not bounded
+	 */
+	public int spawnParallelism()
+	{
+		return spawnParallelism;
+	}
+
+	/**
+	 * Returns the maximum number of sessions run at the same time in concurrent execution mode,
+	 * passed by command line with the --maxSessions option.
+	 * @return the maximum number of concurrent sessions, or 0 if there is no limit
+	 */
+	public int maxSessions()
+	{
+		return maxSessions;
+	}
+
+	/**
+	 * Returns the number of sessions that can wait to be started when the maximum number
+	 * of sessions is reached, passed by command line with the --sessionQueue option.
+	 * @return the capacity of the queue of waiting sessions
+	 */
+	public int sessionQueueCapacity()
+	{
+		return sessionQueueCapacity;
+	}
+
+	/**
+	 * Returns what to do with a message that would start a session when the
+	 * queue of waiting sessions is full, passed by command line with the --sessionRejectPolicy option.
+	 * @return the policy for messages that would start a session when the queue is full
+	 */
+	public SessionAdmission.RejectPolicy sessionRejectPolicy()
+	{
+		return sessionRejectPolicy;
+	}
+
 	private static String getOptionString( String option, String description )
 	{
 		return ('\t' + option + "\t\t" + description + '\n');
@@ -250,12 +398,38 @@ public class CommandLineParser implements Closeable
 			getOptionString( "--connlimit [number]", "Set the maximum number of active connection threads" ) );
 		helpBuilder.append(
 			getOptionString( "--conncache [number]", "Set the maximum number of cached persistent output connections" ) );
+		helpBuilder.append(
+			getOptionString( "--dispatchThreads [number]", "Set the number of threads that handle incoming messages off the network event loops, 0 uses the shared communication thread pool (default: 0)" ) );
+		helpBuilder.append(
+			getOptionString( "--transport [auto|nio|epoll]", "Set the Netty transport of the socket medium, auto uses epoll when available (default: nio)" ) );
+		helpBuilder.append(
+			getOptionString( "--bossThreads [number]", "Set the number of threads accepting connections on socket input ports; with epoll, each of them has its own listening socket (default: 1)" ) );
+		helpBuilder.append(
+			getOptionString( "--workerThreads [number]", "Set the number of threads serving socket connections and datagram channels, shared with embedded services (default: 4)" ) );
+		helpBuilder.append(
+			getOptionString( "--bufferAllocator [pooled|unpooled]", "Set whether the network buffers are recycled through a pool (default: pooled)" ) );
+		helpBuilder.append(
+			getOptionString( "--directBuffers [true|false]", "Allocate the network buffers off-heap (default: true)" ) );
+		helpBuilder.append(
+			getOptionString( "--bufferArenas [number]", "Set the number of heap and direct arenas of the buffer pool, 0 uses the Netty default (default: 0)" ) );
+		helpBuilder.append(
+			getOptionString( "--leakDetection [disabled|simple|advanced|paranoid]", "Set the leak detection level of the network buffers (default: the Netty default, simple)" ) );
 		helpBuilder.append(
 			getOptionString( "--correlationAlgorithm [simple|hash]", "Set the algorithm to use for message correlation" ) );
 		helpBuilder.append(
 			getOptionString( "--log [severe|warning|info|fine]", "Set the logging level (default: info)" ) );
 		helpBuilder.append(
 			getOptionString( "--typecheck [true|false]", "Check for correlation and other data related typing errors (default: false)" ) );
+		helpBuilder.append(
+			getOptionString( "--exprCompileThreshold [number]", "Set the number of evaluations after which arithmetic and boolean expressions are compiled, 0 disables compilation (default: 1000)" ) );
+		helpBuilder.append(
+			getOptionString( "--spawnParallelism [number]", "Set the maximum number of spawn bodies executed in parallel, 0 means no limit; with a limit, bodies that wait for each other deadlock if they are more than it (default: 0)" ) );
+		helpBuilder.append(
+			getOptionString( "--maxSessions [number]", "Set the maximum number of sessions executed at the same time in concurrent execution mode, 0 means no limit (default: 0)" ) );
+		helpBuilder.append(
+			getOptionString( "--sessionQueue [number]", "Set the number of sessions that can wait to be started when the maximum number of sessions is reached (default: 1000)" ) );
+		helpBuilder.append(
+			getOptionString( "--sessionRejectPolicy [fault|backpressure]", "Set how to handle messages starting a session when the session queue is full: reply with a SessionLimitExceeded fault, or stop reading from their channel (default: fault)" ) );
 		helpBuilder.append(
 			getOptionString( "--check", "Check for syntactic and semantic errors." ) );
 		helpBuilder.append(
@@ -378,7 +552,20 @@ public class CommandLineParser implements Closeable
 		LinkedList< String> includeList = new LinkedList<>();
 		List< String> libList = new ArrayList<>();
 		int cLimit = -1;
+		int eCompileThreshold = 1000;
+		int sParallelism = 0;
+		int mSessions = 0;
+		int sQueueCapacity = 1000;
+		String sRejectPolicyName = "fault";
 		int cCache = 100;
+		int dThreads = 0;
+		String sTransportName = "nio";
+		int bThreads = 1;
+		int wThreads = 4;
+		String bAllocatorName = "pooled";
+		boolean bDirect = true;
+		int bArenas = 0;
+		ResourceLeakDetector.Level lDetectionLevel = null;
 		String pwd = new File( "" ).getCanonicalPath();
 		includeList.add( pwd );
 		includeList.add( "include" );
@@ -424,11 +611,110 @@ public class CommandLineParser implements Closeable
 				i++;
 				cLimit = Integer.parseInt( argsList.get( i ) );
 				optionsList.add( argsList.get( i ) );
+			} else if ( "--exprCompileThreshold".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				eCompileThreshold = Integer.parseInt( argsList.get( i ) );
+				optionsList.add( argsList.get( i ) );
+			} else if ( "--spawnParallelism".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				sParallelism = Integer.parseInt( argsList.get( i ) );
+				optionsList.add( argsList.get( i ) );
+				if ( sParallelism < 0 ) {
+					throw new CommandLineException( "The spawn parallelism cannot be negative" );
+				}
+			} else if ( "--maxSessions".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				mSessions = Integer.parseInt( argsList.get( i ) );
+				optionsList.add( argsList.get( i ) );
+				if ( mSessions < 0 ) {
+					throw new CommandLineException( "The maximum number of sessions cannot be negative" );
+				}
+			} else if ( "--sessionQueue".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				sQueueCapacity = Integer.parseInt( argsList.get( i ) );
+				optionsList.add( argsList.get( i ) );
+				if ( sQueueCapacity < 0 ) {
+					throw new CommandLineException( "The capacity of the session queue cannot be negative" );
+				}
+			} else if ( "--sessionRejectPolicy".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				sRejectPolicyName = argsList.get( i );
+				optionsList.add( argsList.get( i ) );
 			} else if ( "--conncache".equals( argsList.get( i ) ) ) {
 				optionsList.add( argsList.get( i ) );
 				i++;
 				cCache = Integer.parseInt( argsList.get( i ) );
 				optionsList.add( argsList.get( i ) );
+			} else if ( "--dispatchThreads".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				dThreads = Integer.parseInt( argsList.get( i ) );
+				optionsList.add( argsList.get( i ) );
+				if ( dThreads < 0 ) {
+					throw new CommandLineException( "The number of dispatch threads cannot be negative" );
+				}
+			} else if ( "--transport".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				sTransportName = argsList.get( i );
+				optionsList.add( argsList.get( i ) );
+			} else if ( "--bossThreads".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				bThreads = Integer.parseInt( argsList.get( i ) );
+				optionsList.add( argsList.get( i ) );
+				if ( bThreads < 1 ) {
+					throw new CommandLineException( "The number of boss threads must be positive" );
+				}
+			} else if ( "--workerThreads".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				wThreads = Integer.parseInt( argsList.get( i ) );
+				optionsList.add( argsList.get( i ) );
+				if ( wThreads < 1 ) {
+					throw new CommandLineException( "The number of worker threads must be positive" );
+				}
+			} else if ( "--bufferAllocator".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				bAllocatorName = argsList.get( i );
+				optionsList.add( argsList.get( i ) );
+				if ( !"pooled".equals( bAllocatorName ) && !"unpooled".equals( bAllocatorName ) ) {
+					throw new CommandLineException( "Unrecognized buffer allocator: " + bAllocatorName );
+				}
+			} else if ( "--directBuffers".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				String directBuffersStr = argsList.get( i );
+				optionsList.add( argsList.get( i ) );
+				if ( "false".equals( directBuffersStr ) ) {
+					bDirect = false;
+				} else if ( "true".equals( directBuffersStr ) ) {
+					bDirect = true;
+				} else {
+					throw new CommandLineException( "Unrecognized value for --directBuffers: " + directBuffersStr );
+				}
+			} else if ( "--bufferArenas".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				bArenas = Integer.parseInt( argsList.get( i ) );
+				optionsList.add( argsList.get( i ) );
+				if ( bArenas < 0 ) {
+					throw new CommandLineException( "The number of buffer arenas cannot be negative" );
+				}
+			} else if ( "--leakDetection".equals( argsList.get( i ) ) ) {
+				optionsList.add( argsList.get( i ) );
+				i++;
+				lDetectionLevel = BufferAllocators.leakDetectionLevel( argsList.get( i ) );
+				if ( lDetectionLevel == null ) {
+					throw new CommandLineException( "Unrecognized leak detection level: " + argsList.get( i ) );
+				}
+				optionsList.add( argsList.get( i ) );
 			} else if ( "--correlationAlgorithm".equals( argsList.get( i ) ) ) {
 				optionsList.add( argsList.get( i ) );
 				i++;
@@ -524,6 +810,17 @@ public class CommandLineParser implements Closeable
 		if ( correlationAlgorithmType == null ) {
 			throw new CommandLineException( "Unrecognized correlation algorithm: " + csetAlgorithmName );
 		}
+		sessionRejectPolicy = SessionAdmission.RejectPolicy.fromString( sRejectPolicyName );
+		if ( sessionRejectPolicy == null ) {
+			throw new CommandLineException( "Unrecognized session reject policy: " + sRejectPolicyName );
+		}
+		socketTransport = SocketTransport.fromString( sTransportName );
+		if ( socketTransport == null ) {
+			throw new CommandLineException( "Unrecognized socket transport: " + sTransportName );
+		}
+		if ( !socketTransport.isAvailable() ) {
+			throw new CommandLineException( "The " + sTransportName + " socket transport is not available on this system" );
+		}
 		optionArgs = optionsList.toArray( new String[ optionsList.size() ] );
 		arguments = programArgumentsList.toArray( new String[ programArgumentsList.size() ] );
 		// whitepages = whitepageList.toArray( new String[ whitepageList.size() ] );
@@ -534,6 +831,17 @@ public class CommandLineParser implements Closeable
 
 		connectionsLimit = cLimit;
 		connectionsCache = cCache;
+		dispatchThreads = dThreads;
+		bossThreads = bThreads;
+		workerThreads = wThreads;
+		pooledBuffers = "pooled".equals( bAllocatorName );
+		directBuffers = bDirect;
+		bufferArenas = bArenas;
+		leakDetectionLevel = lDetectionLevel;
+		expressionCompileThreshold = eCompileThreshold;
+		spawnParallelism = sParallelism;
+		maxSessions = mSessions;
+		sessionQueueCapacity = sQueueCapacity;
 
 		// lib paths pre-processor
 		List< URL> urls = new ArrayList<>();
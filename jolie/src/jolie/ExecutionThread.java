@@ -168,7 +168,12 @@ public abstract class ExecutionThread extends JolieThread
 	private FaultException killerFault = null;
 	private Future<?> taskFuture;
 
-	private void setTaskFuture( Future<?> taskFuture )
+	/**
+	 * Sets the task running this thread, which {@link #kill(FaultException)}
+	 * cancels and {@link #join()} waits for.
+	 * Threads that are not submitted with {@link #start()} must set it before running.
+	 */
+	protected void setTaskFuture( Future<?> taskFuture )
 	{
 		this.taskFuture = taskFuture;
 	}
@@ -20,6 +20,7 @@
  ***************************************************************************/
 package jolie;
 
+import io.netty.util.ResourceLeakDetector;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -64,12 +65,15 @@ import jolie.lang.parse.SemanticVerifier;
 import jolie.lang.parse.TypeChecker;
 import jolie.lang.parse.ast.Program;
 import jolie.monitoring.MonitoringEvent;
+import jolie.monitoring.StatisticsRegistry;
 import jolie.monitoring.events.MonitorAttachedEvent;
 import jolie.monitoring.events.OperationStartedEvent;
 import jolie.monitoring.events.SessionEndedEvent;
 import jolie.monitoring.events.SessionStartedEvent;
+import jolie.net.BufferAllocators;
 import jolie.net.CommChannel;
 import jolie.net.CommCore;
+import jolie.net.CommResources;
 import jolie.net.CommMessage;
 import jolie.net.SessionMessage;
 import jolie.net.ports.OutputPort;
@@ -77,10 +81,13 @@ import jolie.process.DefinitionProcess;
 import jolie.process.InputOperationProcess;
 import jolie.process.SequentialProcess;
 import jolie.runtime.FaultException;
+import jolie.runtime.GlobalLock;
 import jolie.runtime.InputOperation;
 import jolie.runtime.InvalidIdException;
+import jolie.runtime.LockRegistry;
 import jolie.runtime.OneWayOperation;
 import jolie.runtime.RequestResponseOperation;
+import jolie.runtime.SessionRejectedException;
 import jolie.runtime.TimeoutHandler;
 import jolie.runtime.Value;
 import jolie.runtime.ValueVector;
@@ -150,6 +157,13 @@ public class Interpreter
 					for( SessionMessage message : queue ) {
 						try {
 							correlationEngine.onMessageReceive( message.message(), message.channel() );
+						} catch( SessionRejectedException e ) {
+							logWarning( e );
+							try {
+								message.channel().send( CommMessage.createFaultResponse( message.message(), e.toFault() ) );
+							} catch( IOException ioe ) {
+								logSevere( ioe );
+							}
 						} catch( CorrelationError e ) {
 							logWarning( e );
 							try {
@@ -273,10 +287,13 @@ public class Interpreter
 	private final Map< String, OutputPort> outputPorts = new HashMap<>();
 	private final Map< String, InputOperation> inputOperations = new HashMap<>();
 
-	private final HashMap< String, Object> locksMap = new HashMap<>();
 
 	private final ClassLoader parentClassLoader;
 	private final String[] includePaths;
+	private final int expressionCompileThreshold;
+	private final int spawnParallelism;
+	// null if the number of concurrent sessions is not bounded
+	private final SessionAdmission sessionAdmission;
 	private final String[] optionArgs;
 	private final String logPrefix;
 	private final Tracer tracer;
@@ -298,6 +315,8 @@ public class Interpreter
 	private final String programFilename;
 	private final File programDirectory;
 	private OutputPort monitor = null;
+	private final StatisticsRegistry statistics = new StatisticsRegistry();
+	private final LockRegistry locks = new LockRegistry( statistics );
 
 	public void setMonitor( OutputPort monitor )
 	{
@@ -324,6 +343,15 @@ public class Interpreter
 		return tracer;
 	}
 
+	/**
+	 * Returns the registry of the runtime counters of this Interpreter.
+	 * @return the registry of the runtime counters of this Interpreter
+	 */
+	public StatisticsRegistry statistics()
+	{
+		return statistics;
+	}
+
 	public void fireMonitorEvent( MonitoringEvent event )
 	{
 		if ( monitor != null ) {
@@ -850,6 +878,24 @@ public class Interpreter
 
 	public Interpreter( String[] args, ClassLoader parentClassLoader, File programDirectory, boolean ignoreFile )
 		throws CommandLineException, FileNotFoundException, IOException
+	{
+		this( args, parentClassLoader, programDirectory, ignoreFile, null );
+	}
+
+	/** Constructor.
+	 *
+	 * @param args The command line arguments.
+	 * @param parentClassLoader the parent ClassLoader to fall back when not finding resources.
+	 * @param programDirectory the program directory of this Interpreter, necessary if it is run inside a JAP file.
+	 * @param ignoreFile if true, the program file is not required to exist.
+	 * @param commResources the event loops, executors and allocator of the embedding interpreter,
+	 * or null to create new ones (sized by the command line options) for this Interpreter.
+	 * @throws CommandLineException if the command line is not valid or asks for simple information. (like --help and --version)
+	 * @throws FileNotFoundException if one of the passed input files is not found.
+	 * @throws IOException if a Scanner constructor signals an error.
+	 */
+	public Interpreter( String[] args, ClassLoader parentClassLoader, File programDirectory, boolean ignoreFile, CommResources commResources )
+		throws CommandLineException, FileNotFoundException, IOException
 	{
 		this.parentClassLoader = parentClassLoader;
 
@@ -861,8 +907,23 @@ public class Interpreter
 
 		this.correlationEngine = cmdParser.correlationAlgorithmType().createInstance( this );
 
-		commCore = new CommCore( this, cmdParser.connectionsLimit() /*, cmdParser.connectionsCache() */ );
+		if ( cmdParser.leakDetectionLevel() != null ) {
+			ResourceLeakDetector.setLevel( cmdParser.leakDetectionLevel() );
+		}
+		commCore = new CommCore(
+			this, cmdParser.connectionsLimit(),
+			commResources != null
+				? commResources.retain()
+				: new CommResources(
+					cmdParser.socketTransport(), cmdParser.bossThreads(), cmdParser.workerThreads(), cmdParser.dispatchThreads(),
+					BufferAllocators.create( cmdParser.pooledBuffers(), cmdParser.directBuffers(), cmdParser.bufferArenas() ),
+					new CommCore.ExecutionContextThreadFactory( this ) ) /*, cmdParser.connectionsCache() */ );
 		includePaths = cmdParser.includePaths();
+		expressionCompileThreshold = cmdParser.expressionCompileThreshold();
+		spawnParallelism = cmdParser.spawnParallelism();
+		sessionAdmission = cmdParser.maxSessions() > 0
+			? new SessionAdmission( cmdParser.maxSessions(), cmdParser.sessionQueueCapacity(), cmdParser.sessionRejectPolicy(), statistics )
+			: null;
 
 		StringBuilder builder = new StringBuilder();
 		builder.append( '[' );
@@ -905,7 +966,7 @@ public class Interpreter
 	public Interpreter( String[] args, ClassLoader parentClassLoader, File programDirectory, Interpreter parentInterpreter, Program internalServiceProgram )
 		throws CommandLineException, FileNotFoundException, IOException
 	{
-		this( args, parentClassLoader, programDirectory, true );
+		this( args, parentClassLoader, programDirectory, true, parentInterpreter.commCore().resources() );
 
 		this.parentInterpreter = parentInterpreter;
 		this.internalServiceProgram = internalServiceProgram;
@@ -925,6 +986,25 @@ public class Interpreter
 		return parentInterpreter;
 	}
 
+	/**
+	 * Returns the number of evaluations after which an arithmetic or boolean
+	 * expression of this interpreter is compiled, or 0 if compilation is disabled.
+	 * @return the expression compilation threshold of this interpreter
+	 */
+	public int expressionCompileThreshold()
+	{
+		return expressionCompileThreshold;
+	}
+
+	/**
+	 * Returns the maximum number of bodies of a spawn statement that this interpreter runs in parallel.
+	 * @return the maximum number of bodies of a spawn statement run in parallel, 0 if not bounded
+	 */
+	public int spawnParallelism()
+	{
+		return spawnParallelism;
+	}
+
 	/**
 	 * Returns the program filename this interpreter was launched with.
 	 * @return the program filename this interpreter was launched with
@@ -950,14 +1030,9 @@ public class Interpreter
 	 * @param id the global lock identifier
 	 * @return the global lock registered on this interpreter with the specified identifier
 	 */
-	public Object getLock( String id )
+	public GlobalLock getLock( String id )
 	{
-		Object l = locksMap.get( id );
-		if ( l == null ) {
-			l = new Object();
-			locksMap.put( id, l );
-		}
-		return l;
+		return locks.get( id );
 	}
 
 	public SessionStarter getSessionStarter( String operationName )
@@ -975,6 +1050,8 @@ public class Interpreter
 	}
 
 	private InitSessionThread initExecutionThread;
+	// the state left by init, which new sessions start from (see newSessionState)
+	private volatile State initStateSnapshot = null;
 	private SessionThread mainSession = null;
 	private final Queue< SessionThread> waitingSessionThreads = new LinkedList<>();
 
@@ -1213,8 +1290,9 @@ public class Interpreter
 		 */
 		definitions.clear();
 		inputOperations.clear();
-		locksMap.clear();
+		locks.clear();
 		initExecutionThread = null;
+		initStateSnapshot = null;
 		sessionStarters = new HashMap<>();
 		outputPorts.clear();
 		correlationSets.clear();
@@ -1316,13 +1394,53 @@ public class Interpreter
 		}
 	}
 
+	/*
+	 * Returns the initial state of a new session. Sessions do not copy the state left by init
+	 * (which can be large, e.g., configuration data): they start as copy-on-write views of a
+	 * snapshot of it, taken once when the first session starts (init has completed by then).
+	 */
+	private State newSessionState()
+	{
+		State snapshot = initStateSnapshot;
+		if ( snapshot == null ) {
+			synchronized( this ) {
+				snapshot = initStateSnapshot;
+				if ( snapshot == null ) {
+					// no other thread can access the state of init, which has completed
+					snapshot = initExecutionThread.state().snapshot( true );
+					initStateSnapshot = snapshot;
+				}
+			}
+		}
+		return snapshot.clone();
+	}
+
 	/**
 	 * Starts a service session.
 	 * @param message the message triggering the session start
 	 * @param channel the channel of the message triggering the session start
 	 * @return {@code true} if the service session is started, {@code false} otherwise
+	 * @throws SessionRejectedException if the maximum number of concurrent sessions is reached
+	 * and the session cannot be queued
 	 */
 	public boolean startServiceSession( final CommMessage message, CommChannel channel )
+		throws SessionRejectedException
+	{
+		return startServiceSession( message, channel, null );
+	}
+
+	/**
+	 * Starts a service session.
+	 * @param message the message triggering the session start
+	 * @param channel the channel of the message triggering the session start
+	 * @param onAccepted if not {@code null}, run once the session has been admitted
+	 * and before it starts
+	 * @return {@code true} if the service session is started, {@code false} otherwise
+	 * @throws SessionRejectedException if the maximum number of concurrent sessions is reached
+	 * and the session cannot be queued
+	 */
+	public boolean startServiceSession( final CommMessage message, CommChannel channel, Runnable onAccepted )
+		throws SessionRejectedException
 	{
 		if ( executionMode == Constants.ExecutionMode.SINGLE ) {
 			return false;
@@ -1342,7 +1460,18 @@ public class Interpreter
 		final SessionThread spawnedSession;
 
 		if ( executionMode == Constants.ExecutionMode.CONCURRENT ) {
-			State state = initExecutionThread.state().clone();
+			final SessionAdmission.Ticket ticket;
+			if ( sessionAdmission == null ) {
+				ticket = null;
+			} else {
+				try {
+					ticket = sessionAdmission.acquire( channel );
+				} catch( InterruptedException e ) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			State state = newSessionState();
 			jolie.process.Process sequence = new SequentialProcess( new jolie.process.Process[]{
 				starter.guard.receiveMessage( new SessionMessage( message, channel ), state ),
 				starter.body
@@ -1359,19 +1488,32 @@ public class Interpreter
 				public void onSessionExecuted( SessionThread session )
 				{
 					logSessionEnd( message.operationName(), session.getSessionId() );
+					if ( ticket != null ) {
+						sessionAdmission.release();
+					}
 				}
 
 				public void onSessionError( SessionThread session, FaultException fault )
 				{
 					logSessionEnd( message.operationName(), session.getSessionId() );
+					if ( ticket != null ) {
+						sessionAdmission.release();
+					}
 				}
 			} );
-			spawnedSession.start();
+			if ( onAccepted != null ) {
+				onAccepted.run();
+			}
+			if ( ticket == null ) {
+				spawnedSession.start();
+			} else {
+				ticket.start( spawnedSession );
+			}
 		} else if ( executionMode == Constants.ExecutionMode.SEQUENTIAL ) {
 			/*
 			 * We use sessionThreads to handle sequential execution of spawn requests
 			 */
-			State state = initExecutionThread.state().clone();
+			State state = newSessionState();
 			jolie.process.Process sequence = new SequentialProcess( new jolie.process.Process[]{
 				starter.guard.receiveMessage( new SessionMessage( message, channel ), state ),
 				starter.body
@@ -1409,6 +1551,9 @@ public class Interpreter
 					logSessionEnd( message.operationName(), session.getSessionId() );
 				}
 			} );
+			if ( onAccepted != null ) {
+				onAccepted.run();
+			}
 			synchronized( waitingSessionThreads ) {
 				if ( waitingSessionThreads.isEmpty() ) {
 					waitingSessionThreads.add( spawnedSession );
@@ -210,6 +210,7 @@ import jolie.runtime.expression.NotExpression;
 import jolie.runtime.expression.OrCondition;
 import jolie.runtime.expression.ProductExpression;
 import jolie.runtime.expression.SumExpression;
+import jolie.runtime.expression.TieredExpression;
 import jolie.runtime.expression.ValueVectorSizeExpression;
 import jolie.runtime.expression.VoidExpression;
 import jolie.runtime.typing.OneWayTypeDescription;
@@ -289,6 +290,15 @@ public class OOITBuilder implements OLVisitor
 		this.program.children().addAll( program.children() );
 	}
 
+	/*
+	 * Wraps the root of an expression that is evaluated often (conditions and assignments)
+	 * so that it gets compiled once it becomes hot.
+	 */
+	private Expression compilable( Expression expression )
+	{
+		return TieredExpression.create( expression, interpreter.expressionCompileThreshold() );
+	}
+
 	private void error( ParsingContext context, String message )
 	{
 		valid = false;
@@ -318,6 +328,9 @@ public class OOITBuilder implements OLVisitor
 		resolveTypeLinks();
 		lazyVisits();
 		buildCorrelationSets();
+		if ( valid ) {
+			compileTypes();
+		}
 
 		return valid;
 	}
@@ -360,6 +373,15 @@ public class OOITBuilder implements OLVisitor
 		}
 	}
 
+	/*
+	 * Compiles the types of the program into validators, once all type links are resolved.
+	 */
+	private void compileTypes()
+	{
+		types.values().forEach( Type::compile );
+		builtTypes.forEach( Type::compile );
+	}
+
 	private void buildCorrelationSets()
 	{
 		Interpreter.SessionStarter starter;
@@ -631,6 +653,8 @@ public class OOITBuilder implements OLVisitor
 	boolean insideType = false;
 
 	private final Map< String, Type> types = new HashMap< String, Type>();
+	// types built outside of type definitions (e.g., in output port interfaces), to be compiled
+	private final List< Type > builtTypes = new ArrayList<>();
 	private final Map< String, Map< String, OneWayTypeDescription>> notificationTypes
 		= new HashMap< String, Map< String, OneWayTypeDescription>>(); // Maps output ports to their OW operation types
 	private final Map< String, Map< String, RequestResponseTypeDescription>> solicitResponseTypes
@@ -826,7 +850,12 @@ public class OOITBuilder implements OLVisitor
 	public void visit( SynchronizedStatement n )
 	{
 		n.body().accept( this );
-		currProcess = new SynchronizedProcess( n.id(), currProcess );
+		currProcess = new SynchronizedProcess(
+			n.id(),
+			n.mode() == SynchronizedStatement.LockMode.READ,
+			n.timeout(),
+			currProcess
+		);
 	}
 
 	@Override
@@ -1033,7 +1062,7 @@ public class OOITBuilder implements OLVisitor
 		AssignmentProcess p
 			= new AssignmentProcess(
 				buildVariablePath( n.variablePath() ),
-				currExpression
+				compilable( currExpression )
 			);
 		currProcess = p;
 		currExpression = p;
@@ -1153,7 +1182,7 @@ public class OOITBuilder implements OLVisitor
 		int i = 0;
 		for( Pair< OLSyntaxNode, OLSyntaxNode> pair : n.children() ) {
 			pair.key().accept( this );
-			condition = currExpression;
+			condition = compilable( currExpression );
 			pair.value().accept( this );
 			pairs[ i++ ] = new IfProcess.CPPair( condition, currProcess );
 		}
@@ -1185,7 +1214,7 @@ public class OOITBuilder implements OLVisitor
 	public void visit( WhileStatement n )
 	{
 		n.condition().accept( this );
-		Expression condition = currExpression;
+		Expression condition = compilable( currExpression );
 		n.body().accept( this );
 		currProcess = new WhileProcess( condition, currProcess );
 	}
@@ -1430,7 +1459,7 @@ public class OOITBuilder implements OLVisitor
 		n.post().accept( this );
 		Process post = currProcess;
 		n.condition().accept( this );
-		Expression condition = currExpression;
+		Expression condition = compilable( currExpression );
 		n.body().accept( this );
 		currProcess = new ForProcess( init, condition, post, currProcess );
 	}
@@ -1481,6 +1510,7 @@ public class OOITBuilder implements OLVisitor
 			return null;
 		}
 		n.accept( this );
+		builtTypes.add( currType );
 		return currType;
 	}
 
@@ -1564,10 +1594,17 @@ public class OOITBuilder implements OLVisitor
 
 		return new OneWayOperation(
 			operationName,
-			(extenderType == null) ? desc.requestType() : Type.extend( desc.requestType(), extenderType )
+			(extenderType == null) ? desc.requestType() : extendType( desc.requestType(), extenderType )
 		);
 	}
 
+	private Type extendType( Type type, Type extenderType )
+	{
+		final Type extendedType = Type.extend( type, extenderType );
+		builtTypes.add( extendedType );
+		return extendedType;
+	}
+
 	private RequestResponseOperation getExtendedRequestResponseOperation( String inputPortName, String operationName )
 	{
 		AggregationConfiguration conf = getAggregationConfiguration( inputPortName, operationName );
@@ -1592,9 +1629,9 @@ public class OOITBuilder implements OLVisitor
 			operationName,
 			new RequestResponseTypeDescription(
 				(requestExtenderType == null)
-					? desc.requestType() : Type.extend( desc.requestType(), requestExtenderType ),
+					? desc.requestType() : extendType( desc.requestType(), requestExtenderType ),
 				(responseExtenderType == null)
-					? desc.responseType() : Type.extend( desc.responseType(), responseExtenderType ),
+					? desc.responseType() : extendType( desc.responseType(), responseExtenderType ),
 				extendedFaultMap
 			)
 		);
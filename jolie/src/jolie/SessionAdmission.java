@@ -0,0 +1,238 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie;
+
+import io.netty.util.concurrent.FastThreadLocalThread;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
+import jolie.monitoring.StatisticsRegistry;
+import jolie.net.CommChannel;
+import jolie.net.CommCore;
+import jolie.runtime.SessionRejectedException;
+
+/**
+ * Bounds the number of sessions that a service in concurrent execution mode runs at the same time.
+ *
+ * Sessions beyond the limit wait in a bounded queue and are started, in order, as running sessions
+ * terminate. When the queue is full too, the {@link RejectPolicy} decides what happens to the
+ * message that would start a new session.
+ *
+ * The statistics of the admission are kept under <code>sessions</code>: the gauges
+ * <code>live</code> and <code>queued</code>, and the counters <code>rejected</code>
+ * and <code>throttled</code> (messages whose channel was paused or whose reading thread was blocked).
+ */
+public final class SessionAdmission
+{
+	public enum RejectPolicy
+	{
+		/**
+		 * The message is answered with a {@link SessionRejectedException#FAULT_NAME} fault.
+		 */
+		FAULT,
+		/**
+		 * The channel of the message stops reading until its session starts, so that
+		 * the transport applies backpressure to the sender (e.g., the TCP window fills up).
+		 * Channels that cannot pause block the thread that reads them instead.
+		 */
+		BACKPRESSURE;
+
+		public static RejectPolicy fromString( String name )
+		{
+			switch( name ) {
+				case "fault":
+					return FAULT;
+				case "backpressure":
+					return BACKPRESSURE;
+				default:
+					return null;
+			}
+		}
+	}
+
+	/**
+	 * The right to run a session, obtained before the session is created.
+	 */
+	public final class Ticket
+	{
+		private final CommChannel pausedChannel;
+		private final boolean queued;
+
+		private Ticket( boolean queued, CommChannel pausedChannel )
+		{
+			this.queued = queued;
+			this.pausedChannel = pausedChannel;
+		}
+
+		/**
+		 * Starts the session now, or when a running session terminates if this ticket is queued.
+		 * The session must call {@link SessionAdmission#release()} when it terminates.
+		 */
+		public void start( SessionThread session )
+		{
+			if ( queued ) {
+				enqueue( session, this );
+			} else {
+				session.start();
+			}
+		}
+	}
+
+	private static final class Pending
+	{
+		private final SessionThread session;
+		private final Ticket ticket;
+
+		private Pending( SessionThread session, Ticket ticket )
+		{
+			this.session = session;
+			this.ticket = ticket;
+		}
+	}
+
+	private final int maxSessions;
+	private final int queueCapacity;
+	private final RejectPolicy rejectPolicy;
+	private final Ticket runTicket = new Ticket( false, null );
+	private final Queue< Pending > pending = new ArrayDeque<>();
+	private final LongAdder rejected;
+	private final LongAdder throttled;
+	// guarded by this
+	private int live = 0;
+	// queued tickets, including the ones whose session has not been enqueued yet
+	private int queued = 0;
+
+	SessionAdmission( int maxSessions, int queueCapacity, RejectPolicy rejectPolicy, StatisticsRegistry statistics )
+	{
+		this.maxSessions = maxSessions;
+		this.queueCapacity = queueCapacity;
+		this.rejectPolicy = rejectPolicy;
+		rejected = statistics.counter( "sessions.rejected" );
+		throttled = statistics.counter( "sessions.throttled" );
+		statistics.registerGauge( "sessions.live", this::live );
+		statistics.registerGauge( "sessions.queued", this::queued );
+	}
+
+	private synchronized long live()
+	{
+		return live;
+	}
+
+	private synchronized long queued()
+	{
+		return queued;
+	}
+
+	/**
+	 * Obtains the right to run a new session for a message received from the given channel.
+	 * @param channel the channel that the message was received from
+	 * @return the ticket for starting the session
+	 * @throws SessionRejectedException if there is no room for the session
+	 * @throws InterruptedException if the thread was interrupted while waiting for room
+	 */
+	public Ticket acquire( CommChannel channel )
+		throws SessionRejectedException, InterruptedException
+	{
+		synchronized( this ) {
+			if ( live < maxSessions ) {
+				live++;
+				return runTicket;
+			}
+			if ( queued < queueCapacity ) {
+				queued++;
+				return new Ticket( true, null );
+			}
+		}
+		if ( rejectPolicy == RejectPolicy.BACKPRESSURE ) {
+			if ( channel != null && channel.pauseInput() ) {
+				// the paused channel bounds the sessions beyond the queue capacity
+				throttled.increment();
+				synchronized( this ) {
+					queued++;
+				}
+				return new Ticket( true, channel );
+			}
+			// Netty event loops must never block: there we can only reject
+			if ( !isEventLoop( Thread.currentThread() ) ) {
+				throttled.increment();
+				synchronized( this ) {
+					while( live >= maxSessions && queued >= queueCapacity ) {
+						wait();
+					}
+					if ( live < maxSessions ) {
+						live++;
+						return runTicket;
+					}
+					queued++;
+					return new Ticket( true, null );
+				}
+			}
+		}
+		rejected.increment();
+		throw new SessionRejectedException();
+	}
+
+	private static boolean isEventLoop( Thread thread )
+	{
+		return thread instanceof CommCore.ExecutionContextThread || thread instanceof FastThreadLocalThread;
+	}
+
+	private void enqueue( SessionThread session, Ticket ticket )
+	{
+		synchronized( this ) {
+			if ( live >= maxSessions ) {
+				pending.add( new Pending( session, ticket ) );
+				return;
+			}
+			// a session terminated before this one was enqueued
+			live++;
+			queued--;
+			notifyAll();
+		}
+		run( session, ticket );
+	}
+
+	/**
+	 * Signals that a session started through a ticket has terminated, starting the next queued one.
+	 */
+	public void release()
+	{
+		final Pending next;
+		synchronized( this ) {
+			next = pending.poll();
+			if ( next == null ) {
+				live--;
+			} else {
+				queued--;
+			}
+			notifyAll();
+		}
+		if ( next != null ) {
+			run( next.session, next.ticket );
+		}
+	}
+
+	private static void run( SessionThread session, Ticket ticket )
+	{
+		if ( ticket.pausedChannel != null ) {
+			ticket.pausedChannel.resumeInput();
+		}
+		session.start();
+	}
+}
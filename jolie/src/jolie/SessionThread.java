@@ -442,8 +442,23 @@ public class SessionThread extends ExecutionThread
 	}
 
 	public void pushMessage( SessionMessage message )
+	{
+		pushMessage( message, null );
+	}
+
+	/**
+	 * Delivers a message to this session.
+	 * The message becomes visible to the session only after {@code onAccepted}
+	 * has run, and messages pushed meanwhile by other threads are delivered after it.
+	 * @param message the message to deliver
+	 * @param onAccepted if not {@code null}, run right before the message is delivered
+	 */
+	public void pushMessage( SessionMessage message, Runnable onAccepted )
 	{
 		synchronized( messageQueues ) {
+			if ( onAccepted != null ) {
+				onAccepted.run();
+			}
 			Deque< SessionMessage> queue;
 			CorrelationSet cset = interpreter().getCorrelationSetForOperation( message.message().operationName() );
 			if ( cset != null ) {
@@ -21,6 +21,7 @@
 package jolie;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import jolie.runtime.InternalLink;
 import jolie.runtime.Value;
 
@@ -34,10 +35,18 @@ public final class State implements Cloneable
 {
 	private final Value root;
 	private final ConcurrentHashMap< String, InternalLink> linksMap = new ConcurrentHashMap<>();
+	// true if root is never modified, see snapshot()
+	private final boolean snapshot;
+	// number of parallel statements running in this state, see isConfined()
+	private final AtomicInteger parallelExecutions = new AtomicInteger();
+	// true if a link was created below the root, see hasNestedLinks()
+	private volatile boolean nestedLinks;
 
-	private State( Value root )
+	private State( Value root, boolean snapshot, boolean nestedLinks )
 	{
 		this.root = root;
+		this.snapshot = snapshot;
+		this.nestedLinks = nestedLinks;
 	}
 
 	/**
@@ -55,13 +64,91 @@ public final class State implements Cloneable
 	 */
 	public State()
 	{
-		this.root = Value.createRootValue();
+		this( Value.createRootValue(), false, false );
 	}
 
+	/**
+	 * Returns true if the variables of this state can be accessed only by the current thread,
+	 * i.e., if this is the state of the current thread and no parallel statement is running in it.
+	 * Deep copies made by the current thread can then share sub-trees with the copied variables
+	 * (see {@link Value#deepCopy(jolie.runtime.Value, boolean)}).
+	 * @return true if the variables of this state can be accessed only by the current thread
+	 */
+	public boolean isConfined()
+	{
+		final ExecutionThread ethread = ExecutionThread.currentThread();
+		return ethread != null && ethread.state() == this && parallelExecutions.get() == 0;
+	}
+
+	/**
+	 * Signals that a parallel statement started running in this state.
+	 * Every call must be followed by a call to {@link #parallelExecutionEnded()}.
+	 */
+	public void parallelExecutionStarted()
+	{
+		parallelExecutions.incrementAndGet();
+	}
+
+	/**
+	 * Signals that a parallel statement running in this state has terminated.
+	 */
+	public void parallelExecutionEnded()
+	{
+		parallelExecutions.decrementAndGet();
+	}
+
+	/**
+	 * Signals that a link was created below the root of this state (e.g., a.b -> c).
+	 */
+	public void nestedLinkCreated()
+	{
+		nestedLinks = true;
+	}
+
+	/**
+	 * Returns true if a link may exist below the root of this state.
+	 * A deep copy that does not copy links (as links) cannot share the sub-trees of such a state,
+	 * since their links have to be replaced by copies of the values they point to.
+	 * @return true if a link may exist below the root of this state
+	 */
+	public boolean hasNestedLinks()
+	{
+		return nestedLinks;
+	}
+
+	/**
+	 * Returns a copy of this State, independent from it.
+	 * Cloning a snapshot does not copy anything upfront: the variables of the clone are
+	 * copied from the snapshot the first time that they are accessed.
+	 * @return a copy of this State
+	 * @see #snapshot()
+	 */
 	@Override
 	public State clone()
 	{
-		return new State( Value.createClone( root ) );
+		return snapshot
+			? new State( Value.createRootValue( root ), false, nestedLinks )
+			: new State( Value.createClone( root, isConfined() ), false, nestedLinks );
+	}
+
+	/**
+	 * Returns an immutable copy of this State, meant to be cloned many times
+	 * (e.g., the state of init, which every new session starts from).
+	 * The root of a snapshot must not be modified.
+	 * @return an immutable copy of this State
+	 */
+	public State snapshot()
+	{
+		return snapshot( isConfined() );
+	}
+
+	/*
+	 * The sub-trees of this state are shared with the snapshot if share is true,
+	 * which requires that no other thread can access this state.
+	 */
+	State snapshot( boolean share )
+	{
+		return new State( Value.createClone( root, share ), true, nestedLinks );
 	}
 
 	/**
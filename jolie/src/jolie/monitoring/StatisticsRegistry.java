@@ -0,0 +1,91 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import jolie.runtime.Value;
+
+/**
+ * Collects the runtime counters and gauges of an Interpreter.
+ *
+ * Names are dot-separated paths (e.g., <code>http.compression.compressedBytes</code>),
+ * which are mapped to nested nodes when the registry is written to a {@link Value}.
+ * Counters are meant to be retrieved once (e.g., when a channel or a handler is created)
+ * and then updated without further lookups.
+ */
+public class StatisticsRegistry
+{
+	private final Map< String, LongAdder > counters = new ConcurrentHashMap<>();
+	private final Map< String, LongSupplier > gauges = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the counter with the given name, creating it if necessary.
+	 * @param name the name of the counter
+	 * @return the counter with the given name
+	 */
+	public LongAdder counter( String name )
+	{
+		return counters.computeIfAbsent( name, k -> new LongAdder() );
+	}
+
+	/**
+	 * Registers a gauge, i.e., a value that is computed every time the statistics are read.
+	 * An already registered gauge with the same name is replaced.
+	 * @param name the name of the gauge
+	 * @param gauge the supplier of the gauge value
+	 */
+	public void registerGauge( String name, LongSupplier gauge )
+	{
+		gauges.put( name, gauge );
+	}
+
+	public void removeGauge( String name )
+	{
+		gauges.remove( name );
+	}
+
+	public boolean isEmpty()
+	{
+		return counters.isEmpty() && gauges.isEmpty();
+	}
+
+	/**
+	 * Writes a snapshot of all counters and gauges into the given value.
+	 * @param value the value to write the statistics to
+	 */
+	public void writeTo( Value value )
+	{
+		counters.forEach( ( name, counter ) -> getNode( value, name ).setValue( counter.sum() ) );
+		gauges.forEach( ( name, gauge ) -> getNode( value, name ).setValue( gauge.getAsLong() ) );
+	}
+
+	private static Value getNode( Value value, String name )
+	{
+		int start = 0;
+		int end;
+		while( (end = name.indexOf( '.', start )) >= 0 ) {
+			value = value.getFirstChild( name.substring( start, end ) );
+			start = end + 1;
+		}
+		return value.getFirstChild( name.substring( start ) );
+	}
+}
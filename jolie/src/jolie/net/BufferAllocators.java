@@ -0,0 +1,95 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.net;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetric;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import jolie.monitoring.StatisticsRegistry;
+
+/**
+ * Creates the ByteBuf allocator shared by the Netty channels (and hence the codecs,
+ * through <code>ctx.alloc()</code>) of an interpreter, and publishes its memory usage
+ * under <code>net.allocator</code> in the statistics of the interpreter.
+ */
+public final class BufferAllocators
+{
+	private BufferAllocators()
+	{
+	}
+
+	/**
+	 * Creates a ByteBuf allocator.
+	 * @param pooled whether buffers are recycled through the arenas of a pool
+	 * @param preferDirect whether buffers are allocated off-heap when possible
+	 * @param arenas the number of arenas of each kind (heap and direct) of a pooled allocator,
+	 * or 0 for the Netty default (twice the available processors, bounded by the available memory)
+	 * @return the new allocator
+	 */
+	public static ByteBufAllocator create( boolean pooled, boolean preferDirect, int arenas )
+	{
+		if ( !pooled ) {
+			return new UnpooledByteBufAllocator( preferDirect );
+		}
+		return new PooledByteBufAllocator(
+			preferDirect,
+			arenas > 0 ? arenas : PooledByteBufAllocator.defaultNumHeapArena(),
+			arenas > 0 ? arenas : PooledByteBufAllocator.defaultNumDirectArena(),
+			PooledByteBufAllocator.defaultPageSize(),
+			PooledByteBufAllocator.defaultMaxOrder()
+		);
+	}
+
+	/**
+	 * Returns the leak detection level with the given name
+	 * (<code>disabled</code>, <code>simple</code>, <code>advanced</code> or <code>paranoid</code>).
+	 * @param name the name of the level
+	 * @return the leak detection level with the given name, or null if there is none
+	 */
+	public static ResourceLeakDetector.Level leakDetectionLevel( String name )
+	{
+		for( ResourceLeakDetector.Level level : ResourceLeakDetector.Level.values() ) {
+			if ( level.name().equalsIgnoreCase( name ) ) {
+				return level;
+			}
+		}
+		return null;
+	}
+
+	public static void registerGauges( ByteBufAllocator allocator, StatisticsRegistry statistics )
+	{
+		statistics.registerGauge( "net.allocator.leakDetectionLevel", () -> ResourceLeakDetector.getLevel().ordinal() );
+		if ( allocator instanceof ByteBufAllocatorMetricProvider ) {
+			final ByteBufAllocatorMetric metric = ((ByteBufAllocatorMetricProvider) allocator).metric();
+			statistics.registerGauge( "net.allocator.usedHeapMemory", metric::usedHeapMemory );
+			statistics.registerGauge( "net.allocator.usedDirectMemory", metric::usedDirectMemory );
+			if ( metric instanceof PooledByteBufAllocatorMetric ) {
+				final PooledByteBufAllocatorMetric pooled = (PooledByteBufAllocatorMetric) metric;
+				statistics.registerGauge( "net.allocator.heapArenas", pooled::numHeapArenas );
+				statistics.registerGauge( "net.allocator.directArenas", pooled::numDirectArenas );
+				statistics.registerGauge( "net.allocator.threadLocalCaches", pooled::numThreadLocalCaches );
+				statistics.registerGauge( "net.allocator.chunkSize", pooled::chunkSize );
+			}
+		}
+	}
+}
@@ -192,6 +192,26 @@ public abstract class CommChannel
 		return true;
 	}
 
+	/**
+	 * Stops reading incoming messages from this channel until {@link #resumeInput()} is called,
+	 * if the channel supports it. This is used to apply backpressure to the sender.
+	 *
+	 * @return <code>true</code> if the channel stopped reading, <code>false</code> if it
+	 * does not support pausing
+	 */
+	public boolean pauseInput()
+	{
+		return false;
+	}
+
+	/**
+	 * Resumes reading incoming messages from this channel.
+	 * @see #pauseInput()
+	 */
+	public void resumeInput()
+	{
+	}
+
 	protected abstract boolean isThreadSafe();
 
 	/**
@@ -23,36 +23,29 @@
  *******************************************************************************/
 package jolie.net;
 
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.buffer.ByteBufAllocator;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.channels.ClosedChannelException;
-import java.nio.channels.SelectableChannel;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
-import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import jolie.ExecutionThread;
 import jolie.Interpreter;
-import jolie.JolieThreadPoolExecutor;
-import jolie.NativeJolieThread;
 import jolie.lang.Constants;
 import jolie.net.ext.CommChannelFactory;
 import jolie.net.ext.CommListenerFactory;
@@ -66,10 +59,12 @@ import jolie.runtime.FaultException;
 import jolie.runtime.InputOperation;
 import jolie.runtime.InvalidIdException;
 import jolie.runtime.OneWayOperation;
+import jolie.runtime.SessionRejectedException;
 import jolie.runtime.TimeoutHandler;
 import jolie.runtime.Value;
 import jolie.runtime.VariablePath;
 import jolie.runtime.correlation.CorrelationError;
+import jolie.runtime.typing.Type;
 import jolie.runtime.typing.TypeCheckingException;
 
 /**
@@ -95,6 +90,9 @@ public class CommCore
 	private final int connectionsLimit;
 	// private final int connectionCacheSize;
 	private final Interpreter interpreter;
+	private final OutboundBufferStatistics outboundBuffers;
+	private final CommResources resources;
+	private final ExecutionContextHandler executionContextHandler;
 
 	private final ReadWriteLock channelHandlersLock = new ReentrantReadWriteLock( true );
 
@@ -220,6 +218,59 @@ public class CommCore
 		}
 	}
 
+	/**
+	 * Returns the statistics of the outbound buffers of the Netty channels of this CommCore.
+	 *
+	 * @return the statistics of the outbound buffers
+	 */
+	public OutboundBufferStatistics outboundBuffers()
+	{
+		return outboundBuffers;
+	}
+
+	/**
+	 * Returns the Netty transport of the socket medium, which matches the event loops of its channels.
+	 *
+	 * @return the Netty transport of the socket medium
+	 */
+	public SocketTransport socketTransport()
+	{
+		return resources.transport();
+	}
+
+	/**
+	 * Returns the ByteBuf allocator of the Netty channels of this CommCore.
+	 * Channel handlers should allocate through <code>ctx.alloc()</code>, which returns this allocator.
+	 *
+	 * @return the ByteBuf allocator of the Netty channels
+	 */
+	public ByteBufAllocator allocator()
+	{
+		return resources.allocator();
+	}
+
+	/**
+	 * Returns the event loops, executors and allocator of this CommCore,
+	 * which are shared with the interpreters embedded by its Interpreter.
+	 *
+	 * @return the communication resources of this CommCore
+	 */
+	public CommResources resources()
+	{
+		return resources;
+	}
+
+	/**
+	 * Returns the handler that binds the event loops to the Interpreter of this CommCore,
+	 * to be placed first in the pipelines of its Netty channels.
+	 *
+	 * @return the execution context handler of this CommCore
+	 */
+	public ExecutionContextHandler executionContextHandler()
+	{
+		return executionContextHandler;
+	}
+
 	/**
 	 * Returns the Interpreter instance this CommCore refers to.
 	 *
@@ -235,44 +286,44 @@ public class CommCore
 	 *
 	 * @param interpreter the Interpreter to refer to for this CommCore operations
 	 * @param connectionsLimit if more than zero, specifies an upper bound to the connections handled in parallel.
+	 * @param resources the event loops, executors and allocator to communicate with, either created for this
+	 * CommCore or retained from the CommCore of the embedding interpreter; they are released at shutdown.
 	 * @throws java.io.IOException
 	 */
-	public CommCore( Interpreter interpreter, int connectionsLimit /*, int connectionsCacheSize */ )
+	public CommCore( Interpreter interpreter, int connectionsLimit, CommResources resources /*, int connectionsCacheSize */ )
 		throws IOException
 	{
 		this.interpreter = interpreter;
 		this.localListener = LocalListener.create( interpreter );
 		this.connectionsLimit = connectionsLimit;
+		this.outboundBuffers = new OutboundBufferStatistics( interpreter.statistics() );
+		this.resources = resources;
+		this.executionContextHandler = new ExecutionContextHandler( interpreter );
+		this.tasks = interpreter.statistics().counter( "comm.tasks" );
+		interpreter.statistics().registerGauge( "comm.activeTasks", activeTasks::get );
+		interpreter.statistics().registerGauge( "comm.sharedResources", resources::references );
+		BufferAllocators.registerGauges( resources.allocator(), interpreter.statistics() );
 		// this.connectionCacheSize = connectionsCacheSize;
 		this.threadGroup = new ThreadGroup( "CommCore-" + interpreter.hashCode() );
-		/* if ( connectionsLimit > 0 ) {
-			executorService = Executors.newFixedThreadPool( connectionsLimit, new CommThreadFactory() );
-		} else {
-			executorService = Executors.newCachedThreadPool( new CommThreadFactory() );
-		}
-		 */
-		executorService = new JolieThreadPoolExecutor( new CommThreadFactory() );
 
-		selectorThreads = new SelectorThread[ Runtime.getRuntime().availableProcessors() ];
-		for( int i = 0; i < selectorThreads.length; i++ ) {
-			selectorThreads[ i ] = new SelectorThread( interpreter );
-		}
-
-		EventLoopGroup bossGroup = new NioEventLoopGroup( 4, new ExecutionContextThreadFactory() );
-		EventLoopGroup workerGroup = new NioEventLoopGroup( 4, new ExecutionContextThreadFactory() );
 		//TODO make socket an extension, too?
-		CommListenerFactory listenerFactory = new NioSocketListenerFactory( this, bossGroup, workerGroup );
+		CommListenerFactory listenerFactory = new NioSocketListenerFactory( this, resources.transport(), resources.bossThreads(), resources.bossGroup(), resources.workerGroup() );
 		listenerFactories.put( "socket", listenerFactory );
-		CommChannelFactory channelFactory = new NioSocketCommChannelFactory( this, workerGroup );
+		CommChannelFactory channelFactory = new NioSocketCommChannelFactory( this, resources.transport(), resources.workerGroup() );
 		channelFactories.put( "socket", channelFactory );
 	}
 
 	public ExecutionContextThreadFactory getNewExecutionContextThreadFactory()
 	{
-		return new ExecutionContextThreadFactory();
+		return new ExecutionContextThreadFactory( interpreter );
 	}
 
-	public class ExecutionContextThread extends Thread
+	/**
+	 * An event loop thread. Event loops can be shared by several interpreters, hence
+	 * the Interpreter of the thread is rebound to the one owning the channel being served
+	 * (see {@link ExecutionContextHandler}).
+	 */
+	public static class ExecutionContextThread extends Thread
 	{
 
 		private Interpreter interpreter;
@@ -299,15 +350,32 @@ public class CommCore
 			return interpreter;
 		}
 
+		void interpreter( Interpreter interpreter )
+		{
+			if ( this.interpreter != interpreter ) {
+				this.interpreter = interpreter;
+				// protocols read their parameters from the execution thread,
+				// which must not be the one of the previously served interpreter
+				this.executionThread = interpreter.initThread();
+			}
+		}
+
 	}
 
-	public class ExecutionContextThreadFactory implements ThreadFactory
+	public static class ExecutionContextThreadFactory implements ThreadFactory
 	{
 
+		private final Interpreter interpreter;
+
+		public ExecutionContextThreadFactory( Interpreter interpreter )
+		{
+			this.interpreter = interpreter;
+		}
+
 		@Override
 		public Thread newThread( Runnable r )
 		{
-			return new ExecutionContextThread( r, interpreter() );
+			return new ExecutionContextThread( r, interpreter );
 		}
 
 	}
@@ -637,15 +705,52 @@ public class CommCore
 		listenersMap.put( inputPort.name(), listener );
 	}
 
-	private final ExecutorService executorService;
+	// the tasks run for this CommCore by the (possibly shared) executors of its resources
+	private final LongAdder tasks;
+	private final AtomicInteger activeTasks = new AtomicInteger( 0 );
+	private volatile boolean closed = false;
 
-	private final static class CommThreadFactory implements ThreadFactory
+	private void execute( Executor executor, Runnable r )
 	{
+		if ( closed ) {
+			throw new RejectedExecutionException( "Communication core of " + interpreter.programFilename() + " shut down" );
+		}
+		tasks.increment();
+		activeTasks.incrementAndGet();
+		try {
+			executor.execute( () -> {
+				try {
+					CommChannelHandler.currentThread().setExecutionThread( interpreter.initThread() );
+					r.run();
+				} finally {
+					taskCompleted();
+				}
+			} );
+		} catch( RejectedExecutionException e ) {
+			taskCompleted();
+			throw e;
+		}
+	}
 
-		@Override
-		public Thread newThread( Runnable r )
-		{
-			return new CommChannelHandler( r );
+	private void taskCompleted()
+	{
+		if ( activeTasks.decrementAndGet() == 0 ) {
+			synchronized( activeTasks ) {
+				activeTasks.notifyAll();
+			}
+		}
+	}
+
+	private void awaitTasks( long timeout )
+		throws InterruptedException
+	{
+		final long deadline = System.currentTimeMillis() + timeout;
+		synchronized( activeTasks ) {
+			long remaining = timeout;
+			while( activeTasks.get() > 0 && remaining > 0 ) {
+				activeTasks.wait( remaining );
+				remaining = deadline - System.currentTimeMillis();
+			}
 		}
 	}
 
@@ -656,11 +761,24 @@ public class CommCore
 
 		private final CommChannel channel;
 		private final InputPort port;
+		private final CommMessage message;
+		private final Type checkedType;
 
 		public CommChannelHandlerRunnable( CommChannel channel, InputPort port )
+		{
+			this( channel, port, null, null );
+		}
+
+		/*
+		 * Used by in-process channels, which hand over the request directly
+		 * together with the type it has already been checked against (if any).
+		 */
+		private CommChannelHandlerRunnable( CommChannel channel, InputPort port, CommMessage message, Type checkedType )
 		{
 			this.channel = channel;
 			this.port = port;
+			this.message = message;
+			this.checkedType = checkedType;
 		}
 
 		private void forwardResponse( CommMessage message )
@@ -749,12 +867,25 @@ public class CommCore
 				InputOperation operation
 					= interpreter.getInputOperation( message.operationName() );
 				try {
-					operation.requestType().check( message.value() );
-					interpreter.correlationEngine().onMessageReceive( message, channel );
+					if ( checkedType == null || !operation.isRequestTypeEquivalentTo( checkedType ) ) {
+						operation.requestType().check( message.value() );
+					}
 					if ( operation instanceof OneWayOperation ) {
-						// We need to send the acknowledgement
-						channel.send( CommMessage.createEmptyResponse( message ) );
-						//channel.release();
+						// We need to send the acknowledgement before the receiving
+						// session runs, as it may exit and close this channel
+						final IOException[] ackError = new IOException[ 1 ];
+						interpreter.correlationEngine().onMessageReceive( message, channel, () -> {
+							try {
+								channel.send( CommMessage.createEmptyResponse( message ) );
+							} catch( IOException e ) {
+								ackError[ 0 ] = e;
+							}
+						} );
+						if ( ackError[ 0 ] != null ) {
+							throw ackError[ 0 ];
+						}
+					} else {
+						interpreter.correlationEngine().onMessageReceive( message, channel );
 					}
 				} catch( TypeCheckingException e ) {
 					interpreter.logWarning( "Received message TypeMismatch (input operation " + operation.id() + "): " + e.getMessage() );
@@ -763,6 +894,9 @@ public class CommCore
 					} catch( IOException ioe ) {
 						Interpreter.getInstance().logSevere( ioe );
 					}
+				} catch( SessionRejectedException e ) {
+					interpreter.logWarning( "Rejected a message for operation " + message.operationName() + ", the maximum number of sessions is reached. Sending " + SessionRejectedException.FAULT_NAME + " to the caller." );
+					channel.send( CommMessage.createFaultResponse( message, e.toFault() ) );
 				} catch( CorrelationError e ) {
 					interpreter.logWarning( "Received a non correlating message for operation " + message.operationName() + ". Sending CorrelationError to the caller." );
 					channel.send( CommMessage.createFaultResponse( message, new FaultException( "CorrelationError", "The message you sent can not be correlated with any session and can not be used to start a new session." ) ) );
@@ -815,7 +949,7 @@ public class CommCore
 			try {
 				if ( channel.redirectionChannel() == null ) {
 					assert (port != null);
-					final CommMessage message = channel.recv();
+					final CommMessage message = (this.message != null) ? this.message : channel.recv();
 					if ( message != null ) {
 						handleMessage( message );
 					} else {
@@ -860,7 +994,21 @@ public class CommCore
 	 */
 	public void scheduleReceive( CommChannel channel, InputPort port )
 	{
-		executorService.execute( new CommChannelHandlerRunnable( channel, port ) );
+		execute( resources.executorService(), new CommChannelHandlerRunnable( channel, port ) );
+	}
+
+	/**
+	 * Schedules the handling of a message that has already been received, skipping the
+	 * receiving step. This is used by in-process channels.
+	 *
+	 * @param channel the <code>CommChannel</code> the message has been received from
+	 * @param port the <code>Port</code> responsible for the message receiving
+	 * @param message the received message
+	 * @param checkedType the type the message value has already been checked against by the sender, or <code>null</code>
+	 */
+	public void scheduleReceive( CommChannel channel, InputPort port, CommMessage message, Type checkedType )
+	{
+		execute( resources.executorService(), new CommChannelHandlerRunnable( channel, port, message, checkedType ) );
 	}
 
 	/**
@@ -870,12 +1018,24 @@ public class CommCore
 	 */
 	public void execute( Runnable r )
 	{
-		executorService.execute( r );
+		execute( resources.executorService(), r );
 	}
 
 	protected void startCommChannelHandler( Runnable r )
 	{
-		executorService.execute( r );
+		execute( resources.executorService(), r );
+	}
+
+	/**
+	 * Runs the handling of received messages, which must not run on the event loop
+	 * that received them (see {@link StreamingCommChannelHandler}).
+	 * The task runs in a {@link CommChannelHandler} thread.
+	 *
+	 * @param r the Runnable object to execute
+	 */
+	public void dispatch( Runnable r )
+	{
+		execute( resources.dispatchExecutor(), r );
 	}
 
 	/**
@@ -890,9 +1050,6 @@ public class CommCore
 		throws IOException
 	{
 		active = true;
-		for( SelectorThread t : selectorThreads ) {
-			t.start();
-		}
 		listenersMap.entrySet().forEach( ( entry ) -> {
 			entry.getValue().start();
 		} );
@@ -994,208 +1151,6 @@ public class CommCore
 		pollingThread().register( channel );
 	}
 
-	private final SelectorThread[] selectorThreads;
-
-	private class SelectorThread extends NativeJolieThread
-	{
-
-		// We use a custom class for debugging purposes (the profiler gives us the class name)
-		private class SelectorMutex extends Object
-		{
-		}
-
-		private final Selector selector;
-		private final SelectorMutex selectingMutex = new SelectorMutex();
-		private final Deque< Runnable> selectorTasks = new ArrayDeque<>();
-
-		public SelectorThread( Interpreter interpreter )
-			throws IOException
-		{
-			super( interpreter, threadGroup, interpreter.programFilename() + "-SelectorThread" );
-			this.selector = Selector.open();
-		}
-
-		private Deque< Runnable> runKeys( SelectionKey[] selectedKeys )
-			throws IOException
-		{
-			boolean keepRun;
-			synchronized( this ) {
-				do {
-					for( final SelectionKey key : selectedKeys ) {
-						if ( key.isValid() ) {
-							final SelectableStreamingCommChannel channel = (SelectableStreamingCommChannel) key.attachment();
-							if ( channel.lock.tryLock() ) {
-								key.cancel();
-								selectorTasks.add( () -> {
-									try {
-										try {
-											try {
-												key.channel().configureBlocking( true );
-												if ( channel.isOpen() ) {
-													/*if ( channel.selectionTimeoutHandler() != null ) {
-														interpreter.removeTimeoutHandler( channel.selectionTimeoutHandler() );
-													}*/
-													scheduleReceive( channel, channel.parentInputPort() );
-												} else {
-													channel.closeImpl();
-												}
-											} catch( ClosedChannelException e ) {
-												channel.closeImpl();
-											}
-										} catch( IOException e ) {
-											throw e;
-										} finally {
-											channel.lock.unlock();
-										}
-									} catch( IOException e ) {
-										if ( channel.lock.isHeldByCurrentThread() ) {
-											channel.lock.unlock();
-										}
-										interpreter.logWarning( e );
-									}
-								} );
-							}
-						}
-					}
-					synchronized( selectingMutex ) {
-						if ( selector.selectNow() > 0 ) { // Clean up the cancelled keys
-							// If some new channels are selected, run again
-							selectedKeys = selector.selectedKeys().toArray( new SelectionKey[ 0 ] );
-							keepRun = true;
-						} else {
-							keepRun = false;
-						}
-					}
-				} while( keepRun );
-			}
-			return selectorTasks;
-		}
-
-		private void runTasks( Deque< Runnable> tasks )
-			throws IOException
-		{
-			Runnable r;
-			while( (r = tasks.poll()) != null ) {
-				r.run();
-			}
-		}
-
-		@Override
-		public void run()
-		{
-			while( active ) {
-				try {
-					SelectionKey[] selectedKeys;
-					synchronized( selectingMutex ) {
-						selector.select();
-						selectedKeys = selector.selectedKeys().toArray( new SelectionKey[ 0 ] );
-					}
-					final Deque< Runnable> tasks = runKeys( selectedKeys );
-					runTasks( tasks );
-				} catch( IOException e ) {
-					interpreter.logSevere( e );
-				}
-			}
-
-			synchronized( this ) {
-				for( SelectionKey key : selector.keys() ) {
-					try {
-						((SelectableStreamingCommChannel) key.attachment()).closeImpl();
-					} catch( IOException e ) {
-						interpreter.logWarning( e );
-					}
-				}
-			}
-		}
-
-		public void register( SelectableStreamingCommChannel channel, int index )
-		{
-			try {
-				if ( channel.inputStream().available() > 0 ) {
-					scheduleReceive( channel, channel.parentInputPort() );
-					return;
-				}
-
-				synchronized( this ) {
-					if ( !isSelecting( channel ) ) {
-						selector.wakeup();
-						SelectableChannel c = channel.selectableChannel();
-						c.configureBlocking( false );
-						synchronized( selectingMutex ) {
-							c.register( selector, SelectionKey.OP_READ, channel );
-							selector.wakeup();
-							channel.setSelectorIndex( index );
-						}
-					}
-				}
-			} catch( ClosedChannelException e ) {
-				interpreter.logWarning( e );
-			} catch( IOException e ) {
-				interpreter.logSevere( e );
-			}
-		}
-
-		public void unregister( SelectableStreamingCommChannel channel )
-			throws IOException
-		{
-			synchronized( this ) {
-				if ( isSelecting( channel ) ) {
-					selector.wakeup();
-					synchronized( selectingMutex ) {
-						SelectionKey key = channel.selectableChannel().keyFor( selector );
-						if ( key != null ) {
-							key.cancel();
-						}
-						selector.selectNow();
-					}
-					channel.selectableChannel().configureBlocking( true );
-				}
-			}
-		}
-	}
-
-	protected boolean isSelecting( SelectableStreamingCommChannel channel )
-	{
-		SelectableChannel c = channel.selectableChannel();
-		return c != null && c.isRegistered();
-	}
-
-	protected void unregisterForSelection( SelectableStreamingCommChannel channel )
-		throws IOException
-	{
-		selectorThreads[ channel.selectorIndex() ].unregister( channel );
-	}
-
-	private final AtomicInteger nextSelector = new AtomicInteger( 0 );
-
-	protected void registerForSelection( final SelectableStreamingCommChannel channel )
-		throws IOException
-	{
-		final int i = nextSelector.getAndIncrement() % selectorThreads.length;
-		selectorThreads[ i ].register( channel, i );
-		/*final TimeoutHandler handler = new TimeoutHandler( interpreter.persistentConnectionTimeout() ) {
-			@Override
-			public void onTimeout()
-			{
-				try {
-					if ( isSelecting( channel ) ) {
-						selectorThread().unregister( channel );
-						channel.setToBeClosed( true );
-						channel.close();
-					}
-				} catch( IOException e ) {
-					interpreter.logSevere( e );
-				}
-			}
-		};
-		channel.setSelectionTimeoutHandler( handler );
-		if ( selectorThread().register( channel ) ) {
-			interpreter.addTimeoutHandler( handler );
-		} else {
-			channel.setSelectionTimeoutHandler( null );
-		}*/
-	}
-
 	/**
 	 * Shutdowns the communication core, interrupting every
 	 * communication-related thread.
@@ -1208,23 +1163,16 @@ public class CommCore
 				entry.getValue().shutdown();
 			} );
 
-			for( SelectorThread t : selectorThreads ) {
-				t.selector.wakeup();
-				try {
-					t.join();
-				} catch( InterruptedException e ) {
-				}
-			}
-
 			try {
 				channelHandlersLock.writeLock().tryLock( CHANNEL_HANDLER_TIMEOUT, TimeUnit.SECONDS );
 			} catch( InterruptedException e ) {
 			}
-			executorService.shutdown();
+			closed = true;
 			try {
-				executorService.awaitTermination( interpreter.persistentConnectionTimeout(), TimeUnit.MILLISECONDS );
+				awaitTasks( interpreter.persistentConnectionTimeout() );
 			} catch( InterruptedException e ) {
 			}
+			resources.release();
 			threadGroup.interrupt();
 		}
 	}
@@ -31,7 +31,7 @@ import jolie.net.protocols.CommProtocol;
  * Base class for a communication input listener. A <code>CommListener</code>
  * exposes an input port, receiving message for it.
  * This abstract class is meant to be extended by classes which implement
- * an input receiving loop. See {@link SocketListener <code>SocketListener</code>} as an example.
+ * an input receiving loop. See {@link NioSocketListener <code>NioSocketListener</code>} as an example.
  * @author Fabrizio Montesi
  */
 public abstract class CommListener extends NativeJolieThread
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.net;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.EventLoopGroup;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import jolie.JolieThreadPoolExecutor;
+
+/**
+ * The threads and buffers a {@link CommCore} communicates with: the Netty event loops
+ * of the socket and datagram media, the executors that run channel handlers and
+ * dispatch received messages, and the ByteBuf allocator of the Netty channels.
+ *
+ * An interpreter creates its resources and shares them with the services it embeds,
+ * so that all the interpreters of a JVM use I/O pools sized once. The resources are
+ * reference counted and released when the last CommCore using them shuts down.
+ */
+public class CommResources
+{
+	private final SocketTransport transport;
+	private final int bossThreads;
+	private final int workerThreads;
+	private final EventLoopGroup bossGroup;
+	private final EventLoopGroup workerGroup;
+	private final ExecutorService executorService;
+	// handles the messages received by Netty channels, off their event loops
+	private final ExecutorService dispatchExecutor;
+	private final ByteBufAllocator allocator;
+	private final ThreadFactory eventLoopThreadFactory;
+	// event loops of transports other than the one of the socket medium, by name
+	private final Map< String, EventLoopGroup > eventLoopGroups = new ConcurrentHashMap<>();
+	private final AtomicInteger references = new AtomicInteger( 1 );
+
+	/**
+	 * Constructor.
+	 * @param transport the Netty transport of the socket medium
+	 * @param bossThreads the number of threads accepting connections on socket input ports
+	 * @param workerThreads the number of threads serving socket and datagram channels
+	 * @param dispatchThreads if more than zero, the number of threads that handle the messages
+	 * received by Netty channels; otherwise, they are handled by the channel handler pool.
+	 * @param allocator the ByteBuf allocator of the Netty channels
+	 * @param eventLoopThreadFactory the factory of the event loop threads, which must create
+	 * {@link CommCore.ExecutionContextThread}s
+	 */
+	public CommResources(
+		SocketTransport transport,
+		int bossThreads,
+		int workerThreads,
+		int dispatchThreads,
+		ByteBufAllocator allocator,
+		ThreadFactory eventLoopThreadFactory
+	)
+	{
+		this.transport = transport;
+		this.bossThreads = bossThreads;
+		this.workerThreads = workerThreads;
+		this.allocator = allocator;
+		this.eventLoopThreadFactory = eventLoopThreadFactory;
+		this.bossGroup = transport.newEventLoopGroup( bossThreads, eventLoopThreadFactory );
+		this.workerGroup = transport.newEventLoopGroup( workerThreads, eventLoopThreadFactory );
+		this.executorService = new JolieThreadPoolExecutor( CommChannelHandler::new );
+		this.dispatchExecutor = dispatchThreads > 0
+			? Executors.newFixedThreadPool( dispatchThreads, CommChannelHandler::new )
+			: executorService;
+	}
+
+	/**
+	 * Acquires these resources for another CommCore.
+	 * @return these resources
+	 * @throws IllegalStateException if these resources have already been released
+	 */
+	public CommResources retain()
+	{
+		if ( references.getAndUpdate( n -> n > 0 ? n + 1 : n ) == 0 ) {
+			throw new IllegalStateException( "Communication resources already released" );
+		}
+		return this;
+	}
+
+	/**
+	 * Releases these resources for a CommCore that is shutting down.
+	 * When no CommCore uses them anymore, event loops and executors are shut down.
+	 */
+	public void release()
+	{
+		if ( references.decrementAndGet() == 0 ) {
+			bossGroup.shutdownGracefully();
+			workerGroup.shutdownGracefully();
+			eventLoopGroups.values().forEach( EventLoopGroup::shutdownGracefully );
+			dispatchExecutor.shutdown();
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the number of CommCores using these resources.
+	 * @return the number of CommCores using these resources
+	 */
+	public int references()
+	{
+		return references.get();
+	}
+
+	public SocketTransport transport()
+	{
+		return transport;
+	}
+
+	public int bossThreads()
+	{
+		return bossThreads;
+	}
+
+	public int workerThreads()
+	{
+		return workerThreads;
+	}
+
+	public EventLoopGroup bossGroup()
+	{
+		return bossGroup;
+	}
+
+	public EventLoopGroup workerGroup()
+	{
+		return workerGroup;
+	}
+
+	/**
+	 * Returns the event loops of a transport other than the one of the socket medium
+	 * (e.g., the native one of Unix domain sockets), creating them on first use.
+	 * They have as many threads as the worker event loops and are shut down with them.
+	 * @param name the name of the transport
+	 * @param factory creates the event loops, given their number of threads and thread factory
+	 * @return the event loops of the transport with the given name
+	 * @throws IllegalStateException if these resources have already been released
+	 */
+	public EventLoopGroup eventLoopGroup( String name, BiFunction< Integer, ThreadFactory, EventLoopGroup > factory )
+	{
+		if ( references.get() == 0 ) {
+			throw new IllegalStateException( "Communication resources already released" );
+		}
+		return eventLoopGroups.computeIfAbsent( name, k -> factory.apply( workerThreads, eventLoopThreadFactory ) );
+	}
+
+	public ExecutorService executorService()
+	{
+		return executorService;
+	}
+
+	public ExecutorService dispatchExecutor()
+	{
+		return dispatchExecutor;
+	}
+
+	public ByteBufAllocator allocator()
+	{
+		return allocator;
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.net;
+
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import jolie.Interpreter;
+
+/**
+ * Binds the event loop running a Netty channel to the Interpreter owning the channel.
+ *
+ * Event loops are shared by an interpreter and the services it embeds (see {@link CommResources}),
+ * hence the Interpreter returned by {@link Interpreter#getInstance()} on an event loop depends on
+ * the channel being served. This handler is the first of every pipeline and rebinds the
+ * event loop thread before each inbound event reaches the protocol handlers.
+ * Tasks that an interpreter submits to an event loop must call {@link #bind(Interpreter)} themselves.
+ */
+@Sharable
+public class ExecutionContextHandler extends ChannelInboundHandlerAdapter
+{
+	public final static String NAME = "EXECUTION-CONTEXT-HANDLER";
+
+	private final Interpreter interpreter;
+
+	public ExecutionContextHandler( Interpreter interpreter )
+	{
+		this.interpreter = interpreter;
+	}
+
+	/**
+	 * Binds the current thread to the given Interpreter, if the thread is an event loop.
+	 * @param interpreter the Interpreter the current thread works for
+	 */
+	public static void bind( Interpreter interpreter )
+	{
+		final Thread thread = Thread.currentThread();
+		if ( thread instanceof CommCore.ExecutionContextThread ) {
+			((CommCore.ExecutionContextThread) thread).interpreter( interpreter );
+		}
+	}
+
+	@Override
+	public void channelRegistered( ChannelHandlerContext ctx ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireChannelRegistered();
+	}
+
+	@Override
+	public void channelUnregistered( ChannelHandlerContext ctx ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireChannelUnregistered();
+	}
+
+	@Override
+	public void channelActive( ChannelHandlerContext ctx ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireChannelActive();
+	}
+
+	@Override
+	public void channelInactive( ChannelHandlerContext ctx ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireChannelInactive();
+	}
+
+	@Override
+	public void channelRead( ChannelHandlerContext ctx, Object msg ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireChannelRead( msg );
+	}
+
+	@Override
+	public void channelReadComplete( ChannelHandlerContext ctx ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireChannelReadComplete();
+	}
+
+	@Override
+	public void userEventTriggered( ChannelHandlerContext ctx, Object evt ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireUserEventTriggered( evt );
+	}
+
+	@Override
+	public void channelWritabilityChanged( ChannelHandlerContext ctx ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireChannelWritabilityChanged();
+	}
+
+	@Override
+	public void exceptionCaught( ChannelHandlerContext ctx, Throwable cause ) throws Exception
+	{
+		bind( interpreter );
+		ctx.fireExceptionCaught( cause );
+	}
+}
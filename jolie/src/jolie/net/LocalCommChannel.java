@@ -23,10 +23,10 @@ package jolie.net;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.LockSupport;
 import jolie.Interpreter;
+import jolie.runtime.typing.Type;
 
 /**
  * An in-memory channel that can be used to communicate directly with a specific <code>Interpreter</code> instance.
@@ -47,27 +47,26 @@ public class LocalCommChannel extends CommChannel implements PollableCommChannel
 		return true;
 	}
 
+	/*
+	 * The channel handed to the receiver of a request. It also holds the response to
+	 * the request, which the caller waits for in awaitResponse().
+	 */
 	private static class CoLocalCommChannel extends CommChannel
 	{
-		private CommMessage request;
 		private final LocalCommChannel senderChannel;
+		private volatile CommMessage response = null;
+		private volatile Thread waiter = null;
 
-		private CoLocalCommChannel( LocalCommChannel senderChannel, CommMessage request )
+		private CoLocalCommChannel( LocalCommChannel senderChannel )
 		{
 			this.senderChannel = senderChannel;
-			this.request = request;
 		}
 
 		@Override
 		protected CommMessage recvImpl()
 			throws IOException
 		{
-			if ( request == null ) {
-				throw new IOException( "Unsupported operation" );
-			}
-			CommMessage r = request;
-			request = null;
-			return r;
+			throw new IOException( "Unsupported operation" );
 		}
 
 		@Override
@@ -77,14 +76,31 @@ public class LocalCommChannel extends CommChannel implements PollableCommChannel
 			if( senderChannel.responseInterpreter != null ){
 				senderChannel.responseInterpreter.commCore().receiveResponse( message );
 			} else {
-				CompletableFuture< CommMessage > f = senderChannel.responseWaiters.get( message.id() );
-				if ( f == null ) {
+				if ( response != null || senderChannel.pendingRequests.get( message.id() ) != this ) {
 					throw new IOException( "Unexpected response message with id " + message.id() + " for operation " + message.operationName() + " in local channel" );
 				}
-				f.complete( message );
+				response = message;
+				final Thread t = waiter;
+				if ( t != null ) {
+					LockSupport.unpark( t );
+				}
 			}
 		}
 
+		private CommMessage awaitResponse()
+			throws IOException
+		{
+			waiter = Thread.currentThread();
+			CommMessage r;
+			while( (r = response) == null ) {
+				LockSupport.park( this );
+				if ( Thread.interrupted() ) {
+					throw new IOException( new InterruptedException() );
+				}
+			}
+			return r;
+		}
+
 		@Override
 		public CommMessage recvResponseFor( CommMessage request )
 			throws IOException
@@ -119,7 +135,7 @@ public class LocalCommChannel extends CommChannel implements PollableCommChannel
 	private final Interpreter interpreter;
 	private final Interpreter responseInterpreter;
 	private final CommListener listener;
-	private final Map< Long, CompletableFuture< CommMessage>> responseWaiters = new ConcurrentHashMap<>();
+	private final Map< Long, CoLocalCommChannel > pendingRequests = new ConcurrentHashMap<>();
 
 	public LocalCommChannel( Interpreter interpreter, CommListener listener )
 	{
@@ -157,34 +173,44 @@ public class LocalCommChannel extends CommChannel implements PollableCommChannel
 	@Override
 	protected void sendImpl( CommMessage message )
 	{
+		send( message, null );
+	}
+
+	/**
+	 * Sends a request whose value has already been checked against the given type.
+	 * The request is handed over to the receiving interpreter as it is, and the receiver
+	 * skips its own type check if its request type is equivalent to the given one.
+	 * @param message the request to send
+	 * @param checkedType the type the value of the request has been checked against, or <code>null</code>
+	 */
+	public void send( CommMessage message, Type checkedType )
+	{
+		final CoLocalCommChannel channel = new CoLocalCommChannel( this );
 		if ( this.responseInterpreter == null ){
-			responseWaiters.put( message.id(), new CompletableFuture<>() );
+			pendingRequests.put( message.id(), channel );
 		}
-		interpreter.commCore().scheduleReceive( new CoLocalCommChannel( this, message ), listener.inputPort() );
+		interpreter.commCore().scheduleReceive( channel, listener.inputPort(), message, checkedType );
 	}
 
 	@Override
 	public CommMessage recvResponseFor( CommMessage request )
 		throws IOException
 	{
-		final CompletableFuture< CommMessage> f = responseWaiters.get( request.id() );
-		final CommMessage m;
-
+		final CoLocalCommChannel channel = pendingRequests.get( request.id() );
+		if ( channel == null ) {
+			throw new IOException( "No pending request with id " + request.id() + " for operation " + request.operationName() + " in local channel" );
+		}
 		try {
-			m = f.get();
-		} catch( ExecutionException | InterruptedException e ) {
-			throw new IOException( e );
+			return channel.awaitResponse();
 		} finally {
-			responseWaiters.remove( request.id() );
+			pendingRequests.remove( request.id() );
 		}
-
-		return m;
 	}
 
 	@Override
 	public boolean isReady()
 	{
-		return responseWaiters.isEmpty() == false;
+		return pendingRequests.isEmpty() == false;
 	}
 
 	@Override
@@ -23,20 +23,18 @@
 package jolie.net;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.URI;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import jolie.Interpreter;
 import jolie.net.ports.InputPort;
 import jolie.net.ports.OutputPort;
 import jolie.net.ports.Port;
@@ -49,7 +47,6 @@ public class NioSocketCommChannel extends StreamingCommChannel
 
 	private Bootstrap bootstrap;
 	private static final int SO_LINGER = 10000;
-	protected CompletableFuture<CommMessage> waitingForMsg = null;
 	protected StreamingCommChannelHandler commChannelHandler;
 	private ChannelPipeline pipeline;
 
@@ -59,19 +56,39 @@ public class NioSocketCommChannel extends StreamingCommChannel
 		this.commChannelHandler = new StreamingCommChannelHandler( this );
 	}
 
-	public static NioSocketCommChannel createChannel( URI location, AsyncCommProtocol protocol, EventLoopGroup workerGroup, Port port )
+	public static NioSocketCommChannel createChannel( URI location, AsyncCommProtocol protocol, SocketTransport transport, EventLoopGroup workerGroup, ByteBufAllocator allocator, Port port )
 	{
-		NioSocketCommChannel channel = new NioSocketCommChannel( location, protocol );
-		channel.bootstrap = new Bootstrap();
-		channel.bootstrap.group( workerGroup )
-			.channel( NioSocketChannel.class )
+		Bootstrap bootstrap = new Bootstrap();
+		bootstrap.group( workerGroup )
+			.channel( transport.channelClass() )
 			.option( ChannelOption.SO_LINGER, SO_LINGER )
-			.handler( new ChannelInitializer()
+			.option( ChannelOption.ALLOCATOR, allocator );
+		transport.configure( bootstrap );
+		return createChannel( location, protocol, bootstrap, port );
+	}
+
+	/**
+	 * Creates a channel over a bootstrap already configured with the event loops,
+	 * the channel class and the options of its transport.
+	 * @param location the location of the channel
+	 * @param protocol the protocol of the channel
+	 * @param bootstrap the configured bootstrap, whose handler is set by this method
+	 * @param port the port the channel belongs to
+	 * @return the created channel
+	 */
+	public static NioSocketCommChannel createChannel( URI location, AsyncCommProtocol protocol, Bootstrap bootstrap, Port port )
+	{
+		final Interpreter interpreter = Interpreter.getInstance();
+		NioSocketCommChannel channel = new NioSocketCommChannel( location, protocol );
+		channel.bootstrap = bootstrap;
+		channel.bootstrap.handler( new ChannelInitializer()
 			{
 				@Override
 				protected void initChannel( Channel ch ) throws Exception
 				{
+					ExecutionContextHandler.bind( interpreter );
 					ChannelPipeline p = ch.pipeline();
+					p.addLast( ExecutionContextHandler.NAME, interpreter.commCore().executionContextHandler() );
 					channel.setChannelPipeline( p );
 					if ( port instanceof InputPort ) {
 						channel.setParentInputPort( (InputPort) port );
@@ -90,8 +107,12 @@ public class NioSocketCommChannel extends StreamingCommChannel
 
 	public ChannelFuture connect( URI location ) throws InterruptedException
 	{
-		return bootstrap
-			.connect( new InetSocketAddress( location.getHost(), location.getPort() ) );
+		return connect( new InetSocketAddress( location.getHost(), location.getPort() ) );
+	}
+
+	public ChannelFuture connect( SocketAddress address )
+	{
+		return bootstrap.connect( address );
 	}
 
 	public ChannelFuture initChannel()
@@ -103,37 +124,14 @@ public class NioSocketCommChannel extends StreamingCommChannel
 	protected CommMessage recvImpl() throws IOException
 	{
 		// This is blocking to integrate with existing CommCore and ExecutionThreads.
-		try {
-			if ( waitingForMsg != null ) {
-				throw new UnsupportedOperationException( "Waiting for multiple messages is currently not supported!" );
-			}
-			waitingForMsg = new CompletableFuture<>();
-			CommMessage msg = waitingForMsg.get();
-			waitingForMsg = null;
-			return msg;
-		} catch( InterruptedException | ExecutionException ex ) {
-			Logger.getLogger( NioSocketCommChannel.class.getName() ).log( Level.SEVERE, null, ex );
-		}
-		return null;
-	}
-
-	protected void completeRead( CommMessage message )
-	{
-		while( waitingForMsg == null ) {
-			// spinlock
-		}
-		if ( waitingForMsg == null ) {
-			throw new IllegalStateException( "No pending read to complete!" );
-		} else {
-			waitingForMsg.complete( message );
-		}
+		return takeReceivedMessage();
 	}
 
 	@Override
 	protected void sendImpl( CommMessage message ) throws IOException
 	{
 		try {
-			commChannelHandler.write( message ).sync();
+			awaitCompletion( commChannelHandler.write( message ) );
 		} catch( InterruptedException ex ) {
 			throw new IOException( ex );
 		}
@@ -142,11 +140,19 @@ public class NioSocketCommChannel extends StreamingCommChannel
 	@Override
 	protected void closeImpl() throws IOException
 	{
-		try {
-			commChannelHandler.close().sync();
-		} catch( InterruptedException ex ) {
-			throw new IOException( ex );
-		}
+		awaitCompletion( commChannelHandler.close() );
+	}
+
+	@Override
+	public boolean pauseInput()
+	{
+		return commChannelHandler.setAutoRead( false );
+	}
+
+	@Override
+	public void resumeInput()
+	{
+		commChannelHandler.setAutoRead( true );
 	}
 
 	/**
@@ -38,11 +38,13 @@ import jolie.net.protocols.CommProtocol;
 public class NioSocketCommChannelFactory extends CommChannelFactory
 {
 
+	SocketTransport transport;
 	EventLoopGroup workerGroup;
 
-	public NioSocketCommChannelFactory( CommCore commCore, EventLoopGroup workerGroup )
+	public NioSocketCommChannelFactory( CommCore commCore, SocketTransport transport, EventLoopGroup workerGroup )
 	{
 		super( commCore );
+		this.transport = transport;
 		this.workerGroup = workerGroup;
 	}
 
@@ -62,7 +64,7 @@ public class NioSocketCommChannelFactory extends CommChannelFactory
 		}
 
 		NioSocketCommChannel channel = NioSocketCommChannel.
-			createChannel( location, (AsyncCommProtocol) protocol, workerGroup, port );
+			createChannel( location, (AsyncCommProtocol) protocol, transport, workerGroup, commCore().allocator(), port );
 
 		try {
 			ChannelFuture f = channel.connect( location );
@@ -84,7 +86,7 @@ public class NioSocketCommChannelFactory extends CommChannelFactory
 		}
 
 		NioSocketCommChannel channel = NioSocketCommChannel.
-			createChannel( location, (AsyncCommProtocol) protocol, workerGroup, port );
+			createChannel( location, (AsyncCommProtocol) protocol, transport, workerGroup, commCore().allocator(), port );
 
 		try {
 			ChannelFuture f = channel.connect( location );
@@ -33,8 +33,9 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.StampedLock;
 import jolie.Interpreter;
@@ -47,7 +48,10 @@ public class NioSocketListener extends CommListener
 {
 
 	private final ServerBootstrap bootstrap;
-	private Channel serverChannel;
+	private final SocketTransport transport;
+	private final int acceptors;
+	// the listening sockets bound to the port, more than one with SO_REUSEPORT
+	private final List< Channel > serverChannels = new ArrayList<>();
 	private final EventLoopGroup bossGroup;
 	private final EventLoopGroup workerGroup;
 //	private final CommProtocolFactory protocolFactory;
@@ -57,12 +61,16 @@ public class NioSocketListener extends CommListener
 		Interpreter interpreter,
 		CommProtocolFactory protocolFactory,
 		InputPort inputPort,
+		SocketTransport transport,
+		int acceptors,
 		EventLoopGroup bossGroup,
 		EventLoopGroup workerGroup
 	)
 	{
 		super( interpreter, protocolFactory, inputPort );
 		bootstrap = new ServerBootstrap();
+		this.transport = transport;
+		this.acceptors = acceptors;
 		this.bossGroup = bossGroup;
 		this.workerGroup = workerGroup;
 //		this.protocolFactory = protocolFactory;
@@ -73,24 +81,30 @@ public class NioSocketListener extends CommListener
 	{
 		sendingResponse.writeLock().lock();
 		try {
-			if ( serverChannel != null ) {
-				serverChannel.close();
-			}
+			closeServerChannels();
 		} finally {
-			bossGroup.shutdownGracefully();
-			workerGroup.shutdownGracefully();
+			// the event loops are shared, CommCore releases them
 			sendingResponse.writeLock().unlock();
 		}
 	}
 
+	private void closeServerChannels()
+	{
+		synchronized( serverChannels ) {
+			serverChannels.forEach( Channel::close );
+		}
+	}
+
 	@Override
 	public void run()
 	{
 
 		try {
 			bootstrap.group( bossGroup, workerGroup )
-				.channel( NioServerSocketChannel.class )
+				.channel( transport.serverChannelClass() )
 				.option( ChannelOption.SO_BACKLOG, 100 )
+				.option( ChannelOption.ALLOCATOR, interpreter().commCore().allocator() )
+				.childOption( ChannelOption.ALLOCATOR, interpreter().commCore().allocator() )
 				//.handler( new LoggingHandler( LogLevel.INFO ) )
 				.childHandler( new ChannelInitializer<SocketChannel>()
 				{
@@ -98,6 +112,7 @@ public class NioSocketListener extends CommListener
 					@Override
 					protected void initChannel( SocketChannel ch ) throws Exception
 					{
+						ExecutionContextHandler.bind( interpreter() );
 						CommProtocol protocol = createProtocol();
 						assert (protocol instanceof AsyncCommProtocol);
 						((AsyncCommProtocol) protocol).setInitExecutionThread( interpreter().initThread() );
@@ -107,6 +122,7 @@ public class NioSocketListener extends CommListener
 						channel.setParentInputPort( inputPort() );
 
 						ChannelPipeline p = ch.pipeline();
+						p.addLast( ExecutionContextHandler.NAME, interpreter().commCore().executionContextHandler() );
 						((AsyncCommProtocol) protocol).setupPipeline( p );
 
 						// the pipeline is an inbound one, hence outbound traffic goes
@@ -130,15 +146,22 @@ public class NioSocketListener extends CommListener
 							{
 								cause.printStackTrace();
 								ctx.close();
-								serverChannel.close();
+								closeServerChannels();
 							}
 
 						} );
 					}
 				} );
-			ChannelFuture f = bootstrap.bind( new InetSocketAddress( inputPort().location().getPort() ) ).sync();
-			serverChannel = f.channel();
-			serverChannel.closeFuture().sync();
+			transport.configure( bootstrap );
+			for( int i = 0; i < acceptors; i++ ) {
+				ChannelFuture f = bootstrap.bind( new InetSocketAddress( inputPort().location().getPort() ) ).sync();
+				synchronized( serverChannels ) {
+					serverChannels.add( f.channel() );
+				}
+			}
+			for( Channel serverChannel : serverChannels ) {
+				serverChannel.closeFuture().sync();
+			}
 		} catch( InterruptedException ioe ) {
 //			interpreter().logWarning( ioe );
 		} finally {
@@ -33,12 +33,16 @@ import jolie.net.ports.InputPort;
 public class NioSocketListenerFactory extends CommListenerFactory
 {
 
+	protected final SocketTransport transport;
+	protected final int acceptors;
 	protected final EventLoopGroup bossGroup;
 	protected final EventLoopGroup workerGroup;
 
-	public NioSocketListenerFactory( CommCore commCore, EventLoopGroup bossGroup, EventLoopGroup workerGroup )
+	public NioSocketListenerFactory( CommCore commCore, SocketTransport transport, int bossThreads, EventLoopGroup bossGroup, EventLoopGroup workerGroup )
 	{
 		super( commCore );
+		this.transport = transport;
+		this.acceptors = transport.acceptors( bossThreads );
 		this.bossGroup = bossGroup;
 		this.workerGroup = workerGroup;
 
@@ -52,6 +56,6 @@ public class NioSocketListenerFactory extends CommListenerFactory
 	)
 		throws IOException
 	{
-		return new NioSocketListener( interpreter, protocolFactory, inputPort, bossGroup, workerGroup );
+		return new NioSocketListener( interpreter, protocolFactory, inputPort, transport, acceptors, bossGroup, workerGroup );
 	}
 }
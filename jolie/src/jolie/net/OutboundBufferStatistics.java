@@ -0,0 +1,97 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.net;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import jolie.monitoring.StatisticsRegistry;
+
+/**
+ * Tracks the outbound buffers of the active Netty channels of a CommCore.
+ *
+ * The gauges <code>net.outbound.pendingBytes</code> and <code>net.outbound.unwritableChannels</code>
+ * report the bytes waiting to be flushed to the network and the channels over their high water mark.
+ * The counters under <code>net.outbound</code> report how often senders had to wait for a channel
+ * to drain, for how long, and how many sends were rejected because the peer could not keep up.
+ */
+public class OutboundBufferStatistics
+{
+	private final Set< Channel > channels = ConcurrentHashMap.newKeySet();
+	private final LongAdder unwritable;
+	private final LongAdder waits;
+	private final LongAdder waitTimeMillis;
+	private final LongAdder rejected;
+
+	public OutboundBufferStatistics( StatisticsRegistry statistics )
+	{
+		this.unwritable = statistics.counter( "net.outbound.unwritable" );
+		this.waits = statistics.counter( "net.outbound.waits" );
+		this.waitTimeMillis = statistics.counter( "net.outbound.waitTimeMillis" );
+		this.rejected = statistics.counter( "net.outbound.rejected" );
+		statistics.registerGauge( "net.outbound.channels", () -> channels.size() );
+		statistics.registerGauge( "net.outbound.pendingBytes", this::pendingBytes );
+		statistics.registerGauge( "net.outbound.unwritableChannels", this::unwritableChannels );
+	}
+
+	public void add( Channel channel )
+	{
+		channels.add( channel );
+	}
+
+	public void remove( Channel channel )
+	{
+		channels.remove( channel );
+	}
+
+	public void channelUnwritable()
+	{
+		unwritable.increment();
+	}
+
+	public void waited( long millis )
+	{
+		waits.increment();
+		waitTimeMillis.add( millis );
+	}
+
+	public void rejected()
+	{
+		rejected.increment();
+	}
+
+	private long pendingBytes()
+	{
+		long bytes = 0;
+		for( Channel channel : channels ) {
+			final ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+			if ( buffer != null ) {
+				bytes += buffer.totalPendingWriteBytes();
+			}
+		}
+		return bytes;
+	}
+
+	private long unwritableChannels()
+	{
+		return channels.stream().filter( channel -> !channel.isWritable() ).count();
+	}
+}
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.net;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.unix.UnixChannelOption;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The Netty transport used by the <code>socket</code> medium, whose event loops
+ * also serve the datagram channels of the <code>datagram</code> medium.
+ *
+ * The native epoll transport (Linux only) runs its channels edge-triggered, accepts
+ * connections on several listening sockets bound to the same port (<code>SO_REUSEPORT</code>),
+ * one per boss thread, and enables TCP Fast Open where the kernel supports it.
+ * Both transports disable Nagle's algorithm, since Jolie messages are flushed whole.
+ */
+public enum SocketTransport
+{
+	NIO {
+		@Override
+		public EventLoopGroup newEventLoopGroup( int threads, ThreadFactory threadFactory )
+		{
+			return new NioEventLoopGroup( threads, threadFactory );
+		}
+
+		@Override
+		public Class< ? extends ServerChannel > serverChannelClass()
+		{
+			return NioServerSocketChannel.class;
+		}
+
+		@Override
+		public Class< ? extends Channel > channelClass()
+		{
+			return NioSocketChannel.class;
+		}
+
+		@Override
+		public Class< ? extends DatagramChannel > datagramChannelClass()
+		{
+			return NioDatagramChannel.class;
+		}
+	},
+	EPOLL {
+		@Override
+		public EventLoopGroup newEventLoopGroup( int threads, ThreadFactory threadFactory )
+		{
+			return new EpollEventLoopGroup( threads, threadFactory );
+		}
+
+		@Override
+		public Class< ? extends ServerChannel > serverChannelClass()
+		{
+			return EpollServerSocketChannel.class;
+		}
+
+		@Override
+		public Class< ? extends Channel > channelClass()
+		{
+			return EpollSocketChannel.class;
+		}
+
+		@Override
+		public Class< ? extends DatagramChannel > datagramChannelClass()
+		{
+			return EpollDatagramChannel.class;
+		}
+
+		@Override
+		public boolean isAvailable()
+		{
+			return Epoll.isAvailable();
+		}
+
+		@Override
+		public int acceptors( int bossThreads )
+		{
+			return bossThreads;
+		}
+
+		@Override
+		public void configure( ServerBootstrap bootstrap )
+		{
+			super.configure( bootstrap );
+			bootstrap
+				.option( UnixChannelOption.SO_REUSEPORT, true )
+				.option( EpollChannelOption.TCP_FASTOPEN, TCP_FASTOPEN_QUEUE_LENGTH )
+				.option( EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED )
+				.childOption( EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED );
+		}
+
+		@Override
+		public void configure( Bootstrap bootstrap )
+		{
+			super.configure( bootstrap );
+			bootstrap
+				.option( EpollChannelOption.TCP_FASTOPEN_CONNECT, true )
+				.option( EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED );
+		}
+	};
+
+	// pending TCP Fast Open requests per listening socket
+	private static final int TCP_FASTOPEN_QUEUE_LENGTH = 256;
+
+	public abstract EventLoopGroup newEventLoopGroup( int threads, ThreadFactory threadFactory );
+
+	public abstract Class< ? extends ServerChannel > serverChannelClass();
+
+	public abstract Class< ? extends Channel > channelClass();
+
+	/**
+	 * Returns the class of the datagram channels that can be registered
+	 * with the event loops of this transport.
+	 * @return the datagram channel class of this transport
+	 */
+	public abstract Class< ? extends DatagramChannel > datagramChannelClass();
+
+	public boolean isAvailable()
+	{
+		return true;
+	}
+
+	/**
+	 * Returns how many listening sockets an input port binds to its port.
+	 * @param bossThreads the number of threads accepting connections
+	 * @return the number of listening sockets of an input port
+	 */
+	public int acceptors( int bossThreads )
+	{
+		return 1;
+	}
+
+	/**
+	 * Applies the options of this transport to the bootstrap of an input port.
+	 * @param bootstrap the bootstrap of an input port
+	 */
+	public void configure( ServerBootstrap bootstrap )
+	{
+		bootstrap.childOption( ChannelOption.TCP_NODELAY, true );
+	}
+
+	/**
+	 * Applies the options of this transport to the bootstrap of an output channel.
+	 * @param bootstrap the bootstrap of an output channel
+	 */
+	public void configure( Bootstrap bootstrap )
+	{
+		bootstrap.option( ChannelOption.TCP_NODELAY, true );
+	}
+
+	/**
+	 * Returns the transport with the given name: <code>nio</code>, <code>epoll</code>,
+	 * or <code>auto</code>, which picks epoll whenever it is available.
+	 * @param name the name of the transport
+	 * @return the transport with the given name, or null if there is none
+	 */
+	public static SocketTransport fromString( String name )
+	{
+		switch( name ) {
+			case "nio":
+				return NIO;
+			case "epoll":
+				return EPOLL;
+			case "auto":
+				return Epoll.isAvailable() ? EPOLL : NIO;
+			default:
+				return null;
+		}
+	}
+}
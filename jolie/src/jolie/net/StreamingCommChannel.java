@@ -21,8 +21,15 @@
 
 package jolie.net;
 
+import io.netty.channel.ChannelFuture;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import jolie.Interpreter;
 import jolie.net.protocols.CommProtocol;
 import jolie.util.Helpers;
@@ -30,13 +37,14 @@ import jolie.util.Helpers;
 /**
  * This abstract class implements a communication channel based on a <code>CommProtocol</code>.
  * @author Fabrizio Montesi
- * @see SelectableStreamingCommChannel
  */
 public abstract class StreamingCommChannel extends AbstractCommChannel
 {
 
 	private final URI location;
 	private final CommProtocol protocol;
+	// pending reads (not completed) or received messages waiting for a read (completed), oldest first
+	private final Deque< CompletableFuture< CommMessage > > reads = new ArrayDeque<>();
 
 	public StreamingCommChannel( URI location, CommProtocol protocol )
 	{
@@ -65,6 +73,81 @@ public abstract class StreamingCommChannel extends AbstractCommChannel
 		throw new UnsupportedOperationException( "createWithSideChannel not supported yet." );
 	}
 
+	/**
+	 * Waits for the next message handed over by {@link #completeRead(CommMessage)},
+	 * for channels whose messages are received by an event loop.
+	 */
+	protected CommMessage takeReceivedMessage()
+		throws IOException
+	{
+		final CompletableFuture< CommMessage > read;
+		synchronized( reads ) {
+			final CompletableFuture< CommMessage > first = reads.peekFirst();
+			if ( first != null && first.isDone() ) {
+				read = reads.pollFirst();
+			} else {
+				read = new CompletableFuture<>();
+				reads.addLast( read );
+			}
+		}
+		try {
+			return read.get();
+		} catch( InterruptedException e ) {
+			synchronized( reads ) {
+				reads.remove( read );
+			}
+			Thread.currentThread().interrupt();
+			throw new IOException( e );
+		} catch( ExecutionException e ) {
+			throw new IOException( e.getCause() );
+		}
+	}
+
+	/**
+	 * Hands a received message over to the oldest pending {@link #takeReceivedMessage()},
+	 * or keeps it for the next one. This never blocks, so it can be called by event loops.
+	 */
+	protected void completeRead( CommMessage message )
+	{
+		final CompletableFuture< CommMessage > read;
+		synchronized( reads ) {
+			final CompletableFuture< CommMessage > first = reads.peekFirst();
+			if ( first == null || first.isDone() ) {
+				reads.addLast( CompletableFuture.completedFuture( message ) );
+				return;
+			}
+			read = reads.pollFirst();
+		}
+		read.complete( message );
+	}
+
+	/**
+	 * Waits for a write or close operation of the underlying Netty channel to complete,
+	 * reporting its failure. Event loops never wait, since they would wait for themselves:
+	 * their operations complete asynchronously, and failures are logged.
+	 */
+	protected static void awaitCompletion( ChannelFuture future )
+		throws IOException
+	{
+		if ( future.channel().eventLoop().inEventLoop() ) {
+			future.addListener( ( ChannelFuture f ) -> {
+				if ( !f.isSuccess() ) {
+					Logger.getLogger( StreamingCommChannel.class.getName() ).log( Level.WARNING, null, f.cause() );
+				}
+			} );
+			return;
+		}
+		try {
+			future.await();
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IOException( e );
+		}
+		if ( !future.isSuccess() ) {
+			throw future.cause() instanceof IOException ? (IOException) future.cause() : new IOException( future.cause() );
+		}
+	}
+
 	@Override
 	protected boolean isThreadSafe()
 	{
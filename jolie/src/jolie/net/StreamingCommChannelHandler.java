@@ -23,23 +23,32 @@
  *******************************************************************************/
 package jolie.net;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.util.concurrent.Future;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Pattern;
 import jolie.Interpreter;
 import jolie.lang.Constants;
 import jolie.net.ports.OutputPort;
+import jolie.net.protocols.AsyncCommProtocol;
 import jolie.runtime.FaultException;
 import jolie.runtime.InputOperation;
 import jolie.runtime.InvalidIdException;
 import jolie.runtime.OneWayOperation;
+import jolie.runtime.SessionRejectedException;
 import jolie.runtime.correlation.CorrelationError;
 import jolie.runtime.typing.TypeCheckingException;
 
@@ -52,13 +61,23 @@ public class StreamingCommChannelHandler
 	private StreamingCommChannel outChannel;  // TOWARDS THE NETWORK
 	private StreamingCommChannel inChannel;   // TOWARDS JOLIE
 	private final Interpreter interpreter;
+	private final OutboundBufferStatistics outboundBuffers;
 	private ReadWriteLock channelLock;
+	// messages received from the network, waiting to be handled off the event loop
+	private final Queue< CommMessage > inbound = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean dispatching = new AtomicBoolean( false );
+	private static final int MAX_DISPATCH_BATCH = 64;
+	// write buffer configuration of the port, read at the first write by the thread of the sender
+	private volatile boolean writeBufferConfigured = false;
+	private volatile long writeTimeout = AsyncCommProtocol.DEFAULT_WRITE_TIMEOUT;
+	private final Object writability = new Object();
 
 	public StreamingCommChannelHandler( StreamingCommChannel channel )
 	{
 		this.inChannel = channel;
 		this.outChannel = channel;
 		this.interpreter = Interpreter.getInstance();
+		this.outboundBuffers = interpreter.commCore().outboundBuffers();
 	}
 	
 	public StreamingCommChannelHandler setChannelLock( ReadWriteLock channelLock ){
@@ -93,6 +112,36 @@ public class StreamingCommChannelHandler
 		this.ctx = ctx;
 	}
 
+	@Override
+	public void channelActive( ChannelHandlerContext ctx ) throws Exception
+	{
+		outboundBuffers.add( ctx.channel() );
+		super.channelActive( ctx );
+	}
+
+	@Override
+	public void channelInactive( ChannelHandlerContext ctx ) throws Exception
+	{
+		outboundBuffers.remove( ctx.channel() );
+		synchronized( writability ) {
+			writability.notifyAll();
+		}
+		super.channelInactive( ctx );
+	}
+
+	@Override
+	public void channelWritabilityChanged( ChannelHandlerContext ctx ) throws Exception
+	{
+		if ( ctx.channel().isWritable() ) {
+			synchronized( writability ) {
+				writability.notifyAll();
+			}
+		} else {
+			outboundBuffers.channelUnwritable();
+		}
+		super.channelWritabilityChanged( ctx );
+	}
+
 	@Override
 	protected void channelRead0( ChannelHandlerContext ctx, CommMessage msg )
 		throws Exception
@@ -103,7 +152,38 @@ public class StreamingCommChannelHandler
 			Interpreter.getInstance().commCore().receiveResponse( msg );
 			//this.inChannel.receiveResponse( msg );
 		} else {
-			messageRecv( msg );
+			inbound.add( msg );
+			scheduleDispatch();
+		}
+	}
+
+	private void scheduleDispatch()
+	{
+		if ( dispatching.compareAndSet( false, true ) ) {
+			interpreter.commCore().dispatch( this::dispatchInbound );
+		}
+	}
+
+	/*
+	 * Handles the received messages in a CommCore thread, so that slow type checks
+	 * and correlation never stall the event loop (and the other channels it serves).
+	 * At most one dispatch per channel runs at a time, which keeps the messages of
+	 * the channel in order. A dispatch handles a bounded batch of messages and then
+	 * yields its thread to the other channels.
+	 */
+	private void dispatchInbound()
+	{
+		CommChannelHandler.currentThread().setExecutionThread( interpreter.initThread() );
+		try {
+			CommMessage message;
+			for( int i = 0; i < MAX_DISPATCH_BATCH && (message = inbound.poll()) != null; i++ ) {
+				messageRecv( message );
+			}
+		} finally {
+			dispatching.set( false );
+			if ( !inbound.isEmpty() ) {
+				scheduleDispatch();
+			}
 		}
 	}
 
@@ -111,6 +191,10 @@ public class StreamingCommChannelHandler
 	public void exceptionCaught( ChannelHandlerContext ctx, Throwable cause )
 		throws Exception
 	{
+		if ( cause instanceof ClosedChannelException && !ctx.channel().isOpen() ) {
+			// a pending read (e.g., rescheduled by an edge-triggered epoll loop) found the channel already closed
+			return;
+		}
 		ctx.close();
 		throw new Exception( cause );
 	}
@@ -128,11 +212,83 @@ public class StreamingCommChannelHandler
 	}
 	
 	public ChannelFuture write( CommMessage msg )
-		throws InterruptedException
+		throws InterruptedException, IOException
 	{
+		awaitWritable();
 		addSendLock();
-		return this.ctx.writeAndFlush( msg )
-			.addListener( ( Future<? super Void> f ) -> { removeSendLock(); });
+		final ChannelFuture future;
+		final EventLoop eventLoop = this.ctx.channel().eventLoop();
+		if ( eventLoop.inEventLoop() ) {
+			future = this.ctx.writeAndFlush( msg );
+		} else {
+			// encoders run on the (shared) event loop, which must be bound to this interpreter first
+			final ChannelPromise promise = this.ctx.newPromise();
+			eventLoop.execute( () -> {
+				ExecutionContextHandler.bind( interpreter );
+				this.ctx.writeAndFlush( msg, promise );
+			} );
+			future = promise;
+		}
+		return future.addListener( ( Future<? super Void> f ) -> { removeSendLock(); });
+	}
+
+	/*
+	 * Propagates the backpressure of the peer to the sender. While the outbound buffer of the
+	 * channel is over its high water mark, the sender waits for it to drain below the low water
+	 * mark, for at most writeTimeout milliseconds (as long as needed if negative), and then fails
+	 * with an IOException. Event loops cannot wait for themselves, so they write anyway unless
+	 * the port fails fast (writeTimeout = 0).
+	 */
+	private void awaitWritable()
+		throws InterruptedException, IOException
+	{
+		final Channel channel = this.ctx.channel();
+		if ( !writeBufferConfigured ) {
+			configureWriteBuffer( channel );
+		}
+		if ( channel.isWritable() ) {
+			return;
+		}
+		final long timeout = writeTimeout;
+		if ( timeout == 0 ) {
+			outboundBuffers.rejected();
+			throw new IOException( "Outbound buffer full: the peer at " + channel.remoteAddress() + " is not keeping up" );
+		}
+		if ( channel.eventLoop().inEventLoop() ) {
+			return;
+		}
+		final long start = System.nanoTime();
+		boolean writable = true;
+		synchronized( writability ) {
+			while( !channel.isWritable() && channel.isActive() ) {
+				if ( timeout < 0 ) {
+					writability.wait();
+				} else {
+					final long remaining = timeout - (System.nanoTime() - start) / 1000000;
+					if ( remaining <= 0 ) {
+						writable = false;
+						break;
+					}
+					writability.wait( remaining );
+				}
+			}
+		}
+		outboundBuffers.waited( (System.nanoTime() - start) / 1000000 );
+		if ( !writable ) {
+			outboundBuffers.rejected();
+			throw new IOException( "Outbound buffer still full after " + timeout + " ms: the peer at " + channel.remoteAddress() + " is not keeping up" );
+		}
+	}
+
+	private void configureWriteBuffer( Channel channel )
+		throws IOException
+	{
+		if ( outChannel.protocol() instanceof AsyncCommProtocol ) {
+			final AsyncCommProtocol protocol = (AsyncCommProtocol) outChannel.protocol();
+			protocol.configureWriteBuffer( channel );
+			writeTimeout = protocol.writeTimeout();
+		}
+		writeBufferConfigured = true;
 	}
 
 	public ChannelFuture close()
@@ -140,6 +296,20 @@ public class StreamingCommChannelHandler
 		return this.ctx.close();
 	}
 
+	/**
+	 * Enables or disables reading from the underlying Netty channel.
+	 * @return false if the handler is not registered to a channel yet
+	 */
+	public boolean setAutoRead( boolean autoRead )
+	{
+		final ChannelHandlerContext c = this.ctx;
+		if ( c == null ) {
+			return false;
+		}
+		c.channel().config().setAutoRead( autoRead );
+		return true;
+	}
+
 	private final ReadWriteLock channelHandlersLock
 		= new ReentrantReadWriteLock( true );
 
@@ -232,11 +402,22 @@ public class StreamingCommChannelHandler
 				= interpreter.getInputOperation( message.operationName() );
 			try {
 				operation.requestType().check( message.value() );
-				interpreter.correlationEngine().onMessageReceive( message, inChannel );
 				if ( operation instanceof OneWayOperation ) {
-					// We need to send the acknowledgement
-					outChannel.send( CommMessage.createEmptyResponse( message ) );
-					//outChannel.release();
+					// We need to send the acknowledgement before the receiving
+					// session runs, as it may exit and close this channel
+					final IOException[] ackError = new IOException[ 1 ];
+					interpreter.correlationEngine().onMessageReceive( message, inChannel, () -> {
+						try {
+							outChannel.send( CommMessage.createEmptyResponse( message ) );
+						} catch( IOException e ) {
+							ackError[ 0 ] = e;
+						}
+					} );
+					if ( ackError[ 0 ] != null ) {
+						throw ackError[ 0 ];
+					}
+				} else {
+					interpreter.correlationEngine().onMessageReceive( message, inChannel );
 				}
 			} catch( TypeCheckingException e ) {
 				interpreter.logWarning( "Received message TypeMismatch (input operation "
@@ -248,6 +429,12 @@ public class StreamingCommChannelHandler
 				} catch( IOException ioe ) {
 					Interpreter.getInstance().logSevere( ioe );
 				}
+			} catch( SessionRejectedException e ) {
+				interpreter.logWarning( "Rejected a message for operation "
+					+ message.operationName() + ", the maximum number of sessions "
+					+ "is reached. Sending " + SessionRejectedException.FAULT_NAME
+					+ " to the caller." );
+				outChannel.send( CommMessage.createFaultResponse( message, e.toFault() ) );
 			} catch( CorrelationError e ) {
 				interpreter.logWarning( "Received a non correlating message "
 					+ "for operation " + message.operationName() + ". Sending "
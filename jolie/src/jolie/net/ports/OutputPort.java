@@ -31,6 +31,7 @@ import jolie.Interpreter;
 import jolie.lang.Constants;
 import jolie.net.CommChannel;
 import jolie.net.CommMessage;
+import jolie.net.LocalCommChannel;
 import jolie.net.protocols.CommProtocol;
 import jolie.process.AssignmentProcess;
 import jolie.process.NullProcess;
@@ -42,6 +43,7 @@ import jolie.runtime.VariablePath;
 import jolie.runtime.VariablePathBuilder;
 import jolie.runtime.expression.Expression;
 import jolie.runtime.typing.OperationTypeDescription;
+import jolie.runtime.typing.Type;
 import jolie.util.LocationParser;
 
 /**
@@ -219,11 +221,30 @@ public class OutputPort extends AbstractIdentifiableObject implements Port
 	}
 
 	public CommChannel send( CommMessage message ) throws IOException, URISyntaxException
+	{
+		return send( message, null );
+	}
+
+	/**
+	 * Sends a request through this output port.
+	 * @param message the request to send
+	 * @param checkedType the type the value of the request has already been checked against, or <code>null</code>.
+	 * In-process receivers use it to avoid checking the request again.
+	 * @return the channel the request has been sent through if the location of this port is a channel, <code>null</code> otherwise
+	 * @throws IOException
+	 * @throws URISyntaxException
+	 */
+	public CommChannel send( CommMessage message, Type checkedType ) throws IOException, URISyntaxException
 	{
 		Value loc = locationExpression.evaluate();
 		if ( loc.isChannel() ) {
-			loc.channelValue().send( message );
-			return loc.channelValue();
+			CommChannel channel = loc.channelValue();
+			if ( channel instanceof LocalCommChannel ) {
+				((LocalCommChannel) channel).send( message, checkedType );
+			} else {
+				channel.send( message );
+			}
+			return channel;
 		} else {
 			interpreter.commCore().sendCommMessage(
 				message,
@@ -22,7 +22,9 @@
  *******************************************************************************/
 package jolie.net.protocols;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.WriteBufferWaterMark;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -36,6 +38,19 @@ import jolie.runtime.VariablePath;
 
 public abstract class AsyncCommProtocol extends CommProtocol
 {
+	private static class Parameters
+	{
+		private static final String WRITE_BUFFER_HIGH_WATER_MARK = "writeBufferHighWaterMark";
+		private static final String WRITE_BUFFER_LOW_WATER_MARK = "writeBufferLowWaterMark";
+		private static final String WRITE_TIMEOUT = "writeTimeout";
+	}
+
+	/**
+	 * How long a send waits by default for the outbound buffer of a stalled peer to drain,
+	 * in milliseconds.
+	 */
+	public static final long DEFAULT_WRITE_TIMEOUT = 60 * 1000; // 1 minute
+
 	private ExecutionThread initExecutionThread = null;
 
 	public AsyncCommProtocol( VariablePath configurationPath )
@@ -97,6 +112,48 @@ public abstract class AsyncCommProtocol extends CommProtocol
 		throw new UnsupportedOperationException( "Should not be called." );
 	}
 
+	/**
+	 * Applies the water marks of the outbound buffer configured for the port
+	 * (parameters <code>writeBufferHighWaterMark</code> and <code>writeBufferLowWaterMark</code>, in bytes)
+	 * to the given Netty channel. The channel becomes unwritable when its buffered bytes exceed
+	 * the high water mark, and writable again when they drop below the low water mark.
+	 * Unspecified marks keep the defaults of the channel.
+	 * @param channel the Netty channel of this protocol
+	 * @throws IOException if the configured water marks are not valid
+	 */
+	public void configureWriteBuffer( Channel channel )
+		throws IOException
+	{
+		final boolean hasHigh = hasParameter( Parameters.WRITE_BUFFER_HIGH_WATER_MARK );
+		final boolean hasLow = hasParameter( Parameters.WRITE_BUFFER_LOW_WATER_MARK );
+		if ( !hasHigh && !hasLow ) {
+			return;
+		}
+		final WriteBufferWaterMark current = channel.config().getWriteBufferWaterMark();
+		int high = hasHigh ? getIntParameter( Parameters.WRITE_BUFFER_HIGH_WATER_MARK ) : current.high();
+		int low = hasLow ? getIntParameter( Parameters.WRITE_BUFFER_LOW_WATER_MARK ) : Math.min( current.low(), high );
+		if ( !hasHigh ) {
+			high = Math.max( high, low );
+		}
+		try {
+			channel.config().setWriteBufferWaterMark( new WriteBufferWaterMark( low, high ) );
+		} catch( IllegalArgumentException e ) {
+			throw new IOException( "Invalid write buffer water marks for protocol " + name() + ": " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Returns how long a send may wait for the outbound buffer to drain below its low water mark
+	 * (parameter <code>writeTimeout</code>, in milliseconds), {@link #DEFAULT_WRITE_TIMEOUT} if not set.
+	 * 0 fails immediately when the buffer is over its high water mark, and a negative value
+	 * waits as long as needed.
+	 * @return the write timeout in milliseconds
+	 */
+	public long writeTimeout()
+	{
+		return hasParameter( Parameters.WRITE_TIMEOUT ) ? getParameterFirstValue( Parameters.WRITE_TIMEOUT ).longValue() : DEFAULT_WRITE_TIMEOUT;
+	}
+
 	public void setInitExecutionThread( ExecutionThread t )
 	{
 		initExecutionThread = t;
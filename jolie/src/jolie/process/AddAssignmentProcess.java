@@ -68,16 +68,21 @@ public class AddAssignmentProcess implements Process, Expression
 		if ( ExecutionThread.currentThread().isKilled() ) {
 			return;
 		}
-		varPath.getValue().add( expression.evaluate() );
+		apply( varPath.getValue(), expression.evaluate() );
 	}
 
 	public Value evaluate()
 	{
 		Value val = varPath.getValue();
-		val.add( expression.evaluate() );
+		apply( val, expression.evaluate() );
 		return val;
 	}
 
+	private void apply( Value val, Value operand )
+	{
+		varPath.update( val, v -> v.add( operand ) );
+	}
+
 	public boolean isKillable()
 	{
 		return true;
@@ -68,13 +68,13 @@ public class AssignmentProcess implements Process, Expression
 		if ( ExecutionThread.currentThread().isKilled() ) {
 			return;
 		}
-		varPath.getValue().assignValue( expression.evaluate() );
+		expression.evaluateInto( varPath.getValue() );
 	}
 
 	public Value evaluate()
 	{
 		Value val = varPath.getValue();
-		val.assignValue( expression.evaluate() );
+		expression.evaluateInto( val );
 		return val;
 	}
 
@@ -19,7 +19,6 @@
 package jolie.process;
 
 import jolie.runtime.*;
-import jolie.util.Pair;
 
 public class ForEachArrayItemProcess implements Process
 {
@@ -50,12 +49,9 @@ public class ForEachArrayItemProcess implements Process
 	{
 		ValueVector targetVector = targetPath.getValueVector();
 		int size = targetVector.size();
-		VariablePath target = targetPath.clone();
-		int length = target.path().length;
 
 		for( int i = 0; i < size; i++ ) {
-			target.path()[ length - 1 ] = new Pair<>( target.path()[ length - 1 ].key(), Value.create( i ) );
-			keyPath.makePointer( target );
+			keyPath.makePointer( targetPath.withLastIndex( i ) );
 			process.run();
 		}
 	}
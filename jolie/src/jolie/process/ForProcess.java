@@ -57,7 +57,7 @@ public final class ForProcess implements Process
 		}
 
 		init.run();
-		while( condition.evaluate().boolValue() ) {
+		while( condition.evaluateBool() ) {
 			process.run();
 			if ( ethread.isKilled() ) {
 				return;
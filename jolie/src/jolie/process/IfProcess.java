@@ -85,7 +85,7 @@ public final class IfProcess implements Process
 
 		while( keepRun && i < pairs.length ) {
 			final CPPair pair = pairs[ i ];
-			if ( pair.condition().evaluate().boolValue() ) {
+			if ( pair.condition().evaluateBool() ) {
 				keepRun = false;
 				pair.process().run();
 			}
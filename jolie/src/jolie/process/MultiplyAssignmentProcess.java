@@ -68,16 +68,21 @@ public class MultiplyAssignmentProcess implements Process, Expression
 		if ( ExecutionThread.currentThread().isKilled() ) {
 			return;
 		}
-		varPath.getValue().multiply( expression.evaluate() );
+		apply( varPath.getValue(), expression.evaluate() );
 	}
 
 	public Value evaluate()
 	{
 		Value val = varPath.getValue();
-		val.multiply( expression.evaluate() );
+		apply( val, expression.evaluate() );
 		return val;
 	}
 
+	private void apply( Value val, Value operand )
+	{
+		varPath.update( val, v -> v.multiply( operand ) );
+	}
+
 	public boolean isKillable()
 	{
 		return true;
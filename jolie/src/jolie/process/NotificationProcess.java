@@ -106,7 +106,7 @@ public class NotificationProcess implements Process
 			log( "SENDING", message );
 
 			//channel.send( message );
-			channel = outputPort.send( message );
+			channel = outputPort.send( message, (oneWayDescription == null) ? null : oneWayDescription.requestType() );
 
 			log( "SENT", message );
 			if ( Interpreter.getInstance().isMonitoring() ) {
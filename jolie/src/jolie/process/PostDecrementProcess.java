@@ -50,17 +50,31 @@ public class PostDecrementProcess implements Process, Expression
 			return;
 		}
 		Value val = path.getValue();
-		val.setValue( val.intValue() - 1 );
+		decrement( val, null );
 	}
 
 	public Value evaluate()
 	{
 		Value val = path.getValue();
-		Value orig = Value.create( val.intValue() );
-		val.setValue( val.intValue() - 1 );
+		Value orig = Value.create();
+		decrement( val, orig );
 		return orig;
 	}
 
+	// Stores the value of val before the decrement in orig, if orig is not null
+	private void decrement( Value val, Value orig )
+	{
+		path.update( val, v -> doDecrement( v, orig ) );
+	}
+
+	private static void doDecrement( Value val, Value orig )
+	{
+		if ( orig != null ) {
+			orig.setValue( val.intValue() );
+		}
+		val.setValue( val.intValue() - 1 );
+	}
+
 	public boolean isKillable()
 	{
 		return true;
@@ -51,18 +51,32 @@ public class PostIncrementProcess implements Process, Expression
 			return;
 		}
 		final Value val = path.getValue();
-		val.setValue( val.intValue() + 1 );
+		increment( val, null );
 	}
 
 	@Override
 	public Value evaluate()
 	{
 		final Value val = path.getValue();
-		final Value orig = Value.create( val.intValue() );
-		val.setValue( val.intValue() + 1 );
+		final Value orig = Value.create();
+		increment( val, orig );
 		return orig;
 	}
 
+	// Stores the value of val before the increment in orig, if orig is not null
+	private void increment( Value val, Value orig )
+	{
+		path.update( val, v -> doIncrement( v, orig ) );
+	}
+
+	private static void doIncrement( Value val, Value orig )
+	{
+		if ( orig != null ) {
+			orig.setValue( val.intValue() );
+		}
+		val.setValue( val.intValue() + 1 );
+	}
+
 	@Override
 	public boolean isKillable()
 	{
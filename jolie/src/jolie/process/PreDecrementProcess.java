@@ -50,16 +50,21 @@ public class PreDecrementProcess implements Process, Expression
 			return;
 		}
 		Value val = path.getValue();
-		val.setValue( val.intValue() - 1 );
+		decrement( val );
 	}
 
 	public Value evaluate()
 	{
 		Value val = path.getValue();
-		val.setValue( val.intValue() - 1 );
+		decrement( val );
 		return val;
 	}
 
+	private void decrement( Value val )
+	{
+		path.update( val, v -> v.setValue( v.intValue() - 1 ) );
+	}
+
 	public boolean isKillable()
 	{
 		return true;
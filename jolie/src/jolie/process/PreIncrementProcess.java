@@ -51,17 +51,22 @@ public class PreIncrementProcess implements Process, Expression
 			return;
 		}
 		final Value val = path.getValue();
-		val.setValue( val.intValue() + 1 );
+		increment( val );
 	}
 
 	@Override
 	public Value evaluate()
 	{
 		final Value val = path.getValue();
-		val.setValue( val.intValue() + 1 );
+		increment( val );
 		return val;
 	}
 
+	private void increment( Value val )
+	{
+		path.update( val, v -> v.setValue( v.intValue() + 1 ) );
+	}
+
 	@Override
 	public boolean isKillable()
 	{
@@ -123,7 +123,7 @@ public class SolicitResponseProcess implements Process
 //			channel = outputPort.getCommChannel();
 //			channel.send( message );
 			// send returns an non-null object only if the channel is in a "local" locations (e.g., embedded)
-			channel = outputPort.send( message );
+			channel = outputPort.send( message, types.requestType() );
 
 			//channel.release(); TODO release channel if possible (i.e. it will not be closed)
 			log( "SENT", message );
@@ -69,16 +69,21 @@ public class SubtractAssignmentProcess implements Process, Expression
 			return;
 		}
 
-		varPath.getValue().subtract( expression.evaluate() );
+		apply( varPath.getValue(), expression.evaluate() );
 	}
 
 	public Value evaluate()
 	{
 		Value val = varPath.getValue();
-		val.subtract( expression.evaluate() );
+		apply( val, expression.evaluate() );
 		return val;
 	}
 
+	private void apply( Value val, Value operand )
+	{
+		varPath.update( val, v -> v.subtract( operand ) );
+	}
+
 	public boolean isKillable()
 	{
 		return true;
@@ -23,28 +23,57 @@ package jolie.process;
 import jolie.Interpreter;
 import jolie.runtime.ExitingException;
 import jolie.runtime.FaultException;
+import jolie.runtime.GlobalLock;
 
 public class SynchronizedProcess implements Process
 {
 	final private String id;
+	final private boolean shared;
+	final private long timeout;
 	final private Process process;
 
 	public SynchronizedProcess( String id, Process process )
+	{
+		this( id, false, -1L, process );
+	}
+
+	/**
+	 * @param id the identifier of the global lock
+	 * @param shared true if process only reads the data protected by the lock
+	 * @param timeout the maximum time to wait for the lock in milliseconds, or a negative number to wait indefinitely
+	 * @param process the process to run while holding the lock
+	 */
+	public SynchronizedProcess( String id, boolean shared, long timeout, Process process )
 	{
 		this.id = id;
+		this.shared = shared;
+		this.timeout = timeout;
 		this.process = process;
 	}
 
 	public Process clone( TransformationReason reason )
 	{
-		return new SynchronizedProcess( id, process.clone( reason ) );
+		return new SynchronizedProcess( id, shared, timeout, process.clone( reason ) );
 	}
 
 	public void run()
 		throws FaultException, ExitingException
 	{
-		synchronized( Interpreter.getInstance().getLock( id ) ) {
+		final GlobalLock lock = Interpreter.getInstance().getLock( id );
+		try {
+			if ( !lock.acquire( shared, timeout ) ) {
+				throw new FaultException( "LockTimeout", "Could not acquire lock " + id + " within " + timeout + " ms" );
+			}
+		} catch( IllegalMonitorStateException e ) {
+			throw new FaultException( "IllegalLockUpgrade", e.getMessage() );
+		} catch( InterruptedException e ) {
+			// The thread has been killed while waiting for the lock: the body must not run
+			throw new ExitingException();
+		}
+		try {
 			process.run();
+		} finally {
+			lock.release( shared );
 		}
 	}
 
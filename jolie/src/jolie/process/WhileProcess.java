@@ -50,7 +50,7 @@ public class WhileProcess implements Process
 		if ( ExecutionThread.currentThread().isKilled() ) {
 			return;
 		}
-		while( condition.evaluate().boolValue() ) {
+		while( condition.evaluateBool() ) {
 			process.run();
 			if ( ExecutionThread.currentThread().isKilled() ) {
 				return;
@@ -0,0 +1,442 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.runtime;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The map of the children of a {@link Value} node.
+ *
+ * Most nodes have few children, so they are kept in a single array of
+ * alternating keys and vectors (in insertion order), which is replaced on every
+ * structural change. Readers never lock and always see a consistent snapshot,
+ * while writers synchronize on the map. Nodes with many children are moved to a
+ * {@link ConcurrentHashMap}.
+ *
+ * The version of the map changes whenever a key is removed or mapped to another
+ * vector (adding keys does not change it), so that a lookup can be cached for as
+ * long as the version stays the same (see {@link VariablePath}).
+ *
+ * A map can start as a copy-on-write view of the children of a shared node (see
+ * {@link ValueImpl#share()}): the vectors of the shared node are copied into the
+ * map only when they are looked up, so copying a node costs as much as the
+ * children that are actually accessed. Operations that need all the children
+ * (iterating, removing, computing the size) copy the remaining ones first.
+ */
+final class CompactChildrenMap extends AbstractMap< String, ValueVector >
+{
+	private static final int MAX_COMPACT_SIZE = 16;
+	// views of views are copied eagerly beyond this depth, to bound the cost of lookups
+	private static final int MAX_BASE_DEPTH = 8;
+	private static final Object[] EMPTY_TABLE = new Object[ 0 ];
+
+	private volatile Object[] table = EMPTY_TABLE;
+	private volatile Map< String, ValueVector > large = null;
+	private volatile int version = 0;
+	// the children of a shared node that have not been copied yet, if any
+	private volatile Map< String, ValueVector > base = null;
+	private final int baseDepth;
+
+	CompactChildrenMap()
+	{
+		baseDepth = 0;
+	}
+
+	/**
+	 * Creates a map that starts as a copy-on-write view of the given children,
+	 * which belong to a shared node and are thus never modified.
+	 */
+	CompactChildrenMap( Map< String, ValueVector > base )
+	{
+		Map< String, ValueVector > b = base;
+		if ( base instanceof CompactChildrenMap ) {
+			// skip views that have not copied anything yet
+			final Map< String, ValueVector > baseOfBase = ((CompactChildrenMap) base).base;
+			if ( baseOfBase != null && !((CompactChildrenMap) base).hasLocalChildren() ) {
+				b = baseOfBase;
+			}
+		}
+		baseDepth = b instanceof CompactChildrenMap ? ((CompactChildrenMap) b).depth() + 1 : 1;
+		if ( b != null && !b.isEmpty() ) {
+			this.base = b;
+			if ( baseDepth > MAX_BASE_DEPTH ) {
+				copyBase();
+			}
+		}
+	}
+
+	private int depth()
+	{
+		return base == null ? 0 : baseDepth;
+	}
+
+	private boolean hasLocalChildren()
+	{
+		return large != null || table.length > 0;
+	}
+
+	int version()
+	{
+		return version;
+	}
+
+	private static int indexOf( Object[] t, Object key )
+	{
+		for( int i = 0; i < t.length; i += 2 ) {
+			if ( t[ i ] == key || t[ i ].equals( key ) ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public ValueVector get( Object key )
+	{
+		final ValueVector vector = getLocal( key );
+		return vector == null && base != null ? copyFromBase( key ) : vector;
+	}
+
+	private ValueVector getLocal( Object key )
+	{
+		final Map< String, ValueVector > l = large;
+		if ( l != null ) {
+			return l.get( key );
+		}
+		final Object[] t = table;
+		final int i = indexOf( t, key );
+		return i < 0 ? null : (ValueVector) t[ i + 1 ];
+	}
+
+	// Looks the key up in this map and in its base, without copying anything
+	private ValueVector peek( Object key )
+	{
+		final Map< String, ValueVector > b = base;
+		final ValueVector vector = getLocal( key );
+		if ( vector != null || b == null ) {
+			return vector;
+		}
+		return b instanceof CompactChildrenMap ? ((CompactChildrenMap) b).peek( key ) : b.get( key );
+	}
+
+	private synchronized ValueVector copyFromBase( Object key )
+	{
+		ValueVector vector = getLocal( key );
+		if ( vector == null && base != null ) {
+			final ValueVector baseVector = base instanceof CompactChildrenMap
+				? ((CompactChildrenMap) base).peek( key )
+				: base.get( key );
+			if ( baseVector != null ) {
+				vector = shareOf( baseVector );
+				putLocal( (String) key, vector );
+			}
+		}
+		return vector;
+	}
+
+	// Copies the vectors of the base that have not been copied yet
+	private synchronized void copyBase()
+	{
+		Map< String, ValueVector > b = base;
+		while( b != null ) {
+			final Map< String, ValueVector > next;
+			final Iterator< Entry< String, ValueVector > > it;
+			if ( b instanceof CompactChildrenMap ) {
+				next = ((CompactChildrenMap) b).base;
+				it = ((CompactChildrenMap) b).localIterator();
+			} else {
+				next = null;
+				it = b.entrySet().iterator();
+			}
+			while( it.hasNext() ) {
+				final Entry< String, ValueVector > entry = it.next();
+				if ( getLocal( entry.getKey() ) == null ) {
+					putLocal( entry.getKey(), shareOf( entry.getValue() ) );
+				}
+			}
+			b = next;
+		}
+		base = null;
+	}
+
+	// A copy of a vector of a shared node, whose values are shared in turn
+	private static ValueVector shareOf( ValueVector vector )
+	{
+		if ( vector.isLink() ) {
+			return vector;
+		}
+		final ValueVector copy = ValueVector.create();
+		for( Value v : vector.valuesCopy() ) {
+			copy.add( v instanceof ValueImpl ? ((ValueImpl) v).share() : v );
+		}
+		return copy;
+	}
+
+	@Override
+	public boolean containsKey( Object key )
+	{
+		return peek( key ) != null;
+	}
+
+	@Override
+	public int size()
+	{
+		if ( base != null ) {
+			copyBase();
+		}
+		final Map< String, ValueVector > l = large;
+		return l != null ? l.size() : table.length / 2;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		final Map< String, ValueVector > b = base;
+		return !hasLocalChildren() && (b == null || b.isEmpty());
+	}
+
+	@Override
+	public synchronized ValueVector put( String key, ValueVector vector )
+	{
+		if ( base != null && getLocal( key ) == null ) {
+			copyFromBase( key );
+		}
+		return putLocal( key, vector );
+	}
+
+	// Must be called while holding the lock on this map
+	private ValueVector putLocal( String key, ValueVector vector )
+	{
+		if ( large != null ) {
+			final ValueVector previous = large.put( key, vector );
+			if ( previous != null ) {
+				version++;
+			}
+			return previous;
+		}
+		final Object[] t = table;
+		final int i = indexOf( t, key );
+		if ( i >= 0 ) {
+			final Object[] n = t.clone();
+			n[ i + 1 ] = vector;
+			table = n;
+			version++;
+			return (ValueVector) t[ i + 1 ];
+		}
+		if ( t.length / 2 >= MAX_COMPACT_SIZE ) {
+			final Map< String, ValueVector > l = new ConcurrentHashMap<>( MAX_COMPACT_SIZE * 4 );
+			for( int k = 0; k < t.length; k += 2 ) {
+				l.put( (String) t[ k ], (ValueVector) t[ k + 1 ] );
+			}
+			l.put( key, vector );
+			large = l;
+			table = EMPTY_TABLE;
+			return null;
+		}
+		final Object[] n = new Object[ t.length + 2 ];
+		System.arraycopy( t, 0, n, 0, t.length );
+		n[ t.length ] = key;
+		n[ t.length + 1 ] = vector;
+		table = n;
+		return null;
+	}
+
+	@Override
+	public ValueVector computeIfAbsent( String key, Function< ? super String, ? extends ValueVector > mappingFunction )
+	{
+		final ValueVector vector = get( key );
+		if ( vector != null ) {
+			return vector;
+		}
+		synchronized( this ) {
+			if ( large != null ) {
+				return large.computeIfAbsent( key, mappingFunction );
+			}
+			final int i = indexOf( table, key );
+			if ( i >= 0 ) {
+				return (ValueVector) table[ i + 1 ];
+			}
+			final ValueVector newVector = mappingFunction.apply( key );
+			if ( newVector != null ) {
+				put( key, newVector );
+			}
+			return newVector;
+		}
+	}
+
+	@Override
+	public synchronized ValueVector putIfAbsent( String key, ValueVector vector )
+	{
+		final ValueVector current = get( key );
+		return current != null ? current : put( key, vector );
+	}
+
+	@Override
+	public synchronized ValueVector remove( Object key )
+	{
+		if ( base != null ) {
+			copyBase();
+		}
+		if ( large != null ) {
+			final ValueVector previous = large.remove( key );
+			if ( previous != null ) {
+				version++;
+			}
+			return previous;
+		}
+		final Object[] t = table;
+		final int i = indexOf( t, key );
+		if ( i < 0 ) {
+			return null;
+		}
+		final Object[] n = new Object[ t.length - 2 ];
+		System.arraycopy( t, 0, n, 0, i );
+		System.arraycopy( t, i + 2, n, i, t.length - i - 2 );
+		table = n;
+		version++;
+		return (ValueVector) t[ i + 1 ];
+	}
+
+	@Override
+	public synchronized void clear()
+	{
+		base = null;
+		large = null;
+		table = EMPTY_TABLE;
+		version++;
+	}
+
+	@Override
+	public Set< Entry< String, ValueVector > > entrySet()
+	{
+		return new AbstractSet< Entry< String, ValueVector > >() {
+			@Override
+			public Iterator< Entry< String, ValueVector > > iterator()
+			{
+				if ( base != null ) {
+					copyBase();
+				}
+				return localIterator();
+			}
+
+			@Override
+			public int size()
+			{
+				return CompactChildrenMap.this.size();
+			}
+		};
+	}
+
+	private Iterator< Entry< String, ValueVector > > localIterator()
+	{
+		final Map< String, ValueVector > l = large;
+		return l != null ? new LargeIterator( l.entrySet().iterator() ) : new SnapshotIterator( table );
+	}
+
+	/*
+	 * Iterates over the children of a large map, changing them only through
+	 * this map (so that its version is kept up to date).
+	 */
+	private final class LargeIterator implements Iterator< Entry< String, ValueVector > >
+	{
+		private final Iterator< Entry< String, ValueVector > > iterator;
+		private String lastKey = null;
+
+		private LargeIterator( Iterator< Entry< String, ValueVector > > iterator )
+		{
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return iterator.hasNext();
+		}
+
+		@Override
+		public Entry< String, ValueVector > next()
+		{
+			final Entry< String, ValueVector > entry = iterator.next();
+			lastKey = entry.getKey();
+			return new SimpleImmutableEntry<>( entry );
+		}
+
+		@Override
+		public void remove()
+		{
+			if ( lastKey == null ) {
+				throw new IllegalStateException();
+			}
+			CompactChildrenMap.this.remove( lastKey );
+			lastKey = null;
+		}
+	}
+
+	/*
+	 * Iterates over a snapshot of the children, so concurrent changes to the map
+	 * are never observed (nor do they make the iteration fail).
+	 */
+	private final class SnapshotIterator implements Iterator< Entry< String, ValueVector > >
+	{
+		private final Object[] snapshot;
+		private int next = 0;
+		private String lastKey = null;
+
+		private SnapshotIterator( Object[] snapshot )
+		{
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return next < snapshot.length;
+		}
+
+		@Override
+		public Entry< String, ValueVector > next()
+		{
+			if ( next >= snapshot.length ) {
+				throw new NoSuchElementException();
+			}
+			lastKey = (String) snapshot[ next ];
+			final Entry< String, ValueVector > entry =
+				new SimpleImmutableEntry<>( lastKey, (ValueVector) snapshot[ next + 1 ] );
+			next += 2;
+			return entry;
+		}
+
+		@Override
+		public void remove()
+		{
+			if ( lastKey == null ) {
+				throw new IllegalStateException();
+			}
+			CompactChildrenMap.this.remove( lastKey );
+			lastKey = null;
+		}
+	}
+}
@@ -24,7 +24,11 @@ public class ExitingException extends Exception
 {
 	private static final long serialVersionUID = jolie.lang.Constants.serialVersionUID();
 
-	private ExitingException()
+	/**
+	 * Creates an exception that stops the process running in the current thread,
+	 * e.g., because the thread has been killed while it was blocked.
+	 */
+	public ExitingException()
 	{
 	}
 }
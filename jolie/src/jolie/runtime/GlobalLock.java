@@ -0,0 +1,118 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.runtime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import jolie.monitoring.StatisticsRegistry;
+
+/**
+ * A global lock, used by synchronized blocks with the same identifier.
+ *
+ * Read blocks share the lock, write blocks hold it exclusively.
+ * Every lock keeps its contention statistics in the statistics registry
+ * of its interpreter, under <code>locks.&lt;id&gt;</code>.
+ */
+public final class GlobalLock
+{
+	private final String id;
+	private final String prefix;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final LongAdder acquisitions;
+	private final LongAdder contentions;
+	private final LongAdder waitTime;
+	private final LongAdder timeouts;
+
+	GlobalLock( String id, StatisticsRegistry statistics )
+	{
+		this.id = id;
+		this.prefix = "locks." + id + ".";
+		acquisitions = statistics.counter( prefix + "acquisitions" );
+		contentions = statistics.counter( prefix + "contentions" );
+		waitTime = statistics.counter( prefix + "waitTimeMicros" );
+		timeouts = statistics.counter( prefix + "timeouts" );
+		statistics.registerGauge( prefix + "readHolders", lock::getReadLockCount );
+		statistics.registerGauge( prefix + "writeHolders", () -> lock.isWriteLocked() ? 1L : 0L );
+		statistics.registerGauge( prefix + "waiting", lock::getQueueLength );
+	}
+
+	void removeGauges( StatisticsRegistry statistics )
+	{
+		statistics.removeGauge( prefix + "readHolders" );
+		statistics.removeGauge( prefix + "writeHolders" );
+		statistics.removeGauge( prefix + "waiting" );
+	}
+
+	public String id()
+	{
+		return id;
+	}
+
+	/**
+	 * Acquires this lock for the current thread.
+	 * @param shared true to acquire this lock for reading, false to acquire it exclusively
+	 * @param timeout the maximum time to wait in milliseconds, or a negative number to wait indefinitely
+	 * @return true if the lock was acquired, false if the timeout expired
+	 * @throws InterruptedException if the thread was interrupted while waiting with a timeout
+	 * @throws IllegalMonitorStateException if the lock is requested exclusively by a thread that
+	 * is reading it, which would wait forever
+	 */
+	public boolean acquire( boolean shared, long timeout )
+		throws InterruptedException
+	{
+		if ( !shared && lock.getReadHoldCount() > 0 ) {
+			throw new IllegalMonitorStateException( "lock " + id + " is held for reading and cannot be acquired for writing" );
+		}
+		final Lock l = shared ? lock.readLock() : lock.writeLock();
+		if ( l.tryLock() ) {
+			acquisitions.increment();
+			return true;
+		}
+
+		contentions.increment();
+		final long start = System.nanoTime();
+		try {
+			if ( timeout < 0 ) {
+				l.lock();
+			} else if ( !l.tryLock( timeout, TimeUnit.MILLISECONDS ) ) {
+				timeouts.increment();
+				return false;
+			}
+			acquisitions.increment();
+			return true;
+		} finally {
+			waitTime.add( TimeUnit.NANOSECONDS.toMicros( System.nanoTime() - start ) );
+		}
+	}
+
+	/**
+	 * Releases this lock, which must have been acquired by the current thread
+	 * with the same value of shared.
+	 */
+	public void release( boolean shared )
+	{
+		if ( shared ) {
+			lock.readLock().unlock();
+		} else {
+			lock.writeLock().unlock();
+		}
+	}
+}
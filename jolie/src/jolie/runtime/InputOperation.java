@@ -20,6 +20,8 @@
  ***************************************************************************/
 package jolie.runtime;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import jolie.runtime.typing.Type;
 
 /**
@@ -37,8 +39,21 @@ public abstract class InputOperation extends AbstractIdentifiableObject
 		super( id );
 	}
 
+	private final Map< Type, Boolean > equivalentRequestTypes = new ConcurrentHashMap<>();
+
 	public abstract Type requestType();
 
+	/**
+	 * Returns <code>true</code> if a message that passed the check of the given type
+	 * does not need to be checked again against the request type of this operation.
+	 * This is the case for in-process messages whose sender uses an equivalent type.
+	 * @param checkedType the type already checked by the sender of the message
+	 */
+	public boolean isRequestTypeEquivalentTo( Type checkedType )
+	{
+		return equivalentRequestTypes.computeIfAbsent( checkedType, t -> t.isEquivalentTo( requestType() ) );
+	}
+
 	/**
 	 * Receives a message from CommCore and passes it to the right InputProcess.
 	 * If no suitable InputProcess is found, the message is enqueued in memory.
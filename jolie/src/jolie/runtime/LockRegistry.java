@@ -0,0 +1,56 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.runtime;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jolie.monitoring.StatisticsRegistry;
+
+/**
+ * The table of the global locks of an interpreter, indexed by identifier.
+ * Locks are created on first use; concurrent lookups of the same identifier
+ * always get the same lock.
+ */
+public class LockRegistry
+{
+	private final Map< String, GlobalLock > locks = new ConcurrentHashMap<>();
+	private final StatisticsRegistry statistics;
+
+	public LockRegistry( StatisticsRegistry statistics )
+	{
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Returns the lock with the given identifier, creating it if necessary.
+	 * @param id the lock identifier
+	 * @return the lock with the given identifier
+	 */
+	public GlobalLock get( String id )
+	{
+		final GlobalLock lock = locks.get( id );
+		return lock != null ? lock : locks.computeIfAbsent( id, k -> new GlobalLock( k, statistics ) );
+	}
+
+	public void clear()
+	{
+		locks.values().forEach( lock -> lock.removeGauges( statistics ) );
+		locks.clear();
+	}
+}
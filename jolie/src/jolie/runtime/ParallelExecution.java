@@ -23,6 +23,7 @@ package jolie.runtime;
 import java.util.Collection;
 import java.util.HashSet;
 import jolie.ExecutionThread;
+import jolie.State;
 import jolie.TransparentExecutionThread;
 import jolie.process.Process;
 
@@ -62,6 +63,19 @@ public class ParallelExecution
 
 	public void run()
 		throws FaultException
+	{
+		// the branches share the state of this thread, which is thus not confined to it anymore
+		final State state = ExecutionThread.currentThread().state();
+		state.parallelExecutionStarted();
+		try {
+			runBranches();
+		} finally {
+			state.parallelExecutionEnded();
+		}
+	}
+
+	private void runBranches()
+		throws FaultException
 	{
 		synchronized( this ) {
 			for( ParallelThread t : threads ) {
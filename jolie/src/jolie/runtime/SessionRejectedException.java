@@ -0,0 +1,52 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.runtime;
+
+import jolie.lang.Constants;
+
+/**
+ * Raised when a message would start a new session, but the service is already running
+ * as many sessions as it is allowed to (see the --maxSessions option).
+ */
+public class SessionRejectedException extends Exception
+{
+	private static final long serialVersionUID = Constants.serialVersionUID();
+
+	public static final String FAULT_NAME = "SessionLimitExceeded";
+
+	public SessionRejectedException()
+	{
+		super( "the service cannot start more sessions" );
+	}
+
+	/**
+	 * Returns the fault that is sent back to the invoker of the rejected operation.
+	 * @return the fault that is sent back to the invoker
+	 */
+	public FaultException toFault()
+	{
+		return new FaultException( FAULT_NAME, "The service cannot start more sessions at the moment, try again later." );
+	}
+
+	@Override
+	public Throwable fillInStackTrace()
+	{
+		return this;
+	}
+}
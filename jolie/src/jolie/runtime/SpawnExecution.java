@@ -20,51 +20,77 @@
  ***************************************************************************/
 package jolie.runtime;
 
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import jolie.ExecutionThread;
 import jolie.Interpreter;
 import jolie.SessionThread;
+import jolie.State;
 import jolie.process.Process;
 import jolie.process.SpawnProcess;
 
+/**
+ * Runs the body of a spawn statement once per index.
+ *
+ * By default all the bodies run at the same time. If
+ * {@link Interpreter#spawnParallelism()} bounds them, at most that many run at once:
+ * every worker repeatedly takes the next index to run, so that workers that
+ * get short bodies go on with the remaining indexes instead of waiting for
+ * slower ones. Each body runs in its own session, started from the state that
+ * the parent had when the spawn statement began.
+ *
+ * With a bound, bodies that are not running yet wait for a free worker, so bodies
+ * that wait for each other (e.g., one receives a message that a later index sends)
+ * deadlock as soon as all the workers are taken by waiting bodies.
+ */
 public class SpawnExecution
 {
 	private class SpawnedThread extends SessionThread
 	{
 		private final int index;
-		private final CountDownLatch latch;
 
 		public SpawnedThread(
 			ExecutionThread parentThread,
 			Process process,
-			int index,
-			CountDownLatch latch
+			State state,
+			int index
 		)
 		{
-			super( process, parentThread );
+			super( process, state, parentThread );
 			this.index = index;
-			this.latch = latch;
+		}
+
+		/**
+		 * Runs this thread in the calling worker, through a task of its own so that
+		 * killing this thread interrupts the worker only while this thread runs.
+		 */
+		private void runInline()
+		{
+			final FutureTask< Void > task = new FutureTask<>( this, null );
+			setTaskFuture( task );
+			task.run();
 		}
 
 		@Override
 		public void runProcess()
 		{
-			parentSpawnProcess.indexPath().getValue().setValue( index );
 			try {
+				parentSpawnProcess.indexPath().getValue().setValue( index );
 				process().run();
 			} catch( FaultException f ) {
 			} catch( ExitingException e ) {
+			} finally {
+				terminationNotify( this );
 			}
-
-			terminationNotify( this );
 		}
 	}
 
-	private final Collection< SpawnedThread> threads = new HashSet< SpawnedThread>();
 	private final SpawnProcess parentSpawnProcess;
 	private final ExecutionThread ethread;
+	private final AtomicInteger nextIndex = new AtomicInteger();
+	private State initialState;
+	private int upperBound;
 	private CountDownLatch latch;
 
 	public SpawnExecution( SpawnProcess parent )
@@ -79,23 +105,21 @@ public class SpawnExecution
 		if ( parentSpawnProcess.inPath() != null ) {
 			parentSpawnProcess.inPath().undef();
 		}
-		int upperBound = parentSpawnProcess.upperBound().evaluate().intValue();
-		latch = new CountDownLatch( upperBound );
-		SpawnedThread thread;
-
-		for( int i = 0; i < upperBound; i++ ) {
-			thread = new SpawnedThread(
-				ethread,
-				parentSpawnProcess.body(),
-				i,
-				latch
-			);
-			threads.add( thread );
+		upperBound = parentSpawnProcess.upperBound().evaluate().intValue();
+		if ( upperBound <= 0 ) {
+			return;
 		}
+		// Taken now, since the results are written to inPath in the state of the parent.
+		// A snapshot, so that the state of each spawned thread is a copy-on-write view of it
+		initialState = ethread.state().snapshot();
+		latch = new CountDownLatch( upperBound );
 
-		for( SpawnedThread t : threads ) {
-			// We start threads in this other cycle to avoid race conditions on inPath
-			t.start();
+		final Interpreter interpreter = ethread.interpreter();
+		final int workers = interpreter.spawnParallelism() > 0
+			? Math.min( upperBound, interpreter.spawnParallelism() )
+			: upperBound;
+		for( int i = 0; i < workers; i++ ) {
+			interpreter.runJolieThread( this::runWorker );
 		}
 
 		try {
@@ -105,6 +129,22 @@ public class SpawnExecution
 		}
 	}
 
+	// Runs on a Jolie executor thread, so each body can run inline as its own execution thread
+	private void runWorker()
+	{
+		int index;
+		while( (index = nextIndex.getAndIncrement()) < upperBound ) {
+			new SpawnedThread(
+				ethread,
+				parentSpawnProcess.body(),
+				initialState.clone(),
+				index
+			).runInline();
+			// A body killed at its end must not interrupt the next one
+			Thread.interrupted();
+		}
+	}
+
 	private void terminationNotify( SpawnedThread thread )
 	{
 		synchronized( this ) {
@@ -28,11 +28,13 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.lang.invoke.VarHandle;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
 import jolie.net.CommChannel;
 import jolie.process.TransformationReason;
 import jolie.runtime.expression.Expression;
@@ -83,6 +85,26 @@ class ValueLink extends Value implements Cloneable
 		getLinkedValue().setValueObject( object );
 	}
 
+	protected void setIntValue( int value )
+	{
+		getLinkedValue().setIntValue( value );
+	}
+
+	protected void setLongValue( long value )
+	{
+		getLinkedValue().setLongValue( value );
+	}
+
+	protected void setDoubleValue( double value )
+	{
+		getLinkedValue().setDoubleValue( value );
+	}
+
+	protected void setBoolValue( boolean value )
+	{
+		getLinkedValue().setBoolValue( value );
+	}
+
 	public void erase()
 	{
 		getLinkedValue().erase();
@@ -94,9 +116,9 @@ class ValueLink extends Value implements Cloneable
 		return new ValueLink( linkPath );
 	}
 
-	public void _deepCopy( Value value, boolean copyLinks )
+	public void _deepCopy( Value value, boolean copyLinks, boolean share )
 	{
-		getLinkedValue()._deepCopy( value, copyLinks );
+		getLinkedValue()._deepCopy( value, copyLinks, share );
 	}
 
 	public Map< String, ValueVector> children()
@@ -109,6 +131,66 @@ class ValueLink extends Value implements Cloneable
 		return getLinkedValue().valueObject();
 	}
 
+	public boolean isInt()
+	{
+		return getLinkedValue().isInt();
+	}
+
+	public boolean isLong()
+	{
+		return getLinkedValue().isLong();
+	}
+
+	public boolean isDouble()
+	{
+		return getLinkedValue().isDouble();
+	}
+
+	public boolean isBool()
+	{
+		return getLinkedValue().isBool();
+	}
+
+	public boolean isDefined()
+	{
+		return getLinkedValue().isDefined();
+	}
+
+	public int intValue()
+	{
+		return getLinkedValue().intValue();
+	}
+
+	public long longValue()
+	{
+		return getLinkedValue().longValue();
+	}
+
+	public double doubleValue()
+	{
+		return getLinkedValue().doubleValue();
+	}
+
+	public boolean boolValue()
+	{
+		return getLinkedValue().boolValue();
+	}
+
+	public String strValue()
+	{
+		return getLinkedValue().strValue();
+	}
+
+	public void atomicUpdate( Consumer< Value > operation )
+	{
+		getLinkedValue().atomicUpdate( operation );
+	}
+
+	public boolean compareAndSet( Value expected, Value newValue )
+	{
+		return getLinkedValue().compareAndSet( expected, newValue );
+	}
+
 	public ValueLink( VariablePath path )
 	{
 		assert (path != null);
@@ -125,12 +207,152 @@ class ValueImpl extends Value implements Cloneable, Serializable
 {
 	private static final long serialVersionUID = 1L;
 
-	private volatile Object valueObject = null;
-	private final AtomicReference< Map< String, ValueVector>> children = new AtomicReference<>();
+	private static final AtomicReferenceFieldUpdater< ValueImpl, Map > CHILDREN_UPDATER =
+		AtomicReferenceFieldUpdater.newUpdater( ValueImpl.class, Map.class, "children" );
+	private static final AtomicIntegerFieldUpdater< ValueImpl > STAMP_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater( ValueImpl.class, "stamp" );
+
+	/*
+	 * int, long, double and bool values are stored unboxed in primitiveBits,
+	 * and boxed only if valueObject() is called. Any other value is stored in valueObject.
+	 *
+	 * stamp works as a sequence lock: bit 0 is set while a write is in progress,
+	 * bits 1-3 hold the type of the stored value and the other bits count the writes,
+	 * so that readers can detect (and retry) a read that overlapped with a write.
+	 */
+	private static final int WRITING = 1;
+	private static final int TYPE_SHIFT = 1;
+	private static final int TYPE_MASK = 0x7 << TYPE_SHIFT;
+	private static final int VERSION_UNIT = 1 << 4;
+
+	private static final int OBJECT = 0;
+	private static final int INT = 1;
+	private static final int LONG = 2;
+	private static final int DOUBLE = 3;
+	private static final int BOOL = 4;
+
+	private volatile int stamp = 0;
+	private long primitiveBits = 0L;
+	private Object valueObject = null;
+	// created lazily, leaves never allocate it
+	private volatile Map< String, ValueVector> children = null;
+	// see share()
+	private volatile boolean shared = false;
 
-	public void setValueObject( Object object )
+	/**
+	 * Marks this value as shared between the trees of a deep copy, instead of copying it.
+	 * A shared value (and its sub-tree) is never modified again: vectors replace it
+	 * with an unshared copy (see {@link #unsharedCopy()}) the first time that it is accessed through them,
+	 * so a deep copy costs as much as the number of children of the copied value.
+	 * References to the value taken before it was shared must not be used to modify it:
+	 * hence only values that no other thread can reach can be shared
+	 * (see {@link Value#deepCopy(jolie.runtime.Value, boolean)}).
+	 */
+	ValueImpl share()
+	{
+		shared = true;
+		return this;
+	}
+
+	boolean isShared()
+	{
+		return shared;
+	}
+
+	/**
+	 * Returns a modifiable copy of this shared value.
+	 * Only the value is copied: the children of this value are shared in turn,
+	 * and copied into the new value only when they are accessed (see {@link CompactChildrenMap}).
+	 */
+	ValueImpl unsharedCopy()
 	{
+		ValueImpl copy = isUsedInCorrelation() ? new CSetValue() : new ValueImpl();
+		copy.assignValue( this );
+		copy.shareChildrenOf( this );
+		return copy;
+	}
+
+	private void shareChildrenOf( ValueImpl value )
+	{
+		Map< String, ValueVector> c = value.children;
+		children = (c == null || c.isEmpty()) ? null : new CompactChildrenMap( c );
+	}
+
+	private static int typeOf( int stamp )
+	{
+		return (stamp & TYPE_MASK) >> TYPE_SHIFT;
+	}
+
+	private void write( int type, long bits, Object object )
+	{
+		int s;
+		while( ((s = stamp) & WRITING) != 0 || !STAMP_UPDATER.compareAndSet( this, s, s | WRITING ) ) {
+			Thread.onSpinWait();
+		}
+		primitiveBits = bits;
 		valueObject = object;
+		stamp = ((s & ~TYPE_MASK) + VERSION_UNIT) | (type << TYPE_SHIFT);
+	}
+
+	private boolean isStable( int s )
+	{
+		VarHandle.acquireFence();
+		return (s & WRITING) == 0 && s == stamp;
+	}
+
+	public void setValueObject( Object object )
+	{
+		if ( object instanceof Integer ) {
+			write( INT, (Integer) object, null );
+		} else if ( object instanceof Long ) {
+			write( LONG, (Long) object, null );
+		} else if ( object instanceof Double ) {
+			write( DOUBLE, Double.doubleToRawLongBits( (Double) object ), null );
+		} else if ( object instanceof Boolean ) {
+			write( BOOL, (Boolean) object ? 1L : 0L, null );
+		} else {
+			write( OBJECT, 0L, object );
+		}
+	}
+
+	protected void setIntValue( int value )
+	{
+		write( INT, value, null );
+	}
+
+	protected void setLongValue( long value )
+	{
+		write( LONG, value, null );
+	}
+
+	protected void setDoubleValue( double value )
+	{
+		write( DOUBLE, Double.doubleToRawLongBits( value ), null );
+	}
+
+	protected void setBoolValue( boolean value )
+	{
+		write( BOOL, value ? 1L : 0L, null );
+	}
+
+	@Override
+	public void assignValue( Value value )
+	{
+		Value v = value.evaluate();
+		if ( v instanceof ValueImpl ) {
+			ValueImpl other = (ValueImpl) v;
+			int s;
+			long bits;
+			Object object;
+			do {
+				s = other.stamp;
+				bits = other.primitiveBits;
+				object = other.valueObject;
+			} while( !other.isStable( s ) );
+			write( typeOf( s ), bits, object );
+		} else {
+			setValueObject( value.valueObject() );
+		}
 	}
 
 	public ValueVector getChildren( String childId )
@@ -141,14 +363,14 @@ class ValueImpl extends Value implements Cloneable, Serializable
 	public ValueImpl clone()
 	{
 		ValueImpl ret = new ValueImpl();
-		ret._deepCopy( this, true );
+		ret._deepCopy( this, true, false );
 		return ret;
 	}
 
 	protected void _refCopy( Value value )
 	{
-		setValueObject( value.valueObject() );
-		this.children.set( value.children() );
+		assignValue( value );
+		this.children = value.hasChildren() ? value.children() : null;
 	}
 
 	public final Value evaluate()
@@ -158,8 +380,8 @@ class ValueImpl extends Value implements Cloneable, Serializable
 
 	public void erase()
 	{
-		valueObject = null;
-		children.set( null );
+		write( OBJECT, 0L, null );
+		children = null;
 	}
 
 	protected ValueImpl()
@@ -173,17 +395,23 @@ class ValueImpl extends Value implements Cloneable, Serializable
 
 	public boolean hasChildren()
 	{
-		Map< String, ValueVector> c = children.get();
+		Map< String, ValueVector> c = children;
 		return (c == null ? false : !c.isEmpty());
 	}
 
+	@Override
+	Map< String, ValueVector> childrenMapOrNull()
+	{
+		return children;
+	}
+
 	public boolean hasChildren( String childId )
 	{
-		Map< String, ValueVector> c = children.get();
+		Map< String, ValueVector> c = children;
 		return (c != null && c.containsKey( childId ));
 	}
 
-	protected void _deepCopy( Value value, boolean copyLinks )
+	protected void _deepCopy( Value value, boolean copyLinks, boolean share )
 	{
 		/**
 		 * TODO: check if a << b | b << a can generate deadlocks
@@ -193,20 +421,26 @@ class ValueImpl extends Value implements Cloneable, Serializable
 		if ( value.hasChildren() ) {
 			int i;
 			ValueImpl newValue;
+			// what is reached through a link can be reached by other threads
+			boolean shareVector;
+			share = share && !value.isLink();
 			Map< String, ValueVector> myChildren = children();
 			for( Entry< String, ValueVector> entry : value.children().entrySet() ) {
 				if ( copyLinks && entry.getValue().isLink() ) {
 					myChildren.put( entry.getKey(), ValueVector.createClone( entry.getValue() ) );
 				} else {
+					shareVector = share && !entry.getValue().isLink();
 					List< Value> otherVector = entry.getValue().valuesCopy();
 					ValueVector vec = getChildren( entry.getKey(), myChildren );
 					i = 0;
 					for( Value v : otherVector ) {
 						if ( copyLinks && v.isLink() ) {
 							vec.set( i, ((ValueLink) v).clone() );
+						} else if ( shareVector && v instanceof ValueImpl ) {
+							vec.set( i, ((ValueImpl) v).share() );
 						} else {
 							newValue = (v.isUsedInCorrelation() ? new CSetValue() : new ValueImpl());
-							newValue._deepCopy( v, copyLinks );
+							newValue._deepCopy( v, copyLinks, shareVector );
 							vec.set( i, newValue );
 						}
 						i++;
@@ -221,29 +455,208 @@ class ValueImpl extends Value implements Cloneable, Serializable
 		return children.computeIfAbsent( childId, k -> ValueVector.create() );
 	}
 
-	private final static int INITIAL_CAPACITY = 8;
-	private final static float LOAD_FACTOR = 0.75f;
-
 	public Map< String, ValueVector> children()
 	{
 		// Create the map if not present
-		children.getAndUpdate( v -> v == null ? new ConcurrentHashMap<>( INITIAL_CAPACITY, LOAD_FACTOR ) : v );
-		return children.get();
+		Map< String, ValueVector> c;
+		while( (c = children) == null ) {
+			CHILDREN_UPDATER.compareAndSet( this, null, new CompactChildrenMap() );
+		}
+		return c;
 	}
 
 	public Object valueObject()
 	{
-		return valueObject;
+		int s;
+		long bits;
+		Object object;
+		do {
+			s = stamp;
+			bits = primitiveBits;
+			object = valueObject;
+		} while( !isStable( s ) );
+		switch( typeOf( s ) ) {
+			case INT:
+				return (int) bits;
+			case LONG:
+				return bits;
+			case DOUBLE:
+				return Double.longBitsToDouble( bits );
+			case BOOL:
+				return bits != 0L;
+			default:
+				return object;
+		}
+	}
+
+	public boolean isInt()
+	{
+		return typeOf( stamp ) == INT;
+	}
+
+	public boolean isLong()
+	{
+		return typeOf( stamp ) == LONG;
+	}
+
+	public boolean isDouble()
+	{
+		return typeOf( stamp ) == DOUBLE;
+	}
+
+	public boolean isBool()
+	{
+		return typeOf( stamp ) == BOOL;
+	}
+
+	public boolean isDefined()
+	{
+		int s;
+		Object object;
+		do {
+			s = stamp;
+			object = valueObject;
+		} while( !isStable( s ) );
+		return typeOf( s ) != OBJECT || object != null;
+	}
+
+	public int intValue()
+	{
+		int s;
+		long bits;
+		do {
+			s = stamp;
+			bits = primitiveBits;
+		} while( !isStable( s ) );
+		switch( typeOf( s ) ) {
+			case INT:
+			case LONG:
+			case BOOL:
+				return (int) bits;
+			case DOUBLE:
+				return (int) Double.longBitsToDouble( bits );
+			default:
+				return super.intValue();
+		}
+	}
+
+	public long longValue()
+	{
+		int s;
+		long bits;
+		do {
+			s = stamp;
+			bits = primitiveBits;
+		} while( !isStable( s ) );
+		switch( typeOf( s ) ) {
+			case INT:
+			case LONG:
+			case BOOL:
+				return bits;
+			case DOUBLE:
+				return (long) Double.longBitsToDouble( bits );
+			default:
+				return super.longValue();
+		}
+	}
+
+	public double doubleValue()
+	{
+		int s;
+		long bits;
+		do {
+			s = stamp;
+			bits = primitiveBits;
+		} while( !isStable( s ) );
+		switch( typeOf( s ) ) {
+			case INT:
+			case LONG:
+			case BOOL:
+				return (double) bits;
+			case DOUBLE:
+				return Double.longBitsToDouble( bits );
+			default:
+				return super.doubleValue();
+		}
+	}
+
+	public boolean boolValue()
+	{
+		int s;
+		long bits;
+		do {
+			s = stamp;
+			bits = primitiveBits;
+		} while( !isStable( s ) );
+		switch( typeOf( s ) ) {
+			case INT:
+			case LONG:
+				return bits > 0L;
+			case BOOL:
+				return bits != 0L;
+			case DOUBLE:
+				return (long) Double.longBitsToDouble( bits ) > 0L;
+			default:
+				return super.boolValue();
+		}
+	}
+
+	public String strValue()
+	{
+		int s;
+		long bits;
+		Object object;
+		do {
+			s = stamp;
+			bits = primitiveBits;
+			object = valueObject;
+		} while( !isStable( s ) );
+		switch( typeOf( s ) ) {
+			case INT:
+				return Integer.toString( (int) bits );
+			case LONG:
+				return Long.toString( bits );
+			case DOUBLE:
+				return Double.toString( Double.longBitsToDouble( bits ) );
+			case BOOL:
+				return Boolean.toString( bits != 0L );
+			default:
+				return object instanceof String ? (String) object : super.strValue();
+		}
 	}
 
 	protected ValueImpl( Object object )
 	{
-		valueObject = object;
+		setValueObject( object );
+	}
+
+	protected ValueImpl( int value )
+	{
+		primitiveBits = value;
+		stamp = INT << TYPE_SHIFT;
+	}
+
+	protected ValueImpl( long value )
+	{
+		primitiveBits = value;
+		stamp = LONG << TYPE_SHIFT;
+	}
+
+	protected ValueImpl( double value )
+	{
+		primitiveBits = Double.doubleToRawLongBits( value );
+		stamp = DOUBLE << TYPE_SHIFT;
+	}
+
+	protected ValueImpl( boolean value )
+	{
+		primitiveBits = value ? 1L : 0L;
+		stamp = BOOL << TYPE_SHIFT;
 	}
 
 	public ValueImpl( Value val )
 	{
-		valueObject = val.valueObject();
+		assignValue( val );
 	}
 }
 
@@ -252,16 +665,28 @@ class RootValueImpl extends Value implements Cloneable
 {
 	private static final long serialVersionUID = 1L;
 
-	private final static int INITIAL_CAPACITY = 8;
-	private final static float LOAD_FACTOR = 0.75f;
+	private final Map< String, ValueVector> children;
 
-	private final Map< String, ValueVector> children
-		= new ConcurrentHashMap<>( INITIAL_CAPACITY, LOAD_FACTOR );
+	RootValueImpl()
+	{
+		children = new CompactChildrenMap();
+	}
+
+	// A copy-on-write view of the children of a root that is never modified again
+	RootValueImpl( RootValueImpl snapshot )
+	{
+		children = new CompactChildrenMap( snapshot.children );
+	}
 
 	public RootValueImpl clone()
+	{
+		return clone( false );
+	}
+
+	RootValueImpl clone( boolean share )
 	{
 		RootValueImpl ret = new RootValueImpl();
-		ret._deepCopy( this, true );
+		ret._deepCopy( this, true, share );
 		return ret;
 	}
 
@@ -298,6 +723,12 @@ class RootValueImpl extends Value implements Cloneable
 		return children;
 	}
 
+	@Override
+	Map< String, ValueVector> childrenMapOrNull()
+	{
+		return children;
+	}
+
 	public boolean hasChildren()
 	{
 		return children.isEmpty() == false;
@@ -308,24 +739,29 @@ class RootValueImpl extends Value implements Cloneable
 		return children.containsKey( childId );
 	}
 
-	protected void _deepCopy( Value value, boolean copyLinks )
+	protected void _deepCopy( Value value, boolean copyLinks, boolean share )
 	{
 		if ( value.hasChildren() ) {
 			int i;
 			ValueImpl newValue;
+			boolean shareVector;
+			share = share && !value.isLink();
 			for( Entry< String, ValueVector> entry : value.children().entrySet() ) {
 				if ( copyLinks && entry.getValue().isLink() ) {
 					children.put( entry.getKey(), ValueVector.createClone( entry.getValue() ) );
 				} else {
+					shareVector = share && !entry.getValue().isLink();
 					List< Value> otherVector = entry.getValue().valuesCopy();
 					ValueVector vec = getChildren( entry.getKey(), children );
 					i = 0;
 					for( Value v : otherVector ) {
 						if ( copyLinks && v.isLink() ) {
 							vec.set( i, ((ValueLink) v).clone() );
+						} else if ( shareVector && v instanceof ValueImpl ) {
+							vec.set( i, ((ValueImpl) v).share() );
 						} else {
 							newValue = (v.isUsedInCorrelation() ? new CSetValue() : new ValueImpl());
-							newValue._deepCopy( v, copyLinks );
+							newValue._deepCopy( v, copyLinks, shareVector );
 							vec.set( i, newValue );
 						}
 						i++;
@@ -363,7 +799,7 @@ class CSetValue extends ValueImpl
 	public CSetValue clone()
 	{
 		CSetValue ret = new CSetValue();
-		ret._deepCopy( this, true );
+		ret._deepCopy( this, true, false );
 		return ret;
 	}
 
@@ -396,6 +832,20 @@ public abstract class Value implements Expression, Cloneable
 		return new RootValueImpl();
 	}
 
+	/**
+	 * Creates a root value that starts as a copy-on-write view of the given one:
+	 * its children are copied only when they are accessed. The given root must
+	 * never be modified again, e.g., because it is a private clone of another root.
+	 * @param snapshot the root value to copy
+	 * @return the new root value
+	 */
+	public final static Value createRootValue( Value snapshot )
+	{
+		return snapshot instanceof RootValueImpl
+			? new RootValueImpl( (RootValueImpl) snapshot )
+			: Value.createClone( snapshot );
+	}
+
 	public final static Value createLink( VariablePath path )
 	{
 		return new ValueLink( path );
@@ -436,6 +886,26 @@ public abstract class Value implements Expression, Cloneable
 		return new ValueImpl( d );
 	}
 
+	public final static Value create( int i )
+	{
+		return new ValueImpl( i );
+	}
+
+	public final static Value create( long l )
+	{
+		return new ValueImpl( l );
+	}
+
+	public final static Value create( double d )
+	{
+		return new ValueImpl( d );
+	}
+
+	public final static Value create( boolean bool )
+	{
+		return new ValueImpl( bool );
+	}
+
 	public final static Value create( ByteArray b )
 	{
 		return new ValueImpl( b );
@@ -451,6 +921,21 @@ public abstract class Value implements Expression, Cloneable
 		return value.clone();
 	}
 
+	/**
+	 * Creates a clone of the given value. If share is true and the value is a root,
+	 * the sub-trees of the value are shared with the clone instead of being copied
+	 * (see {@link #deepCopy(jolie.runtime.Value, boolean)}).
+	 * @param value the value to clone
+	 * @param share true if no other thread can access the value
+	 * @return the clone of the value
+	 */
+	public final static Value createClone( Value value, boolean share )
+	{
+		return value instanceof RootValueImpl
+			? ((RootValueImpl) value).clone( share )
+			: value.clone();
+	}
+
 	public final static Value createDeepCopy( Value value )
 	{
 		Value ret = Value.create();
@@ -465,7 +950,21 @@ public abstract class Value implements Expression, Cloneable
 	 */
 	public final void deepCopy( Value value )
 	{
-		_deepCopy( value, false );
+		_deepCopy( value, false, false );
+	}
+
+	/**
+	 * Makes this value an identical copy (by value) of the parameter, like {@link #deepCopy(jolie.runtime.Value)}.
+	 * If share is true, the sub-trees of the parameter are shared with this value and copied only when
+	 * one of the two trees accesses them. The caller must guarantee that no other thread can reach the
+	 * parameter (e.g., it is a variable of a confined session, see {@link jolie.State#isConfined()})
+	 * and that no link exists below it (see {@link jolie.State#hasNestedLinks()}).
+	 * @param value the value to be copied
+	 * @param share true if the sub-trees of value can be shared
+	 */
+	final void deepCopy( Value value, boolean share )
+	{
+		_deepCopy( value, false, share );
 	}
 
 	public final void refCopy( Value value )
@@ -477,7 +976,7 @@ public abstract class Value implements Expression, Cloneable
 
 	public abstract void erase();
 
-	protected abstract void _deepCopy( Value value, boolean copyLinks );
+	protected abstract void _deepCopy( Value value, boolean copyLinks, boolean share );
 
 	public abstract Map< String, ValueVector> children();
 
@@ -485,8 +984,41 @@ public abstract class Value implements Expression, Cloneable
 
 	protected abstract void setValueObject( Object object );
 
+	/*
+	 * Primitive setters: implementations that can store primitives
+	 * without boxing them override these.
+	 */
+	protected void setIntValue( int value )
+	{
+		setValueObject( value );
+	}
+
+	protected void setLongValue( long value )
+	{
+		setValueObject( value );
+	}
+
+	protected void setDoubleValue( double value )
+	{
+		setValueObject( value );
+	}
+
+	protected void setBoolValue( boolean value )
+	{
+		setValueObject( value );
+	}
+
 	public abstract boolean hasChildren();
 
+	/**
+	 * Returns the map of the children of this value as it is currently stored,
+	 * or <code>null</code> if there is none or it cannot be accessed directly (e.g., for links).
+	 */
+	Map< String, ValueVector> childrenMapOrNull()
+	{
+		return null;
+	}
+
 	public abstract boolean hasChildren( String childId );
 
 	public abstract ValueVector getChildren( String childId );
@@ -508,6 +1040,16 @@ public abstract class Value implements Expression, Cloneable
 		return getChildren( childId ).get( 0 );
 	}
 
+	/**
+	 * Returns the vector of the children with the given name, or <code>null</code> if there is none.
+	 * Differently from {@link #getChildren(java.lang.String)}, this never modifies this value.
+	 * @param childId the name of the children
+	 */
+	public final ValueVector getChildrenOrNull( String childId )
+	{
+		return hasChildren() ? children().get( childId ) : null;
+	}
+
 	public final void setFirstChild( String childId, Object object )
 	{
 		getFirstChild( childId ).setValue( object );
@@ -545,7 +1087,27 @@ public abstract class Value implements Expression, Cloneable
 		setValueObject( object );
 	}
 
-	public final synchronized boolean equals( Value val )
+	public final void setValue( int value )
+	{
+		setIntValue( value );
+	}
+
+	public final void setValue( long value )
+	{
+		setLongValue( value );
+	}
+
+	public final void setValue( double value )
+	{
+		setDoubleValue( value );
+	}
+
+	public final void setValue( boolean value )
+	{
+		setBoolValue( value );
+	}
+
+	public final boolean equals( Value val )
 	{
 		boolean r = false;
 		if ( val.isDefined() ) {
@@ -571,17 +1133,17 @@ public abstract class Value implements Expression, Cloneable
 		return r;
 	}
 
-	public final boolean isInt()
+	public boolean isInt()
 	{
 		return (valueObject() instanceof Integer);
 	}
 
-	public final boolean isLong()
+	public boolean isLong()
 	{
 		return (valueObject() instanceof Long);
 	}
 
-	public final boolean isBool()
+	public boolean isBool()
 	{
 		return (valueObject() instanceof Boolean);
 	}
@@ -591,7 +1153,7 @@ public abstract class Value implements Expression, Cloneable
 		return (valueObject() instanceof ByteArray);
 	}
 
-	public final boolean isDouble()
+	public boolean isDouble()
 	{
 		return (valueObject() instanceof Double);
 	}
@@ -606,7 +1168,7 @@ public abstract class Value implements Expression, Cloneable
 		return (valueObject() instanceof CommChannel);
 	}
 
-	public final boolean isDefined()
+	public boolean isDefined()
 	{
 		return (valueObject() != null);
 	}
@@ -861,7 +1423,7 @@ public abstract class Value implements Expression, Cloneable
 		return r;
 	}
 
-	public final synchronized void add( Value val )
+	public final void add( Value val )
 	{
 		if ( isDefined() ) {
 			if ( val.isString() ) {
@@ -882,7 +1444,7 @@ public abstract class Value implements Expression, Cloneable
 		}
 	}
 
-	public final synchronized void subtract( Value val )
+	public final void subtract( Value val )
 	{
 		if ( !isDefined() ) {
 			if ( val.isDouble() ) {
@@ -905,7 +1467,7 @@ public abstract class Value implements Expression, Cloneable
 		}
 	}
 
-	public synchronized final void multiply( Value val )
+	public final void multiply( Value val )
 	{
 		if ( isDefined() ) {
 			if ( isInt() ) {
@@ -922,7 +1484,7 @@ public abstract class Value implements Expression, Cloneable
 		}
 	}
 
-	public synchronized final void divide( Value val )
+	public final void divide( Value val )
 	{
 		if ( !isDefined() ) {
 			setValue( 0 );
@@ -935,7 +1497,7 @@ public abstract class Value implements Expression, Cloneable
 		}
 	}
 
-	public synchronized final void modulo( Value val )
+	public final void modulo( Value val )
 	{
 		if ( !isDefined() ) {
 			assignValue( val );
@@ -948,11 +1510,44 @@ public abstract class Value implements Expression, Cloneable
 		}
 	}
 
-	public final void assignValue( Value val )
+	public void assignValue( Value val )
 	{
 		setValueObject( val.valueObject() );
 	}
 
+	/**
+	 * Applies operation to this value atomically with respect to the other
+	 * calls of atomicUpdate and compareAndSet on this value.
+	 * Arithmetic and comparisons do not lock, since most values are only
+	 * accessed by their session: values shared between threads (e.g.,
+	 * global variables) should be updated through this method instead.
+	 * @param operation the update to apply to this value
+	 */
+	public void atomicUpdate( Consumer< Value > operation )
+	{
+		synchronized( this ) {
+			operation.accept( this );
+		}
+	}
+
+	/**
+	 * Atomically assigns the content of newValue to this value if this value
+	 * is equal to expected (see {@link #equals(jolie.runtime.Value)}).
+	 * @param expected the value this value is expected to be equal to
+	 * @param newValue the value to assign
+	 * @return true if this value was updated, false otherwise
+	 */
+	public boolean compareAndSet( Value expected, Value newValue )
+	{
+		synchronized( this ) {
+			if ( equals( expected ) ) {
+				assignValue( newValue );
+				return true;
+			}
+			return false;
+		}
+	}
+
 	public Expression cloneExpression( TransformationReason reason )
 	{
 		return Value.createClone( this );
@@ -99,6 +99,9 @@ public class ValuePrettyPrinter
 	private void writeChildren( Value value )
 		throws IOException
 	{
+		if ( !value.hasChildren() ) {
+			return;
+		}
 		Integer i;
 		for( Entry< String, ValueVector> entry : value.children().entrySet() ) {
 			if ( entry.getValue().isEmpty() ) {
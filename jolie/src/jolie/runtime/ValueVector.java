@@ -21,9 +21,14 @@
 package jolie.runtime;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 class ValueVectorLink extends ValueVector implements Cloneable
 {
@@ -45,6 +50,16 @@ class ValueVectorLink extends ValueVector implements Cloneable
 		getLinkedValueVector().set( i, value );
 	}
 
+	public void add( Value value )
+	{
+		getLinkedValueVector().add( value );
+	}
+
+	public Value remove( int i )
+	{
+		return getLinkedValueVector().remove( i );
+	}
+
 	public ValueVectorLink( VariablePath path )
 	{
 		linkPath = path;
@@ -60,14 +75,16 @@ class ValueVectorLink extends ValueVector implements Cloneable
 		return linkPath.getValueVector();
 	}
 
-	protected List< Value> values()
+	public List< Value> valuesCopy()
 	{
-		return getLinkedValueVector().values();
+		return getLinkedValueVector().valuesCopy();
 	}
 
-	public List< Value> valuesCopy()
+	@Override
+	public Iterator< Value> iterator()
 	{
-		return getLinkedValueVector().valuesCopy();
+		ValueVector vector = linkPath.getValueVectorOrNull();
+		return (vector == null) ? Collections.emptyIterator() : vector.iterator();
 	}
 
 	@Override
@@ -78,49 +95,189 @@ class ValueVectorLink extends ValueVector implements Cloneable
 	}
 }
 
+/*
+ * Reads do not lock: the elements are kept in an array that writers,
+ * which synchronize on the vector, publish together with the size.
+ * Appends and updates write the array in place, while removals (rare) copy it,
+ * so that a reader always sees either the old or the new element in any position.
+ * A reader that races with a writer may find a position that it cannot read
+ * (out of the array or not yet filled): it then falls back to a synchronized read.
+ */
 class ValueVectorImpl extends ValueVector implements Serializable
 {
-	private final ArrayList< Value> values;
+	private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle( Value[].class );
+	private static final Value[] EMPTY = new Value[ 0 ];
 
-	@Override
-	protected List< Value> values()
+	private volatile Value[] values;
+	private volatile int size = 0;
+	// changes whenever a value is replaced or removed (appending values does not change it)
+	private volatile int version = 0;
+
+	int version()
 	{
-		return values;
+		return version;
 	}
 
 	@Override
-	public synchronized int size()
+	public int size()
 	{
-		return values().size();
+		return size;
 	}
 
 	@Override
 	public Value get( int i )
 	{
-		if ( i >= values.size() ) {
-			synchronized( this ) {
-				if ( i >= values.size() ) {
-					values.ensureCapacity( i + 1 );
-					for( int k = values.size(); k <= i; k++ ) {
-						values.add( Value.create() );
-					}
-				}
+		final Value[] a = values;
+		Value value = (i < size && i < a.length) ? (Value) ELEMENT.getAcquire( a, i ) : null;
+		if ( value == null ) {
+			value = getOrCreate( i );
+		}
+		if ( value instanceof ValueImpl && ((ValueImpl) value).isShared() ) {
+			value = unshare( i );
+		}
+		return value;
+	}
+
+	private synchronized Value getOrCreate( int i )
+	{
+		if ( i >= size ) {
+			Value[] a = ensureCapacity( i + 1 );
+			for( int k = size; k <= i; k++ ) {
+				ELEMENT.setRelease( a, k, Value.create() );
 			}
+			size = i + 1;
 		}
-		return values.get( i );
+		return values[ i ];
+	}
+
+	// Replaces a value shared by a deep copy with a copy owned by this vector
+	private synchronized Value unshare( int i )
+	{
+		Value value = values[ i ];
+		if ( value instanceof ValueImpl && ((ValueImpl) value).isShared() ) {
+			value = ((ValueImpl) value).unsharedCopy();
+			ELEMENT.setRelease( values, i, value );
+			version++;
+		}
+		return value;
+	}
+
+	/*
+	 * Like unshare( i ), for a shared value that was read from position i of this vector
+	 * but may have been moved (by a removal) or removed since then.
+	 */
+	private synchronized Value unshare( int i, ValueImpl value )
+	{
+		final Value[] a = values;
+		final int n = size;
+		int k = (i < n && a[ i ] == value) ? i : -1;
+		for( int j = 0; k < 0 && j < n; j++ ) {
+			if ( a[ j ] == value ) {
+				k = j;
+			}
+		}
+		final ValueImpl copy = value.unsharedCopy();
+		if ( k >= 0 ) {
+			ELEMENT.setRelease( a, k, copy );
+			version++;
+		}
+		return copy;
+	}
+
+	// Must be called while holding the lock on this vector
+	private Value[] ensureCapacity( int capacity )
+	{
+		Value[] a = values;
+		if ( capacity > a.length ) {
+			a = Arrays.copyOf( a, Math.max( capacity, a.length + (a.length >> 1) + 1 ) );
+			values = a;
+		}
+		return a;
 	}
 
 	@Override
 	public synchronized void set( int i, Value value )
 	{
-		if ( i >= values.size() ) {
-			values.ensureCapacity( i + 1 );
-			for( int k = values.size(); k < i; k++ ) {
-				values.add( Value.create() );
+		if ( i >= size ) {
+			Value[] a = ensureCapacity( i + 1 );
+			for( int k = size; k < i; k++ ) {
+				ELEMENT.setRelease( a, k, Value.create() );
 			}
-			values.add( value );
+			ELEMENT.setRelease( a, i, value );
+			size = i + 1;
 		} else {
-			values.set( i, value );
+			ELEMENT.setRelease( values, i, value );
+			version++;
+		}
+	}
+
+	@Override
+	public synchronized void add( Value value )
+	{
+		final int n = size;
+		ELEMENT.setRelease( ensureCapacity( n + 1 ), n, value );
+		size = n + 1;
+	}
+
+	@Override
+	public synchronized Value remove( int i )
+	{
+		final int n = size;
+		if ( i < 0 || i >= n ) {
+			throw new IndexOutOfBoundsException( "Index: " + i + ", Size: " + n );
+		}
+		final Value[] a = values;
+		Value value = a[ i ];
+		Value[] b = new Value[ a.length ];
+		System.arraycopy( a, 0, b, 0, i );
+		System.arraycopy( a, i + 1, b, i, n - i - 1 );
+		values = b;
+		size = n - 1;
+		version++;
+		if ( value instanceof ValueImpl && ((ValueImpl) value).isShared() ) {
+			value = ((ValueImpl) value).unsharedCopy();
+		}
+		return value;
+	}
+
+	/**
+	 * Iterates over the values in this vector when the iteration starts.
+	 * Unlike get, it never creates values: a value removed during the iteration
+	 * is not re-created when its (former) position is reached.
+	 * Shared values are replaced before being returned, as in get.
+	 */
+	@Override
+	public Iterator< Value> iterator()
+	{
+		final Value[] a = snapshot();
+		return new Iterator< Value>()
+		{
+			private int i = 0;
+
+			public boolean hasNext()
+			{
+				return i < a.length;
+			}
+
+			public Value next()
+			{
+				if ( i >= a.length ) {
+					throw new NoSuchElementException();
+				}
+				final Value value = a[ i ];
+				final int index = i++;
+				return value instanceof ValueImpl && ((ValueImpl) value).isShared()
+					? unshare( index, (ValueImpl) value )
+					: value;
+			}
+		};
+	}
+
+	@Override
+	public void forEach( Consumer< ? super Value> action )
+	{
+		for( Value value : this ) {
+			action.accept( value );
 		}
 	}
 
@@ -130,14 +287,34 @@ class ValueVectorImpl extends ValueVector implements Serializable
 		return false;
 	}
 
-	public synchronized List< Value> valuesCopy()
+	/**
+	 * Returns the values in this vector, without replacing shared values:
+	 * meant for copying them, not for modifying them.
+	 */
+	public List< Value> valuesCopy()
+	{
+		return Arrays.asList( snapshot() );
+	}
+
+	// A copy of the values in this vector, taken without locking unless it races with a writer
+	private Value[] snapshot()
 	{
-		return (List< Value>) values.clone();
+		final Value[] a = values;
+		final int n = size;
+		if ( n <= a.length ) {
+			Value[] copy = Arrays.copyOf( a, n );
+			if ( n == 0 || copy[ n - 1 ] != null ) {
+				return copy;
+			}
+		}
+		synchronized( this ) {
+			return Arrays.copyOf( values, size );
+		}
 	}
 
 	public ValueVectorImpl()
 	{
-		values = new ArrayList<>( 1 );
+		values = EMPTY;
 	}
 }
 
@@ -148,11 +325,6 @@ public abstract class ValueVector implements Iterable< Value>
 		return new ValueVectorImpl();
 	}
 
-	public synchronized Value remove( int i )
-	{
-		return values().remove( i );
-	}
-
 	public static ValueVector createLink( VariablePath path )
 	{
 		return new ValueVectorLink( path );
@@ -174,34 +346,28 @@ public abstract class ValueVector implements Iterable< Value>
 		return retVec;
 	}
 
-	public synchronized Value first()
+	public Value first()
 	{
 		return get( 0 );
 	}
 
-	public synchronized boolean isEmpty()
+	public boolean isEmpty()
 	{
-		return values().isEmpty();
-	}
-
-	public synchronized Iterator< Value> iterator()
-	{
-		return values().iterator();
+		return size() == 0;
 	}
 
 	public abstract Value get( int i );
 
 	public abstract void set( int i, Value value );
 
+	public abstract void add( Value value );
+
+	public abstract Value remove( int i );
+
 	public abstract int size();
 
 	public abstract List< Value> valuesCopy();
 
-	public synchronized void add( Value value )
-	{
-		values().add( value );
-	}
-
 	// TODO: improve performance
 	public synchronized void deepCopy( ValueVector vec )
 	{
@@ -210,7 +376,5 @@ public abstract class ValueVector implements Iterable< Value>
 		}
 	}
 
-	protected abstract List< Value> values();
-
 	public abstract boolean isLink();
 }
@@ -20,6 +20,9 @@
  ***************************************************************************/
 package jolie.runtime;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.function.Consumer;
 import jolie.ExecutionThread;
 import jolie.process.TransformationReason;
 import jolie.runtime.expression.Expression;
@@ -42,6 +45,72 @@ public class VariablePath implements Expression, Cloneable
 
 	private final Pair< Expression, Expression>[] path; // Right Expression may be null
 
+	private static final int NO_INDEX = -1;
+	private static final int DYNAMIC_INDEX = -2;
+
+	// Constant keys (interned) and indexes of the path, resolved when the path is created:
+	// keys[ i ] is null if the key of path[ i ] has to be evaluated, indexes[ i ] is
+	// NO_INDEX if path[ i ] has no index and DYNAMIC_INDEX if it has to be evaluated.
+	private final String[] keys;
+	private final int[] indexes;
+
+	// Inline cache for paths made only of constant segments (see getValue).
+	// Paths outlive the sessions that resolve them, so the cache must not keep their roots
+	// (and trees) alive: the last root is remembered by its identity hash code only,
+	// and the resolution is weakly referenced, so it is dropped by the next garbage collection.
+	private final boolean constant;
+	private volatile int lastRootHash = 0;
+	private volatile WeakReference< Resolution > resolution = null;
+
+	/*
+	 * The resolution of a constant path from a root: the nodes met along the way,
+	 * together with the maps and vectors that were traversed and their versions.
+	 * It still holds as long as none of them changed, the nodes still use the same
+	 * maps and no node was shared by a deep copy (which requires replacing it).
+	 */
+	private static final class Resolution
+	{
+		private final Value root;
+		private final CompactChildrenMap[] maps;
+		private final int[] mapVersions;
+		private final ValueVectorImpl[] vectors;
+		private final int[] vectorVersions;
+		private final ValueImpl[] nodes;
+
+		private Resolution( Value root, int length )
+		{
+			this.root = root;
+			this.maps = new CompactChildrenMap[ length ];
+			this.mapVersions = new int[ length ];
+			this.vectors = new ValueVectorImpl[ length ];
+			this.vectorVersions = new int[ length ];
+			this.nodes = new ValueImpl[ length ];
+		}
+
+		private boolean isValidFor( Value currRoot )
+		{
+			if ( root != currRoot ) {
+				return false;
+			}
+			Value parent = root;
+			for( int i = 0; i < nodes.length; i++ ) {
+				if ( parent.childrenMapOrNull() != maps[ i ]
+					|| maps[ i ].version() != mapVersions[ i ]
+					|| vectors[ i ].version() != vectorVersions[ i ]
+					|| nodes[ i ].isShared() ) {
+					return false;
+				}
+				parent = nodes[ i ];
+			}
+			return true;
+		}
+
+		private Value target()
+		{
+			return nodes[ nodes.length - 1 ];
+		}
+	}
+
 	public final Pair< Expression, Expression>[] path()
 	{
 		return path;
@@ -52,6 +121,15 @@ public class VariablePath implements Expression, Cloneable
 		return false;
 	}
 
+	/**
+	 * Returns true if every key and index of this path is a constant, i.e.,
+	 * if evaluating this path does not evaluate other expressions.
+	 */
+	public final boolean isConstant()
+	{
+		return constant;
+	}
+
 	protected static Pair< Expression, Expression>[] cloneExpressionHelper( Pair< Expression, Expression>[] path, TransformationReason reason )
 	{
 		Pair< Expression, Expression>[] clonedPath = new Pair[ path.length ];
@@ -95,7 +173,7 @@ public class VariablePath implements Expression, Cloneable
 			otherPair = otherVarPath.path[ i ];
 
 			// *.element_name is not a subpath of *.other_name
-			if ( !pair.key().evaluate().strValue().equals( otherPair.key().evaluate().strValue() ) ) {
+			if ( !key( i ).equals( otherVarPath.key( i ) ) ) {
 				return null;
 			}
 
@@ -103,8 +181,8 @@ public class VariablePath implements Expression, Cloneable
 			expr = pair.value();
 			otherExpr = otherPair.value();
 
-			myIndex = (expr == null) ? 0 : expr.evaluate().intValue();
-			otherIndex = (otherExpr == null) ? 0 : otherExpr.evaluate().intValue();
+			myIndex = (expr == null) ? 0 : index( i );
+			otherIndex = (otherExpr == null) ? 0 : otherVarPath.index( i );
 			if ( myIndex != otherIndex ) {
 				return null;
 			}
@@ -121,6 +199,17 @@ public class VariablePath implements Expression, Cloneable
 		return _createVariablePath( subPath );
 	}
 
+	/**
+	 * Returns a copy of this path where the index of the last node is replaced by the given one.
+	 * Paths must not be changed in place, since their constant parts are resolved on creation.
+	 */
+	public final VariablePath withLastIndex( int index )
+	{
+		Pair< Expression, Expression>[] newPath = path.clone();
+		newPath[ path.length - 1 ] = new Pair<>( path[ path.length - 1 ].key(), Value.create( index ) );
+		return _createVariablePath( newPath );
+	}
+
 	protected VariablePath _createVariablePath( Pair< Expression, Expression>[] path )
 	{
 		return new VariablePath( path );
@@ -129,6 +218,40 @@ public class VariablePath implements Expression, Cloneable
 	public VariablePath( Pair< Expression, Expression>[] path )
 	{
 		this.path = path;
+		this.keys = new String[ path.length ];
+		this.indexes = new int[ path.length ];
+		for( int i = 0; i < path.length; i++ ) {
+			Expression key = path[ i ].key();
+			Expression index = path[ i ].value();
+			if ( key instanceof Value ) {
+				keys[ i ] = ((Value) key).strValue().intern();
+			}
+			if ( index == null ) {
+				indexes[ i ] = NO_INDEX;
+			} else if ( index instanceof Value && ((Value) index).intValue() >= 0 ) {
+				indexes[ i ] = ((Value) index).intValue();
+			} else {
+				indexes[ i ] = DYNAMIC_INDEX;
+			}
+		}
+		boolean isConstant = path.length > 0;
+		for( int i = 0; i < path.length; i++ ) {
+			isConstant = isConstant && keys[ i ] != null && indexes[ i ] != DYNAMIC_INDEX;
+		}
+		this.constant = isConstant;
+	}
+
+	private String key( int i )
+	{
+		final String key = keys[ i ];
+		return key != null ? key : path[ i ].key().evaluate().strValue();
+	}
+
+	// Must be called only if path[ i ] has an index
+	private int index( int i )
+	{
+		final int index = indexes[ i ];
+		return index >= 0 ? index : path[ i ].value().evaluate().intValue();
 	}
 
 	protected Value getRootValue()
@@ -146,8 +269,8 @@ public class VariablePath implements Expression, Cloneable
 
 		for( int i = 0; i < path.length; i++ ) {
 			pair = path[ i ];
-			keyStr = pair.key().evaluate().strValue();
-			currVector = currValue.children().get( keyStr );
+			keyStr = key( i );
+			currVector = currValue.getChildrenOrNull( keyStr );
 			if ( currVector == null ) {
 				return;
 			} else if ( currVector.size() < 1 ) {
@@ -163,7 +286,7 @@ public class VariablePath implements Expression, Cloneable
 					currValue.children().remove( keyStr );
 				}
 			} else {
-				index = pair.value().evaluate().intValue();
+				index = index( i );
 				if ( (i + 1) < path.length ) {
 					if ( currVector.size() <= index ) {
 						return;
@@ -185,12 +308,24 @@ public class VariablePath implements Expression, Cloneable
 
 	public final Value getValue( Value currValue )
 	{
-		for( Pair< Expression, Expression> pair : path ) {
-			final String keyStr = pair.key().evaluate().strValue();
+		if ( constant ) {
+			final Resolution r = cachedResolution();
+			if ( r != null && r.isValidFor( currValue ) ) {
+				return r.target();
+			}
+			// Cache only paths resolved twice in a row from the same root
+			final int rootHash = System.identityHashCode( currValue );
+			if ( lastRootHash == rootHash ) {
+				return resolveAndCache( currValue );
+			}
+			lastRootHash = rootHash;
+		}
+
+		for( int i = 0; i < path.length; i++ ) {
 			currValue
-				= pair.value() == null
-				? currValue.getFirstChild( keyStr )
-				: currValue.getChildren( keyStr ).get( pair.value().evaluate().intValue() );
+				= indexes[ i ] == NO_INDEX
+				? currValue.getFirstChild( key( i ) )
+				: currValue.getChildren( key( i ) ).get( index( i ) );
 		}
 
 		return currValue;
@@ -209,7 +344,7 @@ public class VariablePath implements Expression, Cloneable
 		} else {
 			for( int i = 0; i < path.length; i++ ) {
 				pair = path[ i ];
-				keyStr = pair.key().evaluate().strValue();
+				keyStr = key( i );
 				currVector = currValue.getChildren( keyStr );
 				if ( pair.value() == null ) {
 					if ( (i + 1) < path.length ) {
@@ -222,7 +357,7 @@ public class VariablePath implements Expression, Cloneable
 						}
 					}
 				} else {
-					index = pair.value().evaluate().intValue();
+					index = index( i );
 					if ( (i + 1) < path.length ) {
 						currValue = currVector.get( index );
 					} else {
@@ -242,11 +377,54 @@ public class VariablePath implements Expression, Cloneable
 		return getValueOrNull( getRootValue() );
 	}
 
+	private Resolution cachedResolution()
+	{
+		final WeakReference< Resolution > ref = resolution;
+		return ref == null ? null : ref.get();
+	}
+
+	// Resolves this (constant) path like getValue, recording a Resolution if possible
+	private Value resolveAndCache( final Value root )
+	{
+		final Resolution r = new Resolution( root, path.length );
+		boolean cacheable = true;
+		Value currValue = root;
+		for( int i = 0; i < path.length; i++ ) {
+			final Map< String, ValueVector> map = currValue.childrenMapOrNull();
+			final int mapVersion = map instanceof CompactChildrenMap ? ((CompactChildrenMap) map).version() : 0;
+			final ValueVector vector = currValue.getChildren( keys[ i ] );
+			cacheable = cacheable
+				&& map instanceof CompactChildrenMap
+				&& currValue.childrenMapOrNull() == map
+				&& vector instanceof ValueVectorImpl;
+			final int vectorVersion = cacheable ? ((ValueVectorImpl) vector).version() : 0;
+			currValue = vector.get( indexes[ i ] == NO_INDEX ? 0 : indexes[ i ] );
+			cacheable = cacheable && currValue instanceof ValueImpl;
+			if ( cacheable ) {
+				r.maps[ i ] = (CompactChildrenMap) map;
+				r.mapVersions[ i ] = mapVersion;
+				r.vectors[ i ] = (ValueVectorImpl) vector;
+				r.vectorVersions[ i ] = vectorVersion;
+				r.nodes[ i ] = (ValueImpl) currValue;
+			}
+		}
+		if ( cacheable ) {
+			resolution = new WeakReference<>( r );
+		}
+		return currValue;
+	}
+
 	public final Value getValueOrNull( Value currValue )
 	{
+		if ( constant ) {
+			final Resolution r = cachedResolution();
+			if ( r != null && r.isValidFor( currValue ) ) {
+				return r.target();
+			}
+		}
 		for( int i = 0; i < path.length; i++ ) {
 			final Pair< Expression, Expression> pair = path[ i ];
-			final ValueVector currVector = currValue.children().get( pair.key().evaluate().strValue() );
+			final ValueVector currVector = currValue.getChildrenOrNull( key( i ) );
 			if ( currVector == null ) {
 				return null;
 			}
@@ -264,7 +442,7 @@ public class VariablePath implements Expression, Cloneable
 					}
 				}
 			} else {
-				final int index = pair.value().evaluate().intValue();
+				final int index = index( i );
 				if ( currVector.size() <= index ) {
 					return null;
 				}
@@ -283,12 +461,12 @@ public class VariablePath implements Expression, Cloneable
 		ValueVector currVector = null;
 		for( int i = 0; i < path.length; i++ ) {
 			final Pair< Expression, Expression> pair = path[ i ];
-			currVector = currValue.getChildren( pair.key().evaluate().strValue() );
+			currVector = currValue.getChildren( key( i ) );
 			if ( (i + 1) < path.length ) {
 				if ( pair.value() == null ) {
 					currValue = currVector.get( 0 );
 				} else {
-					currValue = currVector.get( pair.value().evaluate().intValue() );
+					currValue = currVector.get( index( i ) );
 				}
 			}
 		}
@@ -300,7 +478,7 @@ public class VariablePath implements Expression, Cloneable
 		ValueVector currVector = null;
 		for( int i = 0; i < path.length; i++ ) {
 			final Pair< Expression, Expression> pair = path[ i ];
-			currVector = currValue.children().get( pair.key().evaluate().strValue() );
+			currVector = currValue.getChildrenOrNull( key( i ) );
 			if ( currVector == null ) {
 				return null;
 			}
@@ -311,7 +489,7 @@ public class VariablePath implements Expression, Cloneable
 					}
 					currValue = currVector.get( 0 );
 				} else {
-					final int index = pair.value().evaluate().intValue();
+					final int index = index( i );
 					if ( currVector.size() <= index ) {
 						return null;
 					}
@@ -340,9 +518,12 @@ public class VariablePath implements Expression, Cloneable
 		int index;
 		String keyStr;
 
+		if ( path.length > 1 ) {
+			ExecutionThread.currentThread().state().nestedLinkCreated();
+		}
 		for( int i = 0; i < path.length; i++ ) {
 			pair = path[ i ];
-			keyStr = pair.key().evaluate().strValue();
+			keyStr = key( i );
 			currVector = currValue.getChildren( keyStr );
 			if ( pair.value() == null ) {
 				if ( (i + 1) < path.length ) {
@@ -351,7 +532,7 @@ public class VariablePath implements Expression, Cloneable
 					currValue.children().put( keyStr, ValueVector.createLink( rightPath ) );
 				}
 			} else {
-				index = pair.value().evaluate().intValue();
+				index = index( i );
 				if ( (i + 1) < path.length ) {
 					currValue = currVector.get( index );
 				} else {
@@ -370,7 +551,7 @@ public class VariablePath implements Expression, Cloneable
 
 		for( int i = 0; i < path.length; i++ ) {
 			pair = path[ i ];
-			currVector = currValue.getChildren( pair.key().evaluate().strValue() );
+			currVector = currValue.getChildren( key( i ) );
 			if ( pair.value() == null ) {
 				if ( (i + 1) < path.length ) {
 					currValue = currVector.get( 0 );
@@ -378,7 +559,7 @@ public class VariablePath implements Expression, Cloneable
 					return currVector;
 				}
 			} else {
-				index = pair.value().evaluate().intValue();
+				index = index( i );
 				if ( (i + 1) < path.length ) {
 					currValue = currVector.get( index );
 				} else {
@@ -393,16 +574,94 @@ public class VariablePath implements Expression, Cloneable
 	@SuppressWarnings( "unchecked" )
 	public final void deepCopy( VariablePath rightPath )
 	{
+		// If this path is inside the copied tree, copy from a snapshot of the latter:
+		// the tree could otherwise end up containing itself through its shared values.
+		final boolean snapshot = rightPath.containedSubPath( this ) != null;
+		final boolean share = !snapshot
+			&& rightPath.isConfined( rightPath.getRootValue() )
+			&& !ExecutionThread.currentThread().state().hasNestedLinks();
+		final boolean toVector = path.length > 0 && path[ path.length - 1 ].value() == null;
+		Value rightValue = null;
+		ValueVector rightVec = null;
+		if ( toVector ) {
+			rightVec = rightPath.getValueVector();
+			if ( snapshot ) {
+				ValueVector vec = ValueVector.create();
+				for( Value v : rightVec ) {
+					vec.add( Value.createDeepCopy( v ) );
+				}
+				rightVec = vec;
+			}
+		} else {
+			rightValue = rightPath.getValue();
+			if ( snapshot ) {
+				rightValue = Value.createDeepCopy( rightValue );
+			}
+		}
+
 		Object myObj = getValueOrValueVector();
 		if ( myObj instanceof Value ) {
-			((Value) myObj).deepCopy( rightPath.getValue() );
+			((Value) myObj).deepCopy( rightValue, share );
 		} else {
 			ValueVector myVec = (ValueVector) myObj;
-			ValueVector rightVec = rightPath.getValueVector();
 			for( int i = 0; i < rightVec.size(); i++ ) {
-				myVec.get( i ).deepCopy( rightVec.get( i ) );
+				myVec.get( i ).deepCopy( rightVec.get( i ), share );
+			}
+		}
+	}
+
+	/**
+	 * Applies operation to val, the value of this path (see {@link #getValue()}).
+	 * The update is atomic (see {@link Value#atomicUpdate(java.util.function.Consumer)})
+	 * if threads other than the current one can reach the value: i.e., if it belongs to the
+	 * global state, to a state where parallel statements are running, or if it is reached
+	 * through a link.
+	 * @param val the value of this path
+	 * @param operation the update to apply to val
+	 */
+	public final void update( Value val, Consumer< Value > operation )
+	{
+		if ( isConfined( getRootValue() ) ) {
+			operation.accept( val );
+		} else {
+			val.atomicUpdate( operation );
+		}
+	}
+
+	/*
+	 * Returns true if only the current thread can reach the value of this path from root:
+	 * root is the root of the state of the current thread, that state is confined
+	 * (see State.isConfined) and the path traverses no link.
+	 */
+	private boolean isConfined( Value root )
+	{
+		final ExecutionThread ethread = ExecutionThread.currentThread();
+		if ( ethread == null || root != ethread.state().root() || !ethread.state().isConfined() ) {
+			return false;
+		}
+		if ( constant ) {
+			// cached resolutions never traverse links
+			final Resolution r = cachedResolution();
+			if ( r != null && r.isValidFor( root ) ) {
+				return true;
+			}
+		}
+		Value currValue = root;
+		for( int i = 0; i < path.length; i++ ) {
+			final ValueVector currVector = currValue.getChildrenOrNull( key( i ) );
+			if ( currVector == null || currVector.isLink() ) {
+				return currVector == null;
+			}
+			final int index = path[ i ].value() == null ? 0 : index( i );
+			if ( index >= currVector.size() ) {
+				return true;
+			}
+			currValue = currVector.get( index );
+			if ( currValue.isLink() ) {
+				return false;
 			}
 		}
+		return true;
 	}
 
 	@Override
@@ -25,6 +25,7 @@ import jolie.SessionListener;
 import jolie.SessionThread;
 import jolie.net.CommChannel;
 import jolie.net.CommMessage;
+import jolie.runtime.SessionRejectedException;
 import jolie.runtime.Value;
 import jolie.runtime.correlation.CorrelationSet.CorrelationPair;
 import jolie.runtime.correlation.impl.SimpleCorrelationEngine;
@@ -74,7 +75,7 @@ public abstract class CorrelationEngine implements SessionListener
 
 	public abstract void onSingleExecutionSessionStart( SessionThread session );
 
-	protected abstract boolean routeMessage( CommMessage message, CommChannel channel );
+	protected abstract boolean routeMessage( CommMessage message, CommChannel channel, Runnable onAccepted );
 
 	private final Interpreter interpreter;
 
@@ -105,14 +106,30 @@ public abstract class CorrelationEngine implements SessionListener
 	}
 
 	public void onMessageReceive( final CommMessage message, final CommChannel channel )
-		throws CorrelationError
+		throws CorrelationError, SessionRejectedException
 	{
-		if ( routeMessage( message, channel ) ) {
+		onMessageReceive( message, channel, null );
+	}
+
+	/**
+	 * Routes a received message to its correlating session, or starts a new
+	 * session for it.
+	 * @param message the received message
+	 * @param channel the channel the message was received on
+	 * @param onAccepted if not {@code null}, run once the message has been
+	 * accepted and before any session can consume it
+	 * @throws CorrelationError if no session can handle the message
+	 * @throws SessionRejectedException if the session admission policy rejects the message
+	 */
+	public void onMessageReceive( final CommMessage message, final CommChannel channel, final Runnable onAccepted )
+		throws CorrelationError, SessionRejectedException
+	{
+		if ( routeMessage( message, channel, onAccepted ) ) {
 			return;
 		}
 
 		// We did not find any correlating session
-		if ( interpreter.startServiceSession( message, channel ) ) {
+		if ( interpreter.startServiceSession( message, channel, onAccepted ) ) {
 			return;
 		}
 
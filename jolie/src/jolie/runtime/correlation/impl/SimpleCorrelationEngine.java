@@ -51,11 +51,11 @@ public class SimpleCorrelationEngine extends CorrelationEngine
 		super( interpreter );
 	}
 
-	public boolean routeMessage( CommMessage message, CommChannel channel )
+	public boolean routeMessage( CommMessage message, CommChannel channel, Runnable onAccepted )
 	{
 		for( SessionThread session : sessions ) {
 			if ( correlate( session, message ) ) {
-				session.pushMessage( new SessionMessage( message, channel ) );
+				session.pushMessage( new SessionMessage( message, channel ), onAccepted );
 				return true;
 			}
 		}
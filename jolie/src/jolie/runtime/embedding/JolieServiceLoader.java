@@ -48,7 +48,9 @@ public class JolieServiceLoader extends EmbeddedServiceLoader
 		interpreter = new Interpreter(
 			newArgs,
 			currInterpreter.getClassLoader(),
-			currInterpreter.programDirectory()
+			currInterpreter.programDirectory(),
+			false,
+			currInterpreter.commCore().resources()
 		);
 	}
 
@@ -51,13 +51,24 @@ public class AndCondition implements Expression
 	 * @return true if every condition is satisfied, false otherwise.
 	 */
 	public Value evaluate()
+	{
+		return Value.create( evaluateBool() );
+	}
+
+	@Override
+	public boolean evaluateBool()
 	{
 		for( Expression condition : children ) {
-			if ( condition.evaluate().boolValue() == false ) {
-				return Value.create( false );
+			if ( condition.evaluateBool() == false ) {
+				return false;
 			}
 		}
 
-		return Value.create( true );
+		return true;
+	}
+
+	Expression[] children()
+	{
+		return children;
 	}
 }
@@ -41,4 +41,9 @@ public class CastBoolExpression implements Expression
 	{
 		return Value.create( expression.evaluate().boolValue() );
 	}
+
+	Expression expression()
+	{
+		return expression;
+	}
 }
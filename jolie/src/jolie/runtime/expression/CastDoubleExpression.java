@@ -41,4 +41,9 @@ public class CastDoubleExpression implements Expression
 	{
 		return Value.create( expression.evaluate().doubleValue() );
 	}
+
+	Expression expression()
+	{
+		return expression;
+	}
 }
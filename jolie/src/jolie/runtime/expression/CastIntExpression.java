@@ -41,4 +41,9 @@ public class CastIntExpression implements Expression
 	{
 		return Value.create( expression.evaluate().intValue() );
 	}
+
+	Expression expression()
+	{
+		return expression;
+	}
 }
@@ -41,4 +41,9 @@ public class CastLongExpression implements Expression
 	{
 		return Value.create( expression.evaluate().longValue() );
 	}
+
+	Expression expression()
+	{
+		return expression;
+	}
 }
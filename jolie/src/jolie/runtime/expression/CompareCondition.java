@@ -52,6 +52,27 @@ public class CompareCondition implements Expression
 
 	public Value evaluate()
 	{
-		return Value.create( compareOperator.test( leftExpression.evaluate(), rightExpression.evaluate() ) );
+		return Value.create( evaluateBool() );
+	}
+
+	@Override
+	public boolean evaluateBool()
+	{
+		return compareOperator.test( leftExpression.evaluate(), rightExpression.evaluate() );
+	}
+
+	Expression leftExpression()
+	{
+		return leftExpression;
+	}
+
+	Expression rightExpression()
+	{
+		return rightExpression;
+	}
+
+	BiPredicate< Value, Value> compareOperator()
+	{
+		return compareOperator;
 	}
 }
@@ -30,6 +30,26 @@ public interface Expression
 
 	public Expression cloneExpression( TransformationReason reason );
 
+	/**
+	 * Evaluates this expression as a boolean, like <code>evaluate().boolValue()</code>.
+	 * Conditions override this to avoid creating an intermediate Value.
+	 * @return the boolean value of this expression
+	 */
+	default boolean evaluateBool()
+	{
+		return evaluate().boolValue();
+	}
+
+	/**
+	 * Evaluates this expression and assigns the result to target,
+	 * like <code>target.assignValue( evaluate() )</code>.
+	 * @param target the value receiving the result of this expression
+	 */
+	default void evaluateInto( Value target )
+	{
+		target.assignValue( evaluate() );
+	}
+
 	public class Operand
 	{
 		private final Constants.OperandType type;
@@ -0,0 +1,1060 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.runtime.expression;
+
+import java.util.function.BiPredicate;
+import jolie.lang.Constants;
+import jolie.runtime.CompareOperators;
+import jolie.runtime.Value;
+import jolie.runtime.VariablePath;
+
+/**
+ * Compiles arithmetic and boolean expression trees to trees of nodes that
+ * compute on primitive values, without creating intermediate Values.
+ *
+ * Only trees whose leaves are constants or constant variable paths are compiled,
+ * since evaluating them has no side effects. The type of each operator is decided
+ * at compilation time: where the semantics of an operator depend on the type of a
+ * variable, the compiled node assumes the type that the variable has at compilation
+ * time and throws {@link #DEOPTIMIZATION} if it finds a different one, so that the
+ * caller can evaluate the original expression instead.
+ */
+final class ExpressionCompiler
+{
+	static final int DYNAMIC = 0;
+	static final int INT = 1;
+	static final int LONG = 2;
+	static final int DOUBLE = 3;
+	static final int BOOL = 4;
+
+	static final class Deoptimization extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+
+		private Deoptimization()
+		{
+			super( null, null, false, false );
+		}
+	}
+
+	static final Deoptimization DEOPTIMIZATION = new Deoptimization();
+
+	private ExpressionCompiler()
+	{}
+
+	/**
+	 * Returns true if expression is an operator that can be compiled,
+	 * depending on the types its variables will have.
+	 */
+	static boolean isCompilable( Expression expression )
+	{
+		return isOperator( expression ) && isCompilableTree( expression );
+	}
+
+	/**
+	 * Compiles expression using the current types of its variables.
+	 * @return the compiled expression, or null if it cannot be compiled with these types
+	 */
+	static Node compile( Expression expression )
+	{
+		return compile( expression, true );
+	}
+
+	private static boolean isOperator( Expression e )
+	{
+		return e instanceof SumExpression || e instanceof ProductExpression
+			|| e instanceof CompareCondition || e instanceof AndCondition
+			|| e instanceof OrCondition || e instanceof NotExpression
+			|| e instanceof CastIntExpression || e instanceof CastLongExpression
+			|| e instanceof CastDoubleExpression || e instanceof CastBoolExpression;
+	}
+
+	private static boolean isCompilableTree( Expression e )
+	{
+		if ( e instanceof Value ) {
+			return true;
+		} else if ( e instanceof VariablePath ) {
+			return ((VariablePath) e).isConstant();
+		} else if ( e instanceof SumExpression ) {
+			return areCompilable( ((SumExpression) e).operands() );
+		} else if ( e instanceof ProductExpression ) {
+			return areCompilable( ((ProductExpression) e).operands() );
+		} else if ( e instanceof CompareCondition ) {
+			CompareCondition c = (CompareCondition) e;
+			return isCompilableTree( c.leftExpression() ) && isCompilableTree( c.rightExpression() );
+		} else if ( e instanceof AndCondition ) {
+			return areCompilable( ((AndCondition) e).children() );
+		} else if ( e instanceof OrCondition ) {
+			return areCompilable( ((OrCondition) e).children() );
+		} else if ( e instanceof NotExpression ) {
+			return isCompilableTree( ((NotExpression) e).expression() );
+		} else if ( e instanceof CastIntExpression ) {
+			return isCompilableTree( ((CastIntExpression) e).expression() );
+		} else if ( e instanceof CastLongExpression ) {
+			return isCompilableTree( ((CastLongExpression) e).expression() );
+		} else if ( e instanceof CastDoubleExpression ) {
+			return isCompilableTree( ((CastDoubleExpression) e).expression() );
+		} else if ( e instanceof CastBoolExpression ) {
+			return isCompilableTree( ((CastBoolExpression) e).expression() );
+		}
+		return false;
+	}
+
+	private static boolean areCompilable( Expression.Operand[] operands )
+	{
+		for( Expression.Operand operand : operands ) {
+			if ( !isCompilableTree( operand.expression() ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean areCompilable( Expression[] expressions )
+	{
+		for( Expression expression : expressions ) {
+			if ( !isCompilableTree( expression ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int kindOf( Value value )
+	{
+		if ( value.isInt() ) {
+			return INT;
+		} else if ( value.isLong() ) {
+			return LONG;
+		} else if ( value.isDouble() ) {
+			return DOUBLE;
+		} else if ( value.isBool() ) {
+			return BOOL;
+		}
+		return DYNAMIC;
+	}
+
+	/*
+	 * If typed is false, the result is only going to be converted
+	 * (e.g., by a cast), so its node can be DYNAMIC.
+	 */
+	private static Node compile( Expression e, boolean typed )
+	{
+		if ( e instanceof Value ) {
+			Value value = (Value) e;
+			switch( kindOf( value ) ) {
+				case INT:
+					return new IntConstant( value.intValue() );
+				case LONG:
+					return new LongConstant( value.longValue() );
+				case DOUBLE:
+					return new DoubleConstant( value.doubleValue() );
+				case BOOL:
+					return new BoolConstant( value.boolValue() );
+				default:
+					return typed ? null : new DynamicNode( value );
+			}
+		} else if ( e instanceof VariablePath ) {
+			VariablePath path = (VariablePath) e;
+			if ( !typed ) {
+				return new DynamicNode( path );
+			}
+			switch( kindOf( path.evaluate() ) ) {
+				case INT:
+					return new IntVariable( path );
+				case LONG:
+					return new LongVariable( path );
+				case DOUBLE:
+					return new DoubleVariable( path );
+				case BOOL:
+					return new BoolVariable( path );
+				default:
+					return null;
+			}
+		} else if ( e instanceof SumExpression ) {
+			return compileSum( ((SumExpression) e).operands() );
+		} else if ( e instanceof ProductExpression ) {
+			return compileProduct( ((ProductExpression) e).operands() );
+		} else if ( e instanceof CompareCondition ) {
+			return compileComparison( (CompareCondition) e );
+		} else if ( e instanceof AndCondition ) {
+			Node[] children = compileAll( ((AndCondition) e).children() );
+			return children == null ? null : new And( children );
+		} else if ( e instanceof OrCondition ) {
+			Node[] children = compileAll( ((OrCondition) e).children() );
+			return children == null ? null : new Or( children );
+		} else if ( e instanceof NotExpression ) {
+			Node child = compile( ((NotExpression) e).expression(), false );
+			return child == null ? null : new Not( child );
+		} else if ( e instanceof CastIntExpression ) {
+			Node child = compile( ((CastIntExpression) e).expression(), false );
+			return child == null ? null : new CastInt( child );
+		} else if ( e instanceof CastLongExpression ) {
+			Node child = compile( ((CastLongExpression) e).expression(), false );
+			return child == null ? null : new CastLong( child );
+		} else if ( e instanceof CastDoubleExpression ) {
+			Node child = compile( ((CastDoubleExpression) e).expression(), false );
+			return child == null ? null : new CastDouble( child );
+		} else if ( e instanceof CastBoolExpression ) {
+			Node child = compile( ((CastBoolExpression) e).expression(), false );
+			return child == null ? null : new CastBool( child );
+		}
+		return null;
+	}
+
+	private static Node[] compileAll( Expression[] expressions )
+	{
+		Node[] nodes = new Node[ expressions.length ];
+		for( int i = 0; i < expressions.length; i++ ) {
+			if ( (nodes[ i ] = compile( expressions[ i ], false )) == null ) {
+				return null;
+			}
+		}
+		return nodes;
+	}
+
+	// Follows Value.add and Value.subtract: the first operand decides the type of the result,
+	// while any string operand turns the sum into a concatenation (hence all operands are typed).
+	private static Node compileSum( Expression.Operand[] operands )
+	{
+		Node[] nodes = new Node[ operands.length ];
+		boolean[] subtract = new boolean[ operands.length ];
+		for( int i = 0; i < operands.length; i++ ) {
+			if ( (nodes[ i ] = compile( operands[ i ].expression(), true )) == null ) {
+				return null;
+			}
+			subtract[ i ] = operands[ i ].type() == Constants.OperandType.SUBTRACT;
+		}
+		switch( nodes[ 0 ].kind() ) {
+			case INT:
+				return new IntSum( nodes, subtract );
+			case LONG:
+				return new LongSum( nodes, subtract );
+			case DOUBLE:
+				return new DoubleSum( nodes, subtract );
+			default:
+				return new BoolSum( nodes, subtract );
+		}
+	}
+
+	// Follows Value.multiply, Value.divide and Value.modulo: only the first operand is typed.
+	private static Node compileProduct( Expression.Operand[] operands )
+	{
+		Node[] nodes = new Node[ operands.length ];
+		Constants.OperandType[] types = new Constants.OperandType[ operands.length ];
+		for( int i = 0; i < operands.length; i++ ) {
+			if ( (nodes[ i ] = compile( operands[ i ].expression(), i == 0 )) == null ) {
+				return null;
+			}
+			types[ i ] = operands[ i ].type();
+		}
+		switch( nodes[ 0 ].kind() ) {
+			case INT:
+				return new IntProduct( nodes, types );
+			case LONG:
+				return new LongProduct( nodes, types );
+			case DOUBLE:
+				return new DoubleProduct( nodes, types );
+			default:
+				return new BoolProduct( nodes, types );
+		}
+	}
+
+	// Follows CompareOperators: equality also needs the right operand to be defined.
+	private static Node compileComparison( CompareCondition condition )
+	{
+		final BiPredicate< Value, Value> operator = condition.compareOperator();
+		final boolean equality = operator == CompareOperators.EQUAL || operator == CompareOperators.NOT_EQUAL;
+		final Node left = compile( condition.leftExpression(), true );
+		final Node right = compile( condition.rightExpression(), equality );
+		if ( left == null || right == null ) {
+			return null;
+		}
+		if ( equality ) {
+			return new Equal( left, right, operator == CompareOperators.NOT_EQUAL );
+		}
+		final Comparison comparison
+			= operator == CompareOperators.MINOR ? Comparison.MINOR
+				: operator == CompareOperators.MAJOR ? Comparison.MAJOR
+					: operator == CompareOperators.MINOR_OR_EQUAL ? Comparison.MINOR_OR_EQUAL
+						: operator == CompareOperators.MAJOR_OR_EQUAL ? Comparison.MAJOR_OR_EQUAL
+							: null;
+		return comparison == null ? null : new Compare( left, right, comparison );
+	}
+
+	/**
+	 * A compiled expression. Every node can be evaluated to any primitive type,
+	 * with the same conversions that Value applies to the type of the node.
+	 */
+	abstract static class Node
+	{
+		abstract int kind();
+
+		abstract int evalInt();
+
+		abstract long evalLong();
+
+		abstract double evalDouble();
+
+		abstract boolean evalBool();
+
+		abstract Value toValue();
+
+		abstract void assignTo( Value target );
+	}
+
+	private abstract static class IntNode extends Node
+	{
+		int kind()
+		{
+			return INT;
+		}
+
+		long evalLong()
+		{
+			return evalInt();
+		}
+
+		double evalDouble()
+		{
+			return evalInt();
+		}
+
+		boolean evalBool()
+		{
+			return evalInt() > 0;
+		}
+
+		Value toValue()
+		{
+			return Value.create( evalInt() );
+		}
+
+		void assignTo( Value target )
+		{
+			target.setValue( evalInt() );
+		}
+	}
+
+	private abstract static class LongNode extends Node
+	{
+		int kind()
+		{
+			return LONG;
+		}
+
+		int evalInt()
+		{
+			return (int) evalLong();
+		}
+
+		double evalDouble()
+		{
+			return evalLong();
+		}
+
+		boolean evalBool()
+		{
+			return evalLong() > 0L;
+		}
+
+		Value toValue()
+		{
+			return Value.create( evalLong() );
+		}
+
+		void assignTo( Value target )
+		{
+			target.setValue( evalLong() );
+		}
+	}
+
+	private abstract static class DoubleNode extends Node
+	{
+		int kind()
+		{
+			return DOUBLE;
+		}
+
+		int evalInt()
+		{
+			return (int) evalDouble();
+		}
+
+		long evalLong()
+		{
+			return (long) evalDouble();
+		}
+
+		boolean evalBool()
+		{
+			return (long) evalDouble() > 0L;
+		}
+
+		Value toValue()
+		{
+			return Value.create( evalDouble() );
+		}
+
+		void assignTo( Value target )
+		{
+			target.setValue( evalDouble() );
+		}
+	}
+
+	private abstract static class BoolNode extends Node
+	{
+		int kind()
+		{
+			return BOOL;
+		}
+
+		int evalInt()
+		{
+			return evalBool() ? 1 : 0;
+		}
+
+		long evalLong()
+		{
+			return evalBool() ? 1L : 0L;
+		}
+
+		double evalDouble()
+		{
+			return evalBool() ? 1.0 : 0.0;
+		}
+
+		Value toValue()
+		{
+			return Value.create( evalBool() );
+		}
+
+		void assignTo( Value target )
+		{
+			target.setValue( evalBool() );
+		}
+	}
+
+	private static final class IntConstant extends IntNode
+	{
+		private final int value;
+
+		private IntConstant( int value )
+		{
+			this.value = value;
+		}
+
+		int evalInt()
+		{
+			return value;
+		}
+	}
+
+	private static final class LongConstant extends LongNode
+	{
+		private final long value;
+
+		private LongConstant( long value )
+		{
+			this.value = value;
+		}
+
+		long evalLong()
+		{
+			return value;
+		}
+	}
+
+	private static final class DoubleConstant extends DoubleNode
+	{
+		private final double value;
+
+		private DoubleConstant( double value )
+		{
+			this.value = value;
+		}
+
+		double evalDouble()
+		{
+			return value;
+		}
+	}
+
+	private static final class BoolConstant extends BoolNode
+	{
+		private final boolean value;
+
+		private BoolConstant( boolean value )
+		{
+			this.value = value;
+		}
+
+		boolean evalBool()
+		{
+			return value;
+		}
+	}
+
+	private static final class IntVariable extends IntNode
+	{
+		private final VariablePath path;
+
+		private IntVariable( VariablePath path )
+		{
+			this.path = path;
+		}
+
+		int evalInt()
+		{
+			final Value value = path.evaluate();
+			if ( value.isInt() ) {
+				return value.intValue();
+			}
+			throw DEOPTIMIZATION;
+		}
+	}
+
+	private static final class LongVariable extends LongNode
+	{
+		private final VariablePath path;
+
+		private LongVariable( VariablePath path )
+		{
+			this.path = path;
+		}
+
+		long evalLong()
+		{
+			final Value value = path.evaluate();
+			if ( value.isLong() ) {
+				return value.longValue();
+			}
+			throw DEOPTIMIZATION;
+		}
+	}
+
+	private static final class DoubleVariable extends DoubleNode
+	{
+		private final VariablePath path;
+
+		private DoubleVariable( VariablePath path )
+		{
+			this.path = path;
+		}
+
+		double evalDouble()
+		{
+			final Value value = path.evaluate();
+			if ( value.isDouble() ) {
+				return value.doubleValue();
+			}
+			throw DEOPTIMIZATION;
+		}
+	}
+
+	private static final class BoolVariable extends BoolNode
+	{
+		private final VariablePath path;
+
+		private BoolVariable( VariablePath path )
+		{
+			this.path = path;
+		}
+
+		boolean evalBool()
+		{
+			final Value value = path.evaluate();
+			if ( value.isBool() ) {
+				return value.boolValue();
+			}
+			throw DEOPTIMIZATION;
+		}
+	}
+
+	// A constant or a constant path whose value is only converted, whatever its type
+	private static final class DynamicNode extends Node
+	{
+		private final Expression expression;
+
+		private DynamicNode( Expression expression )
+		{
+			this.expression = expression;
+		}
+
+		int kind()
+		{
+			return DYNAMIC;
+		}
+
+		int evalInt()
+		{
+			return expression.evaluate().intValue();
+		}
+
+		long evalLong()
+		{
+			return expression.evaluate().longValue();
+		}
+
+		double evalDouble()
+		{
+			return expression.evaluate().doubleValue();
+		}
+
+		boolean evalBool()
+		{
+			return expression.evaluate().boolValue();
+		}
+
+		Value toValue()
+		{
+			return Value.create( expression.evaluate() );
+		}
+
+		void assignTo( Value target )
+		{
+			target.assignValue( expression.evaluate() );
+		}
+	}
+
+	private static final class IntSum extends IntNode
+	{
+		private final Node[] operands;
+		private final boolean[] subtract;
+
+		private IntSum( Node[] operands, boolean[] subtract )
+		{
+			this.operands = operands;
+			this.subtract = subtract;
+		}
+
+		int evalInt()
+		{
+			int result = operands[ 0 ].evalInt();
+			for( int i = 1; i < operands.length; i++ ) {
+				if ( subtract[ i ] ) {
+					result -= operands[ i ].evalInt();
+				} else {
+					result += operands[ i ].evalInt();
+				}
+			}
+			return result;
+		}
+	}
+
+	private static final class LongSum extends LongNode
+	{
+		private final Node[] operands;
+		private final boolean[] subtract;
+
+		private LongSum( Node[] operands, boolean[] subtract )
+		{
+			this.operands = operands;
+			this.subtract = subtract;
+		}
+
+		long evalLong()
+		{
+			long result = operands[ 0 ].evalLong();
+			for( int i = 1; i < operands.length; i++ ) {
+				if ( subtract[ i ] ) {
+					result -= operands[ i ].evalLong();
+				} else {
+					result += operands[ i ].evalLong();
+				}
+			}
+			return result;
+		}
+	}
+
+	private static final class DoubleSum extends DoubleNode
+	{
+		private final Node[] operands;
+		private final boolean[] subtract;
+
+		private DoubleSum( Node[] operands, boolean[] subtract )
+		{
+			this.operands = operands;
+			this.subtract = subtract;
+		}
+
+		double evalDouble()
+		{
+			double result = operands[ 0 ].evalDouble();
+			for( int i = 1; i < operands.length; i++ ) {
+				if ( subtract[ i ] ) {
+					result -= operands[ i ].evalDouble();
+				} else {
+					result += operands[ i ].evalDouble();
+				}
+			}
+			return result;
+		}
+	}
+
+	// Subtracting from a bool leaves it unchanged, adding to it is a "logical or"
+	private static final class BoolSum extends BoolNode
+	{
+		private final Node[] operands;
+		private final boolean[] subtract;
+
+		private BoolSum( Node[] operands, boolean[] subtract )
+		{
+			this.operands = operands;
+			this.subtract = subtract;
+		}
+
+		boolean evalBool()
+		{
+			boolean result = operands[ 0 ].evalBool();
+			for( int i = 1; i < operands.length; i++ ) {
+				final boolean operand = operands[ i ].evalBool();
+				if ( !subtract[ i ] ) {
+					result = result || operand;
+				}
+			}
+			return result;
+		}
+	}
+
+	private static final class IntProduct extends IntNode
+	{
+		private final Node[] operands;
+		private final Constants.OperandType[] types;
+
+		private IntProduct( Node[] operands, Constants.OperandType[] types )
+		{
+			this.operands = operands;
+			this.types = types;
+		}
+
+		int evalInt()
+		{
+			int result = operands[ 0 ].evalInt();
+			for( int i = 1; i < operands.length; i++ ) {
+				switch( types[ i ] ) {
+					case MULTIPLY:
+						result *= operands[ i ].evalInt();
+						break;
+					case DIVIDE:
+						result /= operands[ i ].evalInt();
+						break;
+					case MODULUS:
+						result %= operands[ i ].evalInt();
+						break;
+				}
+			}
+			return result;
+		}
+	}
+
+	private static final class LongProduct extends LongNode
+	{
+		private final Node[] operands;
+		private final Constants.OperandType[] types;
+
+		private LongProduct( Node[] operands, Constants.OperandType[] types )
+		{
+			this.operands = operands;
+			this.types = types;
+		}
+
+		long evalLong()
+		{
+			long result = operands[ 0 ].evalLong();
+			for( int i = 1; i < operands.length; i++ ) {
+				switch( types[ i ] ) {
+					case MULTIPLY:
+						result *= operands[ i ].evalLong();
+						break;
+					case DIVIDE:
+						result /= operands[ i ].evalLong();
+						break;
+					case MODULUS:
+						result %= operands[ i ].evalLong();
+						break;
+				}
+			}
+			return result;
+		}
+	}
+
+	private static final class DoubleProduct extends DoubleNode
+	{
+		private final Node[] operands;
+		private final Constants.OperandType[] types;
+
+		private DoubleProduct( Node[] operands, Constants.OperandType[] types )
+		{
+			this.operands = operands;
+			this.types = types;
+		}
+
+		double evalDouble()
+		{
+			double result = operands[ 0 ].evalDouble();
+			for( int i = 1; i < operands.length; i++ ) {
+				switch( types[ i ] ) {
+					case MULTIPLY:
+						result *= operands[ i ].evalDouble();
+						break;
+					case DIVIDE:
+						result /= operands[ i ].evalDouble();
+						break;
+					case MODULUS:
+						result %= operands[ i ].evalDouble();
+						break;
+				}
+			}
+			return result;
+		}
+	}
+
+	// Multiplying a bool is a "logical and", dividing it leaves it unchanged
+	private static final class BoolProduct extends BoolNode
+	{
+		private final Node[] operands;
+		private final Constants.OperandType[] types;
+
+		private BoolProduct( Node[] operands, Constants.OperandType[] types )
+		{
+			this.operands = operands;
+			this.types = types;
+		}
+
+		boolean evalBool()
+		{
+			boolean result = operands[ 0 ].evalBool();
+			for( int i = 1; i < operands.length; i++ ) {
+				if ( types[ i ] == Constants.OperandType.MULTIPLY ) {
+					final boolean operand = operands[ i ].evalBool();
+					result = result && operand;
+				}
+			}
+			return result;
+		}
+	}
+
+	private static final class Equal extends BoolNode
+	{
+		private final Node left, right;
+		private final boolean negated;
+
+		private Equal( Node left, Node right, boolean negated )
+		{
+			this.left = left;
+			this.right = right;
+			this.negated = negated;
+		}
+
+		boolean evalBool()
+		{
+			final boolean equal;
+			switch( left.kind() ) {
+				case INT:
+					equal = left.evalInt() == right.evalInt();
+					break;
+				case LONG:
+					equal = left.evalLong() == right.evalLong();
+					break;
+				case DOUBLE:
+					equal = left.evalDouble() == right.evalDouble();
+					break;
+				default:
+					equal = left.evalBool() == right.evalBool();
+					break;
+			}
+			return equal != negated;
+		}
+	}
+
+	private enum Comparison
+	{
+		MINOR, MAJOR, MINOR_OR_EQUAL, MAJOR_OR_EQUAL;
+
+		private boolean test( int order )
+		{
+			switch( this ) {
+				case MINOR:
+					return order < 0;
+				case MAJOR:
+					return order > 0;
+				case MINOR_OR_EQUAL:
+					return order <= 0;
+				default:
+					return order >= 0;
+			}
+		}
+	}
+
+	private static final class Compare extends BoolNode
+	{
+		private final Node left, right;
+		private final Comparison comparison;
+
+		private Compare( Node left, Node right, Comparison comparison )
+		{
+			this.left = left;
+			this.right = right;
+			this.comparison = comparison;
+		}
+
+		boolean evalBool()
+		{
+			switch( left.kind() ) {
+				case DOUBLE:
+					return compare( left.evalDouble(), right.evalDouble() );
+				case LONG:
+					return comparison.test( Long.compare( left.evalLong(), right.evalLong() ) );
+				default:
+					return comparison.test( Integer.compare( left.evalInt(), right.evalInt() ) );
+			}
+		}
+
+		// Double.compare would order NaN and -0.0, which the relational operators do not
+		private boolean compare( double l, double r )
+		{
+			switch( comparison ) {
+				case MINOR:
+					return l < r;
+				case MAJOR:
+					return l > r;
+				case MINOR_OR_EQUAL:
+					return l <= r;
+				default:
+					return l >= r;
+			}
+		}
+	}
+
+	private static final class And extends BoolNode
+	{
+		private final Node[] children;
+
+		private And( Node[] children )
+		{
+			this.children = children;
+		}
+
+		boolean evalBool()
+		{
+			for( Node child : children ) {
+				if ( !child.evalBool() ) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static final class Or extends BoolNode
+	{
+		private final Node[] children;
+
+		private Or( Node[] children )
+		{
+			this.children = children;
+		}
+
+		boolean evalBool()
+		{
+			for( Node child : children ) {
+				if ( child.evalBool() ) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static final class Not extends BoolNode
+	{
+		private final Node child;
+
+		private Not( Node child )
+		{
+			this.child = child;
+		}
+
+		boolean evalBool()
+		{
+			return !child.evalBool();
+		}
+	}
+
+	private static final class CastInt extends IntNode
+	{
+		private final Node child;
+
+		private CastInt( Node child )
+		{
+			this.child = child;
+		}
+
+		int evalInt()
+		{
+			return child.evalInt();
+		}
+	}
+
+	private static final class CastLong extends LongNode
+	{
+		private final Node child;
+
+		private CastLong( Node child )
+		{
+			this.child = child;
+		}
+
+		long evalLong()
+		{
+			return child.evalLong();
+		}
+	}
+
+	private static final class CastDouble extends DoubleNode
+	{
+		private final Node child;
+
+		private CastDouble( Node child )
+		{
+			this.child = child;
+		}
+
+		double evalDouble()
+		{
+			return child.evalDouble();
+		}
+	}
+
+	private static final class CastBool extends BoolNode
+	{
+		private final Node child;
+
+		private CastBool( Node child )
+		{
+			this.child = child;
+		}
+
+		boolean evalBool()
+		{
+			return child.evalBool();
+		}
+	}
+}
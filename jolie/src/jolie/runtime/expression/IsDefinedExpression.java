@@ -46,7 +46,7 @@ public class IsDefinedExpression implements Expression
 			if ( v.isDefined() ) {
 				def = true;
 			} else {
-				def = !v.children().isEmpty();
+				def = v.hasChildren();
 			}
 		}
 
@@ -39,6 +39,17 @@ public class NotExpression implements Expression
 
 	public Value evaluate()
 	{
-		return Value.create( !(expression.evaluate().boolValue()) );
+		return Value.create( evaluateBool() );
+	}
+
+	@Override
+	public boolean evaluateBool()
+	{
+		return !expression.evaluateBool();
+	}
+
+	Expression expression()
+	{
+		return expression;
 	}
 }
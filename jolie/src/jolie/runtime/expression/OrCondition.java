@@ -38,13 +38,24 @@ public class OrCondition implements Expression
 	}
 
 	public Value evaluate()
+	{
+		return Value.create( evaluateBool() );
+	}
+
+	@Override
+	public boolean evaluateBool()
 	{
 		for( Expression cond : children ) {
-			if ( cond.evaluate().boolValue() ) {
-				return Value.create( true );
+			if ( cond.evaluateBool() ) {
+				return true;
 			}
 		}
 
-		return Value.create( false );
+		return false;
+	}
+
+	Expression[] children()
+	{
+		return children;
 	}
 }
@@ -63,4 +63,9 @@ public class ProductExpression implements Expression
 
 		return val;
 	}
+
+	Operand[] operands()
+	{
+		return children;
+	}
 }
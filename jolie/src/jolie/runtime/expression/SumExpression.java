@@ -59,4 +59,9 @@ public final class SumExpression implements Expression
 
 		return val;
 	}
+
+	Operand[] operands()
+	{
+		return children;
+	}
 }
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.runtime.expression;
+
+import jolie.process.TransformationReason;
+import jolie.runtime.Value;
+
+/**
+ * Evaluates an arithmetic or boolean expression with the interpreter until it
+ * becomes hot, and then through the version compiled by {@link ExpressionCompiler}.
+ *
+ * The compiled version assumes the types that the variables of the expression
+ * had when it was compiled. If one of them changes, the evaluation falls back to
+ * the interpreter and the expression is compiled again once it becomes hot again,
+ * up to a fixed number of times.
+ */
+public final class TieredExpression implements Expression
+{
+	private static final int MAX_COMPILATIONS = 4;
+
+	private final Expression expression;
+	private final int threshold;
+	private volatile ExpressionCompiler.Node compiled = null;
+	// Updated without synchronisation, they only decide when to compile
+	private int evaluations = 0;
+	private int compilations = 0;
+
+	private TieredExpression( Expression expression, int threshold )
+	{
+		this.expression = expression;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Returns a tiered version of expression if it may be compiled, or expression itself otherwise.
+	 * @param expression the expression to evaluate
+	 * @param threshold the number of evaluations after which expression is compiled, 0 to never compile it
+	 */
+	public static Expression create( Expression expression, int threshold )
+	{
+		if ( threshold > 0 && ExpressionCompiler.isCompilable( expression ) ) {
+			return new TieredExpression( expression, threshold );
+		}
+		return expression;
+	}
+
+	@Override
+	public Expression cloneExpression( TransformationReason reason )
+	{
+		return new TieredExpression( expression.cloneExpression( reason ), threshold );
+	}
+
+	@Override
+	public Value evaluate()
+	{
+		final ExpressionCompiler.Node node = compiled;
+		if ( node != null ) {
+			try {
+				return node.toValue();
+			} catch( ExpressionCompiler.Deoptimization d ) {
+				deoptimize( node );
+			}
+		} else {
+			profile();
+		}
+		return expression.evaluate();
+	}
+
+	@Override
+	public boolean evaluateBool()
+	{
+		final ExpressionCompiler.Node node = compiled;
+		if ( node != null ) {
+			try {
+				return node.evalBool();
+			} catch( ExpressionCompiler.Deoptimization d ) {
+				deoptimize( node );
+			}
+		} else {
+			profile();
+		}
+		return expression.evaluateBool();
+	}
+
+	@Override
+	public void evaluateInto( Value target )
+	{
+		final ExpressionCompiler.Node node = compiled;
+		if ( node != null ) {
+			try {
+				node.assignTo( target );
+				return;
+			} catch( ExpressionCompiler.Deoptimization d ) {
+				deoptimize( node );
+			}
+		} else {
+			profile();
+		}
+		expression.evaluateInto( target );
+	}
+
+	private void profile()
+	{
+		if ( compilations < MAX_COMPILATIONS && ++evaluations >= threshold ) {
+			evaluations = 0;
+			compilations++;
+			compiled = ExpressionCompiler.compile( expression );
+		}
+	}
+
+	private void deoptimize( ExpressionCompiler.Node node )
+	{
+		if ( compiled == node ) {
+			compiled = null;
+		}
+	}
+}
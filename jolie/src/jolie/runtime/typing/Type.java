@@ -20,9 +20,13 @@
  ***************************************************************************/
 package jolie.runtime.typing;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import jolie.lang.NativeType;
 import jolie.runtime.Value;
 import jolie.runtime.ValueVector;
@@ -72,6 +76,30 @@ class TypeImpl extends Type
 		}
 	}
 
+	@Override
+	protected boolean isStructurallyEquivalentTo( Type other, Map< Type, Set< Type>> assumed )
+	{
+		if ( other instanceof TypeImpl == false ) {
+			return false;
+		}
+		final TypeImpl o = (TypeImpl) other;
+		if ( nativeType != o.nativeType ) {
+			return false;
+		}
+		if ( subTypes == null || o.subTypes == null ) {
+			return subTypes == o.subTypes;
+		}
+		if ( subTypes.keySet().equals( o.subTypes.keySet() ) == false ) {
+			return false;
+		}
+		for( Entry< String, Type> entry : subTypes.entrySet() ) {
+			if ( areEquivalent( entry.getValue(), o.subTypes.get( entry.getKey() ), assumed ) == false ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private Map< String, Type> copySubTypes()
 	{
 		if ( subTypes != null ) {
@@ -91,6 +119,26 @@ class TypeImpl extends Type
 		return cardinality;
 	}
 
+	@Override
+	TypeValidator buildValidator( Map< Type, TypeValidator > validators )
+	{
+		final TypeValidator.Node validator = new TypeValidator.Node( nativeType );
+		validators.put( this, validator );
+		if ( subTypes != null ) {
+			final String[] names = subTypes.keySet().toArray( new String[ 0 ] );
+			Arrays.sort( names );
+			final TypeValidator[] subValidators = new TypeValidator[ names.length ];
+			final Range[] cardinalities = new Range[ names.length ];
+			for( int i = 0; i < names.length; i++ ) {
+				final Type subType = subTypes.get( names[ i ] );
+				subValidators[ i ] = subType.validator( validators );
+				cardinalities[ i ] = subType.cardinality();
+			}
+			validator.setSubTypes( names, subValidators, cardinalities );
+		}
+		return validator;
+	}
+
 	/* @Override
 	public Map< String, Type > subTypes()
 	{
@@ -106,7 +154,7 @@ class TypeImpl extends Type
 	@Override
 	public void cutChildrenFromValue( Value value )
 	{
-		if ( subTypes != null ) {
+		if ( subTypes != null && value.hasChildren() ) {
 			for( String childName : subTypes.keySet() ) {
 				value.children().remove( childName );
 			}
@@ -168,9 +216,11 @@ class TypeImpl extends Type
 			}
 
 			// TODO make this more performant
-			for( String childName : value.children().keySet() ) {
-				if ( subTypes.containsKey( childName ) == false ) {
-					throw new TypeCheckingException( "Unexpected child node: " + pathBuilder.toString() + "." + childName );
+			if ( value.hasChildren() ) {
+				for( String childName : value.children().keySet() ) {
+					if ( subTypes.containsKey( childName ) == false ) {
+						throw new TypeCheckingException( "Unexpected child node: " + pathBuilder.toString() + "." + childName );
+					}
 				}
 			}
 		}
@@ -204,63 +254,63 @@ class TypeImpl extends Type
 	private void castNativeType( Value value, StringBuilder pathBuilder )
 		throws TypeCastingException
 	{
-		if ( checkNativeType( value, nativeType ) == false ) {
-			// ANY is not handled, because checkNativeType returns true for it anyway
-			if ( nativeType == NativeType.DOUBLE ) {
-				try {
+		if ( castNativeType( value, nativeType ) == false ) {
+			throw new TypeCastingException( castFailurePrefix( value, nativeType ) + pathBuilder.toString() );
+		}
+	}
+
+	static boolean castNativeType( Value value, NativeType nativeType )
+	{
+		if ( checkNativeType( value, nativeType ) ) {
+			return true;
+		}
+		// ANY is not handled, because checkNativeType returns true for it anyway
+		try {
+			switch( nativeType ) {
+				case DOUBLE:
 					value.setValue( value.doubleValueStrict() );
-				} catch( TypeCastingException e ) {
-					throw new TypeCastingException( "Cannot cast node value to " + nativeType.id() + ": " + pathBuilder.toString() );
-				}
-			} else if ( nativeType == NativeType.INT ) {
-				try {
+					return true;
+				case INT:
 					value.setValue( value.intValueStrict() );
-				} catch( TypeCastingException e ) {
-					throw new TypeCastingException( "Cannot cast node value to " + nativeType.id() + ": " + pathBuilder.toString() );
-				}
-			} else if ( nativeType == NativeType.LONG ) {
-				try {
+					return true;
+				case LONG:
 					value.setValue( value.longValueStrict() );
-				} catch( TypeCastingException e ) {
-					throw new TypeCastingException( "Cannot cast node value to " + nativeType.id() + ": " + pathBuilder.toString() );
-				}
-			} else if ( nativeType == NativeType.BOOL ) {
-				try {
+					return true;
+				case BOOL:
 					value.setValue( value.boolValueStrict() );
-				} catch( TypeCastingException e ) {
-					throw new TypeCastingException( "Cannot cast node value to " + nativeType.id() + ": " + pathBuilder.toString() );
-				}
-			} else if ( nativeType == NativeType.STRING ) {
-				try {
+					return true;
+				case STRING:
 					value.setValue( value.strValueStrict() );
-				} catch( TypeCastingException e ) {
-					throw new TypeCastingException( "Cannot cast node value to " + nativeType.id() + ": " + pathBuilder.toString() );
-				}
-			} else if ( nativeType == NativeType.VOID ) {
-				if ( value.valueObject() != null ) {
-					throw new TypeCastingException(
-						"Expected " + NativeType.VOID.id() + ", found "
-						+ value.valueObject().getClass().getSimpleName()
-						+ ": " + pathBuilder.toString()
-					);
-				}
-			} else if ( nativeType == NativeType.RAW ) {
-				try {
+					return true;
+				case RAW:
 					value.setValue( value.byteArrayValueStrict() );
-				} catch( TypeCastingException e ) {
-					throw new TypeCastingException( "Cannot cast node value to " + nativeType.id() + ": " + pathBuilder.toString() );
-				}
-			} else {
-				throw new TypeCastingException(
-					"Expected " + nativeType.id() + ", found "
-					+ value.valueObject().getClass().getSimpleName()
-					+ ": " + pathBuilder.toString()
-				);
+					return true;
+				default:
+					return false;
 			}
+		} catch( TypeCastingException e ) {
+			return false;
 		}
 	}
 
-	private boolean checkNativeType( Value value, NativeType nativeType )
+	static String castFailurePrefix( Value value, NativeType nativeType )
+	{
+		switch( nativeType ) {
+			case DOUBLE:
+			case INT:
+			case LONG:
+			case BOOL:
+			case STRING:
+			case RAW:
+				return "Cannot cast node value to " + nativeType.id() + ": ";
+			default:
+				return "Expected " + nativeType.id() + ", found "
+					+ value.valueObject().getClass().getSimpleName()
+					+ ": ";
+		}
+	}
+
+	static boolean checkNativeType( Value value, NativeType nativeType )
 	{
 		switch( nativeType ) {
 			case ANY:
@@ -325,6 +375,25 @@ class TypeChoice extends Type
 		right.cutChildrenFromValue( value );
 	}
 
+	@Override
+	protected boolean isStructurallyEquivalentTo( Type other, Map< Type, Set< Type>> assumed )
+	{
+		if ( other instanceof TypeChoice == false ) {
+			return false;
+		}
+		final TypeChoice o = (TypeChoice) other;
+		return areEquivalent( left, o.left, assumed ) && areEquivalent( right, o.right, assumed );
+	}
+
+	@Override
+	TypeValidator buildValidator( Map< Type, TypeValidator > validators )
+	{
+		final TypeValidator.Choice validator = new TypeValidator.Choice();
+		validators.put( this, validator );
+		validator.setAlternatives( left.validator( validators ), right.validator( validators ) );
+		return validator;
+	}
+
 	@Override
 	public Range cardinality()
 	{
@@ -397,18 +466,116 @@ public abstract class Type implements Cloneable
 		return copy;
 	}
 
+	private volatile TypeValidator validator = null;
+
 	public void check( Value value )
 		throws TypeCheckingException
 	{
-		check( value, new StringBuilder( "#Message" ) );
+		final TypeValidator v = validator;
+		if ( v == null ) {
+			check( value, new StringBuilder( "#Message" ) );
+		} else {
+			try {
+				v.check( value );
+			} catch( TypeValidator.Failure f ) {
+				throw new TypeCheckingException( f.message( "#Message" ) );
+			}
+		}
 	}
 
 	public Value cast( Value value )
 		throws TypeCastingException
 	{
-		return cast( value, new StringBuilder( "#Message" ) );
+		final TypeValidator v = validator;
+		if ( v == null ) {
+			return cast( value, new StringBuilder( "#Message" ) );
+		}
+		try {
+			return v.cast( value );
+		} catch( TypeValidator.Failure f ) {
+			throw new TypeCastingException( f.message( "#Message" ) );
+		}
+	}
+
+	/**
+	 * Compiles this type, and the types it refers to, into validators that
+	 * {@link #check(Value)} and {@link #cast(Value)} use instead of walking the type tree.
+	 * The type links of this type must be resolved, and the type must not be
+	 * modified after it has been compiled.
+	 */
+	public void compile()
+	{
+		if ( validator == null ) {
+			final Map< Type, TypeValidator > validators = new IdentityHashMap<>();
+			validator( validators );
+			// published only when complete, since validators of recursive types refer to each other
+			validators.forEach( ( type, v ) -> type.validator = v );
+		}
+	}
+
+	/*
+	 * Returns the validator of this type, building it if needed. Validators being built
+	 * are kept in the given map, so that recursive types get cyclic validators.
+	 */
+	TypeValidator validator( Map< Type, TypeValidator > validators )
+	{
+		if ( validator != null ) {
+			return validator;
+		}
+		final TypeValidator v = validators.get( this );
+		return (v != null) ? v : buildValidator( validators );
+	}
+
+	abstract TypeValidator buildValidator( Map< Type, TypeValidator > validators );
+
+	/**
+	 * Checks whether this type accepts exactly the same values as another type.
+	 * The comparison is structural, so it can be used to compare types that have been
+	 * built independently (e.g., by different interpreters).
+	 * @param other the type to compare this type with
+	 * @return {@code true} if a value passes the check of this type if and only if it passes the check of {@code other}
+	 */
+	public boolean isEquivalentTo( Type other )
+	{
+		return areEquivalent( this, other, new IdentityHashMap<>() );
 	}
 
+	/*
+	 * Pairs of types that are being compared are assumed to be equivalent,
+	 * so that recursive types (through type links) can be compared.
+	 */
+	protected static boolean areEquivalent( Type t1, Type t2, Map< Type, Set< Type>> assumed )
+	{
+		if ( t1 == t2 ) {
+			return true;
+		}
+		if ( t1 == null || t2 == null || t1.cardinality().equals( t2.cardinality() ) == false ) {
+			return false;
+		}
+		t1 = resolveLinks( t1 );
+		t2 = resolveLinks( t2 );
+		if ( t1 == t2 ) {
+			return true;
+		}
+		if ( t1 == null || t2 == null ) {
+			return false;
+		}
+		if ( assumed.computeIfAbsent( t1, k -> Collections.newSetFromMap( new IdentityHashMap<>() ) ).add( t2 ) == false ) {
+			return true;
+		}
+		return t1.isStructurallyEquivalentTo( t2, assumed );
+	}
+
+	private static Type resolveLinks( Type type )
+	{
+		while( type instanceof TypeLink ) {
+			type = ((TypeLink) type).linkedType;
+		}
+		return type;
+	}
+
+	protected abstract boolean isStructurallyEquivalentTo( Type other, Map< Type, Set< Type>> assumed );
+
 	public abstract void cutChildrenFromValue( Value value );
 
 	public abstract Range cardinality();
@@ -482,6 +649,21 @@ public abstract class Type implements Cloneable
 			linkedType.cutChildrenFromValue( value );
 		}
 
+		@Override
+		protected boolean isStructurallyEquivalentTo( Type other, Map< Type, Set< Type>> assumed )
+		{
+			return linkedType != null && linkedType.isStructurallyEquivalentTo( other, assumed );
+		}
+
+		@Override
+		TypeValidator buildValidator( Map< Type, TypeValidator > validators )
+		{
+			// the cardinality of a link is checked by the validator of its parent
+			final TypeValidator validator = linkedType.validator( validators );
+			validators.put( this, validator );
+			return validator;
+		}
+
 		@Override
 		public Range cardinality()
 		{
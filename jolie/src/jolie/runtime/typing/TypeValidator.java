@@ -0,0 +1,241 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+package jolie.runtime.typing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import jolie.lang.Constants;
+import jolie.lang.NativeType;
+import jolie.runtime.Value;
+import jolie.runtime.ValueVector;
+import jolie.util.Range;
+
+/**
+ * A {@link Type} compiled for checking and casting values.
+ *
+ * Subtypes are kept in arrays sorted by name, so that the children of a value are
+ * matched against them in a single pass, and type links are replaced by the validators
+ * of the types they point to. The path of the offending node is built only when
+ * a value is rejected.
+ */
+abstract class TypeValidator
+{
+	protected abstract void check( Value value )
+		throws Failure;
+
+	protected abstract Value cast( Value value )
+		throws Failure;
+
+	/*
+	 * Raised when a value is rejected, it collects the path of the offending node
+	 * while it propagates to the validator of the root.
+	 */
+	static class Failure extends Exception
+	{
+		private static final long serialVersionUID = Constants.serialVersionUID();
+
+		private final String prefix;
+		private final String suffix;
+		private final Deque< String > path = new ArrayDeque<>();
+
+		private Failure( String prefix, String suffix )
+		{
+			super( null, null, false, false );
+			this.prefix = prefix;
+			this.suffix = suffix;
+		}
+
+		private Failure at( String name )
+		{
+			path.addFirst( name );
+			return this;
+		}
+
+		String message( String root )
+		{
+			final StringBuilder builder = new StringBuilder( prefix ).append( root );
+			for( String name : path ) {
+				builder.append( '.' ).append( name );
+			}
+			return builder.append( suffix ).toString();
+		}
+	}
+
+	static class Node extends TypeValidator
+	{
+		private final NativeType nativeType;
+		// null if the subtypes are undefined
+		private String[] names = null;
+		private TypeValidator[] validators;
+		private int[] min;
+		private int[] max;
+		// the number of subtypes with a minimum cardinality above zero
+		private int required;
+
+		Node( NativeType nativeType )
+		{
+			this.nativeType = nativeType;
+		}
+
+		void setSubTypes( String[] names, TypeValidator[] validators, Range[] cardinalities )
+		{
+			this.validators = validators;
+			this.min = new int[ names.length ];
+			this.max = new int[ names.length ];
+			for( int i = 0; i < names.length; i++ ) {
+				min[ i ] = cardinalities[ i ].min();
+				max[ i ] = cardinalities[ i ].max();
+				if ( min[ i ] > 0 ) {
+					required++;
+				}
+			}
+			this.names = names;
+		}
+
+		@Override
+		protected void check( Value value )
+			throws Failure
+		{
+			if ( TypeImpl.checkNativeType( value, nativeType ) == false ) {
+				throw new Failure(
+					"Invalid native type for node ",
+					": expected " + nativeType + ", found " + ((value.valueObject() == null) ? "void" : value.valueObject().getClass().getName())
+				);
+			}
+			if ( names == null ) {
+				return;
+			}
+
+			int found = 0;
+			if ( value.hasChildren() ) {
+				for( Map.Entry< String, ValueVector > child : value.children().entrySet() ) {
+					final int i = Arrays.binarySearch( names, child.getKey() );
+					if ( i < 0 ) {
+						throw new Failure( "Unexpected child node: ", "" ).at( child.getKey() );
+					}
+					final ValueVector vector = child.getValue();
+					checkCardinality( i, vector.size() );
+					for( Value v : vector ) {
+						try {
+							validators[ i ].check( v );
+						} catch( Failure f ) {
+							throw f.at( names[ i ] );
+						}
+					}
+					if ( min[ i ] > 0 ) {
+						found++;
+					}
+				}
+			}
+			if ( found < required ) {
+				throw missingChild( value );
+			}
+		}
+
+		@Override
+		protected Value cast( Value value )
+			throws Failure
+		{
+			if ( TypeImpl.castNativeType( value, nativeType ) == false ) {
+				throw new Failure( TypeImpl.castFailurePrefix( value, nativeType ), "" );
+			}
+			if ( names == null ) {
+				return value;
+			}
+
+			// unlike check, cast leaves the children without a subtype alone
+			final Map< String, ValueVector > children = value.hasChildren() ? value.children() : null;
+			for( int i = 0; i < names.length; i++ ) {
+				final ValueVector vector = (children == null) ? null : children.get( names[ i ] );
+				if ( vector == null ) {
+					if ( min[ i ] > 0 ) {
+						throw new Failure( "Undefined required child node: ", "" ).at( names[ i ] );
+					}
+				} else {
+					checkCardinality( i, vector.size() );
+					for( Value v : vector ) {
+						try {
+							validators[ i ].cast( v );
+						} catch( Failure f ) {
+							throw f.at( names[ i ] );
+						}
+					}
+				}
+			}
+			return value;
+		}
+
+		private void checkCardinality( int i, int size )
+			throws Failure
+		{
+			if ( min[ i ] > size || max[ i ] < size ) {
+				throw new Failure(
+					"Child node ",
+					" has a wrong number of occurencies. Permitted range is [" + min[ i ] + "," + max[ i ] + "], found " + size
+				).at( names[ i ] );
+			}
+		}
+
+		private Failure missingChild( Value value )
+		{
+			int i = 0;
+			while( min[ i ] == 0 || value.hasChildren( names[ i ] ) ) {
+				i++;
+			}
+			return new Failure( "Undefined required child node: ", "" ).at( names[ i ] );
+		}
+	}
+
+	static class Choice extends TypeValidator
+	{
+		private TypeValidator left;
+		private TypeValidator right;
+
+		void setAlternatives( TypeValidator left, TypeValidator right )
+		{
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		protected void check( Value value )
+			throws Failure
+		{
+			try {
+				left.check( value );
+			} catch( Failure f ) {
+				right.check( value );
+			}
+		}
+
+		@Override
+		protected Value cast( Value value )
+			throws Failure
+		{
+			final Value copy = Value.createDeepCopy( value );
+			try {
+				return left.cast( copy );
+			} catch( Failure f ) {
+				return right.cast( value );
+			}
+		}
+	}
+}
@@ -90,7 +90,7 @@ public class JsUtils
 			valueVectorToJsonString( value.children().get( JSONARRAY_KEY ), builder, true, null );
 			return;
 		}
-		int size = value.children().size();
+		int size = value.hasChildren() ? value.children().size() : 0;
 		if ( size == 0 ) {
 			if ( extendedRoot ) {
 				builder.append( '{' );
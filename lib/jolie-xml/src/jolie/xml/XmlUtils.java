@@ -144,7 +144,7 @@ public class XmlUtils
 		
 	
 		String rootName = value.children().keySet().iterator().next();
-		Value root = value.children().get( rootName ).get( 0 );
+		Value root = value.getChildrenOrNull( rootName ).get( 0 );
 		String rootNameSpace = "";
 		if ( root.hasChildren( jolie.xml.XmlUtils.NAMESPACE_ATTRIBUTE_NAME ) ) {
 			rootNameSpace = root.getFirstChild(  jolie.xml.XmlUtils.NAMESPACE_ATTRIBUTE_NAME ).strValue();
@@ -215,7 +215,7 @@ public class XmlUtils
 					currElementDecl = currTerm.asElementDecl();
 					name = currElementDecl.getName();
 					Element childElement = null;
-					if ( (vec=value.children().get( name )) != null ) {
+					if ( (vec=value.getChildrenOrNull( name )) != null ) {
 						int k = 0;
 						while(
 							vec.isEmpty() == false &&
@@ -250,7 +250,7 @@ public class XmlUtils
 					currElementDecl = currTerm.asElementDecl();
 					name = currElementDecl.getName();
 					Element childElement = null;
-					if ( (vec=value.children().get( name )) != null ) {
+					if ( (vec=value.getChildrenOrNull( name )) != null ) {
 						childElement = doc.createElement( getElementNameWithPrefix( vec.get(0), name) );
 						element.appendChild( childElement );
 						found = true;
@@ -329,12 +329,14 @@ public class XmlUtils
 		}
 
 		Element currentElement;
-		for( Entry< String, ValueVector > entry : value.children().entrySet() ) {
-			if ( !entry.getKey().startsWith( "@" ) ) {
-				for( Value val : entry.getValue() ) {
-					currentElement = doc.createElement( entry.getKey() );
-					element.appendChild( currentElement );
-					_valueToDocument( val, currentElement, doc );
+		if ( value.hasChildren() ) {
+			for( Entry< String, ValueVector > entry : value.children().entrySet() ) {
+				if ( !entry.getKey().startsWith( "@" ) ) {
+					for( Value val : entry.getValue() ) {
+						currentElement = doc.createElement( entry.getKey() );
+						element.appendChild( currentElement );
+						_valueToDocument( val, currentElement, doc );
+					}
 				}
 			}
 		}
@@ -381,12 +383,14 @@ public class XmlUtils
 
 		// adding subelements
 		Element currentElement;
-		for( Entry<String, ValueVector> entry : value.children().entrySet() ) {
-			if ( !entry.getKey().startsWith( "@" ) ) {
-				for( Value val : entry.getValue() ) {
-					currentElement = doc.createElement( entry.getKey() );
-					element.appendChild( currentElement );
-					_valueToStorageDocument( val, currentElement, doc );
+		if ( value.hasChildren() ) {
+			for( Entry<String, ValueVector> entry : value.children().entrySet() ) {
+				if ( !entry.getKey().startsWith( "@" ) ) {
+					for( Value val : entry.getValue() ) {
+						currentElement = doc.createElement( entry.getKey() );
+						element.appendChild( currentElement );
+						_valueToStorageDocument( val, currentElement, doc );
+					}
 				}
 			}
 		}
@@ -395,7 +399,7 @@ public class XmlUtils
 	public static Map< String, ValueVector > getAttributesOrNull( Value value )
 	{
 		Map< String, ValueVector > ret = null;
-		ValueVector vec = value.children().get( Constants.Predefined.ATTRIBUTES.token().content() );
+		ValueVector vec = value.getChildrenOrNull( Constants.Predefined.ATTRIBUTES.token().content() );
 		if ( vec != null && vec.size() > 0 ) {
 			ret = vec.first().children();
 		}
@@ -476,7 +476,7 @@ public class OLParseTreeOptimizer
 		public void visit( SynchronizedStatement n )
 		{
 			n.body().accept( this );
-			currNode = new SynchronizedStatement( n.context(), n.id(), currNode );
+			currNode = new SynchronizedStatement( n.context(), n.id(), n.mode(), n.timeout(), currNode );
 		}
 				
 		@Override
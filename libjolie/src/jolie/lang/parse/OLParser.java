@@ -1634,10 +1634,32 @@ public class OLParser extends AbstractParser
 			assertToken( Scanner.TokenType.ID, "expected lock id" );
 			final String sid = token.content();
 			getToken();
+			SynchronizedStatement.LockMode lockMode = SynchronizedStatement.LockMode.WRITE;
+			long lockTimeout = SynchronizedStatement.NO_TIMEOUT;
+			// synchronized( id [, read|write] [, timeout in milliseconds] )
+			if ( token.is( Scanner.TokenType.COMMA ) ) {
+				getToken();
+				if ( token.is( Scanner.TokenType.ID ) && "read".equals( token.content() ) ) {
+					lockMode = SynchronizedStatement.LockMode.READ;
+					getToken();
+				} else if ( token.is( Scanner.TokenType.ID ) && "write".equals( token.content() ) ) {
+					getToken();
+				} else {
+					assertToken( Scanner.TokenType.INT, "expected read, write or lock timeout" );
+					lockTimeout = Long.parseLong( token.content() );
+					getToken();
+				}
+				if ( lockTimeout == SynchronizedStatement.NO_TIMEOUT && token.is( Scanner.TokenType.COMMA ) ) {
+					getToken();
+					assertToken( Scanner.TokenType.INT, "expected lock timeout" );
+					lockTimeout = Long.parseLong( token.content() );
+					getToken();
+				}
+			}
 
 			eat( Scanner.TokenType.RPAREN, "expected )" );
 			eat( Scanner.TokenType.LCURLY, "expected {" );
-			retVal = new SynchronizedStatement( getContext(), sid, parseProcess() );
+			retVal = new SynchronizedStatement( getContext(), sid, lockMode, lockTimeout, parseProcess() );
 			eat( Scanner.TokenType.RCURLY, "expected }" );
 			break;
 		case SPAWN:
@@ -27,13 +27,33 @@ import jolie.lang.parse.context.ParsingContext;
 
 public class SynchronizedStatement extends OLSyntaxNode
 {
+	/**
+	 * How a synchronized block holds its lock: read blocks on the same lock
+	 * may run together, write blocks (the default) run alone.
+	 */
+	public enum LockMode
+	{
+		READ, WRITE
+	}
+
+	public static final long NO_TIMEOUT = -1L;
+
 	private final String id;
+	private final LockMode mode;
+	private final long timeout;
 	private final OLSyntaxNode body;
 
 	public SynchronizedStatement( ParsingContext context, String id, OLSyntaxNode body )
+	{
+		this( context, id, LockMode.WRITE, NO_TIMEOUT, body );
+	}
+
+	public SynchronizedStatement( ParsingContext context, String id, LockMode mode, long timeout, OLSyntaxNode body )
 	{
 		super( context );
 		this.id = id;
+		this.mode = mode;
+		this.timeout = timeout;
 		this.body = body;
 	}
 	
@@ -41,6 +61,19 @@ public class SynchronizedStatement extends OLSyntaxNode
 	{
 		return id;
 	}
+
+	public LockMode mode()
+	{
+		return mode;
+	}
+
+	/**
+	 * Returns the maximum time to wait for the lock in milliseconds, or NO_TIMEOUT.
+	 */
+	public long timeout()
+	{
+		return timeout;
+	}
 	
 	public OLSyntaxNode body()
 	{
@@ -0,0 +1,41 @@
+#!/bin/sh
+# Runs the benchmarks in this directory against a Jolie installation.
+#
+# usage: run.sh [benchmark...]
+#
+# A benchmark is the name of a Java class in src (e.g., jolie.runtime.ValueBenchmark)
+# or of a Jolie program in this directory (e.g., expressions.ol); all of them are run
+# if none is given. JOLIE_HOME must point to the installation to measure.
+# JAVA_OPTS is passed to the JVM (e.g., -Dbenchmark.time=5000) and
+# JOLIE_OPTS to the Jolie interpreter (e.g., --exprCompileThreshold 0).
+
+if [ -z "$JOLIE_HOME" ]; then
+	echo "JOLIE_HOME is not set" >&2
+	exit 1
+fi
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+CLASSES=$(mktemp -d)
+trap 'rm -rf "$CLASSES"' EXIT
+CP="$JOLIE_HOME/jolie.jar:$JOLIE_HOME/lib/libjolie.jar:$JOLIE_HOME/lib/*"
+
+javac -nowarn -encoding UTF-8 -cp "$CP" -d "$CLASSES" $(find "$DIR/src" -name '*.java') || exit 1
+
+if [ $# -eq 0 ]; then
+	set -- $(cd "$DIR/src" && find . -name '*?Benchmark.java' | sed -e 's|^\./||' -e 's|\.java$||' -e 's|/|.|g' | sort) \
+		$(cd "$DIR" && ls *.ol 2>/dev/null)
+fi
+
+for benchmark in "$@"; do
+	echo "== $benchmark"
+	case "$benchmark" in
+		*.ol)
+			java $JAVA_OPTS -cp "$CP" jolie.Jolie \
+				-l "$JOLIE_HOME/lib/*:$JOLIE_HOME/lib:$JOLIE_HOME/javaServices/*:$JOLIE_HOME/extensions/*" \
+				-i "$JOLIE_HOME/include" $JOLIE_OPTS "$DIR/$benchmark"
+			;;
+		*)
+			java $JAVA_OPTS -cp "$CLASSES:$CP" "$benchmark"
+			;;
+	esac
+done
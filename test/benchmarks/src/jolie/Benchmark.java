@@ -0,0 +1,119 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+
+package jolie;
+
+/**
+ * A minimal harness for the benchmarks in this directory.
+ * A measurement runs an operation for a warm-up period and then for a measured
+ * period (see the benchmark.warmup and benchmark.time system properties, in
+ * milliseconds), and prints the average time of an operation.
+ */
+public final class Benchmark
+{
+	/**
+	 * An operation to measure. It returns a result that the harness consumes,
+	 * so that the JIT compiler cannot remove the computation.
+	 */
+	public interface Operation
+	{
+		long run();
+	}
+
+	/**
+	 * An operation run by several threads at the same time.
+	 */
+	public interface ParallelOperation
+	{
+		long run( int thread );
+	}
+
+	private static final long WARMUP_NANOS = Long.getLong( "benchmark.warmup", 1000L ) * 1000000L;
+	private static final long MEASURE_NANOS = Long.getLong( "benchmark.time", 2000L ) * 1000000L;
+
+	private static volatile long sink;
+
+	private Benchmark()
+	{}
+
+	/**
+	 * Measures operation, which performs batch operations each time that it is run.
+	 * @return the average time of an operation, in nanoseconds
+	 */
+	public static double measure( String name, int batch, Operation operation )
+	{
+		run( operation, WARMUP_NANOS );
+		final long[] result = run( operation, MEASURE_NANOS );
+		return report( name, result[ 1 ], result[ 0 ] * batch );
+	}
+
+	/**
+	 * Measures operation run by the given number of threads at the same time,
+	 * each of which performs batch operations each time that it is run.
+	 * @return the average time of an operation, in nanoseconds of a single thread
+	 */
+	public static double measure( String name, int threads, int batch, ParallelOperation operation )
+		throws InterruptedException
+	{
+		final long[] runs = new long[ threads ];
+		final long[] times = new long[ threads ];
+		final Thread[] workers = new Thread[ threads ];
+		for( int i = 0; i < threads; i++ ) {
+			final int thread = i;
+			workers[ i ] = new Thread( () -> {
+				final Operation op = () -> operation.run( thread );
+				run( op, WARMUP_NANOS );
+				final long[] result = run( op, MEASURE_NANOS );
+				runs[ thread ] = result[ 0 ];
+				times[ thread ] = result[ 1 ];
+			} );
+			workers[ i ].start();
+		}
+		long totalRuns = 0;
+		long totalTime = 0;
+		for( int i = 0; i < threads; i++ ) {
+			workers[ i ].join();
+			totalRuns += runs[ i ];
+			totalTime += times[ i ];
+		}
+		return report( name + " (" + threads + " threads)", totalTime, totalRuns * batch );
+	}
+
+	// Returns the number of runs and the time that they took
+	private static long[] run( Operation operation, long duration )
+	{
+		long runs = 0;
+		long result = 0;
+		final long start = System.nanoTime();
+		long now;
+		do {
+			result += operation.run();
+			runs++;
+		} while( (now = System.nanoTime()) - start < duration );
+		sink += result;
+		return new long[] { runs, now - start };
+	}
+
+	private static double report( String name, long nanos, long operations )
+	{
+		final double average = (double) nanos / operations;
+		System.out.printf( "%-56s %12.2f ns/op%n", name, average );
+		return average;
+	}
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+
+package jolie.runtime;
+
+import jolie.Benchmark;
+
+/**
+ * Measures reads, writes and arithmetic on values holding primitive data,
+ * which values store unboxed.
+ */
+public class ValueBenchmark
+{
+	private static final int BATCH = 1000;
+
+	public static void main( String[] args )
+		throws InterruptedException
+	{
+		final Value one = Value.create( 1 );
+		final Value half = Value.create( 0.5 );
+
+		final Value counter = Value.create( 0 );
+		Benchmark.measure( "int add", BATCH, () -> {
+			for( int i = 0; i < BATCH; i++ ) {
+				counter.add( one );
+			}
+			return counter.intValue();
+		} );
+
+		final Value increment = Value.create( 0 );
+		Benchmark.measure( "int setValue( intValue() + 1 )", BATCH, () -> {
+			for( int i = 0; i < BATCH; i++ ) {
+				increment.setValue( increment.intValue() + 1 );
+			}
+			return increment.intValue();
+		} );
+
+		final Value product = Value.create( 1.0 );
+		Benchmark.measure( "double multiply", BATCH, () -> {
+			for( int i = 0; i < BATCH; i++ ) {
+				product.multiply( half );
+				product.setValue( 3.0 );
+			}
+			return (long) product.doubleValue();
+		} );
+
+		final Value big = Value.create( 1L << 40 );
+		Benchmark.measure( "long read", BATCH, () -> {
+			long sum = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				sum += big.longValue();
+			}
+			return sum;
+		} );
+
+		final Value flag = Value.create( true );
+		Benchmark.measure( "bool read", BATCH, () -> {
+			long count = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				if ( flag.boolValue() ) {
+					count++;
+				}
+			}
+			return count;
+		} );
+
+		final Value boxed = Value.create( 42 );
+		Benchmark.measure( "int valueObject() (boxing)", BATCH, () -> {
+			long sum = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				sum += boxed.valueObject().hashCode();
+			}
+			return sum;
+		} );
+
+		final Value shared = Value.create( 0 );
+		Benchmark.measure( "int read, while another thread writes", 2, BATCH, thread -> {
+			long sum = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				if ( thread == 0 ) {
+					shared.setValue( i );
+				} else {
+					sum += shared.intValue();
+				}
+			}
+			return sum;
+		} );
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+
+package jolie.runtime;
+
+import jolie.Benchmark;
+
+/**
+ * Measures the reads of a value vector, alone and while other threads read or write it.
+ */
+public class ValueVectorBenchmark
+{
+	private static final int SIZE = 1000;
+
+	public static void main( String[] args )
+		throws InterruptedException
+	{
+		final ValueVector vector = ValueVector.create();
+		for( int i = 0; i < SIZE; i++ ) {
+			vector.add( Value.create( i ) );
+		}
+
+		Benchmark.measure( "get", SIZE, () -> {
+			long sum = 0;
+			for( int i = 0; i < SIZE; i++ ) {
+				sum += vector.get( i ).intValue();
+			}
+			return sum;
+		} );
+
+		Benchmark.measure( "iteration", SIZE, () -> {
+			long sum = 0;
+			for( Value value : vector ) {
+				sum += value.intValue();
+			}
+			return sum;
+		} );
+
+		Benchmark.measure( "size and first", SIZE, () -> {
+			long sum = 0;
+			for( int i = 0; i < SIZE; i++ ) {
+				sum += vector.size() + vector.first().intValue();
+			}
+			return sum;
+		} );
+
+		final int threads = Math.max( 2, Runtime.getRuntime().availableProcessors() );
+		Benchmark.measure( "get", threads, SIZE, thread -> {
+			long sum = 0;
+			for( int i = 0; i < SIZE; i++ ) {
+				sum += vector.get( i ).intValue();
+			}
+			return sum;
+		} );
+
+		// thread 0 replaces values, the others read them
+		Benchmark.measure( "get, while a thread sets", threads, SIZE, thread -> {
+			long sum = 0;
+			for( int i = 0; i < SIZE; i++ ) {
+				if ( thread == 0 ) {
+					vector.set( i, Value.create( i ) );
+				} else {
+					sum += vector.get( i ).intValue();
+				}
+			}
+			return sum;
+		} );
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+
+package jolie.runtime;
+
+import jolie.Benchmark;
+import jolie.process.TransformationReason;
+import jolie.runtime.expression.Expression;
+import jolie.util.Pair;
+
+/**
+ * Measures the resolution of variable paths with constant keys and indexes,
+ * which is done when the path is created (and cached after repeated resolutions
+ * from the same root), against paths with a dynamic index.
+ */
+public class VariablePathBenchmark
+{
+	private static final int BATCH = 1000;
+
+	// An index that has to be evaluated, like a variable
+	private static class DynamicIndex implements Expression
+	{
+		private final Value index;
+
+		private DynamicIndex( int index )
+		{
+			this.index = Value.create( index );
+		}
+
+		public Value evaluate()
+		{
+			return index;
+		}
+
+		public Expression cloneExpression( TransformationReason reason )
+		{
+			return this;
+		}
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static VariablePath path( Expression... segments )
+	{
+		final Pair< Expression, Expression>[] path = new Pair[ segments.length / 2 ];
+		for( int i = 0; i < path.length; i++ ) {
+			path[ i ] = new Pair<>( segments[ 2 * i ], segments[ 2 * i + 1 ] );
+		}
+		return new VariablePath( path );
+	}
+
+	public static void main( String[] args )
+		throws InterruptedException
+	{
+		// request.data.readings[ 3 ].temperature
+		final Value root = Value.createRootValue();
+		final Value other = Value.createRootValue();
+		for( Value r : new Value[] { root, other } ) {
+			for( int i = 0; i < 5; i++ ) {
+				r.getFirstChild( "request" ).getFirstChild( "data" ).getChildren( "readings" ).get( i )
+					.getFirstChild( "temperature" ).setValue( i );
+			}
+		}
+
+		final VariablePath constant = path(
+			Value.create( "request" ), null,
+			Value.create( "data" ), null,
+			Value.create( "readings" ), Value.create( 3 ),
+			Value.create( "temperature" ), null
+		);
+		final VariablePath dynamic = path(
+			Value.create( "request" ), null,
+			Value.create( "data" ), null,
+			Value.create( "readings" ), new DynamicIndex( 3 ),
+			Value.create( "temperature" ), null
+		);
+
+		Benchmark.measure( "constant path", BATCH, () -> {
+			long sum = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				sum += constant.getValue( root ).intValue();
+			}
+			return sum;
+		} );
+
+		Benchmark.measure( "constant path, alternating roots", BATCH, () -> {
+			long sum = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				sum += constant.getValue( (i & 1) == 0 ? root : other ).intValue();
+			}
+			return sum;
+		} );
+
+		Benchmark.measure( "dynamic index", BATCH, () -> {
+			long sum = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				sum += dynamic.getValue( root ).intValue();
+			}
+			return sum;
+		} );
+
+		Benchmark.measure( "constant path getValueOrNull", BATCH, () -> {
+			long sum = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				sum += constant.getValueOrNull( root ).intValue();
+			}
+			return sum;
+		} );
+
+		final int threads = Math.max( 2, Runtime.getRuntime().availableProcessors() );
+		Benchmark.measure( "constant path, one root per thread", threads, BATCH, thread -> {
+			final Value r = thread % 2 == 0 ? root : other;
+			long sum = 0;
+			for( int i = 0; i < BATCH; i++ ) {
+				sum += constant.getValue( r ).intValue();
+			}
+			return sum;
+		} );
+	}
+}
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ *   This program is free software; you can redistribute it and/or modify      *
+ *   it under the terms of the GNU Library General Public License as           *
+ *   published by the Free Software Foundation; either version 2 of the        *
+ *   License, or (at your option) any later version.                           *
+ *                                                                             *
+ *   This program is distributed in the hope that it will be useful,           *
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of            *
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the             *
+ *   GNU General Public License for more details.                              *
+ *                                                                             *
+ *   You should have received a copy of the GNU Library General Public         *
+ *   License along with this program; if not, write to the                     *
+ *   Free Software Foundation, Inc.,                                           *
+ *   59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.                 *
+ *                                                                             *
+ *   For details about the authors of this software, see the AUTHORS file.     *
+ *******************************************************************************/
+
+package jolie.runtime.typing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import jolie.Benchmark;
+import jolie.lang.NativeType;
+import jolie.runtime.Value;
+import jolie.runtime.ValueVector;
+import jolie.util.Range;
+
+/**
+ * Measures type checking and casting of messages through the type tree and through
+ * compiled validators (see {@link Type#compile()}), after verifying that both accept
+ * and reject the same messages.
+ */
+public class TypeValidatorBenchmark
+{
+	private static final int MESSAGES = 256;
+	private static final int VERIFIED_MESSAGES = 20000;
+
+	private static Type leaf( NativeType nativeType, int min, int max )
+	{
+		return Type.create( nativeType, new Range( min, max ), false, new HashMap<>() );
+	}
+
+	/*
+	 * type Msg: void {
+	 *	.id: int
+	 *	.name: string
+	 *	.tags*: string
+	 *	.pos?: void { .lat: double .lon: double }
+	 *	.meta?: undefined
+	 *	.kind: int | string
+	 *	.readings[0,10]: void { .t: long .v: double }
+	 *	.next?: Msg
+	 * }
+	 */
+	private static Type messageType()
+	{
+		final Map< String, Type> pos = new HashMap<>();
+		pos.put( "lat", leaf( NativeType.DOUBLE, 1, 1 ) );
+		pos.put( "lon", leaf( NativeType.DOUBLE, 1, 1 ) );
+		final Map< String, Type> reading = new HashMap<>();
+		reading.put( "t", leaf( NativeType.LONG, 1, 1 ) );
+		reading.put( "v", leaf( NativeType.DOUBLE, 1, 1 ) );
+		final Map< String, Type> msg = new HashMap<>();
+		msg.put( "id", leaf( NativeType.INT, 1, 1 ) );
+		msg.put( "name", leaf( NativeType.STRING, 1, 1 ) );
+		msg.put( "tags", leaf( NativeType.STRING, 0, Integer.MAX_VALUE ) );
+		msg.put( "pos", Type.create( NativeType.VOID, new Range( 0, 1 ), false, pos ) );
+		msg.put( "meta", Type.create( NativeType.ANY, new Range( 0, 1 ), true, null ) );
+		msg.put( "kind", Type.createChoice( new Range( 1, 1 ), leaf( NativeType.INT, 1, 1 ), leaf( NativeType.STRING, 1, 1 ) ) );
+		msg.put( "readings", Type.create( NativeType.VOID, new Range( 0, 10 ), false, reading ) );
+		final Type.TypeLink next = Type.createLink( "Msg", new Range( 0, 1 ) );
+		msg.put( "next", next );
+		final Type type = Type.create( NativeType.VOID, new Range( 1, 1 ), false, msg );
+		next.setLinkedType( type );
+		return type;
+	}
+
+	private static Value message( Random random, int depth )
+	{
+		final Value v = Value.create();
+		v.getFirstChild( "id" ).setValue( random.nextInt( 100 ) );
+		v.getFirstChild( "name" ).setValue( "n" + random.nextInt( 10 ) );
+		for( int i = random.nextInt( 4 ); i > 0; i-- ) {
+			v.getNewChild( "tags" ).setValue( "t" + i );
+		}
+		if ( random.nextBoolean() ) {
+			v.getFirstChild( "pos" ).getFirstChild( "lat" ).setValue( 1.5 );
+			v.getFirstChild( "pos" ).getFirstChild( "lon" ).setValue( 2 );
+		}
+		if ( random.nextBoolean() ) {
+			v.getFirstChild( "meta" ).getFirstChild( "x" ).setValue( "y" );
+		}
+		if ( random.nextBoolean() ) {
+			v.getFirstChild( "kind" ).setValue( 3 );
+		} else {
+			v.getFirstChild( "kind" ).setValue( "k" );
+		}
+		for( int i = random.nextInt( 5 ); i > 0; i-- ) {
+			final Value reading = v.getNewChild( "readings" );
+			reading.getFirstChild( "t" ).setValue( 5L );
+			reading.getFirstChild( "v" ).setValue( 0.5 );
+		}
+		if ( depth > 0 && random.nextInt( 3 ) == 0 ) {
+			v.getChildren( "next" ).add( message( random, depth - 1 ) );
+		}
+		return v;
+	}
+
+	// Changes the message, most of the times making it invalid
+	private static void corrupt( Random random, Value v )
+	{
+		switch( random.nextInt( 9 ) ) {
+			case 0:
+				v.children().remove( "id" );
+				break;
+			case 1:
+				v.getFirstChild( "id" ).setValue( "12" );
+				break;
+			case 2:
+				v.getFirstChild( "id" ).setValue( "abc" );
+				break;
+			case 3:
+				v.getFirstChild( "bogus" ).setValue( 1 );
+				break;
+			case 4:
+				v.getFirstChild( "kind" ).setValue( true );
+				break;
+			case 5:
+				for( int i = 0; i < 11; i++ ) {
+					v.getNewChild( "readings" ).getFirstChild( "t" ).setValue( "7" );
+				}
+				break;
+			case 6:
+				v.getFirstChild( "pos" ).getFirstChild( "lat" ).setValue( "2.5" );
+				break;
+			case 7:
+				v.getChildren( "next" ).add( Value.create() );
+				break;
+			default:
+				v.children().put( "name", ValueVector.create() );
+				break;
+		}
+	}
+
+	private static boolean accepts( Type type, Value value, boolean cast )
+	{
+		try {
+			if ( cast ) {
+				type.cast( value );
+			} else {
+				type.check( value );
+			}
+			return true;
+		} catch( TypeCheckingException | TypeCastingException e ) {
+			return false;
+		}
+	}
+
+	public static void main( String[] args )
+	{
+		final Type tree = messageType();
+		final Type compiled = messageType();
+		compiled.compile();
+
+		final Random random = new Random( 42 );
+		int rejected = 0;
+		for( int i = 0; i < VERIFIED_MESSAGES; i++ ) {
+			final long seed = random.nextLong();
+			final Value v1 = message( new Random( seed ), 3 );
+			final Value v2 = message( new Random( seed ), 3 );
+			if ( i % 4 != 0 ) {
+				corrupt( new Random( seed + 1 ), v1 );
+				corrupt( new Random( seed + 1 ), v2 );
+			}
+			final boolean cast = i % 2 == 1;
+			final boolean accepted = accepts( tree, v1, cast );
+			if ( accepted != accepts( compiled, v2, cast ) ) {
+				throw new IllegalStateException( "the compiled validator and the type tree disagree on message " + i );
+			}
+			if ( !accepted ) {
+				rejected++;
+			}
+		}
+		System.out.println( "verified " + VERIFIED_MESSAGES + " messages (" + rejected + " rejected)" );
+
+		final Value[] messages = new Value[ MESSAGES ];
+		final Random messageRandom = new Random( 7 );
+		for( int i = 0; i < MESSAGES; i++ ) {
+			messages[ i ] = message( messageRandom, 2 );
+		}
+		for( Type type : new Type[] { tree, compiled } ) {
+			final String name = type == tree ? "type tree" : "compiled";
+			Benchmark.measure( "check, " + name, MESSAGES, () -> {
+				long n = 0;
+				for( Value m : messages ) {
+					n += accepts( type, m, false ) ? 1 : 0;
+				}
+				return n;
+			} );
+			Benchmark.measure( "cast, " + name, MESSAGES, () -> {
+				long n = 0;
+				for( Value m : messages ) {
+					n += accepts( type, m, true ) ? 1 : 0;
+				}
+				return n;
+			} );
+		}
+	}
+}